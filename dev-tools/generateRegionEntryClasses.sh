@@ -29,13 +29,17 @@ for VERTYPE in VM Versioned
 do
   for RETYPE in Thin Stats ThinLRU StatsLRU ThinDisk StatsDisk ThinDiskLRU StatsDiskLRU
   do
-    for KEY_INFO in 'ObjectKey KEY_OBJECT' 'IntKey KEY_INT' 'LongKey KEY_LONG' 'UUIDKey KEY_UUID' 'StringKey1 KEY_STRING1' 'StringKey2 KEY_STRING2'
+    for KEY_INFO in 'ObjectKey KEY_OBJECT' 'IntKey KEY_INT' 'LongKey KEY_LONG' 'UUIDKey KEY_UUID' 'StringKey1 KEY_STRING1' 'StringKey2 KEY_STRING2' 'StoredStringKey KEY_STORED_STRING'
     do
       for MEMTYPE in Heap OffHeap
       do
       declare -a KEY_ARRAY=($KEY_INFO)
       KEY_CLASS=${KEY_ARRAY[0]}
       KEY_TYPE=${KEY_ARRAY[1]}
+      if [[ "$KEY_TYPE" = "KEY_STORED_STRING" && "$MEMTYPE" = "Heap" ]]; then
+        # keys can only be stored off heap by entries that store their values off heap
+        continue
+      fi
       BASE=${VERTYPE}${RETYPE}RegionEntry${MEMTYPE}
       OUT=${BASE}${KEY_CLASS}
       WP_ARGS=-Wp,-C,-P,-D${KEY_TYPE},-DPARENT_CLASS=$BASE,-DLEAF_CLASS=$OUT
@@ -61,4 +65,16 @@ do
     done
   done
 done
+# The compact family packs the version stamp of versioned, thin, heap entries
+for KEY_INFO in 'ObjectKey KEY_OBJECT' 'IntKey KEY_INT' 'LongKey KEY_LONG' 'UUIDKey KEY_UUID' 'StringKey1 KEY_STRING1' 'StringKey2 KEY_STRING2'
+do
+  declare -a KEY_ARRAY=($KEY_INFO)
+  KEY_CLASS=${KEY_ARRAY[0]}
+  KEY_TYPE=${KEY_ARRAY[1]}
+  BASE=VersionedThinCompactRegionEntryHeap
+  OUT=${BASE}${KEY_CLASS}
+  WP_ARGS=-Wp,-C,-P,-D${KEY_TYPE},-DPARENT_CLASS=$BASE,-DLEAF_CLASS=$OUT,-DVERSIONED,-DCOMPACT
+  echo generating $SRCDIR/$OUT.java
+  cpp -E $WP_ARGS $SRCFILE >$SRCDIR/$OUT.java
+done
 echo now run \'./gradlew spotlessApply\' to format the generated files
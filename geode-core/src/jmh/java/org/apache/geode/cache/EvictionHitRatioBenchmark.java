@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOG_LEVEL;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.internal.lang.SystemPropertyHelper;
+
+/**
+ * This benchmark replays a trace of keys against a region with entry count eviction, doing a get
+ * for each key and a put when the get misses, and reports the hits and misses along with the
+ * throughput. The hit ratio of an eviction algorithm is hits / (hits + misses). SAMPLED_LRU is LRU
+ * eviction with {@link SystemPropertyHelper#EVICTION_SAMPLE_SIZE} set to 5.
+ *
+ * The "skewed" trace draws keys from a Zipf distribution over ten times as many keys as the region
+ * holds. The "scan" trace is the same, except that every so often it reads twice as many keys as
+ * the region holds that are never read again, like a bulk scan would.
+ */
+@State(Scope.Thread)
+@Fork(1)
+public class EvictionHitRatioBenchmark {
+  private static final int MAX_ENTRIES = 10_000;
+  private static final int KEYS = 10 * MAX_ENTRIES;
+  private static final int TRACE_LENGTH = 1_000_000;
+  private static final int SCAN_INTERVAL = 100_000;
+  private static final int SCAN_LENGTH = 2 * MAX_ENTRIES;
+  private static final double ZIPF_EXPONENT = 0.99;
+
+  @Param({"LRU", "SAMPLED_LRU", "TINY_LFU"})
+  public String algorithm;
+
+  @Param({"skewed", "scan"})
+  public String trace;
+
+  Cache cache;
+  Region<String, String> region;
+  String[] keys;
+  int next;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    keys = createTrace(trace.equals("scan"));
+    System.setProperty("geode." + SystemPropertyHelper.EVICTION_SAMPLE_SIZE,
+        algorithm.equals("SAMPLED_LRU") ? "5" : "0");
+    cache = new CacheFactory().set(LOG_LEVEL, "warn").create();
+    region = createRegion(cache);
+    // warm the region up so that every get is measured against a full region
+    for (String key : keys) {
+      if (region.get(key) == null) {
+        region.put(key, "value");
+      }
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    cache.close();
+  }
+
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  @State(Scope.Thread)
+  public static class HitCounters {
+    public long hits;
+    public long misses;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      hits = 0;
+      misses = 0;
+    }
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 5)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public String getOrPut(HitCounters counters) {
+    String key = keys[next];
+    if (++next == keys.length) {
+      next = 0;
+    }
+    String value = region.get(key);
+    if (value != null) {
+      counters.hits++;
+      return value;
+    }
+    counters.misses++;
+    return region.put(key, "value");
+  }
+
+  private Region<String, String> createRegion(Cache cache) {
+    EvictionAttributes evictionAttributes = algorithm.equals("TINY_LFU")
+        ? EvictionAttributes.createTinyLFUEntryAttributes(MAX_ENTRIES, EvictionAction.LOCAL_DESTROY)
+        : EvictionAttributes.createLRUEntryAttributes(MAX_ENTRIES, EvictionAction.LOCAL_DESTROY);
+    return cache.<String, String>createRegionFactory(RegionShortcut.LOCAL)
+        .setEvictionAttributes(evictionAttributes).create("testRegion");
+  }
+
+  private static String[] createTrace(boolean withScans) {
+    Random random = new Random(42);
+    double[] cumulative = new double[KEYS];
+    double sum = 0;
+    for (int i = 0; i < KEYS; i++) {
+      sum += 1 / Math.pow(i + 1, ZIPF_EXPONENT);
+      cumulative[i] = sum;
+    }
+    String[] keys = new String[TRACE_LENGTH];
+    int scanKey = KEYS;
+    for (int i = 0; i < TRACE_LENGTH;) {
+      if (withScans && i > 0 && i % SCAN_INTERVAL == 0) {
+        for (int j = 0; j < SCAN_LENGTH && i < TRACE_LENGTH; j++, i++) {
+          keys[i] = Integer.toString(scanKey++);
+        }
+        if (i >= TRACE_LENGTH) {
+          break;
+        }
+      }
+      int index = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+      keys[i++] = Integer.toString(index < 0 ? -index - 1 : index);
+    }
+    return keys;
+  }
+}
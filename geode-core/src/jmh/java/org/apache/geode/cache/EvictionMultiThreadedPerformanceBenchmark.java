@@ -44,6 +44,12 @@ public class EvictionMultiThreadedPerformanceBenchmark {
   @Param({"true", "false"})
   public String useAsync;
 
+  @Param({"0", "5"})
+  public String sampleSize;
+
+  @Param({"1", "16"})
+  public String shards;
+
   Cache cache;
   Region<String, String> region;
   AtomicInteger nextKey = new AtomicInteger(MAX_ENTRIES + 1);
@@ -51,6 +57,8 @@ public class EvictionMultiThreadedPerformanceBenchmark {
   @Setup(Level.Trial)
   public void setup() {
     System.setProperty("geode." + SystemPropertyHelper.EVICTION_SCAN_ASYNC, useAsync);
+    System.setProperty("geode." + SystemPropertyHelper.EVICTION_SAMPLE_SIZE, sampleSize);
+    System.setProperty("geode." + SystemPropertyHelper.EVICTION_LIST_SHARDS, shards);
     cache = new CacheFactory().set(LOG_LEVEL, "warn").create();
     region = createRegion(cache, MAX_ENTRIES);
   }
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOG_LEVEL;
+import static org.apache.geode.distributed.ConfigurationProperties.OFF_HEAP_MEMORY_SIZE;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.internal.offheap.MemoryAllocator;
+import org.apache.geode.internal.offheap.StoredObject;
+
+/**
+ * Measures the latency of allocating and freeing small off-heap chunks with and without the
+ * per-thread tiny magazines of the free list manager. A magazine capacity of 0 always uses the
+ * shared tiny free lists.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Threads(4)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OffHeapAllocationBenchmark {
+  private static final int LIVE_CHUNKS = 64;
+
+  @Param({"0", "32"})
+  public String magazineCapacity;
+
+  @Param({"24", "200"})
+  public int dataSize;
+
+  Cache cache;
+  MemoryAllocator allocator;
+
+  @State(Scope.Thread)
+  public static class LiveChunks {
+    final StoredObject[] chunks = new StoredObject[LIVE_CHUNKS];
+    int next;
+  }
+
+  @Setup(Level.Trial)
+  public void setup() {
+    System.setProperty(DistributionConfig.GEMFIRE_PREFIX + "OFF_HEAP_MAGAZINE_CAPACITY",
+        magazineCapacity);
+    cache = new CacheFactory().set(LOG_LEVEL, "warn").set(OFF_HEAP_MEMORY_SIZE, "64m").create();
+    allocator = ((InternalCache) cache).getOffHeapStore();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    cache.close();
+  }
+
+  @Benchmark
+  public StoredObject allocateAndFree() {
+    StoredObject chunk = allocator.allocate(dataSize);
+    chunk.release();
+    return chunk;
+  }
+
+  @Benchmark
+  public StoredObject allocateAndFreeOldest(LiveChunks live) {
+    int idx = live.next;
+    live.next = (idx + 1) % LIVE_CHUNKS;
+    StoredObject oldest = live.chunks[idx];
+    if (oldest != null) {
+      oldest.release();
+    }
+    live.chunks[idx] = allocator.allocate(dataSize);
+    return oldest;
+  }
+}
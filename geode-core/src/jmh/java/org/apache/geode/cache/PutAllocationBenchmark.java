@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOG_LEVEL;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This benchmark measures updates of existing entries on a region without listeners, writers,
+ * gateways or cache servers. Keys are boxed up front so the only allocation is done by the put.
+ * Run it with the GC profiler ({@code -prof gc}) and look at {@code gc.alloc.rate.norm} for the
+ * bytes allocated per put.
+ */
+@State(Scope.Thread)
+@Fork(1)
+public class PutAllocationBenchmark {
+  private static final int ENTRIES = 1000;
+
+  @Param({"LOCAL", "REPLICATE", "PARTITION"})
+  public RegionShortcut regionShortcut;
+
+  Cache cache;
+  Region<Integer, String> region;
+  Integer[] keys;
+  int nextKey;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    cache = new CacheFactory().set(LOG_LEVEL, "warn").create();
+    region = cache.<Integer, String>createRegionFactory(regionShortcut).create("testRegion");
+    keys = new Integer[ENTRIES];
+    for (int i = 0; i < ENTRIES; i++) {
+      keys[i] = i;
+      region.put(keys[i], "value");
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    cache.close();
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 5)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public String put() {
+    Integer key = keys[nextKey];
+    nextKey = (nextKey + 1) % ENTRIES;
+    return region.put(key, "value");
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOG_LEVEL;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.internal.cache.AbstractRegionMap;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.size.ReflectionSingleObjectSizer;
+
+/**
+ * This benchmark populates a replicated, and so versioned, region and reports the shallow size of
+ * its region entries along with the time taken, with and without compact region entries.
+ */
+@State(Scope.Thread)
+@Fork(1)
+public class RegionEntryFootprintBenchmark {
+  @Param({"100000"})
+  public int entries;
+
+  @Param({"false", "true"})
+  public String compactEntries;
+
+  @Param({"Integer", "String"})
+  public String keyType;
+
+  Cache cache;
+  Region<Object, String> region;
+
+  @Setup(Level.Trial)
+  public void setupCache() {
+    System.setProperty(AbstractRegionMap.COMPACT_REGION_ENTRIES_PROPERTY, compactEntries);
+    cache = new CacheFactory().set(LOG_LEVEL, "warn").create();
+  }
+
+  @Setup(Level.Iteration)
+  public void setupRegion() {
+    region = cache.<Object, String>createRegionFactory(RegionShortcut.REPLICATE)
+        .create("testRegion");
+  }
+
+  @TearDown(Level.Iteration)
+  public void destroyRegion() {
+    region.localDestroyRegion();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    cache.close();
+    System.clearProperty(AbstractRegionMap.COMPACT_REGION_ENTRIES_PROPERTY);
+  }
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Footprint {
+    public long entryBytes;
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public Object populate(Footprint footprint) {
+    Object key = null;
+    for (int i = 0; i < entries; i++) {
+      key = "String".equals(keyType) ? Integer.toString(i) : Integer.valueOf(i);
+      region.put(key, "value");
+    }
+    Object entry = ((LocalRegion) region).getRegionEntry(key);
+    footprint.entryBytes = ReflectionSingleObjectSizer.sizeof(entry.getClass());
+    return entry;
+  }
+}
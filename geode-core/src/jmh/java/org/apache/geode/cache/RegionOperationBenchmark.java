@@ -14,31 +14,53 @@
  */
 package org.apache.geode.cache;
 
+import java.util.concurrent.ThreadLocalRandom;
+
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Fork;
 import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
 import org.openjdk.jmh.annotations.Warmup;
 
 import org.apache.geode.cache.query.FunctionDomainException;
 import org.apache.geode.cache.query.NameResolutionException;
 import org.apache.geode.cache.query.QueryInvocationTargetException;
 import org.apache.geode.cache.query.TypeMismatchException;
+import org.apache.geode.internal.cache.AbstractRegionMap;
 
 @Fork(10)
 public class RegionOperationBenchmark {
+  private static final int KEYS = 100_000;
 
   @State(Scope.Benchmark)
   public static class CacheState {
+    @Param({"false", "true"})
+    public String useConcurrentHashMap;
+
     private Region region;
 
+    private String[] keys;
+
     @Setup
     public void setup() {
+      System.setProperty(AbstractRegionMap.CONCURRENT_HASH_MAP_ENTRIES_PROPERTY,
+          useConcurrentHashMap);
       Cache cache = new CacheFactory().set("mcast-port", "0").set("locators", "").create();
 
       region = cache.createRegionFactory(RegionShortcut.REPLICATE).create("region");
+
+      keys = new String[KEYS];
+      for (int i = 0; i < KEYS; i++) {
+        keys[i] = "key" + i;
+      }
+    }
+
+    Object putRandomKey() {
+      return region.put(keys[ThreadLocalRandom.current().nextInt(KEYS)], "value");
     }
   }
 
@@ -49,4 +71,35 @@ public class RegionOperationBenchmark {
       QueryInvocationTargetException, FunctionDomainException {
     return state.region.put("key", "value");
   }
+
+  @Benchmark
+  @Warmup(iterations = 20)
+  @Measurement(iterations = 20)
+  public Object putRandomKey(CacheState state) {
+    return state.putRandomKey();
+  }
+
+  @Benchmark
+  @Warmup(iterations = 20)
+  @Measurement(iterations = 20)
+  @Threads(4)
+  public Object putRandomKey4Threads(CacheState state) {
+    return state.putRandomKey();
+  }
+
+  @Benchmark
+  @Warmup(iterations = 20)
+  @Measurement(iterations = 20)
+  @Threads(16)
+  public Object putRandomKey16Threads(CacheState state) {
+    return state.putRandomKey();
+  }
+
+  @Benchmark
+  @Warmup(iterations = 20)
+  @Measurement(iterations = 20)
+  @Threads(64)
+  public Object putRandomKey64Threads(CacheState state) {
+    return state.putRandomKey();
+  }
 }
@@ -26,22 +26,31 @@ import org.openjdk.jmh.annotations.Level;
 import org.openjdk.jmh.annotations.Measurement;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
 import org.openjdk.jmh.annotations.Warmup;
 
-@State(Scope.Thread)
+import org.apache.geode.internal.cache.AbstractRegionMap;
+
+@State(Scope.Benchmark)
 @Fork(1)
 public class UpdateOnRegionBenchmark {
   private static final int ENTRIES = 1_000_000;
 
+  @Param({"false", "true"})
+  public String useConcurrentHashMap;
+
   Cache cache;
   Region<String, String> region;
 
   @Setup(Level.Trial)
   public void setup() {
+    System.setProperty(AbstractRegionMap.CONCURRENT_HASH_MAP_ENTRIES_PROPERTY,
+        useConcurrentHashMap);
     cache = new CacheFactory().set(LOG_LEVEL, "warn").create();
     region = createRegion(cache, ENTRIES);
   }
@@ -66,6 +75,39 @@ public class UpdateOnRegionBenchmark {
     return region.put(key, "value");
   }
 
+  @Benchmark
+  @Measurement(iterations = 50)
+  @Warmup(iterations = 5)
+  @BenchmarkMode(Mode.Throughput)
+  @Threads(4)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public String updateRegion4Threads(MyState state) {
+    String key = Integer.toString(state.random.nextInt(ENTRIES));
+    return region.put(key, "value");
+  }
+
+  @Benchmark
+  @Measurement(iterations = 50)
+  @Warmup(iterations = 5)
+  @BenchmarkMode(Mode.Throughput)
+  @Threads(16)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public String updateRegion16Threads(MyState state) {
+    String key = Integer.toString(state.random.nextInt(ENTRIES));
+    return region.put(key, "value");
+  }
+
+  @Benchmark
+  @Measurement(iterations = 50)
+  @Warmup(iterations = 5)
+  @BenchmarkMode(Mode.Throughput)
+  @Threads(64)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public String updateRegion64Threads(MyState state) {
+    String key = Integer.toString(state.random.nextInt(ENTRIES));
+    return region.put(key, "value");
+  }
+
   private Region<String, String> createRegion(Cache cache, int maxSize) {
     Region<String, String> region = cache.<String, String>createRegionFactory(RegionShortcut.LOCAL)
         .setEvictionAttributes(
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOG_LEVEL;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Operation;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.distributed.internal.DirectReplyProcessor;
+import org.apache.geode.internal.ByteArrayDataInput;
+import org.apache.geode.internal.HeapDataOutputStream;
+import org.apache.geode.internal.Version;
+import org.apache.geode.internal.cache.partitioned.PutMessage;
+
+/**
+ * This benchmark measures how fast the most common cache operation messages are deserialized, from
+ * reading their fixed ID to reading their fields. The messages are created like they are when a
+ * put is distributed to a replicate region, as an {@link UpdateOperation.UpdateMessage}, and to a
+ * partitioned region, as a {@link PutMessage}.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MessageDeserializationBenchmark {
+
+  private Cache cache;
+  private byte[] updateMessageBytes;
+  private byte[] putMessageBytes;
+  private final ByteArrayDataInput in = new ByteArrayDataInput();
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    cache = new CacheFactory().set(LOG_LEVEL, "warn").create();
+
+    DistributedRegion replicate = (DistributedRegion) cache
+        .<String, String>createRegionFactory(RegionShortcut.REPLICATE).create("replicate");
+    EntryEventImpl updateEvent = createEvent(replicate);
+    UpdateOperation operation = new UpdateOperation(updateEvent, System.currentTimeMillis());
+    DistributedCacheOperation.CacheOperationMessage updateMessage = operation.createMessage();
+    operation.initMessage(updateMessage, null);
+    updateMessageBytes = serialize(updateMessage);
+
+    PartitionedRegion partitioned = (PartitionedRegion) cache
+        .<String, String>createRegionFactory(RegionShortcut.PARTITION).create("partitioned");
+    EntryEventImpl putEvent = createEvent(partitioned);
+    // PutMessage only creates its messages when sending them
+    Constructor<PutMessage> constructor = PutMessage.class.getDeclaredConstructor(Set.class,
+        boolean.class, int.class, DirectReplyProcessor.class, EntryEventImpl.class, long.class,
+        boolean.class, boolean.class, Object.class, boolean.class);
+    constructor.setAccessible(true);
+    PutMessage putMessage = constructor.newInstance(Collections.emptySet(), false,
+        partitioned.getPRId(), null, putEvent, System.currentTimeMillis(), false, false, null,
+        false);
+    putMessage.setInternalDs(partitioned.getSystem());
+    putMessageBytes = serialize(putMessage);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    cache.close();
+  }
+
+  @Benchmark
+  public Object deserializeUpdateMessage() throws IOException, ClassNotFoundException {
+    in.initialize(updateMessageBytes, Version.CURRENT);
+    return DataSerializer.readObject(in);
+  }
+
+  @Benchmark
+  public Object deserializePutMessage() throws IOException, ClassNotFoundException {
+    in.initialize(putMessageBytes, Version.CURRENT);
+    return DataSerializer.readObject(in);
+  }
+
+  private EntryEventImpl createEvent(LocalRegion region) {
+    return EntryEventImpl.create(region, Operation.UPDATE, "key-1", "value-1", null, false,
+        cache.getDistributedSystem().getDistributedMember(), true,
+        new EventID(cache.getDistributedSystem()));
+  }
+
+  private static byte[] serialize(Object message) throws IOException {
+    HeapDataOutputStream out = new HeapDataOutputStream(Version.CURRENT);
+    DataSerializer.writeObject(message, out);
+    return out.toByteArray();
+  }
+}
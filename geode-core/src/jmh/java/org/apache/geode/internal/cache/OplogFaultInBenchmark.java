@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOG_LEVEL;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.EvictionAction;
+import org.apache.geode.cache.EvictionAttributes;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.distributed.internal.DistributionConfig;
+
+/**
+ * This benchmark measures the throughput of random gets that fault values in from the crf files of
+ * rolled oplogs. The disk store is prepared by overflowing every entry of a persistent region to
+ * disk and rolling the oplog, so that each get reads its value from an oplog that is no longer
+ * appended to, either through a memory mapping of the crf or by seeking its RandomAccessFile.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class OplogFaultInBenchmark {
+  private static final int ENTRIES = 100_000;
+  private static final int VALUE_SIZE = 1024;
+
+  @Param({"true", "false"})
+  public String mmapReads;
+
+  private File diskDir;
+  private Cache cache;
+  private Region<Integer, byte[]> region;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    System.setProperty(DistributionConfig.GEMFIRE_PREFIX + "disk.mmapReads", mmapReads);
+    diskDir = Files.createTempDirectory("OplogFaultInBenchmark").toFile();
+    cache = new CacheFactory().set(LOG_LEVEL, "warn").create();
+    DiskStoreImpl diskStore = (DiskStoreImpl) cache.createDiskStoreFactory()
+        .setDiskDirs(new File[] {diskDir}).setAutoCompact(false).create("diskStore");
+    region = cache.<Integer, byte[]>createRegionFactory(RegionShortcut.REPLICATE_PERSISTENT)
+        .setEvictionAttributes(
+            EvictionAttributes.createLRUEntryAttributes(1, EvictionAction.OVERFLOW_TO_DISK))
+        .setDiskStoreName("diskStore").create("region");
+    byte[] value = new byte[VALUE_SIZE];
+    for (int i = 0; i < ENTRIES; i++) {
+      region.put(i, value);
+    }
+    diskStore.forceRoll();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    cache.close();
+    FileUtils.deleteDirectory(diskDir);
+    System.clearProperty(DistributionConfig.GEMFIRE_PREFIX + "disk.mmapReads");
+  }
+
+  @Benchmark
+  public byte[] randomGet() {
+    return region.get(ThreadLocalRandom.current().nextInt(ENTRIES));
+  }
+
+  @Benchmark
+  @Threads(4)
+  public byte[] randomGet4Threads() {
+    return region.get(ThreadLocalRandom.current().nextInt(ENTRIES));
+  }
+}
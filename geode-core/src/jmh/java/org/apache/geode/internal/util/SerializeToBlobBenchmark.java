@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.util;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOG_LEVEL;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.DataSerializable;
+import org.apache.geode.DataSerializer;
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.internal.HeapDataOutputStream;
+import org.apache.geode.internal.Version;
+import org.apache.geode.pdx.PdxReader;
+import org.apache.geode.pdx.PdxSerializable;
+import org.apache.geode.pdx.PdxWriter;
+
+/**
+ * This benchmark compares BlobHelper.serializeToBlob, which serializes into a buffer pooled by the
+ * calling thread, to serializing into a new HeapDataOutputStream each time. Run it with
+ * {@code -prof gc} to compare the bytes allocated per operation.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SerializeToBlobBenchmark {
+
+  @Param({"dataSerializable", "pdx"})
+  String serialization;
+
+  @Param({"8", "256"})
+  int lineItemCount;
+
+  private Cache cache;
+  private Object order;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    cache = new CacheFactory().set(LOG_LEVEL, "warn").create();
+    order = serialization.equals("pdx") ? new PdxOrder(lineItemCount)
+        : new DataSerializableOrder(lineItemCount);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    cache.close();
+  }
+
+  @Benchmark
+  public byte[] serializeToBlob() throws IOException {
+    return BlobHelper.serializeToBlob(order);
+  }
+
+  @Benchmark
+  public byte[] serializeToNewStream() throws IOException {
+    HeapDataOutputStream hdos = new HeapDataOutputStream(Version.CURRENT);
+    DataSerializer.writeObject(order, hdos);
+    return hdos.toByteArray();
+  }
+
+  public static class DataSerializableOrder implements DataSerializable {
+    int id = 42;
+    long accountId = 1234567890L;
+    double amount = 100.25;
+    String status = "OPEN";
+    String description = "an order with a few fields";
+    Date created = new Date(0);
+    int[] lineItems;
+
+    public DataSerializableOrder() {}
+
+    DataSerializableOrder(int lineItemCount) {
+      lineItems = new int[lineItemCount];
+    }
+
+    @Override
+    public void toData(DataOutput out) throws IOException {
+      out.writeInt(id);
+      out.writeLong(accountId);
+      out.writeDouble(amount);
+      DataSerializer.writeString(status, out);
+      DataSerializer.writeString(description, out);
+      DataSerializer.writeDate(created, out);
+      DataSerializer.writeIntArray(lineItems, out);
+    }
+
+    @Override
+    public void fromData(DataInput in) throws IOException, ClassNotFoundException {
+      id = in.readInt();
+      accountId = in.readLong();
+      amount = in.readDouble();
+      status = DataSerializer.readString(in);
+      description = DataSerializer.readString(in);
+      created = DataSerializer.readDate(in);
+      lineItems = DataSerializer.readIntArray(in);
+    }
+  }
+
+  public static class PdxOrder extends DataSerializableOrder implements PdxSerializable {
+
+    public PdxOrder() {}
+
+    PdxOrder(int lineItemCount) {
+      super(lineItemCount);
+    }
+
+    @Override
+    public void toData(PdxWriter writer) {
+      writer.writeInt("id", id).writeLong("accountId", accountId).writeDouble("amount", amount)
+          .writeString("status", status).writeString("description", description)
+          .writeDate("created", created).writeIntArray("lineItems", lineItems);
+    }
+
+    @Override
+    public void fromData(PdxReader reader) {
+      id = reader.readInt("id");
+      accountId = reader.readLong("accountId");
+      amount = reader.readDouble("amount");
+      status = reader.readString("status");
+      description = reader.readString("description");
+      created = reader.readDate("created");
+      lineItems = reader.readIntArray("lineItems");
+    }
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOG_LEVEL;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.PdxSerializerObject;
+import org.apache.geode.internal.util.BlobHelper;
+import org.apache.geode.pdx.internal.AutoSerializableManager;
+
+/**
+ * This benchmark compares serializing and deserializing an object with the
+ * ReflectionBasedAutoSerializer, using each way it has of accessing fields, to doing the same with
+ * a hand-written PdxSerializable.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PdxAutoSerializationBenchmark {
+
+  @Param({"reflection", "unsafe", "methodHandles"})
+  String fieldAccess;
+
+  private Cache cache;
+  private AutoSerializedOrder autoSerializedOrder;
+  private HandWrittenOrder handWrittenOrder;
+  private byte[] autoSerializedBytes;
+  private byte[] handWrittenBytes;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    // whether Unsafe is used is decided when the auto serializer is first loaded
+    System.setProperty(DistributionConfig.GEMFIRE_PREFIX + "AutoSerializer.SAFE",
+        Boolean.toString(fieldAccess.equals("reflection")));
+    // geode classes, like the ones in this benchmark, are otherwise never auto serialized
+    System.setProperty(
+        DistributionConfig.GEMFIRE_PREFIX + "auto.serialization.no.hardcoded.excludes", "true");
+    ReflectionBasedAutoSerializer serializer =
+        new ReflectionBasedAutoSerializer(".*AutoSerializedOrder");
+    ((AutoSerializableManager) serializer.getManager())
+        .setUseMethodHandles(fieldAccess.equals("methodHandles"));
+    cache = new CacheFactory().set(LOG_LEVEL, "warn").setPdxSerializer(serializer).create();
+    autoSerializedOrder = new AutoSerializedOrder();
+    handWrittenOrder = new HandWrittenOrder();
+    autoSerializedBytes = BlobHelper.serializeToBlob(autoSerializedOrder);
+    handWrittenBytes = BlobHelper.serializeToBlob(handWrittenOrder);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    cache.close();
+  }
+
+  @Benchmark
+  public byte[] serializeAuto() throws IOException {
+    return BlobHelper.serializeToBlob(autoSerializedOrder);
+  }
+
+  @Benchmark
+  public Object deserializeAuto() throws IOException, ClassNotFoundException {
+    return BlobHelper.deserializeBlob(autoSerializedBytes);
+  }
+
+  @Benchmark
+  public byte[] serializeHandWritten() throws IOException {
+    return BlobHelper.serializeToBlob(handWrittenOrder);
+  }
+
+  @Benchmark
+  public Object deserializeHandWritten() throws IOException, ClassNotFoundException {
+    return BlobHelper.deserializeBlob(handWrittenBytes);
+  }
+
+  public static class AutoSerializedOrder implements PdxSerializerObject {
+    int id = 42;
+    long accountId = 1234567890L;
+    double amount = 100.25;
+    boolean open = true;
+    String status = "OPEN";
+    String description = "an order with a few fields";
+    Date created = new Date(0);
+    int[] lineItems = {1, 2, 3, 4};
+
+    public AutoSerializedOrder() {}
+  }
+
+  public static class HandWrittenOrder extends AutoSerializedOrder implements PdxSerializable {
+
+    public HandWrittenOrder() {}
+
+    @Override
+    public void toData(PdxWriter writer) {
+      writer.writeInt("id", id).writeLong("accountId", accountId).writeDouble("amount", amount)
+          .writeBoolean("open", open).writeString("status", status)
+          .writeString("description", description).writeDate("created", created)
+          .writeIntArray("lineItems", lineItems);
+    }
+
+    @Override
+    public void fromData(PdxReader reader) {
+      id = reader.readInt("id");
+      accountId = reader.readLong("accountId");
+      amount = reader.readDouble("amount");
+      open = reader.readBoolean("open");
+      status = reader.readString("status");
+      description = reader.readString("description");
+      created = reader.readDate("created");
+      lineItems = reader.readIntArray("lineItems");
+    }
+  }
+}
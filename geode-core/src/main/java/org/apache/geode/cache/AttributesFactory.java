@@ -1410,7 +1410,7 @@ public class AttributesFactory<K, V> {
     if (attrs.getDiskStoreName() != null) {
       EvictionAttributes ea = attrs.getEvictionAttributes();
       if (!attrs.getDataPolicy().withPersistence()
-          && (ea != null && ea.getAction() != EvictionAction.OVERFLOW_TO_DISK)) {
+          && (ea != null && !ea.getAction().isOverflowToDisk())) {
         throw new IllegalStateException(
             LocalizedStrings.DiskStore_IS_USED_IN_NONPERSISTENT_REGION.toLocalizedString());
       }
@@ -43,6 +43,18 @@ public final class EvictionAction extends EnumSyntax {
    */
   public static final EvictionAction OVERFLOW_TO_DISK = new EvictionAction(2);
 
+  /**
+   * Compress the value of the least recently used region entry in the VM and, once its value is
+   * already compressed, write it to disk and <code>null</code>-out its value in the VM like
+   * {@link #OVERFLOW_TO_DISK}. Values that do not get smaller when compressed are written to disk
+   * straight away, and so are all values unless the region uses the LRU memory or LRU heap eviction
+   * algorithm. Like {@link #OVERFLOW_TO_DISK} this action is only available when the region has
+   * been configured to access data on disk, and {@link #isOverflowToDisk()} is also true for it.
+   *
+   * @since Geode 1.5
+   */
+  public static final EvictionAction COMPRESS_THEN_OVERFLOW_TO_DISK = new EvictionAction(3);
+
   /**
    * The default eviction action is to {@linkplain #LOCAL_DESTROY locally destroy} an Entry.
    */
@@ -52,7 +64,8 @@ public final class EvictionAction extends EnumSyntax {
     super(val);
   }
 
-  private static final String[] stringTable = {"none", "local-destroy", "overflow-to-disk",};
+  private static final String[] stringTable = {"none", "local-destroy", "overflow-to-disk",
+      "compress-then-overflow-to-disk",};
 
   @Override
   protected String[] getStringTable() {
@@ -61,7 +74,7 @@ public final class EvictionAction extends EnumSyntax {
 
   // TODO post Java 1.8.0u45 uncomment final flag, see JDK-8076152
   private static /* final */ EvictionAction[] enumValueTable =
-      {NONE, LOCAL_DESTROY, OVERFLOW_TO_DISK};
+      {NONE, LOCAL_DESTROY, OVERFLOW_TO_DISK, COMPRESS_THEN_OVERFLOW_TO_DISK};
 
   @Override
   protected EnumSyntax[] getEnumValueTable() {
@@ -73,7 +86,14 @@ public final class EvictionAction extends EnumSyntax {
   }
 
   public boolean isOverflowToDisk() {
-    return this == OVERFLOW_TO_DISK;
+    return this == OVERFLOW_TO_DISK || this == COMPRESS_THEN_OVERFLOW_TO_DISK;
+  }
+
+  /**
+   * @since Geode 1.5
+   */
+  public boolean isCompressThenOverflowToDisk() {
+    return this == COMPRESS_THEN_OVERFLOW_TO_DISK;
   }
 
   public boolean isNone() {
@@ -64,12 +64,22 @@ public final class EvictionAlgorithm extends EnumSyntax {
    */
   public static final EvictionAlgorithm LIFO_MEMORY = new EvictionAlgorithm(5);
 
+  /**
+   * An algorithm that considers the number of Entries in the Region before invoking its
+   * {@link EvictionAction}, and that keeps the Entries whose keys have been used most often
+   * recently. A scan over many keys that are used once does not push frequently used Entries out
+   * of the Region.
+   *
+   * @since Geode 1.5
+   */
+  public static final EvictionAlgorithm TINY_LFU_ENTRY = new EvictionAlgorithm(6);
+
   private EvictionAlgorithm(int val) {
     super(val);
   }
 
   private static final String[] stringTable = {"none", "lru-entry-count", "lru-heap-percentage",
-      "lru-memory-size", "lifo-entry-count", "lifo-memory-size"};
+      "lru-memory-size", "lifo-entry-count", "lifo-memory-size", "tiny-lfu-entry-count"};
 
   @Override
   protected String[] getStringTable() {
@@ -77,7 +87,7 @@ public final class EvictionAlgorithm extends EnumSyntax {
   }
 
   private static final EvictionAlgorithm[] enumValueTable =
-      {NONE, LRU_ENTRY, LRU_HEAP, LRU_MEMORY, LIFO_ENTRY, LIFO_MEMORY,};
+      {NONE, LRU_ENTRY, LRU_HEAP, LRU_MEMORY, LIFO_ENTRY, LIFO_MEMORY, TINY_LFU_ENTRY,};
 
   @Override
   protected EnumSyntax[] getEnumValueTable() {
@@ -138,4 +148,13 @@ public final class EvictionAlgorithm extends EnumSyntax {
   public boolean isLIFO() {
     return this == LIFO_ENTRY || this == LIFO_MEMORY;
   }
+
+  /**
+   * Returns true if this algorithm evicts by frequency of use.
+   *
+   * @since Geode 1.5
+   */
+  public boolean isTinyLFU() {
+    return this == TINY_LFU_ENTRY;
+  }
 }
@@ -134,6 +134,22 @@ public abstract class EvictionAttributes implements DataSerializable {
         .setAction(evictionAction).setMaximum(maximumEntries);
   }
 
+  /**
+   * Creates and returns {@linkplain EvictionAlgorithm#TINY_LFU_ENTRY entry TinyLFU} eviction
+   * attributes with given <code>evictionAction</code> and given <code>maximumEntries</code>.
+   *
+   * @param maximumEntries the number of entries to keep in the Region
+   * @param evictionAction the action to perform when evicting an entry
+   * @return {@linkplain EvictionAlgorithm#TINY_LFU_ENTRY entry TinyLFU} eviction attributes with
+   *         given <code>evictionAction</code> and given <code>maximumEntries</code>
+   * @since Geode 1.5
+   */
+  public static EvictionAttributes createTinyLFUEntryAttributes(int maximumEntries,
+      EvictionAction evictionAction) {
+    return new EvictionAttributesImpl().setAlgorithm(EvictionAlgorithm.TINY_LFU_ENTRY)
+        .setAction(evictionAction).setMaximum(maximumEntries);
+  }
+
   /**
    * Creates and returns {@linkplain EvictionAlgorithm#LRU_HEAP heap LRU} eviction attributes with
    * default {@linkplain EvictionAction#DEFAULT_EVICTION_ACTION action} and default
@@ -38,7 +38,9 @@ import org.apache.geode.pdx.JSONFormatter;
 import org.apache.geode.pdx.PdxInstance;
 import org.apache.geode.pdx.PdxSerializationException;
 import org.apache.geode.pdx.internal.FieldNotFoundInPdxVersion;
+import org.apache.geode.pdx.internal.PdxField;
 import org.apache.geode.pdx.internal.PdxInstanceImpl;
+import org.apache.geode.pdx.internal.PdxType;
 
 /**
  * Utility for managing an attribute
@@ -52,6 +54,12 @@ public class AttributeDescriptor {
   private final MethodInvocationAuthorizer _methodInvocationAuthorizer;
   /** cache for remembering the correct Member for a class and attribute */
   private static final ConcurrentMap<List, Member> _localCache = new ConcurrentHashMap();
+  /**
+   * the PdxType this attribute was last read from and its field, if it has one, with this
+   * attribute's name. Queries mostly read many instances of the same type so this saves looking up
+   * the field by name for each of them.
+   */
+  private volatile PdxTypeField _lastPdxTypeField;
 
 
 
@@ -208,10 +216,11 @@ public class AttributeDescriptor {
       throws NameNotFoundException, QueryInvocationTargetException {
     if (target instanceof PdxInstanceImpl) {
       PdxInstanceImpl pdxInstance = (PdxInstanceImpl) target;
+      PdxField field = getPdxField(pdxInstance.getPdxType());
       // if the field is present in the pdxinstance
-      if (pdxInstance.hasField(_name)) {
+      if (field != null) {
         // return PdxString if field is a String otherwise invoke readField
-        return pdxInstance.getRawField(_name);
+        return pdxInstance.getRawField(field);
       } else {
         // field not found in the pdx instance, look for the field in any of the
         // PdxTypes (versions of the pdxinstance) in the type registry
@@ -258,6 +267,28 @@ public class AttributeDescriptor {
     }
   }
 
+  /**
+   * Returns the field of the given type with this attribute's name or null if it has none.
+   */
+  PdxField getPdxField(PdxType pdxType) {
+    PdxTypeField last = _lastPdxTypeField;
+    if (last == null || last.pdxType != pdxType) {
+      last = new PdxTypeField(pdxType, pdxType.getPdxField(_name));
+      _lastPdxTypeField = last;
+    }
+    return last.field;
+  }
+
+  private static class PdxTypeField {
+    private final PdxType pdxType;
+    private final PdxField field;
+
+    PdxTypeField(PdxType pdxType, PdxField field) {
+      this.pdxType = pdxType;
+      this.field = field;
+    }
+  }
+
   private Object readFieldFromDeserializedObject(PdxInstanceImpl pdxInstance, Object target)
       throws NameNotFoundException, QueryInvocationTargetException {
     try {
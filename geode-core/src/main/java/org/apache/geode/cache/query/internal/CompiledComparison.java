@@ -38,6 +38,8 @@ import org.apache.geode.cache.query.types.ObjectType;
 import org.apache.geode.cache.query.types.StructType;
 import org.apache.geode.internal.offheap.annotations.Retained;
 import org.apache.geode.pdx.PdxInstance;
+import org.apache.geode.pdx.internal.PdxField;
+import org.apache.geode.pdx.internal.PdxInstanceImpl;
 import org.apache.geode.pdx.internal.PdxString;
 
 /**
@@ -79,8 +81,31 @@ public class CompiledComparison extends AbstractCompiledValue
 
   public Object evaluate(ExecutionContext context) throws FunctionDomainException,
       TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
-    Object left = _left.evaluate(context);
-    Object right = _right.evaluate(context);
+    Object left;
+    Object right;
+    if (_left.getType() == PATH && isConstant(_right)) {
+      right = _right.evaluate(context);
+      CompiledPath path = (CompiledPath) _left;
+      Object receiver = path.evaluateReceiver(context);
+      Boolean result = compareToPdxField(context, receiver, path.getTailID(), right, _operator);
+      if (result != null) {
+        return result;
+      }
+      left = path.evaluateAttribute(context, receiver);
+    } else if (_right.getType() == PATH && isConstant(_left)) {
+      left = _left.evaluate(context);
+      CompiledPath path = (CompiledPath) _right;
+      Object receiver = path.evaluateReceiver(context);
+      Boolean result =
+          compareToPdxField(context, receiver, path.getTailID(), left, reflectOperator(_operator));
+      if (result != null) {
+        return result;
+      }
+      right = path.evaluateAttribute(context, receiver);
+    } else {
+      left = _left.evaluate(context);
+      right = _right.evaluate(context);
+    }
 
     if (context.isCqQueryContext() && left instanceof Region.Entry) {
       left = ((Region.Entry) left).getValue();
@@ -135,6 +160,49 @@ public class CompiledComparison extends AbstractCompiledValue
     return TypeUtils.compare(left, right, _operator);
   }
 
+  private static boolean isConstant(CompiledValue value) {
+    return value.getType() == LITERAL || value.getType() == QUERY_PARAM;
+  }
+
+  /**
+   * Compares a numeric, date or enum field of a PdxInstance to a constant without creating an
+   * object for the field's value, in the same way as {@link TypeUtils#compare}.
+   *
+   * @return the result of the comparison or null if it must be done on the field's value
+   */
+  private static Boolean compareToPdxField(ExecutionContext context, Object receiver,
+      String fieldName, Object value, int operator) {
+    if (!(receiver instanceof PdxInstanceImpl) || value == null) {
+      return null;
+    }
+    PdxInstanceImpl pdxInstance = (PdxInstanceImpl) receiver;
+    PdxField field =
+        context.getAttributeDescriptor(fieldName).getPdxField(pdxInstance.getPdxType());
+    if (field == null) {
+      return null;
+    }
+    Integer result = pdxInstance.compareRawField(field, value);
+    if (result == null) {
+      return null;
+    }
+    switch (operator) {
+      case TOK_EQ:
+        return result == 0;
+      case TOK_NE:
+        return result != 0;
+      case TOK_LT:
+        return result < 0;
+      case TOK_LE:
+        return result <= 0;
+      case TOK_GT:
+        return result > 0;
+      case TOK_GE:
+        return result >= 0;
+      default:
+        return null;
+    }
+  }
+
   /**
    * Asif : Evaluates as a filter taking advantage of indexes if appropriate. This function has a
    * meaningful implementation only in CompiledComparison & CompiledUndefined . It is unsupported in
@@ -88,6 +88,14 @@ public class CompiledPath extends AbstractCompiledValue {
 
   public Object evaluate(ExecutionContext context) throws FunctionDomainException,
       TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
+    return evaluateAttribute(context, evaluateReceiver(context));
+  }
+
+  /**
+   * Evaluates the expression before the dot, replacing a region entry with its value in a CQ.
+   */
+  Object evaluateReceiver(ExecutionContext context) throws FunctionDomainException,
+      TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
     CompiledValue rcvr = getReceiver();
     Object evalRcvr = rcvr.evaluate(context);
 
@@ -111,7 +119,14 @@ public class CompiledPath extends AbstractCompiledValue {
       }
 
     }
+    return evalRcvr;
+  }
 
+  /**
+   * Reads the identifier after the dot from the given value of the expression before the dot.
+   */
+  Object evaluateAttribute(ExecutionContext context, Object evalRcvr)
+      throws NameNotFoundException, QueryInvocationTargetException {
     // if the receiver is an iterator, then use the contrained type
     // for attribute evaluation instead of the runtime type
 
@@ -23,6 +23,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.Stack;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.geode.cache.Region;
 import org.apache.geode.cache.query.AmbiguousNameException;
@@ -93,6 +95,14 @@ public class ExecutionContext {
   private Object currentProjectionField = null;
   private boolean isPRQueryNode = false;
 
+  /**
+   * The AttributeDescriptors of the attributes read with this context, by name, so that they are
+   * created once rather than for every object read. They also remember where their attribute is in
+   * each PdxType they read.
+   */
+  private final ConcurrentMap<String, AttributeDescriptor> attributeDescriptors =
+      new ConcurrentHashMap<>();
+
   /**
    * Param specialIteratorVar name of special variable to use to denote the current iteration
    * element. Used to implement the "this" var in the query shortcut methods
@@ -108,6 +118,16 @@ public class ExecutionContext {
     return this.cache.getCachePerfStats();
   }
 
+  AttributeDescriptor getAttributeDescriptor(String name) {
+    AttributeDescriptor result = this.attributeDescriptors.get(name);
+    if (result == null) {
+      result = new AttributeDescriptor(
+          this.cache.getQueryService().getMethodInvocationAuthorizer(), name);
+      this.attributeDescriptors.put(name, result);
+    }
+    return result;
+  }
+
   /**
    * Add RuntimeIterator as a dependency of a CompiledValue. ASSUMPTION: unsynchronized, assumed to
    * be single-threaded.
@@ -72,9 +72,7 @@ public class PathUtils {
       }
     }
     try {
-      return new AttributeDescriptor(
-          context.getCache().getQueryService().getMethodInvocationAuthorizer(), attribute)
-              .read(target);
+      return context.getAttributeDescriptor(attribute).read(target);
     } catch (NameNotFoundException nfe) {
       if (DefaultQueryService.QUERY_HETEROGENEOUS_OBJECTS
           || DefaultQueryService.TEST_QUERY_HETEROGENEOUS_OBJECTS) {
@@ -620,6 +620,17 @@ public interface DMStats {
 
   void incPdxInstanceCreations();
 
+  /**
+   * Increments the number of serializations that wrote into a thread's pooled buffer.
+   */
+  void incSerializationBufferReuses();
+
+  /**
+   * Increments the number of buffers, and their bytes, allocated for serializations that could
+   * not use a thread's pooled buffer as it was.
+   */
+  void incSerializationBufferAllocations(int bytes);
+
   // Stats for GMSHealthMonitor
   long getHeartbeatRequestsSent();
 
@@ -133,6 +133,9 @@ public class DistributionStats implements DMStats {
   private static final int pdxDeserializedBytesId;
   private static final int pdxInstanceDeserializationsId;
   private static final int pdxInstanceDeserializationTimeId;
+  private static final int serializationBufferReusesId;
+  private static final int serializationBufferAllocationsId;
+  private static final int serializationBufferAllocatedBytesId;
   private static final int pdxInstanceCreationsId;
 
   private static final int msgSerializationTimeId;
@@ -584,6 +587,15 @@ public class DistributionStats implements DMStats {
             "nanoseconds"),
         f.createIntCounter("pdxInstanceCreations",
             "Total number of times a deserialization created a PdxInstance.", "ops"),
+        f.createLongCounter("serializationBufferReuses",
+            "Total number of serializations that wrote into a buffer kept by their thread instead of allocating one.",
+            "ops"),
+        f.createLongCounter("serializationBufferAllocations",
+            "Total number of buffers allocated for serializations because their thread's buffer was in use or too small.",
+            "ops"),
+        f.createLongCounter("serializationBufferAllocatedBytes",
+            "Total number of bytes in the buffers counted by serializationBufferAllocations.",
+            "bytes"),
 
         f.createLongCounter("batchSendTime",
             "Total amount of time, in nanoseconds, spent queueing and flushing message batches",
@@ -829,6 +841,9 @@ public class DistributionStats implements DMStats {
     pdxInstanceDeserializationsId = type.nameToId("pdxInstanceDeserializations");
     pdxInstanceDeserializationTimeId = type.nameToId("pdxInstanceDeserializationTime");
     pdxInstanceCreationsId = type.nameToId("pdxInstanceCreations");
+    serializationBufferReusesId = type.nameToId("serializationBufferReuses");
+    serializationBufferAllocationsId = type.nameToId("serializationBufferAllocations");
+    serializationBufferAllocatedBytesId = type.nameToId("serializationBufferAllocatedBytes");
 
     msgSerializationTimeId = type.nameToId("msgSerializationTime");
     msgDeserializationTimeId = type.nameToId("msgDeserializationTime");
@@ -1465,6 +1480,15 @@ public class DistributionStats implements DMStats {
     stats.incInt(pdxInstanceCreationsId, 1);
   }
 
+  public void incSerializationBufferReuses() {
+    stats.incLong(serializationBufferReusesId, 1);
+  }
+
+  public void incSerializationBufferAllocations(int bytes) {
+    stats.incLong(serializationBufferAllocationsId, 1);
+    stats.incLong(serializationBufferAllocatedBytesId, bytes);
+  }
+
   public long startDeserialization() {
     return getStatTime();
   }
@@ -870,6 +870,12 @@ public class LonerDistributionManager implements DistributionManager {
     @Override
     public void incPdxInstanceCreations() {}
 
+    @Override
+    public void incSerializationBufferReuses() {}
+
+    @Override
+    public void incSerializationBufferAllocations(int bytes) {}
+
     @Override
     public void incThreadOwnedReceivers(long value, int dominoCount) {}
 
@@ -17,8 +17,14 @@ package org.apache.geode.internal;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.function.Supplier;
 
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 
@@ -422,6 +428,9 @@ import org.apache.geode.pdx.internal.EnumInfo;
  */
 public class DSFIDFactory implements DataSerializableFixedID {
 
+  /** Fixed ids from Byte.MIN_VALUE up to, but not including, this one are kept in an array */
+  private static final int DSFID_MAP_LIMIT = 4096;
+
   private DSFIDFactory() {
     // no instances allowed
     throw new UnsupportedOperationException();
@@ -443,9 +452,14 @@ public class DSFIDFactory implements DataSerializableFixedID {
     throw new UnsupportedOperationException();
   }
 
-  private static final Constructor<?>[] dsfidMap = new Constructor<?>[256];
+  /**
+   * The factories of the fixed ID classes whose ids are from Byte.MIN_VALUE to
+   * DSFID_MAP_LIMIT - 1, indexed by id - Byte.MIN_VALUE. That covers every id used so far.
+   */
+  private static final Supplier<?>[] dsfidMap = new Supplier<?>[DSFID_MAP_LIMIT - Byte.MIN_VALUE];
 
-  private static final Int2ObjectOpenHashMap dsfidMap2 = new Int2ObjectOpenHashMap(800);
+  /** The factories of the fixed ID classes whose ids are outside of dsfidMap */
+  private static final Int2ObjectOpenHashMap dsfidMap2 = new Int2ObjectOpenHashMap(16);
 
   static {
     registerDSFIDTypes();
@@ -460,14 +474,94 @@ public class DSFIDFactory implements DataSerializableFixedID {
         throw new InternalGemFireError(
             "default constructor not accessible " + "for DSFID=" + dsfid + ": " + dsfidClass);
       }
-      if (dsfid >= Byte.MIN_VALUE && dsfid <= Byte.MAX_VALUE) {
-        dsfidMap[dsfid + Byte.MAX_VALUE + 1] = cons;
+      Supplier<?> factory = new LazyFactory(dsfid, dsfidClass, cons);
+      if (dsfid >= Byte.MIN_VALUE && dsfid < DSFID_MAP_LIMIT) {
+        dsfidMap[dsfid - Byte.MIN_VALUE] = factory;
       } else {
-        dsfidMap2.put(dsfid, cons);
+        dsfidMap2.put(dsfid, factory);
+      }
+    } catch (NoSuchMethodException e) {
+      throw new InternalGemFireError(e);
+    }
+  }
+
+  /**
+   * The factory registered for a fixed ID class until an instance of it is first created, which
+   * creates the factory used from then on and puts it in dsfidMap in place of this one. Most
+   * members only ever receive a small part of the fixed ID classes, so this keeps the others from
+   * slowing down startup.
+   */
+  private static class LazyFactory implements Supplier<Object> {
+    private final int dsfid;
+    private final Class<?> dsfidClass;
+    private final Constructor<?> cons;
+    private volatile Supplier<?> factory;
+
+    LazyFactory(int dsfid, Class<?> dsfidClass, Constructor<?> cons) {
+      this.dsfid = dsfid;
+      this.dsfidClass = dsfidClass;
+      this.cons = cons;
+    }
+
+    @Override
+    public Object get() {
+      Supplier<?> result = this.factory;
+      if (result == null) {
+        try {
+          result = createFactory(this.dsfidClass, this.cons);
+        } catch (IllegalAccessException e) {
+          throw new UndeclaredThrowableException(e);
+        }
+        this.factory = result;
+        if (this.dsfid >= Byte.MIN_VALUE && this.dsfid < DSFID_MAP_LIMIT
+            && dsfidMap[this.dsfid - Byte.MIN_VALUE] == this) {
+          dsfidMap[this.dsfid - Byte.MIN_VALUE] = result;
+        }
+      }
+      return result.get();
+    }
+  }
+
+  /**
+   * Returns a factory that calls the given constructor. If the class is public and was loaded by
+   * the same class loader as this class the factory is generated by the LambdaMetafactory, like a
+   * constructor reference would be, so that creating an instance is an ordinary call. Otherwise the
+   * factory invokes a MethodHandle of the constructor.
+   */
+  private static Supplier<?> createFactory(Class<?> dsfidClass, Constructor<?> cons)
+      throws IllegalAccessException {
+    MethodHandles.Lookup lookup = MethodHandles.lookup();
+    MethodHandle handle = lookup.unreflectConstructor(cons);
+    if (isPublic(dsfidClass)
+        && dsfidClass.getClassLoader() == DSFIDFactory.class.getClassLoader()) {
+      try {
+        return (Supplier<?>) LambdaMetafactory
+            .metafactory(lookup, "get", MethodType.methodType(Supplier.class),
+                MethodType.methodType(Object.class), handle, MethodType.methodType(dsfidClass))
+            .getTarget().invokeExact();
+      } catch (Throwable ignore) {
+        // use the MethodHandle below
+      }
+    }
+    final MethodHandle objectHandle = handle.asType(MethodType.methodType(Object.class));
+    return () -> {
+      try {
+        return (Object) objectHandle.invokeExact();
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable t) {
+        throw new UndeclaredThrowableException(t);
+      }
+    };
+  }
+
+  private static boolean isPublic(Class<?> c) {
+    for (; c != null; c = c.getEnclosingClass()) {
+      if (!Modifier.isPublic(c.getModifiers())) {
+        return false;
       }
-    } catch (NoSuchMethodException nsme) {
-      throw new InternalGemFireError(nsme);
     }
+    return true;
   }
 
   public static void registerTypes() {
@@ -978,31 +1072,30 @@ public class DSFIDFactory implements DataSerializableFixedID {
       case PR_DESTROY_ON_DATA_STORE_MESSAGE:
         return readDestroyOnDataStore(in);
       default:
-        final Constructor<?> cons;
-        if (dsfid >= Byte.MIN_VALUE && dsfid <= Byte.MAX_VALUE) {
-          cons = dsfidMap[dsfid + Byte.MAX_VALUE + 1];
+        final Supplier<?> factory;
+        if (dsfid >= Byte.MIN_VALUE && dsfid < DSFID_MAP_LIMIT) {
+          factory = dsfidMap[dsfid - Byte.MIN_VALUE];
         } else {
-          cons = (Constructor<?>) dsfidMap2.get(dsfid);
+          factory = (Supplier<?>) dsfidMap2.get(dsfid);
         }
-        if (cons != null) {
+        if (factory != null) {
+          Object ds;
           try {
-            Object ds = cons.newInstance((Object[]) null);
-            InternalDataSerializer.invokeFromData(ds, in);
-            return ds;
-          } catch (InstantiationException ie) {
-            throw new IOException(ie.getMessage(), ie);
-          } catch (IllegalAccessException iae) {
-            throw new IOException(iae.getMessage(), iae);
-          } catch (InvocationTargetException ite) {
-            Throwable targetEx = ite.getTargetException();
+            ds = factory.get();
+          } catch (UndeclaredThrowableException e) {
+            Throwable targetEx = e.getUndeclaredThrowable();
             if (targetEx instanceof IOException) {
               throw (IOException) targetEx;
             } else if (targetEx instanceof ClassNotFoundException) {
               throw (ClassNotFoundException) targetEx;
             } else {
-              throw new IOException(ite.getMessage(), targetEx);
+              throw new IOException(e.getMessage(), targetEx);
             }
+          } catch (RuntimeException e) {
+            throw new IOException(e.getMessage(), e);
           }
+          InternalDataSerializer.invokeFromData(ds, in);
+          return ds;
         }
         throw new DSFIDNotFoundException("Unknown DataSerializableFixedID: " + dsfid, dsfid);
 
@@ -1069,7 +1162,7 @@ public class DSFIDFactory implements DataSerializableFixedID {
     return serializable;
   }
 
-  public static Constructor<?>[] getDsfidmap() {
+  public static Supplier<?>[] getDsfidmap() {
     return dsfidMap;
   }
 
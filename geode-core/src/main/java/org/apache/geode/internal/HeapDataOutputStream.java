@@ -386,6 +386,17 @@ public class HeapDataOutputStream extends OutputStream
     this.expansionException = null;
   }
 
+  /**
+   * Resets this stream so that it writes into the given buffer with the given version. Used by
+   * {@link HeapDataOutputStreamPool} to reuse a stream and its buffer.
+   */
+  void reset(ByteBuffer newBuffer, Version version) {
+    reset();
+    this.buffer = newBuffer;
+    this.version = version;
+    this.doNotCopy = false;
+  }
+
   @Override
   public void flush() {
     // noop
@@ -454,6 +465,25 @@ public class HeapDataOutputStream extends OutputStream
     }
   }
 
+  /**
+   * Copies the contents of this stream into a new byte[] of exactly its size. Unlike
+   * {@link #toByteArray()} the result is never one of this stream's buffers and this stream keeps
+   * its buffers, so it can be reset and written again while the result is in use.
+   */
+  public byte[] copyToByteArray() {
+    finishWriting();
+    byte[] result = new byte[this.size];
+    int offset = 0;
+    if (this.chunks != null) {
+      for (ByteBuffer bb : this.chunks) {
+        int len = bb.remaining();
+        bb.duplicate().get(result, offset, len);
+        offset += len;
+      }
+    }
+    this.buffer.duplicate().get(result, offset, this.buffer.remaining());
+    return result;
+  }
 
   /**
    * Writes this stream to the wrapper object of BytesAndBitsForCompactor type. The byte array
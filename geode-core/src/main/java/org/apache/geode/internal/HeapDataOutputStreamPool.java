@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal;
+
+import java.nio.ByteBuffer;
+
+import org.apache.geode.distributed.internal.DMStats;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.distributed.internal.InternalDistributedSystem;
+
+/**
+ * Lends each thread a HeapDataOutputStream to serialize into, so that a serialization whose bytes
+ * are copied out of the stream, like the one in BlobHelper.serializeToBlob, does not allocate a new
+ * stream and buffer every time.
+ *
+ * <p>
+ * Each thread keeps one stream and one buffer. The buffer starts at 1024 bytes and, whenever a
+ * serialization does not fit in it, is replaced when the stream is released by one of the next
+ * power of two size that holds it, up to {@link #MAX_BUFFER_SIZE}. Serializations of a similar size
+ * then fit in the buffer without chunks. A thread that acquires a stream while its own is still in
+ * use, as a nested serialization does, gets a new stream that is not pooled.
+ *
+ * <p>
+ * A stream must be released by the thread that acquired it once the bytes have been copied out of
+ * it, and must not be used after that.
+ */
+public class HeapDataOutputStreamPool {
+
+  /**
+   * The largest buffer a thread keeps. Set it to zero to allocate a new stream for every
+   * serialization.
+   */
+  static final int MAX_BUFFER_SIZE =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "HeapDataOutputStream.MAX_POOLED_SIZE",
+          32 * 1024);
+
+  private static final int INITIAL_BUFFER_SIZE = Math.min(1024, MAX_BUFFER_SIZE);
+
+  private static final ThreadLocal<PooledStream> pooledStreams =
+      ThreadLocal.withInitial(PooledStream::new);
+
+  private HeapDataOutputStreamPool() {
+    // no instances allowed
+  }
+
+  /**
+   * Returns the calling thread's stream, set to write with the given version, or a new stream if
+   * that one is in use.
+   */
+  public static HeapDataOutputStream acquire(Version version) {
+    if (MAX_BUFFER_SIZE <= 0) {
+      return new HeapDataOutputStream(version);
+    }
+    PooledStream pooled = pooledStreams.get();
+    if (pooled.inUse) {
+      incBufferAllocations(INITIAL_BUFFER_SIZE);
+      return new HeapDataOutputStream(version);
+    }
+    pooled.inUse = true;
+    pooled.stream.reset(pooled.buffer, version);
+    incBufferReuses();
+    return pooled.stream;
+  }
+
+  /**
+   * Gives back a stream returned by {@link #acquire}. Streams that are not pooled are left to be
+   * garbage collected.
+   */
+  public static void release(HeapDataOutputStream stream) {
+    if (MAX_BUFFER_SIZE <= 0) {
+      return;
+    }
+    PooledStream pooled = pooledStreams.get();
+    if (pooled.stream != stream) {
+      return;
+    }
+    int size = stream.size();
+    int capacity = pooled.buffer.capacity();
+    if (size > capacity && capacity < MAX_BUFFER_SIZE) {
+      int newCapacity = (int) Math.min(MAX_BUFFER_SIZE, Long.highestOneBit(size - 1) << 1);
+      pooled.buffer = ByteBuffer.allocate(newCapacity);
+      incBufferAllocations(newCapacity);
+    }
+    pooled.buffer.clear();
+    // drop the chunks, and any array handed out by toByteArray, along with the version
+    pooled.stream.reset(pooled.buffer, null);
+    pooled.inUse = false;
+  }
+
+  private static void incBufferReuses() {
+    DMStats stats = InternalDistributedSystem.getDMStats();
+    if (stats != null) {
+      stats.incSerializationBufferReuses();
+    }
+  }
+
+  private static void incBufferAllocations(int bytes) {
+    DMStats stats = InternalDistributedSystem.getDMStats();
+    if (stats != null) {
+      stats.incSerializationBufferAllocations(bytes);
+    }
+  }
+
+  private static class PooledStream {
+    private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+    private final HeapDataOutputStream stream = new HeapDataOutputStream(this.buffer, null, false);
+    private boolean inUse;
+  }
+}
@@ -64,6 +64,8 @@ import java.util.Vector;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.logging.log4j.Logger;
@@ -138,6 +140,25 @@ public abstract class InternalDataSerializer extends DataSerializer implements D
    * serialization.
    */
   private static final Map<String, DataSerializer> classesToSerializers = new ConcurrentHashMap<>();
+
+  /**
+   * The result of {@link #getSerializer(Class)} for each class it was called with, so that writing
+   * an object does not look up its class name every time. Each result remembers the
+   * serializersVersion it was looked up in and is only used while that is still the version.
+   */
+  private static final ClassValue<AtomicReference<CachedSerializer>> cachedSerializers =
+      new ClassValue<AtomicReference<CachedSerializer>>() {
+        @Override
+        protected AtomicReference<CachedSerializer> computeValue(Class<?> type) {
+          return new AtomicReference<>();
+        }
+      };
+
+  /**
+   * Incremented after every change to classesToSerializers or supportedClassesToHolders, which
+   * makes the results in cachedSerializers stale.
+   */
+  private static final AtomicInteger serializersVersion = new AtomicInteger();
   private static final String SANCTIONED_SERIALIZABLES_DEPENDENCIES_PATTERN =
       "java.**;javax.management.**" + ";javax.print.attribute.EnumSyntax" // used for some old enums
           + ";antlr.**" // query AST objects
@@ -945,6 +966,7 @@ public abstract class InternalDataSerializer extends DataSerializer implements D
         }
       }
     } finally {
+      serializersVersion.incrementAndGet();
       if (dsForMarkers == null) {
         idsToSerializers.remove(idx, m);
       } else {
@@ -1044,10 +1066,23 @@ public abstract class InternalDataSerializer extends DataSerializer implements D
         supportedClassesToHolders.putIfAbsent(supportedClassName, idsToHolders.get(e.getKey()));
       }
     }
+    serializersVersion.incrementAndGet();
   }
 
   public static void updateSupportedClassesMap(String dsClassName, String supportedClassName) {
     supportedClassesToHolders.putIfAbsent(supportedClassName, dsClassesToHolders.get(dsClassName));
+    serializersVersion.incrementAndGet();
+  }
+
+  /** A result of {@link #lookupSerializer} and the serializersVersion it was looked up in */
+  private static class CachedSerializer {
+    private final int version;
+    private final DataSerializer serializer;
+
+    CachedSerializer(int version, DataSerializer serializer) {
+      this.version = version;
+      this.serializer = serializer;
+    }
   }
 
   public static class SerializerAttributesHolder {
@@ -1161,6 +1196,7 @@ public abstract class InternalDataSerializer extends DataSerializer implements D
       }
       dsClassesToHolders.remove(s.getClass().getName());
       idsToHolders.remove(idx);
+      serializersVersion.incrementAndGet();
     }
   }
 
@@ -1172,6 +1208,7 @@ public abstract class InternalDataSerializer extends DataSerializer implements D
     dsClassesToHolders.clear();
     idsToHolders.clear();
     initializeWellKnownSerializers();
+    serializersVersion.incrementAndGet();
   }
 
   /**
@@ -1181,6 +1218,18 @@ public abstract class InternalDataSerializer extends DataSerializer implements D
    * fault.
    */
   private static DataSerializer getSerializer(Class c) {
+    AtomicReference<CachedSerializer> cache = cachedSerializers.get(c);
+    CachedSerializer cached = cache.get();
+    int version = serializersVersion.get();
+    if (cached != null && cached.version == version) {
+      return cached.serializer;
+    }
+    DataSerializer ds = lookupSerializer(c);
+    cache.set(new CachedSerializer(version, ds));
+    return ds;
+  }
+
+  private static DataSerializer lookupSerializer(Class c) {
     DataSerializer ds = classesToSerializers.get(c.getName());
     if (ds == null) {
       SerializerAttributesHolder sah = supportedClassesToHolders.get(c.getName());
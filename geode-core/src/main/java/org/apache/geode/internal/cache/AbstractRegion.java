@@ -601,6 +601,14 @@ public abstract class AbstractRegion implements InternalRegion, AttributesMutato
     return Collections.unmodifiableSet(this.allGatewaySenderIds);
   }
 
+  /**
+   * Returns true if this region has any gateway sender or async event queue, without wrapping the
+   * ids like {@link #getAllGatewaySenderIds()} does.
+   */
+  boolean hasAllGatewaySenderIds() {
+    return !this.allGatewaySenderIds.isEmpty();
+  }
+
   /**
    * Return the remote DS IDs that need to receive events for this region.
    *
@@ -87,8 +87,10 @@ import org.apache.geode.internal.offheap.annotations.Unretained;
 import org.apache.geode.internal.sequencelog.EntryLogger;
 import org.apache.geode.internal.size.ReflectionSingleObjectSizer;
 import org.apache.geode.internal.util.BlobHelper;
+import org.apache.geode.internal.util.concurrent.ConcurrentHashMapWithReusableEntries;
 import org.apache.geode.internal.util.concurrent.ConcurrentMapWithReusableEntries;
 import org.apache.geode.internal.util.concurrent.CustomEntryConcurrentHashMap;
+import org.apache.geode.internal.util.concurrent.PrimitiveKeyConcurrentHashMap;
 
 /**
  * Abstract implementation of {@link RegionMap}that has all the common behavior.
@@ -108,6 +110,32 @@ public abstract class AbstractRegionMap
    */
   static Runnable testHookRunnableForConcurrentOperation = null;
 
+  /**
+   * Regions whose key constraint is Long or Integer keep their entries in a
+   * {@link PrimitiveKeyConcurrentHashMap} unless this property is set. Off-heap regions always use
+   * {@link CustomEntryConcurrentHashMap} since their entries must be released on clear.
+   */
+  static final boolean DISABLE_PRIMITIVE_KEY_MAP =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "DISABLE_PRIMITIVE_KEY_MAP");
+
+  /**
+   * If this system property is true when a region is created, its entries are kept in a
+   * {@link ConcurrentHashMapWithReusableEntries} instead of a {@link CustomEntryConcurrentHashMap}.
+   * This trades a node object per entry for lock-free reads, bin level locking and cooperative
+   * resizing, which scales better with many concurrent writers. Primitive keyed regions are not
+   * affected.
+   */
+  public static final String CONCURRENT_HASH_MAP_ENTRIES_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "CONCURRENT_HASH_MAP_ENTRIES";
+
+  /**
+   * If this property is set, versioned regions that keep their values on heap and have neither
+   * statistics, eviction nor persistence create compact entries, which pack their version stamp
+   * into fewer bytes.
+   */
+  public static final String COMPACT_REGION_ENTRIES_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "COMPACT_REGION_ENTRIES";
+
   private RegionEntryFactory entryFactory;
 
   private Attributes attr;
@@ -123,8 +151,6 @@ public abstract class AbstractRegionMap
       InternalRegionArguments internalRegionArgs, boolean isLRU) {
     _setAttributes(attr);
     setOwner(owner);
-    setEntryMap(createConcurrentMapWithReusableEntries(attr.initialCapacity, attr.loadFactor,
-        attr.concurrencyLevel, false, new AbstractRegionEntry.HashRegionEntryCreator()));
 
     boolean isDisk;
     boolean withVersioning;
@@ -143,8 +169,20 @@ public abstract class AbstractRegionMap
       throw new IllegalStateException("expected LocalRegion or PlaceHolderDiskRegion");
     }
 
+    if (!offHeap && !DISABLE_PRIMITIVE_KEY_MAP
+        && PrimitiveKeyConcurrentHashMap.supportsKeyConstraint(attr.keyConstraint)) {
+      setEntryMap(new PrimitiveKeyConcurrentHashMap<>(attr.initialCapacity, attr.loadFactor,
+          attr.concurrencyLevel, attr.keyConstraint == Integer.class));
+    } else if (Boolean.getBoolean(CONCURRENT_HASH_MAP_ENTRIES_PROPERTY)) {
+      setEntryMap(new ConcurrentHashMapWithReusableEntries<>(attr.initialCapacity, attr.loadFactor,
+          attr.concurrencyLevel));
+    } else {
+      setEntryMap(createConcurrentMapWithReusableEntries(attr.initialCapacity, attr.loadFactor,
+          attr.concurrencyLevel, false, new AbstractRegionEntry.HashRegionEntryCreator()));
+    }
+
     setEntryFactory(new RegionEntryFactoryBuilder().create(attr.statisticsEnabled, isLRU, isDisk,
-        withVersioning, offHeap));
+        withVersioning, offHeap, Boolean.getBoolean(COMPACT_REGION_ENTRIES_PROPERTY)));
   }
 
   private ConcurrentMapWithReusableEntries<Object, Object> createConcurrentMapWithReusableEntries(
@@ -300,6 +338,17 @@ public abstract class AbstractRegionMap
     return oldRe;
   }
 
+  /**
+   * Releases the off-heap memory, including an off-heap key, of an entry that was created for
+   * {@link #putEntryIfAbsent} but lost the race to an existing entry and so was never put in the
+   * map.
+   */
+  private static void releaseUnusedEntry(RegionEntry newRe) {
+    if (newRe instanceof OffHeapRegionEntry) {
+      ((OffHeapRegionEntry) newRe).release();
+    }
+  }
+
   @Override
   public RegionEntry getOperationalEntryInVM(Object key) {
     RegionEntry re = (RegionEntry) getEntryMap().get(key);
@@ -1040,6 +1089,9 @@ public abstract class AbstractRegionMap
               }
             }
           } finally {
+            if (oldRe != null) {
+              releaseUnusedEntry(newRe);
+            }
             if (done && result) {
               initialImagePutEntry(newRe);
             }
@@ -1214,9 +1266,10 @@ public abstract class AbstractRegionMap
           oqlIndexManager.waitForIndexInit();
         }
         EntryEventImpl cbEvent = null;
+        RegionEntry oldRe = null;
         try {
           synchronized (newRe) {
-            RegionEntry oldRe = putEntryIfAbsent(key, newRe);
+            oldRe = putEntryIfAbsent(key, newRe);
             while (!opCompleted && oldRe != null) {
               synchronized (oldRe) {
                 if (oldRe.isRemovedPhase2()) {
@@ -1340,6 +1393,9 @@ public abstract class AbstractRegionMap
         } catch (RegionClearedException e) {
           // TODO
         } finally {
+          if (oldRe != null) {
+            releaseUnusedEntry(newRe);
+          }
           if (oqlIndexManager != null) {
             oqlIndexManager.countDownIndexUpdaters();
           }
@@ -1429,8 +1485,9 @@ public abstract class AbstractRegionMap
             RegionEntry newRe =
                 getEntryFactory().createEntry(owner, event.getKey(), Token.REMOVED_PHASE1);
             synchronized (newRe) {
+              RegionEntry oldRe = null;
               try {
-                RegionEntry oldRe = putEntryIfAbsent(event.getKey(), newRe);
+                oldRe = putEntryIfAbsent(event.getKey(), newRe);
 
                 while (!opCompleted && oldRe != null) {
                   synchronized (oldRe) {
@@ -1592,6 +1649,9 @@ public abstract class AbstractRegionMap
                 }
                 throw ccme;
               } finally {
+                if (oldRe != null) {
+                  releaseUnusedEntry(newRe);
+                }
                 if (!opCompleted) {
                   removeEntry(event.getKey(), newRe, false);
                 }
@@ -1631,6 +1691,8 @@ public abstract class AbstractRegionMap
                     re = putEntryIfAbsent(event.getKey(), newRe);
                     if (re == tombstone) {
                       re = null; // pretend we don't have an entry
+                    } else if (re != null && !haveTombstone) {
+                      releaseUnusedEntry(newRe);
                     }
                   }
                 } else if (owner.getServerProxy() != null) {
@@ -1913,8 +1975,9 @@ public abstract class AbstractRegionMap
         boolean opCompleted = false;
         RegionEntry newRe = getEntryFactory().createEntry(owner, key, Token.REMOVED_PHASE1);
         synchronized (newRe) {
+          RegionEntry oldRe = null;
           try {
-            RegionEntry oldRe = putEntryIfAbsent(key, newRe);
+            oldRe = putEntryIfAbsent(key, newRe);
             while (!opCompleted && oldRe != null) {
               synchronized (oldRe) {
                 if (oldRe.isRemovedPhase2()) {
@@ -2036,6 +2099,9 @@ public abstract class AbstractRegionMap
               }
             }
           } finally {
+            if (oldRe != null) {
+              releaseUnusedEntry(newRe);
+            }
             if (!opCompleted) {
               removeEntry(key, newRe, false);
             }
@@ -2754,8 +2820,9 @@ public abstract class AbstractRegionMap
         }
         RegionEntry newRe = getEntryFactory().createEntry(owner, key, Token.REMOVED_PHASE1);
         synchronized (newRe) {
+          RegionEntry oldRe = null;
           try {
-            RegionEntry oldRe = putEntryIfAbsent(key, newRe);
+            oldRe = putEntryIfAbsent(key, newRe);
             while (!opCompleted && oldRe != null) {
               synchronized (oldRe) {
                 if (oldRe.isRemovedPhase2()) {
@@ -2911,6 +2978,9 @@ public abstract class AbstractRegionMap
               }
             }
           } finally {
+            if (oldRe != null) {
+              releaseUnusedEntry(newRe);
+            }
             if (!opCompleted) {
               removeEntry(key, newRe, false);
             }
@@ -1720,6 +1720,9 @@ public class BucketRegion extends DistributedRegion implements Bucket {
       super.invokePutCallbacks(eventType, event, callThem, notifyGateways);
     }
 
+    if (!isEventForPRNeeded(event, callDispatchListenerEvent)) {
+      return;
+    }
     @Released
     final EntryEventImpl prevent = createEventForPR(event);
     try {
@@ -1730,6 +1733,22 @@ public class BucketRegion extends DistributedRegion implements Bucket {
     }
   }
 
+  /**
+   * Returns false if the partitioned region would do nothing with the event made by
+   * {@link #createEventForPR(EntryEventImpl)}, because it has no listener to dispatch it to and
+   * there is no cache server to notify clients through.
+   */
+  private boolean isEventForPRNeeded(EntryEventImpl event, boolean callDispatchListenerEvent) {
+    if (!event.isGenerateCallbacks()) {
+      return false;
+    }
+    if (!getCache().getCacheServers().isEmpty()) {
+      return true;
+    }
+    return callDispatchListenerEvent && this.partitionedRegion.isInitialized()
+        && this.partitionedRegion.shouldDispatchListenerEvent();
+  }
+
   /**
    * perform adjunct messaging for the given operation and return a set of members that should be
    * attached to the operation's reply processor (if any)
@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.geode.internal.cache.DiskStoreImpl.OplogCompactor;
+
+/**
+ * Decides the order in which a disk store compacts its oplogs and paces the compactor so that it
+ * does not compete at full speed with foreground writes.
+ *
+ * <p>
+ * Oplogs with the most garbage are compacted first. While compacting, the compactor calls
+ * {@link #compacted} after copying each live value forward. That keeps the copied bytes within
+ * the configured budget per second, and it pauses the compactor while recent foreground writes
+ * take longer than the configured latency target. The compactor never waits while it is being
+ * stopped or while a region clear or close waits for it to finish the oplog.
+ */
+class CompactionScheduler {
+
+  /**
+   * How long the compactor sleeps before checking again whether it may continue
+   */
+  private static final long SLEEP_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+  /**
+   * The longest the compactor pauses for slow foreground writes before copying another value, so
+   * that compaction makes progress, and releases its locks, even under sustained load
+   */
+  private static final long MAX_PAUSE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  /**
+   * Foreground write latency older than this is ignored since there have been no writes to
+   * compete with
+   */
+  private static final long WRITE_LATENCY_EXPIRY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  private final long bytesPerSecond;
+  private final long writeLatencyTargetNanos;
+  private final DiskStoreStats stats;
+
+  /**
+   * A moving average of the latency of recent foreground writes
+   */
+  private volatile long writeLatencyNanos;
+  private volatile long lastWriteTime;
+
+  /**
+   * The start of the current budget window and the bytes copied in it. Only used by the compactor.
+   */
+  private long windowStart;
+  private long windowBytes;
+
+  /**
+   * @param bytesPerSecond the number of bytes the compactor may copy per second; zero or less for
+   *        no limit
+   * @param writeLatencyTargetMillis the foreground write latency above which the compactor pauses;
+   *        zero or less to never pause
+   */
+  CompactionScheduler(long bytesPerSecond, long writeLatencyTargetMillis, DiskStoreStats stats) {
+    this.bytesPerSecond = bytesPerSecond;
+    this.writeLatencyTargetNanos = TimeUnit.MILLISECONDS.toNanos(writeLatencyTargetMillis);
+    this.stats = stats;
+  }
+
+  /**
+   * Sorts oplogs that need compaction so that the ones with the highest garbage ratio come first.
+   * Oplogs with the same ratio keep their order.
+   */
+  static void prioritize(List<Oplog> oplogs) {
+    final Map<Oplog, Double> garbageRatios = new IdentityHashMap<>(oplogs.size());
+    for (Oplog oplog : oplogs) {
+      // snapshot the ratios since they change while we sort
+      garbageRatios.put(oplog, oplog.getGarbageRatio());
+    }
+    oplogs.sort(Comparator.comparingDouble((Oplog oplog) -> garbageRatios.get(oplog)).reversed());
+  }
+
+  /**
+   * Returns the time a foreground write started, if its latency is needed.
+   */
+  long startWrite() {
+    return this.writeLatencyTargetNanos > 0 ? System.nanoTime() : 0;
+  }
+
+  /**
+   * Records the latency of a foreground write that started at the given time.
+   */
+  void endWrite(long start) {
+    if (start == 0) {
+      return;
+    }
+    final long now = System.nanoTime();
+    final long latency = now - start;
+    final long average = this.writeLatencyNanos;
+    this.writeLatencyNanos = average == 0 ? latency : average + (latency - average) / 8;
+    this.lastWriteTime = now;
+  }
+
+  boolean areWritesSlow() {
+    return this.writeLatencyTargetNanos > 0 && this.writeLatencyNanos > this.writeLatencyTargetNanos
+        && System.nanoTime() - this.lastWriteTime < WRITE_LATENCY_EXPIRY_NANOS;
+  }
+
+  /**
+   * Invoked by the compactor, without holding any entry locks, after it copied a value of the
+   * given size forward. Returns once the compactor may copy the next value.
+   */
+  void compacted(int bytes, OplogCompactor compactor) {
+    pauseWhileWritesAreSlow(compactor);
+    if (this.bytesPerSecond <= 0) {
+      return;
+    }
+    long now = System.nanoTime();
+    if (now - this.windowStart > TimeUnit.SECONDS.toNanos(1)) {
+      // do not let an idle compactor build up a burst
+      this.windowStart = now;
+      this.windowBytes = 0;
+    }
+    this.windowBytes += bytes;
+    final long allowedAt =
+        this.windowStart + this.windowBytes * TimeUnit.SECONDS.toNanos(1) / this.bytesPerSecond;
+    if (allowedAt > now && compactor.canPause()) {
+      final long start = now;
+      while (now < allowedAt && compactor.canPause()) {
+        if (!sleep(Math.min(allowedAt - now, SLEEP_NANOS))) {
+          break;
+        }
+        now = System.nanoTime();
+      }
+      this.stats.incCompactionThrottleTime(now - start);
+    }
+  }
+
+  private void pauseWhileWritesAreSlow(OplogCompactor compactor) {
+    if (!areWritesSlow() || !compactor.canPause()) {
+      return;
+    }
+    final long start = System.nanoTime();
+    long now = start;
+    while (areWritesSlow() && now - start < MAX_PAUSE_NANOS && compactor.canPause()) {
+      if (!sleep(SLEEP_NANOS)) {
+        break;
+      }
+      now = System.nanoTime();
+    }
+    this.stats.endCompactionPause(now - start);
+  }
+
+  /**
+   * @return false if the compactor was interrupted
+   */
+  private static boolean sleep(long nanos) {
+    try {
+      TimeUnit.NANOSECONDS.sleep(nanos);
+      return true;
+    } catch (InterruptedException ignore) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+}
@@ -2235,6 +2235,16 @@ public class DiskInitFile implements DiskInitFileInterpreter {
         }
       }
     }
+    // the region map checkpoint is only valid with this init file
+    File checkpointFile =
+        RegionMapCheckpoint.getFile(this.ifFile.getParentFile(), this.parent.getName());
+    if (checkpointFile.exists()) {
+      if (!checkpointFile.delete()) {
+        if (logger.isDebugEnabled()) {
+          logger.debug("could not delete file {}", checkpointFile);
+        }
+      }
+    }
   }
 
 
@@ -112,6 +112,7 @@ import org.apache.geode.internal.cache.versions.VersionStamp;
 import org.apache.geode.internal.cache.versions.VersionTag;
 import org.apache.geode.internal.concurrent.ConcurrentHashSet;
 import org.apache.geode.internal.i18n.LocalizedStrings;
+import org.apache.geode.internal.lang.SystemUtils;
 import org.apache.geode.internal.logging.LogService;
 import org.apache.geode.internal.logging.LoggingThreadGroup;
 import org.apache.geode.internal.logging.log4j.LocalizedMessage;
@@ -187,6 +188,50 @@ public class DiskStoreImpl implements DiskStore {
   boolean FORCE_KRF_RECOVERY =
       getBoolean(DistributionConfig.GEMFIRE_PREFIX + "disk.FORCE_KRF_RECOVERY", false);
 
+  /**
+   * The number of threads that read the drf and krf files of the oplogs in parallel during
+   * recovery. If 1 they are all read by the recovering thread.
+   */
+  int RECOVERY_THREADS =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "disk.recoveryThreads", 4);
+
+  /**
+   * The maximum number of bytes of krf files that are read into memory ahead of their oplogs being
+   * recovered.
+   */
+  long RECOVERY_PREFETCH_BYTES = Long
+      .getLong(DistributionConfig.GEMFIRE_PREFIX + "disk.recoveryPrefetchBytes", 256 * 1024 * 1024);
+
+  /**
+   * The number of oplogs that are rolled between writing region map checkpoints. Zero or less
+   * disables checkpoints.
+   */
+  int CHECKPOINT_INTERVAL =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "disk.checkpointInterval", 8);
+
+  /**
+   * If true, values are faulted in from the crf files of oplogs that are no longer being appended
+   * to by reading a read only memory mapping of the file instead of seeking its RandomAccessFile
+   * under the oplog lock. The mapping is unmapped when the oplog is closed or deleted. Off by
+   * default on Windows, which does not allow mapped files to be deleted.
+   */
+  boolean MMAP_READS = getBoolean(DistributionConfig.GEMFIRE_PREFIX + "disk.mmapReads",
+      !SystemUtils.isWindows());
+
+  /**
+   * The number of bytes per second the compactor may copy forward from the oplogs it compacts. Zero
+   * or less does not limit it.
+   */
+  long COMPACTION_BYTES_PER_SECOND =
+      Long.getLong(DistributionConfig.GEMFIRE_PREFIX + "disk.compactionBytesPerSecond", 0);
+
+  /**
+   * The average latency, in milliseconds, of foreground writes above which the compactor pauses.
+   * Zero or less never pauses it.
+   */
+  long COMPACTION_WRITE_LATENCY_TARGET =
+      Long.getLong(DistributionConfig.GEMFIRE_PREFIX + "disk.compactionWriteLatencyTarget", 0);
+
   final boolean RECOVER_LRU_VALUES =
       getBoolean(DiskStoreImpl.RECOVER_LRU_VALUES_PROPERTY_NAME, false);
 
@@ -266,6 +311,8 @@ public class DiskStoreImpl implements DiskStore {
   /** The stats for this store */
   private final DiskStoreStats stats;
 
+  private final CompactionScheduler compactionScheduler;
+
   /**
    * Added as stop gap arrangement to fix bug 39380. It is not a clean fix as keeping track of the
    * threads acquiring read lock, etc is not a good idea to solve the issue
@@ -418,6 +465,9 @@ public class DiskStoreImpl implements DiskStore {
     this.cache = cache;
     StatisticsFactory factory = cache.getDistributedSystem();
     this.stats = new DiskStoreStats(factory, getName());
+    this.compactionScheduler = new CompactionScheduler(COMPACTION_BYTES_PER_SECOND,
+        COMPACTION_WRITE_LATENCY_TARGET, this.stats);
+    this.stats.setCompactionDebtSupplier(() -> getPersistentOplogs().getCompactionDebt());
 
     // start simple init
 
@@ -577,6 +627,10 @@ public class DiskStoreImpl implements DiskStore {
     return this.stats;
   }
 
+  CompactionScheduler getCompactionScheduler() {
+    return this.compactionScheduler;
+  }
+
   public Map<Long, AbstractDiskRegion> getAllDiskRegions() {
     Map<Long, AbstractDiskRegion> results = new HashMap<Long, AbstractDiskRegion>();
     results.putAll(drMap);
@@ -696,8 +750,10 @@ public class DiskStoreImpl implements DiskStore {
     DiskRegion dr = region.getDiskRegion();
     DiskId id = entry.getDiskId();
     long start = async ? getStats().startFlush() : getStats().startWrite();
+    long writeStart = 0;
     if (!async) {
       dr.getStats().startWrite();
+      writeStart = this.compactionScheduler.startWrite();
     }
     try {
       if (!async) {
@@ -755,6 +811,7 @@ public class DiskStoreImpl implements DiskStore {
       } else {
         dr.getStats().endWrite(start, getStats().endWrite(start));
         dr.getStats().incWrittenBytes(id.getValueLength());
+        this.compactionScheduler.endWrite(writeStart);
       }
     }
   }
@@ -3000,6 +3057,14 @@ public class DiskStoreImpl implements DiskStore {
     boolean keepCompactorRunning() {
       return this.compactorEnabled || this.compactionCompletionRequired;
     }
+
+    /**
+     * Returns true if the compactor may pause in the middle of an oplog. It may not while it is
+     * being stopped or while others, like a region clear or close, wait for the compactor lock.
+     */
+    boolean canPause() {
+      return this.compactorEnabled && !compactorLock.hasQueuedThreads();
+    }
   }
 
   /**
@@ -3516,6 +3581,11 @@ public class DiskStoreImpl implements DiskStore {
     public int size() {
       return this.ints.size() + this.longs.size();
     }
+
+    public void addAll(OplogEntryIdSet other) {
+      this.ints.addAll(other.ints);
+      this.longs.addAll(other.longs);
+    }
   }
 
   /**
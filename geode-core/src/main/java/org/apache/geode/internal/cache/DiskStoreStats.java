@@ -14,6 +14,8 @@
  */
 package org.apache.geode.internal.cache;
 
+import java.util.function.LongSupplier;
+
 import org.apache.geode.*;
 import org.apache.geode.distributed.internal.DistributionStats;
 import org.apache.geode.internal.statistics.StatisticsTypeFactoryImpl;
@@ -77,6 +79,25 @@ public class DiskStoreStats {
   private static final int backupsInProgress;
   private static final int backupsCompleted;
 
+  private static final int groupCommitsId;
+  private static final int groupCommitWritesId;
+  private static final int groupCommitTimeId;
+
+  private static final int recoveryDeletesTimeId;
+  private static final int recoveryEntriesTimeId;
+  private static final int recoveryRegionInitTimeId;
+
+  private static final int checkpointsId;
+  private static final int checkpointTimeId;
+  private static final int checkpointedOplogsRecoveredId;
+
+  private static final int oplogMappedReadsId;
+
+  private static final int compactionDebtId;
+  private static final int compactionThrottleTimeId;
+  private static final int compactionPausesId;
+  private static final int compactionPauseTimeId;
+
   static {
     String statName = "DiskStoreStatistics";
     String statDescription = "Statistics about a Region's use of the disk";
@@ -185,7 +206,46 @@ public class DiskStoreStats {
                 "The current number of regions that have been recovered but have not yet been created.",
                 "regions"),
             f.createIntGauge("backupsInProgress", backupsInProgressDesc, "backups"),
-            f.createIntCounter("backupsCompleted", backupsCompletedDesc, "backups"),});
+            f.createIntCounter("backupsCompleted", backupsCompletedDesc, "backups"),
+            f.createLongCounter("groupCommits",
+                "The total number of times synchronous writes were flushed to disk together.",
+                "commits"),
+            f.createLongCounter("groupCommitWrites",
+                "The total number of synchronous writes flushed by group commits. Divide by groupCommits for the average group size.",
+                "writes"),
+            f.createLongCounter("groupCommitTime",
+                "The total amount of time spent flushing groups of synchronous writes to disk.",
+                "nanoseconds"),
+            f.createLongCounter("recoveryDeletesTime",
+                "The total amount of time recoveries spent reading the drf files of the oplogs.",
+                "nanoseconds"),
+            f.createLongCounter("recoveryEntriesTime",
+                "The total amount of time recoveries spent reading the krf or crf files of the oplogs into the region maps.",
+                "nanoseconds"),
+            f.createLongCounter("recoveryRegionInitTime",
+                "The total amount of time recoveries spent initializing the recovered oplogs and regions.",
+                "nanoseconds"),
+            f.createLongCounter("checkpoints",
+                "The number of region map checkpoints written by this disk store.", "checkpoints"),
+            f.createLongCounter("checkpointTime",
+                "The total amount of time spent writing region map checkpoints.", "nanoseconds"),
+            f.createLongCounter("checkpointedOplogsRecovered",
+                "The number of oplogs whose entries recoveries read from a region map checkpoint instead of their krf file.",
+                "oplogs"),
+            f.createLongCounter("oplogMappedReads",
+                "Total number of oplog reads served from a memory mapped crf file", "reads"),
+            f.createLongGauge("compactionDebt",
+                "The estimated number of bytes of garbage in the oplogs that are ready to be compacted.",
+                "bytes"),
+            f.createLongCounter("compactionThrottleTime",
+                "The total amount of time the compactor waited to stay within its bytes per second budget.",
+                "nanoseconds"),
+            f.createLongCounter("compactionPauses",
+                "The number of times the compactor paused because foreground writes were slower than the target latency.",
+                "pauses"),
+            f.createLongCounter("compactionPauseTime",
+                "The total amount of time the compactor paused because foreground writes were slower than the target latency.",
+                "nanoseconds"),});
 
     // Initialize id fields
     writesId = type.nameToId("writes");
@@ -233,6 +293,20 @@ public class DiskStoreStats {
     uncreatedRecoveredRegionsId = type.nameToId("uncreatedRecoveredRegions");
     backupsInProgress = type.nameToId("backupsInProgress");
     backupsCompleted = type.nameToId("backupsCompleted");
+    groupCommitsId = type.nameToId("groupCommits");
+    groupCommitWritesId = type.nameToId("groupCommitWrites");
+    groupCommitTimeId = type.nameToId("groupCommitTime");
+    recoveryDeletesTimeId = type.nameToId("recoveryDeletesTime");
+    recoveryEntriesTimeId = type.nameToId("recoveryEntriesTime");
+    recoveryRegionInitTimeId = type.nameToId("recoveryRegionInitTime");
+    checkpointsId = type.nameToId("checkpoints");
+    checkpointTimeId = type.nameToId("checkpointTime");
+    checkpointedOplogsRecoveredId = type.nameToId("checkpointedOplogsRecovered");
+    oplogMappedReadsId = type.nameToId("oplogMappedReads");
+    compactionDebtId = type.nameToId("compactionDebt");
+    compactionThrottleTimeId = type.nameToId("compactionThrottleTime");
+    compactionPausesId = type.nameToId("compactionPauses");
+    compactionPauseTimeId = type.nameToId("compactionPauseTime");
   }
 
   ////////////////////// Instance Fields //////////////////////
@@ -375,6 +449,30 @@ public class DiskStoreStats {
     return this.stats.getLong(flushesId);
   }
 
+  public long startGroupCommit() {
+    return DistributionStats.getStatTime();
+  }
+
+  /**
+   * Invoked after a group of synchronous writes has been flushed to disk
+   *
+   * @param start The time at which the group commit started
+   * @param writes The number of writes the group commit flushed
+   */
+  public void endGroupCommit(long start, long writes) {
+    this.stats.incLong(groupCommitsId, 1);
+    this.stats.incLong(groupCommitWritesId, writes);
+    this.stats.incLong(groupCommitTimeId, DistributionStats.getStatTime() - start);
+  }
+
+  public long getGroupCommits() {
+    return this.stats.getLong(groupCommitsId);
+  }
+
+  public long getGroupCommitWrites() {
+    return this.stats.getLong(groupCommitWritesId);
+  }
+
   /**
    * Invoked before data is read from disk.
    *
@@ -433,6 +531,47 @@ public class DiskStoreStats {
     this.stats.incLong(recoveredBytesId, bytesRead);
   }
 
+  /**
+   * Invoked after a recovery with the nanoseconds each of its phases took
+   */
+  public void incRecoveryPhaseTimes(long deletesTime, long entriesTime, long regionInitTime) {
+    this.stats.incLong(recoveryDeletesTimeId, deletesTime);
+    this.stats.incLong(recoveryEntriesTimeId, entriesTime);
+    this.stats.incLong(recoveryRegionInitTimeId, regionInitTime);
+  }
+
+  public long getRecoveryDeletesTime() {
+    return this.stats.getLong(recoveryDeletesTimeId);
+  }
+
+  public long getRecoveryEntriesTime() {
+    return this.stats.getLong(recoveryEntriesTimeId);
+  }
+
+  public long getRecoveryRegionInitTime() {
+    return this.stats.getLong(recoveryRegionInitTimeId);
+  }
+
+  /**
+   * Invoked after a region map checkpoint was written in the given number of nanoseconds
+   */
+  public void endCheckpoint(long time) {
+    this.stats.incLong(checkpointsId, 1);
+    this.stats.incLong(checkpointTimeId, time);
+  }
+
+  public void incCheckpointedOplogsRecovered() {
+    this.stats.incLong(checkpointedOplogsRecoveredId, 1);
+  }
+
+  public long getCheckpoints() {
+    return this.stats.getLong(checkpointsId);
+  }
+
+  public long getCheckpointedOplogsRecovered() {
+    return this.stats.getLong(checkpointedOplogsRecoveredId);
+  }
+
   public void endCompaction(long start) {
     this.stats.incInt(compactsInProgressId, -1);
     long end = DistributionStats.getStatTime();
@@ -494,10 +633,51 @@ public class DiskStoreStats {
     this.stats.incLong(oplogReadsId, 1);
   }
 
+  public long getOplogReads() {
+    return this.stats.getLong(oplogReadsId);
+  }
+
   public void incOplogSeeks() {
     this.stats.incLong(oplogSeeksId, 1);
   }
 
+  public void setCompactionDebtSupplier(LongSupplier supplier) {
+    this.stats.setLongSupplier(compactionDebtId, supplier);
+  }
+
+  public long getCompactionDebt() {
+    return this.stats.getLong(compactionDebtId);
+  }
+
+  public void incCompactionThrottleTime(long time) {
+    this.stats.incLong(compactionThrottleTimeId, time);
+  }
+
+  public long getCompactionThrottleTime() {
+    return this.stats.getLong(compactionThrottleTimeId);
+  }
+
+  /**
+   * Invoked after the compactor paused for slow foreground writes for the given number of
+   * nanoseconds
+   */
+  public void endCompactionPause(long time) {
+    this.stats.incLong(compactionPausesId, 1);
+    this.stats.incLong(compactionPauseTimeId, time);
+  }
+
+  public long getCompactionPauses() {
+    return this.stats.getLong(compactionPausesId);
+  }
+
+  public void incOplogMappedReads() {
+    this.stats.incLong(oplogMappedReadsId, 1);
+  }
+
+  public long getOplogMappedReads() {
+    return this.stats.getLong(oplogMappedReadsId);
+  }
+
   public void incInactiveOplogs(int delta) {
     this.stats.incInt(inactiveOplogsId, delta);
   }
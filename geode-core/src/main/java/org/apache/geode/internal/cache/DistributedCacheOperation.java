@@ -379,7 +379,7 @@ public abstract class DistributedCacheOperation {
 
       Set cachelessNodes = Collections.emptySet();
       Set adviseCacheServers;
-      Set<InternalDistributedMember> cachelessNodesWithNoCacheServer = new HashSet<>();
+      Set<InternalDistributedMember> cachelessNodesWithNoCacheServer = Collections.emptySet();
       if (region.getDistributionConfig().getDeltaPropagation() && this.supportsDeltaPropagation()) {
         cachelessNodes = region.getCacheDistributionAdvisor().adviseEmptys();
         if (!cachelessNodes.isEmpty()) {
@@ -395,9 +395,12 @@ public abstract class DistributedCacheOperation {
           cachelessNodes.addAll(list);
         }
 
-        cachelessNodesWithNoCacheServer.addAll(cachelessNodes);
-        adviseCacheServers = region.getCacheDistributionAdvisor().adviseCacheServers();
-        cachelessNodesWithNoCacheServer.removeAll(adviseCacheServers);
+        // only look for cache servers when there are cacheless nodes to check them against
+        if (!cachelessNodes.isEmpty()) {
+          cachelessNodesWithNoCacheServer = new HashSet<>(cachelessNodes);
+          adviseCacheServers = region.getCacheDistributionAdvisor().adviseCacheServers();
+          cachelessNodesWithNoCacheServer.removeAll(adviseCacheServers);
+        }
       }
 
       if (recipients.isEmpty() && adjunctRecipients.isEmpty() && needsOldValueInCacheOp.isEmpty()
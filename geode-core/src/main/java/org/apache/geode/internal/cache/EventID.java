@@ -107,6 +107,13 @@ public class EventID implements DataSerializableFixedID, Serializable, Externali
    */
   private static DistributedMember systemMemberId;
 
+  /**
+   * the port of systemMemberId when client_side_event_identity was serialized. A loner may be given
+   * its port after it has been used to create event ids, so its identity is only reused while the
+   * port has not changed.
+   */
+  private static int systemMemberPort;
+
   /**
    * this form of client ID is used in event identifiers to reduce the size of the ID
    */
@@ -554,18 +561,24 @@ public class EventID implements DataSerializableFixedID, Serializable, Externali
     }
     if (EventID.system != sys) {
       // DS already exists... make sure it's for current DS connection
-      EventID.systemMemberId = sys.getDistributedMember();
-      try {
-        HeapDataOutputStream hdos = new HeapDataOutputStream(256, Version.CURRENT);
-        ((InternalDistributedMember) EventID.systemMemberId).writeEssentialData(hdos);
-        client_side_event_identity = hdos.toByteArray();
-      } catch (IOException ioe) {
-        throw new InternalGemFireException(
-            LocalizedStrings.ClientProxyMembershipID_UNABLE_TO_SERIALIZE_IDENTITY
-                .toLocalizedString(),
-            ioe);
+      InternalDistributedMember member = (InternalDistributedMember) sys.getDistributedMember();
+      int port = member.getPort();
+      if (member != EventID.systemMemberId || port != EventID.systemMemberPort
+          || client_side_event_identity == null) {
+        try {
+          HeapDataOutputStream hdos = new HeapDataOutputStream(256, Version.CURRENT);
+          member.writeEssentialData(hdos);
+          EventID.systemMemberId = member;
+          EventID.systemMemberPort = port;
+          client_side_event_identity = hdos.toByteArray();
+        } catch (IOException ioe) {
+          throw new InternalGemFireException(
+              LocalizedStrings.ClientProxyMembershipID_UNABLE_TO_SERIALIZE_IDENTITY
+                  .toLocalizedString(),
+              ioe);
+        }
       }
-      if (((InternalDistributedMember) EventID.systemMemberId).getPort() != 0) {
+      if (port != 0) {
         EventID.system = sys;
       }
     }
@@ -24,6 +24,13 @@ public class InlineKeyHelper {
   public static boolean INLINE_REGION_KEYS =
       !Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "DISABLE_INLINE_REGION_KEYS");
 
+  /**
+   * If true then String keys too long to be inlined are stored in off-heap memory by regions that
+   * store their values off heap.
+   */
+  public static boolean OFF_HEAP_STRING_KEYS =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "OFF_HEAP_STRING_KEYS");
+
   /**
    * The maximum number of longs any of region entry subclasses use to store the string key inline.
    */
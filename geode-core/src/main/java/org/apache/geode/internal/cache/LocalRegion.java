@@ -211,6 +211,7 @@ import org.apache.geode.internal.lang.SystemPropertyHelper;
 import org.apache.geode.internal.logging.LogService;
 import org.apache.geode.internal.logging.log4j.LocalizedMessage;
 import org.apache.geode.internal.logging.log4j.LogMarker;
+import org.apache.geode.internal.offheap.DeserializedValueCache;
 import org.apache.geode.internal.offheap.OffHeapHelper;
 import org.apache.geode.internal.offheap.ReferenceCountHelper;
 import org.apache.geode.internal.offheap.Releasable;
@@ -219,8 +220,10 @@ import org.apache.geode.internal.offheap.annotations.Released;
 import org.apache.geode.internal.offheap.annotations.Retained;
 import org.apache.geode.internal.offheap.annotations.Unretained;
 import org.apache.geode.internal.sequencelog.EntryLogger;
+import org.apache.geode.internal.util.concurrent.ConcurrentMapWithReusableEntries;
 import org.apache.geode.internal.util.concurrent.CopyOnWriteHashMap;
 import org.apache.geode.internal.util.concurrent.FutureResult;
+import org.apache.geode.internal.util.concurrent.PrimitiveKeyConcurrentHashMap;
 import org.apache.geode.internal.util.concurrent.StoppableCountDownLatch;
 import org.apache.geode.internal.util.concurrent.StoppableReadWriteLock;
 import org.apache.geode.pdx.JSONFormatter;
@@ -678,6 +681,7 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
       ma.loadFactor = this.loadFactor;
       ma.initialCapacity = this.initialCapacity;
       ma.concurrencyLevel = this.concurrencyLevel;
+      ma.keyConstraint = this.keyConstraint;
       result = RegionMapFactory.createVM(this, ma, internalRegionArgs);
     }
     return result;
@@ -1236,8 +1240,12 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
       @Retained
       Object value;
       try {
+        DeserializedValueCache deserializedValueCache = getDeserializedValueCache();
         if (retainResult) {
           value = regionEntry.getValueRetain(this);
+        } else if (deserializedValueCache != null && !preferCachedDeserializable) {
+          value = getValueUsingDeserializedValueCache(regionEntry, deserializedValueCache,
+              !disableCopyOnRead && this.cache.isCopyOnRead());
         } else {
           value = regionEntry.getValue(this);
         }
@@ -1281,6 +1289,46 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
     }
   }
 
+  private DeserializedValueCache getDeserializedValueCache() {
+    if (!getOffHeap()) {
+      return null;
+    }
+    return this.cache.getOffHeapStore().getDeserializedValueCache();
+  }
+
+  /**
+   * Returns the value of the given entry like {@link RegionEntry#getValue(RegionEntryContext)}
+   * except that a serialized off-heap value is returned in deserialized form, which is taken from
+   * the heap cache of deserialized off-heap values or deserialized and added to it. PDX values are
+   * not cached since whether they deserialize to a PdxInstance can differ from one read to the
+   * next. Since a cached value is shared by all readers it is copied if copyOnRead is true, even
+   * though off-heap regions are otherwise not {@link #isCopyOnRead()}.
+   */
+  private Object getValueUsingDeserializedValueCache(RegionEntry regionEntry,
+      DeserializedValueCache deserializedValueCache, boolean copyOnRead) {
+    @Retained
+    Object value = regionEntry.getValueRetain(this);
+    if (!StoredObject.isOffHeapReference(value)) {
+      return OffHeapHelper.copyAndReleaseIfNeeded(value, this.cache);
+    }
+    StoredObject storedObject = (StoredObject) value;
+    if (!storedObject.isSerialized() || storedObject.isSerializedPdxInstance()) {
+      return OffHeapHelper.copyAndReleaseIfNeeded(storedObject, this.cache);
+    }
+    try {
+      long address = storedObject.getAddress();
+      Object result = deserializedValueCache.get(address);
+      if (result == null) {
+        // the value is still retained so its memory can not be freed and reused before it is cached
+        result = storedObject.getDeserializedValue(this, regionEntry);
+        deserializedValueCache.put(address, result, storedObject.getDataSize());
+      }
+      return copyOnRead ? CopyHelper.copy(result) : result;
+    } finally {
+      OffHeapHelper.release(storedObject);
+    }
+  }
+
   @Override
   public Object get(Object key, Object aCallbackArgument, boolean generateCallbacks,
       EntryEventImpl clientEvent) throws TimeoutException, CacheLoaderException {
@@ -1384,6 +1432,99 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
     }
   }
 
+  /**
+   * Same as {@link #get(Object)} for a region keyed by {@code Long}. When the entries are held in a
+   * {@link PrimitiveKeyConcurrentHashMap} and no transaction is in progress, a local hit is served
+   * without boxing the key or building a {@link KeyInfo}. Anything else takes the normal path.
+   */
+  public Object get(long key) throws TimeoutException, CacheLoaderException {
+    Object value = getWithPrimitiveKey(key, false);
+    if (value == Token.NOT_AVAILABLE) {
+      value = get(Long.valueOf(key));
+    }
+    return value;
+  }
+
+  /**
+   * Same as {@link #get(Object)} for a region keyed by {@code Integer}.
+   *
+   * @see #get(long)
+   */
+  public Object get(int key) throws TimeoutException, CacheLoaderException {
+    Object value = getWithPrimitiveKey(key, true);
+    if (value == Token.NOT_AVAILABLE) {
+      value = get(Integer.valueOf(key));
+    }
+    return value;
+  }
+
+  /**
+   * Performs the checks and stats of a get around {@link #getLocalValueWithPrimitiveKey}.
+   *
+   * @return the value, or {@link Token#NOT_AVAILABLE} if the caller must use the boxed get
+   */
+  private Object getWithPrimitiveKey(long key, boolean intKey) {
+    if (!hasPrimitiveKeyMap(intKey)) {
+      return Token.NOT_AVAILABLE;
+    }
+    checkReadiness();
+    checkForNoAccess();
+    discoverJTA();
+    if (isTX()) {
+      return Token.NOT_AVAILABLE;
+    }
+    CachePerfStats stats = getCachePerfStats();
+    long start = stats.startGet();
+    Object value = getLocalValueWithPrimitiveKey(key);
+    if (value != Token.NOT_AVAILABLE) {
+      stats.endGet(start, false);
+    }
+    return value;
+  }
+
+  /**
+   * Returns true if this region's entries are held in a {@link PrimitiveKeyConcurrentHashMap}
+   * whose keys are Integers if intKey is true, or Longs if it is false.
+   */
+  boolean hasPrimitiveKeyMap(boolean intKey) {
+    ConcurrentMapWithReusableEntries<Object, Object> map =
+        this.entries.getCustomEntryConcurrentHashMap();
+    return map instanceof PrimitiveKeyConcurrentHashMap
+        && ((PrimitiveKeyConcurrentHashMap) map).hasIntKeys() == intKey;
+  }
+
+  /**
+   * Looks up the value of a primitive key in this region's {@link PrimitiveKeyConcurrentHashMap}
+   * and updates the entry stats for the hit. Only a present, valid value is returned; a miss,
+   * invalid entry or tombstone is left to the normal get path which knows how to search, load or
+   * record the miss. The caller must have checked {@link #hasPrimitiveKeyMap} and that no
+   * transaction is in progress.
+   *
+   * @return the value, or {@link Token#NOT_AVAILABLE} if it was not found locally
+   */
+  Object getLocalValueWithPrimitiveKey(long key) {
+    if (this.diskRegion != null) {
+      this.diskRegion.setClearCountReference();
+    }
+    try {
+      RegionEntry regionEntry = (RegionEntry) ((PrimitiveKeyConcurrentHashMap) this.entries
+          .getCustomEntryConcurrentHashMap()).get(key);
+      if (regionEntry == null) {
+        return Token.NOT_AVAILABLE;
+      }
+      Object value = getDeserialized(regionEntry, false, false, false, false);
+      if (value == null || Token.isInvalidOrRemoved(value)) {
+        return Token.NOT_AVAILABLE;
+      }
+      updateStatsForGet(regionEntry, true);
+      return value;
+    } finally {
+      if (this.diskRegion != null) {
+        this.diskRegion.removeClearCountReference();
+      }
+    }
+  }
+
   /**
    * Update region and potentially entry stats for the miss case
    *
@@ -1576,10 +1717,25 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
     }
   }
 
+  /**
+   * Same as {@link #put(Object, Object)} for a region keyed by {@code Long}. The key is boxed once
+   * since it is carried by the event.
+   */
+  public Object put(long key, Object value) throws TimeoutException, CacheWriterException {
+    return put(Long.valueOf(key), value);
+  }
+
+  /**
+   * Same as {@link #put(Object, Object)} for a region keyed by {@code Integer}.
+   */
+  public Object put(int key, Object value) throws TimeoutException, CacheWriterException {
+    return put(Integer.valueOf(key), value);
+  }
+
   Object validatedPut(EntryEventImpl event, long startPut)
       throws TimeoutException, CacheWriterException {
 
-    if (event.getEventId() == null && generateEventID()) {
+    if (event.getEventId() == null && generateEventID() && isEventIdNeededForPut()) {
       event.setNewEventId(this.cache.getDistributedSystem());
     }
     Object oldValue = null;
@@ -1600,6 +1756,17 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
     return handleNotAvailable(oldValue);
   }
 
+  /**
+   * Returns false if a put on this region can be done without an {@link EventID}. The id is only
+   * used to distribute the event, to track it for clients and to hand it to callbacks, so a local
+   * region with no listener, writer, gateway sender, async event queue or cache server (and so no
+   * clients with interest or CQs) that is not in a transaction does not need one.
+   */
+  boolean isEventIdNeededForPut() {
+    return !getScope().isLocal() || hasServerProxy() || hasListener() || basicGetWriter() != null
+        || hasAllGatewaySenderIds() || !this.cache.getCacheServers().isEmpty() || isTX();
+  }
+
   @Retained
   EntryEventImpl newUpdateEntryEvent(Object key, Object value, Object aCallbackArgument) {
 
@@ -6136,6 +6303,9 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
     }
 
     checkSameSenderIdsAvailableOnAllNodes();
+    if (!hasAllGatewaySenderIds()) {
+      return;
+    }
     Set<String> allGatewaySenderIds;
     if (event.getOperation() == Operation.UPDATE_VERSION_STAMP) {
       allGatewaySenderIds = getGatewaySenderIds();
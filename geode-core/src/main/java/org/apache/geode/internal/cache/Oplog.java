@@ -16,6 +16,7 @@ package org.apache.geode.internal.cache;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.DataInput;
 import java.io.DataInputStream;
 import java.io.DataOutput;
@@ -26,9 +27,14 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
 import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -42,6 +48,9 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -104,6 +113,7 @@ import org.apache.geode.internal.i18n.LocalizedStrings;
 import org.apache.geode.internal.logging.LogService;
 import org.apache.geode.internal.logging.log4j.LocalizedMessage;
 import org.apache.geode.internal.logging.log4j.LogMarker;
+import org.apache.geode.internal.offheap.AddressableMemoryManager;
 import org.apache.geode.internal.offheap.OffHeapHelper;
 import org.apache.geode.internal.offheap.ReferenceCountHelper;
 import org.apache.geode.internal.offheap.StoredObject;
@@ -183,6 +193,13 @@ public class Oplog implements CompactableOplog, Flushable {
   private static final boolean SYNC_WRITES =
       Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "syncWrites");
 
+  /**
+   * This system property turns off group commit, so that each synchronous write of an entry is
+   * flushed to disk by the thread that did it while it holds the oplog lock.
+   */
+  private static final boolean GROUP_COMMIT =
+      !Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "Oplog.DISABLE_GROUP_COMMIT");
+
   /**
    * The HighWaterMark of recentValues.
    */
@@ -545,6 +562,25 @@ public class Oplog implements CompactableOplog, Flushable {
 
   final ByteBuffer[] bbArray = new ByteBuffer[2];
 
+  /**
+   * The number of synchronous entry writes appended to this oplog's write buffers. Guarded by lock.
+   */
+  private long syncWriteCount;
+
+  /**
+   * Synchronous entry writes are not flushed while holding lock. Instead each writer waits, after
+   * releasing lock, until a group commit has flushed its write. The first writer to wait becomes
+   * the leader and flushes all the writes appended so far, including the ones of the writers that
+   * start waiting while it does so, which the next leader flushes together. The fields below are
+   * guarded by this object.
+   */
+  private final Object groupCommitLock = new Object();
+
+  /** The number of synchronous entry writes that have been flushed by group commits */
+  private long committedSyncWriteCount;
+
+  private boolean groupCommitInProgress;
+
   private boolean lockedForKRFcreate = false;
 
   /**
@@ -1673,6 +1709,82 @@ public class Oplog implements CompactableOplog, Flushable {
    */
   private OplogEntryIdMap skippedKeyBytes;
 
+  /**
+   * The contents of this oplog's krf, being read by {@link #prefetchKrf} ahead of its recovery.
+   */
+  private Future<byte[]> prefetchedKrf;
+
+  /**
+   * This oplog's krf as copied to a region map checkpoint, without the entries that were no longer
+   * live when the checkpoint was written, if recovery should read it instead of the krf file.
+   */
+  private ByteBuffer checkpointedKrf;
+
+  /**
+   * The number of bytes in this oplog's krf before its first entry, or 0 if not known.
+   */
+  private long krfHeaderLength;
+
+  /**
+   * Returns the size of the krf that recovering this oplog will read, or 0 if it will not read
+   * one.
+   */
+  long getKrfSizeToRecover(boolean recoverValuesSync) {
+    if (this.crf.f == null || this.drf.f == null || recoverValuesSync
+        || (getParent().isOffline() && !getParent().FORCE_KRF_RECOVERY)
+        || !getParent().getDiskInitFile().hasKrf(this.oplogId)) {
+      return 0;
+    }
+    if (this.checkpointedKrf != null) {
+      // the krf file will not be read
+      return 0;
+    }
+    return getKrfFileToRecover().length();
+  }
+
+  /**
+   * Makes {@link #recoverCrf} read the entries of this oplog from the given copy of its krf in a
+   * region map checkpoint.
+   */
+  void setCheckpointedKrf(ByteBuffer krf) {
+    this.checkpointedKrf = krf;
+  }
+
+  /**
+   * Starts reading this oplog's krf into memory with the given executor so that {@link #recoverCrf}
+   * does not have to wait for it to be read from disk.
+   */
+  void prefetchKrf(ExecutorService executor) {
+    final File f = getKrfFileToRecover();
+    this.prefetchedKrf = executor.submit(() -> Files.readAllBytes(f.toPath()));
+  }
+
+  private File getKrfFileToRecover() {
+    return new File(this.drf.f.getParentFile(), oplogSet.getPrefix() + getParent().getName() + "_"
+        + this.oplogId + KRF_FILE_EXT);
+  }
+
+  /**
+   * Returns the contents of this oplog's krf if they were prefetched, or null if the krf should be
+   * read from disk.
+   */
+  private byte[] takePrefetchedKrf() {
+    Future<byte[]> future = this.prefetchedKrf;
+    if (future == null) {
+      return null;
+    }
+    this.prefetchedKrf = null;
+    try {
+      return future.get();
+    } catch (ExecutionException ignore) {
+      // read it again from disk, which will report the failure if it happens again
+      return null;
+    } catch (InterruptedException ignore) {
+      Thread.currentThread().interrupt();
+      return null;
+    }
+  }
+
   private boolean readKrf(OplogEntryIdSet deletedIds, boolean recoverValues,
       boolean recoverValuesSync, Set<Oplog> oplogsNeedingValueRecovery, boolean latestOplog) {
     File f = new File(this.diskFile.getPath() + KRF_FILE_EXT);
@@ -1694,9 +1806,11 @@ public class Oplog implements CompactableOplog, Flushable {
       return false;
     }
 
-    FileInputStream fis;
+    final ByteBuffer checkpointed = this.checkpointedKrf;
+    final byte[] prefetched = checkpointed == null ? takePrefetchedKrf() : null;
+    InputStream fis;
     try {
-      fis = new FileInputStream(f);
+      fis = openKrf(f, checkpointed, prefetched);
     } catch (FileNotFoundException ignore) {
       return false;
     }
@@ -1711,7 +1825,8 @@ public class Oplog implements CompactableOplog, Flushable {
       this.recoverModEntryIdHWM = DiskStoreImpl.INVALID_ID;
       long oplogKeyIdHWM = DiskStoreImpl.INVALID_ID;
       int krfEntryCount = 0;
-      DataInputStream dis = new DataInputStream(new BufferedInputStream(fis, 1024 * 1024));
+      CountingDataInputStream dis =
+          new CountingDataInputStream(new BufferedInputStream(fis, 1024 * 1024), f.length());
       final Version version = getProductVersionIfOld();
       final ByteArrayDataInput in = new ByteArrayDataInput();
       try {
@@ -1727,22 +1842,23 @@ public class Oplog implements CompactableOplog, Flushable {
           // beginning or this is not a valid file at all. Try reading it as a
           // file in old format
           fis.close();
-          fis = new FileInputStream(f);
-          dis = new DataInputStream(new BufferedInputStream(fis, 1024 * 1024));
+          fis = openKrf(f, checkpointed, prefetched);
+          dis = new CountingDataInputStream(new BufferedInputStream(fis, 1024 * 1024), f.length());
           readDiskStoreRecord(dis, f);
         } catch (IllegalStateException ignore) {
           // Failed to read the file. There are two possibilities. Either this
           // is in new format which has a magic seq in the beginning or this is
           // not a valid file at all
           fis.close();
-          fis = new FileInputStream(f);
-          dis = new DataInputStream(new BufferedInputStream(fis, 1024 * 1024));
+          fis = openKrf(f, checkpointed, prefetched);
+          dis = new CountingDataInputStream(new BufferedInputStream(fis, 1024 * 1024), f.length());
           readDiskStoreRecord(dis, f);
         }
 
         readGemfireVersionRecord(dis, f);
         readTotalCountRecord(dis, f);
         readRVVRecord(dis, f, false, latestOplog);
+        this.krfHeaderLength = dis.getCount();
         long lastOffset = 0;
         byte[] keyBytes = DataSerializer.readByteArray(dis);
         while (keyBytes != null) {
@@ -1837,6 +1953,9 @@ public class Oplog implements CompactableOplog, Flushable {
           keyBytes = DataSerializer.readByteArray(dis);
         } // while
         setRecoverNewEntryId(oplogKeyIdHWM);
+        if (checkpointed != null) {
+          getParent().getStats().incCheckpointedOplogsRecovered();
+        }
       } catch (IOException ex) {
         try {
           fis.close();
@@ -1875,7 +1994,15 @@ public class Oplog implements CompactableOplog, Flushable {
     return true;
   }
 
-  private void validateOpcode(DataInputStream dis, byte expect) throws IOException {
+  private static InputStream openKrf(File f, ByteBuffer checkpointed, byte[] prefetched)
+      throws FileNotFoundException {
+    if (checkpointed != null) {
+      return RegionMapCheckpoint.newInputStream(checkpointed);
+    }
+    return prefetched != null ? new ByteArrayInputStream(prefetched) : new FileInputStream(f);
+  }
+
+  private void validateOpcode(DataInput dis, byte expect) throws IOException {
     byte opCode = dis.readByte();
     if (opCode != expect) {
       if (logger.isTraceEnabled(LogMarker.PERSIST_RECOVERY)) {
@@ -2298,6 +2425,8 @@ public class Oplog implements CompactableOplog, Flushable {
     } finally {
       this.kvMap = null;
       this.skippedKeyBytes = null;
+      this.prefetchedKrf = null;
+      this.checkpointedKrf = null;
       unlockCompactor();
     }
   }
@@ -3328,6 +3457,7 @@ public class Oplog implements CompactableOplog, Flushable {
         this.crf.RAFClosed = true;
         this.stats.decOpenOplogs();
       }
+      unmapCrf();
       this.closed = true;
     }
     // No need to get the backup lock prior to synchronizing (correct lock order) since the
@@ -3575,6 +3705,7 @@ public class Oplog implements CompactableOplog, Flushable {
     DiskId id = entry.getDiskId();
     boolean useNextOplog = false;
     long startPosForSynchOp = -1;
+    long syncWriteNumber = 0;
     if (DiskStoreImpl.KRF_DEBUG) {
       // wait for cache close to create krf
       System.out.println("basicCreate KRF_DEBUG");
@@ -3643,7 +3774,8 @@ public class Oplog implements CompactableOplog, Flushable {
           id.setOplogId(getOplogId());
           // do the io while holding lock so that switch can set doneAppending
           // Write the data to the opLog for the synch mode
-          startPosForSynchOp = writeOpLogBytes(this.crf, async, true);
+          startPosForSynchOp = writeOpLogBytes(this.crf, async, !GROUP_COMMIT);
+          syncWriteNumber = nextSyncWriteNumber(async);
           // if (this.crf.currSize != startPosForSynchOp) {
           // assert false;
           // }
@@ -3699,6 +3831,7 @@ public class Oplog implements CompactableOplog, Flushable {
     } finally {
       getParent().getBackupLock().unlock();
     }
+    groupCommit(syncWriteNumber);
     if (useNextOplog) {
       if (LocalRegion.ISSUE_CALLBACKS_TO_CACHE_OBSERVER) {
         CacheObserverHolder.getInstance().afterSwitchingOplog();
@@ -3878,6 +4011,7 @@ public class Oplog implements CompactableOplog, Flushable {
       @Override
       public void run() {
         createKrf(false);
+        getOplogSet().checkpointIfNeeded();
       }
     });
   }
@@ -4060,6 +4194,7 @@ public class Oplog implements CompactableOplog, Flushable {
     byte[] rvvBytes = serializeRVVs(drMap, false);
     this.krf.dos.write(rvvBytes);
     this.krf.dos.writeByte(END_OF_RECORD_ID);
+    this.krfHeaderLength = this.krf.dos.size();
   }
 
   // if IOException happened during krf creation, close and delete it
@@ -4238,6 +4373,114 @@ public class Oplog implements CompactableOplog, Flushable {
     return new File(this.diskFile.getPath() + KRF_FILE_EXT);
   }
 
+  /**
+   * Writes a copy of this oplog's krf without the entries that are no longer live in this oplog to
+   * a region map checkpoint. Returns the length of the krf that was copied, or -1 if nothing was
+   * written because this oplog has no krf or does not know all its live entries.
+   */
+  long writeCheckpointedKrf(DataOutput out) throws IOException {
+    final OplogEntryIdSet liveIds = getLiveEntryIdsForCheckpoint();
+    if (liveIds == null) {
+      return -1;
+    }
+    final FileInputStream fis;
+    try {
+      fis = new FileInputStream(getKrfFile());
+    } catch (FileNotFoundException ignore) {
+      // this oplog was compacted and deleted
+      return -1;
+    }
+    try {
+      final long krfLength = fis.getChannel().size();
+      final DataInputStream dis = new DataInputStream(new BufferedInputStream(fis, 32768));
+      final byte[] header = new byte[(int) this.krfHeaderLength];
+      dis.readFully(header);
+      out.write(header);
+      long lastOffset = 0;
+      long lastWrittenOffset = 0;
+      byte[] keyBytes = DataSerializer.readByteArray(dis);
+      while (keyBytes != null) {
+        byte userBits = dis.readByte();
+        int valueLength = InternalDataSerializer.readArrayLength(dis);
+        long drId = DiskInitFile.readDiskRegionID(dis);
+        final boolean withVersions = EntryBits.isWithVersions(userBits);
+        long entryVersion = 0;
+        long regionVersion = 0;
+        long memberId = 0;
+        long timestamp = 0;
+        long dsId = 0;
+        if (withVersions) {
+          entryVersion = InternalDataSerializer.readSignedVL(dis);
+          regionVersion = InternalDataSerializer.readUnsignedVL(dis);
+          memberId = InternalDataSerializer.readUnsignedVL(dis);
+          timestamp = InternalDataSerializer.readUnsignedVL(dis);
+          dsId = InternalDataSerializer.readSignedVL(dis);
+        }
+        long oplogKeyId = InternalDataSerializer.readVLOld(dis);
+        final boolean hasOffset =
+            !EntryBits.isAnyInvalid(userBits) && !EntryBits.isTombstone(userBits);
+        long oplogOffset = -1;
+        if (hasOffset) {
+          oplogOffset = lastOffset + InternalDataSerializer.readVLOld(dis);
+          lastOffset = oplogOffset;
+        }
+        if (liveIds.contains(oplogKeyId)) {
+          DataSerializer.writeByteArray(keyBytes, out);
+          out.writeByte(userBits);
+          InternalDataSerializer.writeArrayLength(valueLength, out);
+          DiskInitFile.writeDiskRegionID(out, drId);
+          if (withVersions) {
+            InternalDataSerializer.writeSignedVL(entryVersion, out);
+            InternalDataSerializer.writeUnsignedVL(regionVersion, out);
+            InternalDataSerializer.writeUnsignedVL(memberId, out);
+            InternalDataSerializer.writeUnsignedVL(timestamp, out);
+            InternalDataSerializer.writeSignedVL(dsId, out);
+          }
+          InternalDataSerializer.writeVLOld(oplogKeyId, out);
+          if (hasOffset) {
+            InternalDataSerializer.writeVLOld(oplogOffset - lastWrittenOffset, out);
+            lastWrittenOffset = oplogOffset;
+          }
+        }
+        keyBytes = DataSerializer.readByteArray(dis);
+      }
+      DataSerializer.writeByteArray(null, out);
+      return krfLength;
+    } finally {
+      fis.close();
+    }
+  }
+
+  /**
+   * Returns the ids of the entries that are live in this oplog, or null if this oplog can not be
+   * checkpointed because it has no complete krf or does not know all its live entries.
+   */
+  private OplogEntryIdSet getLiveEntryIdsForCheckpoint() {
+    // Make sure regions can not become unrecovered while collecting their live entries.
+    getParent().acquireCompactorReadLock();
+    try {
+      lockCompactor();
+      try {
+        if (!this.krfCreated.get() || this.krfHeaderLength <= 0 || isDeleted()
+            || getProductVersionIfOld() != null || this.unrecoveredRegionCount.get() > 0
+            || !getParent().getDiskInitFile().hasKrf(this.oplogId)) {
+          return null;
+        }
+        OplogEntryIdSet liveIds = new OplogEntryIdSet();
+        for (DiskRegionInfo dri : this.regionMap.values()) {
+          if (dri.getDiskRegion() == null || !dri.addLiveEntryIds(liveIds)) {
+            return null;
+          }
+        }
+        return liveIds;
+      } finally {
+        unlockCompactor();
+      }
+    } finally {
+      getParent().releaseCompactorReadLock();
+    }
+  }
+
   public List<KRFEntry> getSortedLiveEntries(Collection<DiskRegionInfo> targetRegions) {
     int tlc = (int) this.totalLiveCount.get();
     if (tlc <= 0) {
@@ -4606,6 +4849,7 @@ public class Oplog implements CompactableOplog, Flushable {
     DiskId id = entry.getDiskId();
     boolean useNextOplog = false;
     long startPosForSynchOp = -1L;
+    long syncWriteNumber = 0;
     int adjustment = 0;
     Oplog emptyOplog = null;
     if (DiskStoreImpl.KRF_DEBUG) {
@@ -4639,7 +4883,8 @@ public class Oplog implements CompactableOplog, Flushable {
             long oldOplogId;
             // do the io while holding lock so that switch can set doneAppending
             // Write the data to the opLog for the synch mode
-            startPosForSynchOp = writeOpLogBytes(this.crf, async, true);
+            startPosForSynchOp = writeOpLogBytes(this.crf, async, !GROUP_COMMIT);
+            syncWriteNumber = nextSyncWriteNumber(async);
             this.crf.currSize = temp;
             startPosForSynchOp += getOpStateValueOffset();
             if (logger.isTraceEnabled(LogMarker.PERSIST_WRITES)) {
@@ -4710,6 +4955,7 @@ public class Oplog implements CompactableOplog, Flushable {
     } finally {
       getParent().getBackupLock().unlock();
     }
+    groupCommit(syncWriteNumber);
     if (useNextOplog) {
       if (LocalRegion.ISSUE_CALLBACKS_TO_CACHE_OBSERVER) {
         CacheObserverHolder.getInstance().afterSwitchingOplog();
@@ -5060,6 +5306,7 @@ public class Oplog implements CompactableOplog, Flushable {
 
     boolean useNextOplog = false;
     long startPosForSynchOp = -1;
+    long syncWriteNumber = 0;
     Oplog emptyOplog = null;
     if (DiskStoreImpl.KRF_DEBUG) {
       // wait for cache close to create krf
@@ -5109,7 +5356,8 @@ public class Oplog implements CompactableOplog, Flushable {
             // before we flush the crf.
             // However we can't have removes by async if we are doing a sync write
             // because we might be killed right after we do this write.
-            startPosForSynchOp = writeOpLogBytes(this.drf, async, true);
+            startPosForSynchOp = writeOpLogBytes(this.drf, async, !GROUP_COMMIT);
+            syncWriteNumber = nextSyncWriteNumber(async);
             setHasDeletes(true);
             if (logger.isDebugEnabled(LogMarker.PERSIST_WRITES)) {
               logger.debug("basicRemove: id=<{}> key=<{}> drId={} oplog#{}", abs(id.getKeyId()),
@@ -5141,6 +5389,7 @@ public class Oplog implements CompactableOplog, Flushable {
     } finally {
       getParent().getBackupLock().unlock();
     }
+    groupCommit(syncWriteNumber);
     if (useNextOplog) {
       if (LocalRegion.ISSUE_CALLBACKS_TO_CACHE_OBSERVER) {
         CacheObserverHolder.getInstance().afterSwitchingOplog();
@@ -5305,6 +5554,105 @@ public class Oplog implements CompactableOplog, Flushable {
     }
   }
 
+  /**
+   * Returns the number of a synchronous entry write that was just appended to the write buffers,
+   * which must be passed to {@link #groupCommit} after releasing lock, or 0 if there is nothing to
+   * commit. Must be called while holding lock.
+   */
+  private long nextSyncWriteNumber(boolean async) {
+    if (async || !GROUP_COMMIT) {
+      return 0;
+    }
+    return ++this.syncWriteCount;
+  }
+
+  /**
+   * Waits until the synchronous entry write with the given number has been flushed, flushing it
+   * and all the writes appended since the last group commit if no other thread is doing so. Must
+   * not be called while holding lock.
+   */
+  private void groupCommit(long syncWriteNumber) {
+    if (syncWriteNumber == 0) {
+      return;
+    }
+    long committed;
+    boolean interrupted = false;
+    try {
+      synchronized (this.groupCommitLock) {
+        while (this.groupCommitInProgress && this.committedSyncWriteCount < syncWriteNumber) {
+          try {
+            this.groupCommitLock.wait();
+          } catch (InterruptedException ignore) {
+            interrupted = true;
+          }
+        }
+        if (this.committedSyncWriteCount >= syncWriteNumber) {
+          return;
+        }
+        this.groupCommitInProgress = true;
+        committed = this.committedSyncWriteCount;
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    long start = getStats().startGroupCommit();
+    long flushed = committed;
+    try {
+      long appended;
+      synchronized (this.lock) {
+        appended = this.syncWriteCount;
+        flush(this.drf, false);
+        flush(this.crf, false);
+      }
+      // force outside of lock so that other writers can append the next group meanwhile
+      if (SYNC_WRITES) {
+        force(this.drf);
+        force(this.crf);
+      }
+      flushed = appended;
+    } catch (IOException ex) {
+      getParent().getCancelCriterion().checkCancelInProgress(ex);
+      throw new DiskAccessException(
+          LocalizedStrings.Oplog_FAILED_WRITING_KEY_TO_0.toLocalizedString(this.diskFile.getPath()),
+          ex, getParent());
+    } finally {
+      // if the flush failed the waiting writers retry it themselves
+      synchronized (this.groupCommitLock) {
+        this.committedSyncWriteCount = flushed;
+        this.groupCommitInProgress = false;
+        this.groupCommitLock.notifyAll();
+      }
+    }
+    getStats().endGroupCommit(start, flushed - committed);
+  }
+
+  /**
+   * Writes what has been appended to the write buffers to the files of this oplog and forces them
+   * to disk.
+   */
+  void flushAndForce() throws IOException {
+    synchronized (this.lock) {
+      flush(this.drf, false);
+      flush(this.crf, false);
+    }
+    force(this.drf);
+    force(this.crf);
+  }
+
+  private void force(OplogFile olf) throws IOException {
+    try {
+      if (!olf.RAFClosed) {
+        // Synch Meta Data as well as content
+        olf.channel.force(true);
+      }
+    } catch (ClosedChannelException ignore) {
+      // the channel was closed after being flushed
+    }
+  }
+
   /**
    * Since the ByteBuffer being writen to can have additional bytes which are used for extending the
    * size of the file, it is necessary that the ByteBuffer provided should have limit which is set
@@ -5415,6 +5763,126 @@ public class Oplog implements CompactableOplog, Flushable {
     }
   }
 
+  /**
+   * A read only mapping of the flushed bytes of the crf, created by the first read after this oplog
+   * is done appending. Reads through it are positional and do not need the oplog lock.
+   */
+  private volatile ByteBuffer crfMap;
+
+  /**
+   * Set if the crf could not be mapped, or has been unmapped, so that later reads do not try again.
+   */
+  private boolean crfMapUnavailable;
+
+  /**
+   * The number of threads reading through {@link #crfMap}. The mapping is only unmapped once it is
+   * zero since reading an unmapped buffer crashes the JVM.
+   */
+  private final AtomicInteger crfMapReaders = new AtomicInteger();
+
+  /**
+   * Returns a read only mapping of the crf, mapping it if needed, or null if the crf is still being
+   * appended to or can not be mapped.
+   */
+  private ByteBuffer getCrfMap() {
+    ByteBuffer result = this.crfMap;
+    if (result != null || !this.doneAppending || !getParent().MMAP_READS) {
+      return result;
+    }
+    // No need to get the backup lock prior to synchronizing (correct lock order) since the
+    // synchronized block does not attempt to get the backup lock (incorrect lock order)
+    synchronized (this.lock/* crf */) {
+      result = this.crfMap;
+      if (result != null || this.crfMapUnavailable || this.closed || this.deleted.get()
+          || this.crf.f == null) {
+        return result;
+      }
+      if (this.crf.bytesFlushed < this.crf.currSize) {
+        flushAllNoSync(true);
+      }
+      final long length = this.crf.bytesFlushed;
+      if (length > Integer.MAX_VALUE) {
+        this.crfMapUnavailable = true;
+        return null;
+      }
+      try (RandomAccessFile raf = new RandomAccessFile(this.crf.f, "r")) {
+        result = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, length);
+      } catch (ClosedByInterruptException ignore) {
+        // the caller will read with the RandomAccessFile instead
+        return null;
+      } catch (IOException ex) {
+        if (logger.isDebugEnabled()) {
+          logger.debug("Could not map {} for reading", this.crf.f, ex);
+        }
+        this.crfMapUnavailable = true;
+        return null;
+      }
+      this.crfMap = result;
+      return result;
+    }
+  }
+
+  /**
+   * Reads a value from the mapped crf without locking this oplog.
+   *
+   * @return the value or null if it must be read with the RandomAccessFile instead
+   */
+  private BytesAndBits attemptMappedGet(long offsetInOplog, int valueLength, byte userBits) {
+    final ByteBuffer map = getCrfMap();
+    if (map == null || offsetInOplog < 0 || offsetInOplog + valueLength > map.limit()) {
+      return null;
+    }
+    byte[] valueBytes = new byte[valueLength];
+    this.crfMapReaders.incrementAndGet();
+    try {
+      if (this.crfMap != map) {
+        // it is being unmapped
+        return null;
+      }
+      final ByteBuffer view = map.duplicate();
+      view.position((int) offsetInOplog);
+      view.get(valueBytes);
+    } finally {
+      this.crfMapReaders.decrementAndGet();
+    }
+    this.stats.incOplogReads();
+    this.stats.incOplogMappedReads();
+    BytesAndBits bb = new BytesAndBits(valueBytes, userBits);
+    // also set the product version for an older product
+    final Version version = getProductVersionIfOld();
+    if (version != null) {
+      bb.setVersion(version);
+    }
+    return bb;
+  }
+
+  /**
+   * Unmaps the crf now instead of leaving the mapping, and the disk space of a deleted crf, to the
+   * garbage collector. Must be called while holding the lock.
+   */
+  private void unmapCrf() {
+    final ByteBuffer map = this.crfMap;
+    this.crfMapUnavailable = true;
+    if (map == null) {
+      return;
+    }
+    this.crfMap = null;
+    // a reader that has not seen the field cleared yet is counted and must finish first
+    while (this.crfMapReaders.get() != 0) {
+      Thread.yield();
+    }
+    if (!AddressableMemoryManager.unmap(map) && logger.isDebugEnabled()) {
+      logger.debug("Could not unmap {}, leaving it to garbage collection", this.crf.f);
+    }
+  }
+
+  /**
+   * Returns true if values are read from this oplog through a mapping of its crf. Used by tests.
+   */
+  boolean isCrfMapped() {
+    return this.crfMap != null;
+  }
+
   private BytesAndBits attemptGet(DiskRegionView dr, long offsetInOplog, boolean bitOnly,
       int valueLength, byte userBits) throws IOException {
     boolean didReopen = false;
@@ -5537,6 +6005,10 @@ public class Oplog implements CompactableOplog, Flushable {
     } else {
       if (offsetInOplog == -1)
         return null;
+      bb = attemptMappedGet(offsetInOplog, valueLength, userBits);
+      if (bb != null) {
+        return bb;
+      }
       try {
         for (;;) {
           dr.getCancelCriterion().checkCancelInProgress(null);
@@ -5781,6 +6253,9 @@ public class Oplog implements CompactableOplog, Flushable {
         this.dirHolder.decrementTotalOplogSize(olf.currSize);
         olf.currSize = 0;
       }
+      if (olf == this.crf) {
+        unmapCrf();
+      }
       if (olf.f == null)
         return;
       if (!olf.f.exists())
@@ -5912,6 +6387,26 @@ public class Oplog implements CompactableOplog, Flushable {
     return false;
   }
 
+  /**
+   * Returns the fraction of the records written to this oplog that are no longer live.
+   */
+  double getGarbageRatio() {
+    long total = this.totalCount.get();
+    if (total <= 0) {
+      return 1.0;
+    }
+    long live = Math.max(this.totalLiveCount.get(), 0);
+    return Math.max(1.0 - (double) live / total, 0.0);
+  }
+
+  /**
+   * Returns an estimate of the number of bytes in the crf of this oplog that compaction would
+   * reclaim.
+   */
+  long getGarbageSize() {
+    return (long) (this.crf.currSize * getGarbageRatio());
+  }
+
   public boolean hadLiveEntries() {
     return this.totalCount.get() != 0;
   }
@@ -6098,11 +6593,13 @@ public class Oplog implements CompactableOplog, Flushable {
                                  * getParent().getOwner().isDestroyed ||
                                  */!compactor.keepCompactorRunning();
         int totalCount = 0;
+        final CompactionScheduler scheduler = getParent().getCompactionScheduler();
         for (DiskRegionInfo dri : this.regionMap.values()) {
           final DiskRegionView dr = dri.getDiskRegion();
           if (dr == null)
             continue;
           boolean didCompact = false;
+          int compactedBytes = 0;
           while ((de = dri.getNextLiveEntry()) != null) {
             if (/*
                  * getParent().getOwner().isDestroyed ||
@@ -6142,6 +6639,7 @@ public class Oplog implements CompactableOplog, Flushable {
                   getOplogSet().getChild().copyForwardModifyForCompact(dr, de, wrapper);
                   // the did's oplogId will now be set to the current active oplog
                   didCompact = true;
+                  compactedBytes = wrapper.getValidLength();
                 }
               } // did
             } // de
@@ -6159,6 +6657,7 @@ public class Oplog implements CompactableOplog, Flushable {
               if (!wrapper.isReusable()) {
                 wrapper = new BytesAndBitsForCompactor();
               }
+              scheduler.compacted(compactedBytes, compactor);
             }
           }
         }
@@ -7080,6 +7579,18 @@ public class Oplog implements CompactableOplog, Flushable {
       throw new IllegalStateException();
     }
 
+    /**
+     * Adds the ids of the entries in this list to ids.
+     */
+    public synchronized void addLiveEntryIds(OplogEntryIdSet ids) {
+      for (DiskEntry de = getPrev(); de != this; de = de.getPrev()) {
+        DiskId did = de.getDiskId();
+        if (did != null) {
+          ids.add(did.getKeyId());
+        }
+      }
+    }
+
     /**
      * Adds any live entries in this list to liveEntries and returns the index of the next free
      * slot.
@@ -7425,6 +7936,12 @@ public class Oplog implements CompactableOplog, Flushable {
      * Callback to indicate that this oplog has created a krf.
      */
     void afterKrfCreated();
+
+    /**
+     * Adds the ids of this region's live entries in this oplog to ids. Returns false if they are
+     * not known.
+     */
+    boolean addLiveEntryIds(OplogEntryIdSet ids);
   }
 
   public abstract static class AbstractDiskRegionInfo implements DiskRegionInfo {
@@ -7525,6 +8042,12 @@ public class Oplog implements CompactableOplog, Flushable {
     public void afterKrfCreated() {
       // do nothing
     }
+
+    @Override
+    public boolean addLiveEntryIds(OplogEntryIdSet ids) {
+      // the live entries are only counted
+      return false;
+    }
   }
 
   public static class DiskRegionInfoWithList extends AbstractDiskRegionInfo {
@@ -7639,6 +8162,12 @@ public class Oplog implements CompactableOplog, Flushable {
         this.pendingKrfTags = null;
       }
     }
+
+    @Override
+    public boolean addLiveEntryIds(OplogEntryIdSet ids) {
+      this.liveEntries.addLiveEntryIds(ids);
+      return true;
+    }
   }
 
   /**
@@ -1254,6 +1254,8 @@ class OverflowOplog implements CompactableOplog, Flushable {
         boolean compactFailed = !compactor.keepCompactorRunning();
         int totalCount = 0;
         boolean didCompact = false;
+        int compactedBytes = 0;
+        final CompactionScheduler scheduler = getParent().getCompactionScheduler();
         while ((de = getNextLiveEntry()) != null) {
           if (!compactor.keepCompactorRunning()) {
             compactFailed = true;
@@ -1308,6 +1310,7 @@ class OverflowOplog implements CompactableOplog, Flushable {
                 getOplogSet().copyForwardForOverflowCompact(de, valueBytes, length, userBits);
                 // the did's oplogId will now be set to the current active oplog
                 didCompact = true;
+                compactedBytes = length;
               }
             } // did
           } // de
@@ -1323,6 +1326,7 @@ class OverflowOplog implements CompactableOplog, Flushable {
             if (!wrapper.isReusable()) {
               wrapper = new BytesAndBitsForCompactor();
             }
+            scheduler.compacted(compactedBytes, compactor);
           }
         }
 
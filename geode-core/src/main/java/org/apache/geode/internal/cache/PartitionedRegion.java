@@ -3107,6 +3107,65 @@ public class PartitionedRegion extends LocalRegion
     }
   }
 
+  /**
+   * Serves a get for a {@code Long} key from a local bucket without boxing the key when the bucket
+   * keeps its entries in a primitive keyed map. The key is routed by its hash code like
+   * {@link PartitionedRegionHelper#getHashKey(Object, int)} routes a boxed key, so custom
+   * partitioning falls back to the normal path, as does anything that is not a local hit.
+   */
+  @Override
+  public Object get(long key) throws TimeoutException, CacheLoaderException {
+    Object value = getWithPrimitiveKey(Long.hashCode(key), key, false);
+    if (value == Token.NOT_AVAILABLE) {
+      value = get(Long.valueOf(key));
+    }
+    return value;
+  }
+
+  /**
+   * @see #get(long)
+   */
+  @Override
+  public Object get(int key) throws TimeoutException, CacheLoaderException {
+    Object value = getWithPrimitiveKey(Integer.hashCode(key), key, true);
+    if (value == Token.NOT_AVAILABLE) {
+      value = get(Integer.valueOf(key));
+    }
+    return value;
+  }
+
+  /**
+   * @param keyHashCode the hashCode of the boxed key
+   * @return the value, or {@link Token#NOT_AVAILABLE} if the caller must use the boxed get
+   */
+  private Object getWithPrimitiveKey(int keyHashCode, long key, boolean intKey) {
+    if (this.dataStore == null || getPartitionResolver() != null || isFixedPartitionedRegion()) {
+      return Token.NOT_AVAILABLE;
+    }
+    checkReadiness();
+    checkForNoAccess();
+    discoverJTA();
+    if (isTX()) {
+      return Token.NOT_AVAILABLE;
+    }
+    final int bucketId =
+        PartitionedRegionHelper.getBucketIdForHashCode(keyHashCode, getTotalNumberOfBuckets());
+    final BucketRegion bucket = this.dataStore.getLocalBucketById(bucketId);
+    if (bucket == null || !bucket.getBucketAdvisor().isHosting()
+        || !bucket.hasPrimitiveKeyMap(intKey)) {
+      return Token.NOT_AVAILABLE;
+    }
+    CachePerfStats stats = getCachePerfStats();
+    long start = stats.startGet();
+    Object value = bucket.getLocalValueWithPrimitiveKey(key);
+    if (value == Token.NOT_AVAILABLE || bucket.isDestroyed()) {
+      // a bucket moved by rebalance may have handed out a stale value
+      return Token.NOT_AVAILABLE;
+    }
+    stats.endGet(start, false);
+    return value;
+  }
+
   public InternalDistributedMember getOrCreateNodeForBucketRead(int bucketId) {
     InternalDistributedMember targetNode = getNodeForBucketRead(bucketId);
     if (targetNode != null) {
@@ -701,6 +701,10 @@ public class PartitionedRegionDataStore implements HasCachePerfStats {
     if (this.partitionedRegion.getValueConstraint() != null) {
       factory.setValueConstraint(this.partitionedRegion.getValueConstraint());
     }
+    if (this.partitionedRegion.getKeyConstraint() != null) {
+      // lets the bucket pick a primitive keyed entry map
+      factory.setKeyConstraint(this.partitionedRegion.getKeyConstraint());
+    }
     if (this.loader != null) {
       factory.setCacheLoader(this.loader);
     }
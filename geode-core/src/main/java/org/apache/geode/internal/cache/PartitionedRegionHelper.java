@@ -649,7 +649,14 @@ public class PartitionedRegionHelper {
   }
 
   public static int getHashKey(Object routingObject, int totalNumBuckets) {
-    int hc = routingObject.hashCode();
+    return getBucketIdForHashCode(routingObject.hashCode(), totalNumBuckets);
+  }
+
+  /**
+   * Returns the bucket id of a routing object with the given hash code. Lets callers that hold a
+   * primitive key route it without boxing.
+   */
+  static int getBucketIdForHashCode(int hc, int totalNumBuckets) {
     int bucketId = hc % totalNumBuckets;
     // Force positive bucket ids only
     return Math.abs(bucketId);
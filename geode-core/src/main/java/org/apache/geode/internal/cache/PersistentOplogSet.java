@@ -16,6 +16,8 @@ package org.apache.geode.internal.cache;
 
 import java.io.File;
 import java.io.FilenameFilter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -26,6 +28,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -44,6 +52,7 @@ import org.apache.geode.internal.cache.persistence.OplogType;
 import org.apache.geode.internal.cache.versions.RegionVersionVector;
 import org.apache.geode.internal.i18n.LocalizedStrings;
 import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.LoggingThreadGroup;
 import org.apache.geode.internal.logging.log4j.LocalizedMessage;
 import org.apache.geode.internal.logging.log4j.LogMarker;
 import org.apache.geode.internal.sequencelog.EntryLogger;
@@ -86,6 +95,11 @@ public class PersistentOplogSet implements OplogSet {
    */
   private volatile long maxRecoveredOplogId = 0;
 
+  /** The number of krfs created since the last region map checkpoint was written */
+  private final AtomicInteger krfsSinceCheckpoint = new AtomicInteger();
+
+  private final Object checkpointLock = new Object();
+
 
   public PersistentOplogSet(DiskStoreImpl parent) {
     this.parent = parent;
@@ -441,43 +455,37 @@ public class PersistentOplogSet implements OplogSet {
         oplogSet.remove(getChild());
       }
     }
+    long deletesTime = 0;
+    long entriesTime = 0;
     if (oplogSet.size() > 0) {
       long startOpLogRecovery = System.currentTimeMillis();
-      // first figure out all entries that have been destroyed
-      boolean latestOplog = true;
-      for (Oplog oplog : oplogSet) {
-        byteCount += oplog.recoverDrf(deletedIds, this.alreadyRecoveredOnce.get(), latestOplog);
-        latestOplog = false;
-        if (!this.alreadyRecoveredOnce.get()) {
-          updateOplogEntryId(oplog.getMaxRecoveredOplogEntryId());
-        }
-      }
-      parent.incDeadRecordCount(deletedIds.size());
-      // now figure out live entries
-      latestOplog = true;
-      for (Oplog oplog : oplogSet) {
-        long startOpLogRead = parent.getStats().startOplogRead();
-        long bytesRead = oplog.recoverCrf(deletedIds,
-            // @todo make recoverValues per region
-            recoverValues(), recoverValuesSync(), this.alreadyRecoveredOnce.get(),
-            oplogsNeedingValueRecovery, latestOplog);
-        latestOplog = false;
-        if (!this.alreadyRecoveredOnce.get()) {
-          updateOplogEntryId(oplog.getMaxRecoveredOplogEntryId());
+      List<Oplog> oplogs = new ArrayList<Oplog>(oplogSet);
+      ExecutorService recoveryPool = createRecoveryPool(oplogs.size());
+      RegionMapCheckpoint checkpoint = null;
+      try {
+        // first figure out all entries that have been destroyed
+        long startDeletes = System.nanoTime();
+        byteCount += recoverDrfs(oplogs, deletedIds, recoveryPool);
+        parent.incDeadRecordCount(deletedIds.size());
+        long startEntries = System.nanoTime();
+        deletesTime = startEntries - startDeletes;
+        // now figure out live entries
+        checkpoint = useCheckpoint(oplogs);
+        byteCount += recoverCrfs(oplogs, deletedIds, oplogsNeedingValueRecovery, recoveryPool);
+        entriesTime = System.nanoTime() - startEntries;
+      } finally {
+        if (recoveryPool != null) {
+          recoveryPool.shutdownNow();
         }
-        byteCount += bytesRead;
-        parent.getStats().endOplogRead(startOpLogRead, bytesRead);
-
-        // Callback to the disk regions to indicate the oplog is recovered
-        // Used for offline export
-        for (DiskRecoveryStore drs : this.currentRecoveryMap.values()) {
-          drs.getDiskRegionView().oplogRecovered(oplog.oplogId);
+        if (checkpoint != null) {
+          closeCheckpoint(checkpoint);
         }
       }
       long endOpLogRecovery = System.currentTimeMillis();
       long elapsed = endOpLogRecovery - startOpLogRecovery;
       logger.info(LocalizedMessage.create(LocalizedStrings.DiskRegion_OPLOG_LOAD_TIME, elapsed));
     }
+    long startRegionInitNanos = System.nanoTime();
     if (!parent.isOfflineCompacting()) {
       long startRegionInit = System.currentTimeMillis();
       // create the oplogs now so that loadRegionData can have them available
@@ -521,9 +529,266 @@ public class PersistentOplogSet implements OplogSet {
             endRegionInit - startRegionInit));
       }
     }
+    long regionInitTime = System.nanoTime() - startRegionInitNanos;
+    parent.getStats().incRecoveryPhaseTimes(deletesTime, entriesTime, regionInitTime);
+    if (oplogSet.size() > 0) {
+      logger.info(
+          "Recovered {} oplogs of disk store {} with {} threads: reading drf files took {} ms,"
+              + " reading krf and crf files took {} ms and initializing regions took {} ms",
+          oplogSet.size(), parent.getName(), Math.min(parent.RECOVERY_THREADS, oplogSet.size()),
+          TimeUnit.NANOSECONDS.toMillis(deletesTime), TimeUnit.NANOSECONDS.toMillis(entriesTime),
+          TimeUnit.NANOSECONDS.toMillis(regionInitTime));
+    }
+    return byteCount;
+  }
+
+  /**
+   * Returns a pool to read the files of the given number of oplogs in parallel, or null if they
+   * should all be read by the recovering thread.
+   */
+  private ExecutorService createRecoveryPool(int oplogCount) {
+    int threads = Math.min(parent.RECOVERY_THREADS, oplogCount);
+    if (threads <= 1) {
+      return null;
+    }
+    final ThreadGroup recoveryThreadGroup =
+        LoggingThreadGroup.createThreadGroup("Oplog Recovery Thread Group", logger);
+    final ThreadFactory recoveryThreadFactory =
+        GemfireCacheHelper.CreateThreadFactory(recoveryThreadGroup, "Oplog Recovery");
+    return Executors.newFixedThreadPool(threads, recoveryThreadFactory);
+  }
+
+  /**
+   * Reads the drf files of the given oplogs, newest first, adding the ids of the entries they
+   * destroyed to deletedIds. With a pool each oplog's drf is read into a set of its own in
+   * parallel, and the sets are added to deletedIds afterwards, so the result is the same.
+   */
+  private long recoverDrfs(List<Oplog> oplogs, OplogEntryIdSet deletedIds,
+      ExecutorService recoveryPool) {
+    final boolean alreadyRecovered = this.alreadyRecoveredOnce.get();
+    long byteCount = 0;
+    if (recoveryPool == null) {
+      boolean latestOplog = true;
+      for (Oplog oplog : oplogs) {
+        byteCount += oplog.recoverDrf(deletedIds, alreadyRecovered, latestOplog);
+        latestOplog = false;
+      }
+    } else {
+      List<Future<Long>> results = new ArrayList<Future<Long>>(oplogs.size());
+      List<OplogEntryIdSet> oplogDeletedIds = new ArrayList<OplogEntryIdSet>(oplogs.size());
+      boolean latestOplog = true;
+      for (final Oplog oplog : oplogs) {
+        final OplogEntryIdSet ids = new OplogEntryIdSet();
+        final boolean latest = latestOplog;
+        oplogDeletedIds.add(ids);
+        results.add(recoveryPool.submit(() -> oplog.recoverDrf(ids, alreadyRecovered, latest)));
+        latestOplog = false;
+      }
+      for (int i = 0; i < oplogs.size(); i++) {
+        byteCount += getRecoveryResult(results.get(i), oplogs.get(i));
+        deletedIds.addAll(oplogDeletedIds.get(i));
+      }
+    }
+    if (!alreadyRecovered) {
+      for (Oplog oplog : oplogs) {
+        updateOplogEntryId(oplog.getMaxRecoveredOplogEntryId());
+      }
+    }
     return byteCount;
   }
 
+  private long getRecoveryResult(Future<Long> result, Oplog oplog) {
+    try {
+      return result.get();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new DiskAccessException(
+          LocalizedStrings.Oplog_FAILED_READING_FILE_DURING_RECOVERY_FROM_0
+              .toLocalizedString(oplog.toString()),
+          cause, parent);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      parent.getCancelCriterion().checkCancelInProgress(e);
+      throw new DiskAccessException(
+          LocalizedStrings.Oplog_FAILED_READING_FILE_DURING_RECOVERY_FROM_0
+              .toLocalizedString(oplog.toString()),
+          e, parent);
+    }
+  }
+
+  /**
+   * Reads the krf, or if it has none the crf, of each of the given oplogs, newest first, into the
+   * region maps. The entries are always added to the region maps by the recovering thread in that
+   * order, but with a pool the krfs of the next oplogs are read into memory in parallel, up to
+   * RECOVERY_PREFETCH_BYTES ahead.
+   */
+  private long recoverCrfs(List<Oplog> oplogs, OplogEntryIdSet deletedIds,
+      Set<Oplog> oplogsNeedingValueRecovery, ExecutorService recoveryPool) {
+    long byteCount = 0;
+    long[] prefetchedBytes = new long[oplogs.size()];
+    long prefetchingBytes = 0;
+    int nextToPrefetch = 0;
+    boolean latestOplog = true;
+    for (int i = 0; i < oplogs.size(); i++) {
+      if (recoveryPool != null) {
+        for (; nextToPrefetch < oplogs.size(); nextToPrefetch++) {
+          Oplog next = oplogs.get(nextToPrefetch);
+          long krfSize = next.getKrfSizeToRecover(recoverValuesSync());
+          if (krfSize > 0 && krfSize <= parent.RECOVERY_PREFETCH_BYTES) {
+            if (prefetchingBytes + krfSize > parent.RECOVERY_PREFETCH_BYTES) {
+              // wait until some of the krfs read so far have been recovered
+              break;
+            }
+            next.prefetchKrf(recoveryPool);
+            prefetchedBytes[nextToPrefetch] = krfSize;
+            prefetchingBytes += krfSize;
+          }
+        }
+      }
+      Oplog oplog = oplogs.get(i);
+      long startOpLogRead = parent.getStats().startOplogRead();
+      long bytesRead = oplog.recoverCrf(deletedIds,
+          // @todo make recoverValues per region
+          recoverValues(), recoverValuesSync(), this.alreadyRecoveredOnce.get(),
+          oplogsNeedingValueRecovery, latestOplog);
+      prefetchingBytes -= prefetchedBytes[i];
+      latestOplog = false;
+      if (!this.alreadyRecoveredOnce.get()) {
+        updateOplogEntryId(oplog.getMaxRecoveredOplogEntryId());
+      }
+      byteCount += bytesRead;
+      parent.getStats().endOplogRead(startOpLogRead, bytesRead);
+
+      // Callback to the disk regions to indicate the oplog is recovered
+      // Used for offline export
+      for (DiskRecoveryStore drs : this.currentRecoveryMap.values()) {
+        drs.getDiskRegionView().oplogRecovered(oplog.oplogId);
+      }
+    }
+    return byteCount;
+  }
+
+  File getCheckpointFile() {
+    return RegionMapCheckpoint.getFile(parent.getInfoFileDir().getDir(), parent.getName());
+  }
+
+  /**
+   * Makes the given oplogs, newest first, read their entries from the region map checkpoint if
+   * there is one they can use. Returns that checkpoint, which must be closed once they have been
+   * recovered, or null.
+   */
+  private RegionMapCheckpoint useCheckpoint(List<Oplog> oplogs) {
+    if (parent.CHECKPOINT_INTERVAL <= 0 || parent.isOffline()) {
+      return null;
+    }
+    RegionMapCheckpoint checkpoint = null;
+    ByteBuffer[] krfs = new ByteBuffer[oplogs.size()];
+    try {
+      checkpoint = RegionMapCheckpoint.read(getCheckpointFile(), parent.getDiskStoreID(),
+          oplogs.get(0).getOplogId());
+      if (checkpoint == null) {
+        return null;
+      }
+      for (int i = 0; i < oplogs.size(); i++) {
+        long krfSize = oplogs.get(i).getKrfSizeToRecover(recoverValuesSync());
+        if (krfSize > 0) {
+          krfs[i] = checkpoint.getKrf(oplogs.get(i).getOplogId(), krfSize);
+        }
+      }
+    } catch (IOException ex) {
+      logger.warn("Could not read the region map checkpoint of disk store {}, recovering from its"
+          + " krf files instead", parent.getName(), ex);
+      if (checkpoint != null) {
+        closeCheckpoint(checkpoint);
+      }
+      return null;
+    }
+    for (int i = 0; i < oplogs.size(); i++) {
+      if (krfs[i] != null) {
+        oplogs.get(i).setCheckpointedKrf(krfs[i]);
+      }
+    }
+    return checkpoint;
+  }
+
+  private void closeCheckpoint(RegionMapCheckpoint checkpoint) {
+    try {
+      checkpoint.close();
+    } catch (IOException ignore) {
+    }
+  }
+
+  /**
+   * Schedules a region map checkpoint if enough oplogs have been rolled since the last one. Called
+   * by the disk store task that created the krf of a rolled oplog.
+   */
+  void checkpointIfNeeded() {
+    int interval = parent.CHECKPOINT_INTERVAL;
+    if (interval <= 0 || parent.isOffline() || parent.isClosing()) {
+      return;
+    }
+    if (this.krfsSinceCheckpoint.incrementAndGet() < interval) {
+      return;
+    }
+    this.krfsSinceCheckpoint.set(0);
+    // rewriting every live key may take a while so do not hold up the krf and compaction tasks
+    parent.executeDelayedExpensiveWrite(() -> {
+      if (parent.isClosing()) {
+        return;
+      }
+      try {
+        writeCheckpoint();
+      } catch (IOException | DiskAccessException ex) {
+        if (!parent.isClosing()) {
+          logger.warn("Could not write a region map checkpoint of disk store {}",
+              parent.getName(), ex);
+        }
+      }
+    });
+  }
+
+  /**
+   * Writes a checkpoint of the region maps of all the oplogs that are no longer written to. The
+   * newer oplogs are flushed and forced before the checkpoint is installed so that, after a crash,
+   * the records that replaced the entries left out of it are recovered.
+   */
+  void writeCheckpoint() throws IOException {
+    synchronized (this.checkpointLock) {
+      Oplog child = getChild();
+      if (child == null) {
+        return;
+      }
+      long activeOplogId = child.getOplogId();
+      List<Oplog> oplogs = new ArrayList<Oplog>();
+      for (Oplog oplog : getAllOplogs()) {
+        if (oplog != null && oplog.getOplogId() < activeOplogId) {
+          oplogs.add(oplog);
+        }
+      }
+      long start = System.nanoTime();
+      int count = RegionMapCheckpoint.write(getCheckpointFile(), parent.getDiskStoreID(),
+          activeOplogId, oplogs, () -> {
+            for (Oplog oplog : getAllOplogs()) {
+              if (oplog != null && oplog.getOplogId() >= activeOplogId) {
+                oplog.flushAndForce();
+              }
+            }
+          });
+      long elapsed = System.nanoTime() - start;
+      parent.getStats().endCheckpoint(elapsed);
+      if (logger.isDebugEnabled()) {
+        logger.debug("Wrote a region map checkpoint of {} oplogs of disk store {} in {} ms", count,
+            parent.getName(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+      }
+    }
+  }
+
   protected boolean recoverValuesSync() {
     return parent.RECOVER_VALUES_SYNC;
   }
@@ -1038,24 +1303,35 @@ public class PersistentOplogSet implements OplogSet {
    * Add compactable oplogs to the list, up to the maximum size.
    */
   public void getCompactableOplogs(List<CompactableOplog> l, int max) {
+    List<Oplog> compactable = getOplogsNeedingCompaction();
+    // compact the oplogs with the most garbage first instead of the oldest
+    CompactionScheduler.prioritize(compactable);
+    for (int i = 0; i < compactable.size() && l.size() < max; i++) {
+      l.add(compactable.get(i));
+    }
+  }
+
+  /**
+   * Returns the estimated number of bytes of garbage in the oplogs that need compaction.
+   */
+  long getCompactionDebt() {
+    long result = 0;
+    for (Oplog oplog : getOplogsNeedingCompaction()) {
+      result += oplog.getGarbageSize();
+    }
+    return result;
+  }
+
+  private List<Oplog> getOplogsNeedingCompaction() {
+    List<Oplog> result = new ArrayList<>();
     synchronized (this.oplogIdToOplog) {
-      // Sort this list so we compact the oldest first instead of the one
-      // that was
-      // compactable first.
-      // ArrayList<CompactableOplog> l = new
-      // ArrayList<CompactableOplog>(this.oplogIdToOplog.values());
-      // Collections.sort(l);
-      // Iterator<Oplog> itr = l.iterator();
-      {
-        Iterator<Oplog> itr = this.oplogIdToOplog.values().iterator();
-        while (itr.hasNext() && l.size() < max) {
-          Oplog oplog = itr.next();
-          if (oplog.needsCompaction()) {
-            l.add(oplog);
-          }
+      for (Oplog oplog : this.oplogIdToOplog.values()) {
+        if (oplog.needsCompaction()) {
+          result.add(oplog);
         }
       }
     }
+    return result;
   }
 
   public void scheduleForRecovery(DiskRecoveryStore drs) {
@@ -66,6 +66,12 @@ public interface RegionMap extends EvictableMap {
 
     /** whether "api" statistics are enabled */
     boolean statisticsEnabled = false;
+
+    /**
+     * the key constraint of the owning region, if any. Used to pick a primitive keyed map for
+     * regions whose keys are all Longs or Integers.
+     */
+    Class keyConstraint = null;
   }
 
   RegionEntryFactory getEntryFactory();
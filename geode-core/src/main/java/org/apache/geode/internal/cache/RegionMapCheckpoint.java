@@ -0,0 +1,260 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.geode.internal.cache.persistence.DiskStoreID;
+
+/**
+ * A checkpoint of the region maps of a disk store. For each oplog that had a krf when it was
+ * written, it holds a copy of that krf without the entries that were no longer live in the oplog.
+ * Recovery reads the entries of those oplogs from the checkpoint, which it memory maps, instead of
+ * from their krf files, so it does not read the keys of entries that have since been modified or
+ * destroyed in newer oplogs. The oplogs written after the checkpoint are recovered from their own
+ * files.
+ *
+ * <p>
+ * The file starts with the id of the disk store and the id of the oplog that was being written to
+ * when the checkpoint was written. The copied krfs follow, then an index of them, and then the
+ * position of the index. A copied krf is only used if the krf it was copied from still has the same
+ * length. The checkpoint is not used at all unless the oplog that was being written to, or a newer
+ * one, exists, so that a disk store restored from an older backup does not use it.
+ */
+class RegionMapCheckpoint {
+  static final String CHECKPOINT_FILE_EXT = ".ckp";
+
+  private static final String TMP_FILE_EXT = ".tmp";
+
+  private static final byte FORMAT_VERSION = 1;
+
+  /** the format version, the disk store id and the id of the oplog being written to */
+  private static final int HEADER_LENGTH = 1 + 8 + 8 + 8;
+
+  private final RandomAccessFile raf;
+
+  private final Map<Long, CheckpointedKrf> krfs;
+
+  private RegionMapCheckpoint(RandomAccessFile raf, Map<Long, CheckpointedKrf> krfs) {
+    this.raf = raf;
+    this.krfs = krfs;
+  }
+
+  static File getFile(File dir, String diskStoreName) {
+    return new File(dir, "BACKUP" + diskStoreName + CHECKPOINT_FILE_EXT);
+  }
+
+  /**
+   * Writes a checkpoint of the given oplogs, which must all be older than the oplog with the given
+   * id that is being written to, replacing the checkpoint in the given file. Returns the number of
+   * oplogs whose krf was copied to the checkpoint.
+   *
+   * @param newerOplogs flushed to disk before the checkpoint replaces the old one, since the
+   *        records that replaced the entries left out of the checkpoint are in those oplogs
+   */
+  static int write(File file, DiskStoreID diskStoreId, long activeOplogId,
+      Collection<Oplog> oplogs, Flushable newerOplogs) throws IOException {
+    File tmpFile = new File(file.getPath() + TMP_FILE_EXT);
+    List<CheckpointedKrf> written = new ArrayList<CheckpointedKrf>();
+    boolean success = false;
+    FileOutputStream fos = new FileOutputStream(tmpFile);
+    try {
+      FileChannel channel = fos.getChannel();
+      DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(fos, 32768));
+      dos.writeByte(FORMAT_VERSION);
+      dos.writeLong(diskStoreId.getMostSignificantBits());
+      dos.writeLong(diskStoreId.getLeastSignificantBits());
+      dos.writeLong(activeOplogId);
+      for (Oplog oplog : oplogs) {
+        dos.flush();
+        long start = channel.position();
+        long krfLength = oplog.writeCheckpointedKrf(dos);
+        if (krfLength >= 0) {
+          dos.flush();
+          long length = channel.position() - start;
+          written.add(new CheckpointedKrf(oplog.getOplogId(), krfLength, start, length));
+        }
+      }
+      dos.flush();
+      long indexPosition = channel.position();
+      dos.writeInt(written.size());
+      for (CheckpointedKrf krf : written) {
+        dos.writeLong(krf.oplogId);
+        dos.writeLong(krf.krfLength);
+        dos.writeLong(krf.position);
+        dos.writeLong(krf.length);
+      }
+      dos.writeLong(indexPosition);
+      dos.flush();
+      channel.force(true);
+      newerOplogs.flush();
+      success = true;
+    } finally {
+      fos.close();
+      if (!success) {
+        tmpFile.delete();
+      }
+    }
+    Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+    return written.size();
+  }
+
+  /**
+   * Returns the checkpoint in the given file, or null if there is none or it can not be used by the
+   * disk store with the given id whose newest oplog has the given id.
+   */
+  static RegionMapCheckpoint read(File file, DiskStoreID diskStoreId, long maxOplogId)
+      throws IOException {
+    if (!file.exists()) {
+      return null;
+    }
+    RandomAccessFile raf = new RandomAccessFile(file, "r");
+    boolean success = false;
+    try {
+      FileChannel channel = raf.getChannel();
+      long size = channel.size();
+      if (size < HEADER_LENGTH + 4 + 8) {
+        return null;
+      }
+      ByteBuffer header = read(channel, 0, HEADER_LENGTH);
+      if (header.get() != FORMAT_VERSION
+          || header.getLong() != diskStoreId.getMostSignificantBits()
+          || header.getLong() != diskStoreId.getLeastSignificantBits()
+          || header.getLong() > maxOplogId) {
+        return null;
+      }
+      long indexPosition = read(channel, size - 8, 8).getLong();
+      if (indexPosition < HEADER_LENGTH || indexPosition > size - 8 - 4) {
+        return null;
+      }
+      ByteBuffer index = read(channel, indexPosition, (int) (size - 8 - indexPosition));
+      int count = index.getInt();
+      Map<Long, CheckpointedKrf> krfs = new HashMap<Long, CheckpointedKrf>();
+      for (int i = 0; i < count; i++) {
+        CheckpointedKrf krf = new CheckpointedKrf(index.getLong(), index.getLong(),
+            index.getLong(), index.getLong());
+        if (krf.position >= HEADER_LENGTH && krf.length <= Integer.MAX_VALUE
+            && krf.position + krf.length <= indexPosition) {
+          krfs.put(krf.oplogId, krf);
+        }
+      }
+      success = true;
+      return new RegionMapCheckpoint(raf, krfs);
+    } catch (BufferUnderflowException ignore) {
+      // the index is corrupt
+      return null;
+    } finally {
+      if (!success) {
+        raf.close();
+      }
+    }
+  }
+
+  private static ByteBuffer read(FileChannel channel, long position, int length)
+      throws IOException {
+    ByteBuffer result = ByteBuffer.allocate(length);
+    while (result.hasRemaining()) {
+      if (channel.read(result, position + result.position()) < 0) {
+        throw new EOFException();
+      }
+    }
+    result.flip();
+    return result;
+  }
+
+  /**
+   * Returns the memory mapped copy of the krf of the given oplog, or null if this checkpoint has
+   * none or it was copied from a krf that did not have the given length.
+   */
+  ByteBuffer getKrf(long oplogId, long krfLength) throws IOException {
+    CheckpointedKrf krf = this.krfs.get(oplogId);
+    if (krf == null || krf.krfLength != krfLength) {
+      return null;
+    }
+    return this.raf.getChannel().map(FileChannel.MapMode.READ_ONLY, krf.position, krf.length);
+  }
+
+  /**
+   * Closes the file of this checkpoint. The buffers returned by {@link #getKrf} stay readable.
+   */
+  void close() throws IOException {
+    this.raf.close();
+  }
+
+  /**
+   * Returns a stream that reads the given buffer returned by {@link #getKrf} from its start.
+   */
+  static InputStream newInputStream(ByteBuffer krf) {
+    final ByteBuffer buffer = krf.duplicate();
+    buffer.rewind();
+    return new InputStream() {
+      @Override
+      public int read() {
+        return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) {
+        if (len == 0) {
+          return 0;
+        }
+        if (!buffer.hasRemaining()) {
+          return -1;
+        }
+        len = Math.min(len, buffer.remaining());
+        buffer.get(b, off, len);
+        return len;
+      }
+
+      @Override
+      public int available() {
+        return buffer.remaining();
+      }
+    };
+  }
+
+  private static class CheckpointedKrf {
+    private final long oplogId;
+    private final long krfLength;
+    private final long position;
+    private final long length;
+
+    CheckpointedKrf(long oplogId, long krfLength, long position, long length) {
+      this.oplogId = oplogId;
+      this.krfLength = krfLength;
+      this.position = position;
+      this.length = length;
+    }
+  }
+}
@@ -31,7 +31,9 @@ import org.apache.geode.internal.cache.control.InternalResourceManager;
 import org.apache.geode.internal.cache.entries.DiskEntry;
 import org.apache.geode.internal.cache.eviction.AbstractEvictionController;
 import org.apache.geode.internal.cache.eviction.CachedDeserializableValueWrapper;
+import org.apache.geode.internal.cache.eviction.CompressedEvictedValue;
 import org.apache.geode.internal.cache.eviction.EvictableEntry;
+import org.apache.geode.internal.cache.eviction.EvictionCompressor;
 import org.apache.geode.internal.cache.eviction.EvictionController;
 import org.apache.geode.internal.cache.eviction.EvictionCounters;
 import org.apache.geode.internal.cache.eviction.EvictionList;
@@ -68,7 +70,9 @@ public class VMLRURegionMap extends AbstractRegionMap {
     initialize(owner, attr, internalRegionArgs);
     this.evictionController = evictionController;
     getEvictionController().setPerEntryOverhead(getEntryOverhead());
-    this.lruList = new EvictionListBuilder(getEvictionController()).create();
+    this.lruList =
+        new EvictionListBuilder(getEvictionController(), () -> regionEntries().iterator())
+            .create();
   }
 
   private final EvictionController evictionController;
@@ -76,6 +80,9 @@ public class VMLRURegionMap extends AbstractRegionMap {
   /** The list of nodes in LRU order */
   private final EvictionList lruList;
 
+  /** Compresses values for {@link EvictionAction#COMPRESS_THEN_OVERFLOW_TO_DISK} */
+  private volatile EvictionCompressor evictionCompressor;
+
   public EvictionList getEvictionList() {
     return this.lruList;
   }
@@ -251,6 +258,12 @@ public class VMLRURegionMap extends AbstractRegionMap {
       }
     } else if (action.isOverflowToDisk()) {
       Assert.assertTrue(entry instanceof DiskEntry);
+      if (action.isCompressThenOverflowToDisk()) {
+        int size = compressEntry(entry, region, stats);
+        if (size != 0) {
+          return size;
+        }
+      }
       int change = 0;
       synchronized (entry) {
         if (entry.isInUseByTransaction()) {
@@ -311,6 +324,73 @@ public class VMLRURegionMap extends AbstractRegionMap {
     }
   }
 
+  /**
+   * Replaces the value of the given entry with a compressed copy so that it uses less memory before
+   * it is overflowed to disk. The entry is added back to the eviction list, so it is only
+   * overflowed once the list comes around to it again. Values that are already compressed, that
+   * are stored off-heap or by a region that compresses its values, and values that do not get
+   * smaller, are left for {@link #evictEntry} to overflow. So is every value unless entries are
+   * evicted least recently used first by size, since compressing would not reduce an entry count
+   * and the other algorithms would pick the compressed entry again straight away.
+   *
+   * @return number of bytes freed, zero if the value was not compressed
+   */
+  private int compressEntry(EvictableEntry entry, LocalRegion region, EvictionCounters stats) {
+    EvictionAlgorithm algorithm = getEvictionController().getEvictionAlgorithm();
+    if (!(algorithm.isLRUMemory() || algorithm.isLRUHeap()) || region.getOffHeap()
+        || region.getCompressor() != null) {
+      return 0;
+    }
+    int change;
+    synchronized (entry) {
+      if (entry.isInUseByTransaction()) {
+        return 0;
+      }
+      Object value = entry.getValue(); // OFFHEAP: heap region so _getValue ok
+      if (value == null || value instanceof Token || value instanceof CompressedEvictedValue
+          || value instanceof StoredObject) {
+        return 0;
+      }
+      byte[] serializedValue;
+      if (value instanceof CachedDeserializable) {
+        serializedValue = ((CachedDeserializable) value).getSerializedValue();
+      } else {
+        serializedValue = EntryEventImpl.serialize(value);
+      }
+      EvictionCompressor compressor = getEvictionCompressor(stats);
+      CompressedEvictedValue compressedValue =
+          new CompressedEvictedValue(compressor, compressor.compress(serializedValue));
+      int oldSize = entry.getEntrySize();
+      if (getEvictionController().entrySize(entry.getKeyForSizing(), compressedValue) >= oldSize) {
+        if (logger.isTraceEnabled(LogMarker.LRU)) {
+          logger.trace(LogMarker.LRU, "not compressing key={} because it does not get smaller",
+              entry.getKey());
+        }
+        return 0;
+      }
+      int oldRegionSize = region.calculateRegionEntryValueSize(entry);
+      ((DiskEntry) entry).setValueWithContext(region, compressedValue);
+      region.updateSizeOnPut(entry.getKey(), oldRegionSize,
+          region.calculateRegionEntryValueSize(entry));
+      change = entry.updateEntrySize(getEvictionController());
+    }
+    if (region instanceof BucketRegion) {
+      ((BucketRegion) region).updateCounter(change);
+    }
+    stats.updateCounter(change);
+    getEvictionList().appendEntry(entry);
+    return change * -1;
+  }
+
+  private EvictionCompressor getEvictionCompressor(EvictionCounters stats) {
+    EvictionCompressor result = this.evictionCompressor;
+    if (result == null) {
+      result = new EvictionCompressor(stats);
+      this.evictionCompressor = result;
+    }
+    return result;
+  }
+
   /**
    * update the running counter of all the entries
    *
@@ -520,7 +600,7 @@ public class VMLRURegionMap extends AbstractRegionMap {
     LocalRegion owner = _getOwner();
     InternalResourceManager resourceManager = owner.getCache().getInternalResourceManager();
     boolean offheap = owner.getAttributes().getOffHeap();
-    return resourceManager.getMemoryMonitor(offheap).getState().isEviction() && this.sizeInVM() > 0;
+    return resourceManager.getMemoryMonitor(offheap).mustEvict() && this.sizeInVM() > 0;
   }
 
   @Override
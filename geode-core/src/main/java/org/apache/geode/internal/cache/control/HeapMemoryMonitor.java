@@ -74,6 +74,14 @@ public class HeapMemoryMonitor implements NotificationListener, MemoryMonitor {
   // Internal for polling the JVM for changes in heap memory usage.
   private static final int POLLER_INTERVAL = Integer.getInteger(POLLER_INTERVAL_PROP, 500);
 
+  /**
+   * Property for the number of milliseconds ahead that tenured heap usage is projected, at the rate
+   * it is filling up, to start heap eviction before the eviction threshold is reached. Zero, the
+   * default, turns predictive eviction off.
+   */
+  public static final String PREDICTION_HORIZON_PROP =
+      DistributionConfig.GEMFIRE_PREFIX + "heapEvictionPredictionHorizon";
+
   // This holds a new event as it transitions from updateStateAndSendEvent(...) to fillInProfile()
   private ThreadLocal<MemoryEvent> upcomingEvent = new ThreadLocal<MemoryEvent>();
 
@@ -160,6 +168,13 @@ public class HeapMemoryMonitor implements NotificationListener, MemoryMonitor {
   private final InternalCache cache;
   private final ResourceManagerStats stats;
 
+  private final TenuringRate tenuringRate = new TenuringRate();
+
+  private final long predictionHorizon = Long.getLong(PREDICTION_HORIZON_PROP, 0);
+
+  // Set while heap usage is below the eviction threshold but projected to exceed it
+  private volatile boolean evictionPredicted = false;
+
   private static boolean testDisableMemoryUpdates = false;
   private static long testBytesUsedForThresholdSet = -1;
 
@@ -466,6 +481,7 @@ public class HeapMemoryMonitor implements NotificationListener, MemoryMonitor {
    */
   public void updateStateAndSendEvent(long bytesUsed) {
     this.stats.changeTenuredHeapUsed(bytesUsed);
+    final long projectedBytesUsed = projectBytesUsed(bytesUsed);
     synchronized (this) {
       MemoryState oldState = this.mostRecentEvent.getState();
       MemoryState newState = this.thresholds.computeNextState(oldState, bytesUsed);
@@ -474,9 +490,13 @@ public class HeapMemoryMonitor implements NotificationListener, MemoryMonitor {
 
         if (!skipEventDueToToleranceLimits(oldState, newState)) {
           this.currentState = newState;
+          // the heap evictor keeps evicting after a change to normal if the event it gets still
+          // projects usage above the eviction threshold, so this must agree with it
+          this.evictionPredicted =
+              newState.isNormal() && isEvictionProjected(newState, projectedBytesUsed);
 
           MemoryEvent event = new MemoryEvent(ResourceType.HEAP_MEMORY, oldState, newState,
-              this.cache.getMyId(), bytesUsed, true, this.thresholds);
+              this.cache.getMyId(), bytesUsed, projectedBytesUsed, true, this.thresholds);
 
           this.upcomingEvent.set(event);
           processLocalEvent(event);
@@ -488,13 +508,59 @@ public class HeapMemoryMonitor implements NotificationListener, MemoryMonitor {
         // again with an updated number of bytes used.
       } else if (!oldState.isNormal() && bytesUsed != this.mostRecentEvent.getBytesUsed()) {
         MemoryEvent event = new MemoryEvent(ResourceType.HEAP_MEMORY, oldState, newState,
-            this.cache.getMyId(), bytesUsed, true, this.thresholds);
+            this.cache.getMyId(), bytesUsed, projectedBytesUsed, true, this.thresholds);
         this.upcomingEvent.set(event);
         processLocalEvent(event);
+      } else if (oldState.isNormal()) {
+        predictEviction(newState, bytesUsed, projectedBytesUsed);
       }
     }
   }
 
+  /**
+   * Records the given heap usage as a sample of the rate at which the tenured heap is filling up
+   * and returns the usage projected at that rate to the end of the prediction horizon.
+   */
+  private long projectBytesUsed(long bytesUsed) {
+    this.tenuringRate.sample(bytesUsed, System.currentTimeMillis());
+    this.stats.changeTenuringRate(this.tenuringRate.getBytesPerSecond());
+    if (this.predictionHorizon <= 0) {
+      return bytesUsed;
+    }
+    long projectedBytesUsed = this.tenuringRate.project(bytesUsed, this.predictionHorizon);
+    this.stats.changeProjectedTenuredHeapUsed(projectedBytesUsed);
+    return projectedBytesUsed;
+  }
+
+  /**
+   * While the heap is below the eviction threshold but its usage is projected to exceed it, an
+   * event with the projected usage is delivered to local listeners every time usage is sampled so
+   * that the heap evictor starts early and evicts in proportion to the projected overshoot. One
+   * more event is delivered once usage is no longer projected to exceed the threshold, which stops
+   * it again. Remote members are not told, since the state of this member has not changed.
+   */
+  private void predictEviction(MemoryState state, long bytesUsed, long projectedBytesUsed) {
+    final boolean predicted = isEvictionProjected(state, projectedBytesUsed);
+    if (!predicted && !this.evictionPredicted) {
+      return;
+    }
+    if (predicted && !this.evictionPredicted) {
+      this.stats.incPredictedEvictionStartEvents();
+      if (this.cache.getLoggerI18n().fineEnabled()) {
+        this.cache.getLoggerI18n().fine("Predicted heap eviction threshold will be exceeded with "
+            + bytesUsed + " bytes used, projected to be " + projectedBytesUsed + " bytes");
+      }
+    }
+    this.evictionPredicted = predicted;
+    this.resourceManager.deliverLocalEvent(new MemoryEvent(ResourceType.HEAP_MEMORY, state, state,
+        this.cache.getMyId(), bytesUsed, projectedBytesUsed, true, this.thresholds));
+  }
+
+  private boolean isEvictionProjected(MemoryState state, long projectedBytesUsed) {
+    return !state.isEvictionDisabled()
+        && projectedBytesUsed >= this.thresholds.getEvictionThresholdBytes();
+  }
+
   /**
    * Update resource manager stats based upon the given event.
    *
@@ -538,6 +604,15 @@ public class HeapMemoryMonitor implements NotificationListener, MemoryMonitor {
     return this.currentState;
   }
 
+  /**
+   * Returns true if heap usage is above the eviction threshold or, with predictive eviction, is
+   * projected to exceed it.
+   */
+  @Override
+  public boolean mustEvict() {
+    return this.currentState.isEviction() || this.evictionPredicted;
+  }
+
   @Override
   public MemoryThresholds getThresholds() {
     MemoryThresholds saveThresholds = this.thresholds;
@@ -27,17 +27,29 @@ public class MemoryEvent implements ResourceEvent {
   private final MemoryState previousState;
   private final DistributedMember member;
   private final long bytesUsed;
+  private final long projectedBytesUsed;
   private final boolean isLocal;
   private final MemoryThresholds thresholds;
 
   public MemoryEvent(final ResourceType type, final MemoryState previousState,
       final MemoryState state, final DistributedMember member, final long bytesUsed,
       final boolean isLocal, final MemoryThresholds thresholds) {
+    this(type, previousState, state, member, bytesUsed, bytesUsed, isLocal, thresholds);
+  }
+
+  /**
+   * @param projectedBytesUsed the number of bytes expected to be used shortly, when heap usage is
+   *        predicted, otherwise the same as bytesUsed
+   */
+  public MemoryEvent(final ResourceType type, final MemoryState previousState,
+      final MemoryState state, final DistributedMember member, final long bytesUsed,
+      final long projectedBytesUsed, final boolean isLocal, final MemoryThresholds thresholds) {
     this.type = type;
     this.previousState = previousState;
     this.state = state;
     this.member = member;
     this.bytesUsed = bytesUsed;
+    this.projectedBytesUsed = projectedBytesUsed;
     this.isLocal = isLocal;
     this.thresholds = thresholds;
   }
@@ -64,6 +76,10 @@ public class MemoryEvent implements ResourceEvent {
     return this.bytesUsed;
   }
 
+  public long getProjectedBytesUsed() {
+    return this.projectedBytesUsed;
+  }
+
   @Override
   public boolean isLocal() {
     return this.isLocal;
@@ -78,7 +94,8 @@ public class MemoryEvent implements ResourceEvent {
     return new StringBuilder().append("MemoryEvent@").append(System.identityHashCode(this))
         .append("[Member:" + this.member).append(",type:" + this.type)
         .append(",previousState:" + this.previousState).append(",state:" + this.state)
-        .append(",bytesUsed:" + this.bytesUsed).append(",isLocal:" + this.isLocal)
+        .append(",bytesUsed:" + this.bytesUsed)
+        .append(",projectedBytesUsed:" + this.projectedBytesUsed).append(",isLocal:" + this.isLocal)
         .append(",thresholds:" + this.thresholds + "]").toString();
   }
 }
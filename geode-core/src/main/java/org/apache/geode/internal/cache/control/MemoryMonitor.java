@@ -36,4 +36,11 @@ public interface MemoryMonitor extends ResourceMonitor {
     return getThresholds().getEvictionThreshold();
   }
 
+  /**
+   * Returns true if entries should be evicted to free memory.
+   */
+  default boolean mustEvict() {
+    return getState().isEviction();
+  }
+
 }
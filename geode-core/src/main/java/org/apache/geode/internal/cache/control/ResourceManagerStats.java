@@ -68,6 +68,9 @@ public class ResourceManagerStats {
   private static final int evictionThresholdId;
   private static final int offHeapEvictionThresholdId;
   private static final int tenuredHeapUsageId;
+  private static final int tenuringRateId;
+  private static final int projectedTenuredHeapUsedId;
+  private static final int predictedEvictionStartEventsId;
   private static final int resourceEventsDeliveredId;
   private static final int resourceEventQueueSizeId;
   private static final int thresholdEventProcessorThreadJobsId;
@@ -177,6 +180,17 @@ public class ResourceManagerStats {
                 "The currently set off-heap eviction threshold value in bytes", "bytes"),
             f.createLongGauge("tenuredHeapUsed", "Total memory used in the tenured/old space",
                 "bytes"),
+            f.createLongGauge("tenuringRate",
+                "Smoothed rate at which memory is promoted into the tenured/old space",
+                "bytes/second"),
+            f.createLongGauge("projectedTenuredHeapUsed",
+                "Memory the tenured/old space is projected to use at the end of the heap eviction "
+                    + "prediction horizon",
+                "bytes"),
+            f.createIntCounter("predictedEvictionStartEvents",
+                "Number of times heap eviction was started below the eviction threshold because "
+                    + "tenured heap usage was projected to exceed it",
+                "events"),
             f.createIntCounter("resourceEventsDelivered",
                 "Total number of resource events delivered to listeners", "events"),
             f.createIntGauge("resourceEventQueueSize",
@@ -222,6 +236,9 @@ public class ResourceManagerStats {
     evictionThresholdId = type.nameToId("evictionThreshold");
     offHeapEvictionThresholdId = type.nameToId("offHeapEvictionThreshold");
     tenuredHeapUsageId = type.nameToId("tenuredHeapUsed");
+    tenuringRateId = type.nameToId("tenuringRate");
+    projectedTenuredHeapUsedId = type.nameToId("projectedTenuredHeapUsed");
+    predictedEvictionStartEventsId = type.nameToId("predictedEvictionStartEvents");
     resourceEventsDeliveredId = type.nameToId("resourceEventsDelivered");
     resourceEventQueueSizeId = type.nameToId("resourceEventQueueSize");
     thresholdEventProcessorThreadJobsId = type.nameToId("thresholdEventProcessorThreadJobs");
@@ -504,6 +521,30 @@ public class ResourceManagerStats {
     return this.stats.getLong(tenuredHeapUsageId);
   }
 
+  public void changeTenuringRate(long newValue) {
+    this.stats.setLong(tenuringRateId, newValue);
+  }
+
+  public long getTenuringRate() {
+    return this.stats.getLong(tenuringRateId);
+  }
+
+  public void changeProjectedTenuredHeapUsed(long newValue) {
+    this.stats.setLong(projectedTenuredHeapUsedId, newValue);
+  }
+
+  public long getProjectedTenuredHeapUsed() {
+    return this.stats.getLong(projectedTenuredHeapUsedId);
+  }
+
+  public void incPredictedEvictionStartEvents() {
+    this.stats.incInt(predictedEvictionStartEventsId, 1);
+  }
+
+  public int getPredictedEvictionStartEvents() {
+    return this.stats.getInt(predictedEvictionStartEventsId);
+  }
+
   public void incResourceEventQueueSize(int delta) {
     this.stats.incInt(resourceEventQueueSizeId, delta);
   }
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.control;
+
+/**
+ * Estimates how fast the tenured heap is filling up from successive samples of the number of bytes
+ * it uses. The tenured space only shrinks when it is collected, so a sample with fewer bytes than
+ * the one before is taken as a collection and only moves the baseline. Every other sample adds the
+ * promotions since the last one to a smoothed rate, so that a single burst does not dominate it and
+ * a pause in promotions lets it decay.
+ *
+ * @since Geode 1.5
+ */
+class TenuringRate {
+
+  /** Weight given to the newest sample */
+  private static final double SMOOTHING = 0.3;
+
+  private long lastBytesUsed = -1;
+
+  private long lastSampleMillis;
+
+  private double bytesPerSecond;
+
+  /**
+   * Adds a sample of the tenured heap usage.
+   *
+   * @param bytesUsed number of bytes of tenured heap used
+   * @param nowMillis the time the sample was taken, in milliseconds
+   */
+  synchronized void sample(long bytesUsed, long nowMillis) {
+    long elapsedMillis = nowMillis - this.lastSampleMillis;
+    if (this.lastBytesUsed >= 0 && bytesUsed >= this.lastBytesUsed) {
+      if (elapsedMillis <= 0) {
+        // several notifications for the same moment; wait for time to pass
+        return;
+      }
+      double sampleBytesPerSecond = (bytesUsed - this.lastBytesUsed) * 1000.0 / elapsedMillis;
+      this.bytesPerSecond += SMOOTHING * (sampleBytesPerSecond - this.bytesPerSecond);
+    }
+    this.lastBytesUsed = bytesUsed;
+    this.lastSampleMillis = nowMillis;
+  }
+
+  /**
+   * Returns the smoothed number of bytes promoted into the tenured heap per second.
+   */
+  synchronized long getBytesPerSecond() {
+    return (long) this.bytesPerSecond;
+  }
+
+  /**
+   * Returns the number of bytes of tenured heap that will be used after the given number of
+   * milliseconds if promotions continue at the current rate.
+   */
+  synchronized long project(long bytesUsed, long horizonMillis) {
+    return bytesUsed + (long) (this.bytesPerSecond * horizonMillis / 1000.0);
+  }
+}
@@ -23,7 +23,7 @@ package org.apache.geode.internal.cache.entries;
 #define KEY_TYPE long
 #elif defined(KEY_UUID)
 #define KEY_TYPE UUID
-#elif defined(KEY_STRING1) || defined(KEY_STRING2)
+#elif defined(KEY_STRING1) || defined(KEY_STRING2) || defined(KEY_STORED_STRING)
 #define KEY_TYPE String
 #else
 #error the KEY_TYPE macro must be defined    
@@ -64,6 +64,9 @@ import org.apache.geode.internal.cache.versions.VersionSource;
 import org.apache.geode.internal.cache.versions.VersionStamp;
 import org.apache.geode.internal.cache.versions.VersionTag;
 #endif
+#ifdef COMPACT
+import org.apache.geode.internal.cache.versions.VersionSourceTable;
+#endif
 #ifdef OFFHEAP
 import org.apache.geode.internal.cache.Token;
 import org.apache.geode.internal.offheap.OffHeapRegionEntryHelper;
@@ -71,6 +74,9 @@ import org.apache.geode.internal.offheap.annotations.Released;
 import org.apache.geode.internal.offheap.annotations.Retained;
 import org.apache.geode.internal.offheap.annotations.Unretained;
 #endif
+#ifdef KEY_STORED_STRING
+import org.apache.geode.internal.offheap.OffHeapKeyHelper;
+#endif
 import org.apache.geode.internal.util.concurrent.CustomEntryConcurrentHashMap.HashEntry;
 
 /*
@@ -96,7 +102,11 @@ import org.apache.geode.internal.util.concurrent.CustomEntryConcurrentHashMap.Ha
  * Do not modify this class. It was generated. Instead modify LeafRegionEntry.cpp and then run
  * ./dev-tools/generateRegionEntryClasses.sh (it must be run from the top level directory).
  */
-public class LEAF_CLASS extends PARENT_CLASS {
+public class LEAF_CLASS extends PARENT_CLASS
+#ifdef KEY_STORED_STRING
+    implements OffHeapKeyRegionEntry
+#endif
+    {
 
   // --------------------------------------- common fields ----------------------------------------
 
@@ -163,12 +173,26 @@ public class LEAF_CLASS extends PARENT_CLASS {
   // ------------------------------------- versioned fields ---------------------------------------
   // DO NOT modify this class. It was generated from LeafRegionEntry.cpp
 
+#ifdef COMPACT
+  /**
+   * The region version in the high 48 bits and the low 16 bits of the entry version in the low 16
+   * bits.
+   */
+  private long versionBits;
+
+  /**
+   * The high byte of the entry version in the high 8 bits and the {@link VersionSourceTable} index
+   * of the member id and distributed system id in the low 24 bits.
+   */
+  private int versionSourceBits;
+#else
   private VersionSource memberId;
   private short entryVersionLowBytes;
   private short regionVersionHighBytes;
   private int regionVersionLowBytes;
   private byte entryVersionHighByte;
   private byte distributedSystemId;
+#endif
 #endif
 
   // --------------------------------------- key fields -------------------------------------------
@@ -199,6 +223,26 @@ public class LEAF_CLASS extends PARENT_CLASS {
    * bits2 encodes character data
    */
   private final long bits2;
+#elif defined(KEY_STORED_STRING)
+  /**
+   * The address of the off-heap chunk that holds the key. All access done using
+   * KEY_ADDRESS_UPDATER. Zero once the entry is removed and the chunk has been released.
+   */
+  @SuppressWarnings("unused")
+  @Retained @Released private volatile long keyAddress;
+
+  private static final AtomicLongFieldUpdater<LEAF_CLASS> KEY_ADDRESS_UPDATER
+    = AtomicLongFieldUpdater.newUpdater(LEAF_CLASS.class, "keyAddress");
+
+  /**
+   * strlen shifted left by one; the low bit is set if each character is stored in one byte.
+   */
+  private final int keyInfo;
+
+  /**
+   * A heap copy of the key made before the key chunk was released.
+   */
+  private volatile String releasedKey;
 #endif
 
   public LEAF_CLASS (final RegionEntryContext context, final KEY_TYPE key,
@@ -280,6 +324,10 @@ public class LEAF_CLASS extends PARENT_CLASS {
     tempBits1 |= key.length();
     this.bits1 = tempBits1;
     this.bits2 = tempBits2;
+#elif defined(KEY_STORED_STRING)
+    // caller has already confirmed that the key can not be inlined
+    this.keyInfo = OffHeapKeyHelper.getKeyInfo(key);
+    KEY_ADDRESS_UPDATER.set(this, OffHeapKeyHelper.allocateKey(key, this.keyInfo));
 #endif
   }
 
@@ -630,6 +678,106 @@ public class LEAF_CLASS extends PARENT_CLASS {
   // -------------------------------------- versioned code ----------------------------------------
   // DO NOT modify this class. It was generated from LeafRegionEntry.cpp
 
+#ifdef COMPACT
+  @Override
+  public int getEntryVersion() {
+    return ((this.versionSourceBits >>> 8) & 0xFF0000) | (int) (this.versionBits & 0xFFFF);
+  }
+
+  @Override
+  public long getRegionVersion() {
+    return this.versionBits >> 16;
+  }
+
+  @Override
+  public long getVersionTimeStamp() {
+    return getLastModified();
+  }
+
+  @Override
+  public void setVersionTimeStamp(final long timeStamp) {
+    setLastModified(timeStamp);
+  }
+
+  @Override
+  public VersionSource getMemberID() {
+    return VersionSourceTable.getMemberId(this, this.versionSourceBits & VersionSourceTable.MAX_INDEX);
+  }
+
+  @Override
+  public int getDistributedSystemId() {
+    return VersionSourceTable.getDistributedSystemId(this, this.versionSourceBits & VersionSourceTable.MAX_INDEX);
+  }
+
+  // DO NOT modify this class. It was generated from LeafRegionEntry.cpp
+
+  @Override
+  public void setVersions(final VersionTag versionTag) {
+    int eVersion = versionTag.getEntryVersion();
+    long rVersion = (((long) versionTag.getRegionVersionHighBytes()) << 32)
+        | (versionTag.getRegionVersionLowBytes() & 0x00000000FFFFFFFFL);
+    this.versionBits = (rVersion << 16) | (eVersion & 0xFFFF);
+
+    if (!versionTag.isGatewayTag() && getDistributedSystemId() == versionTag.getDistributedSystemId()) {
+      if (getVersionTimeStamp() <= versionTag.getVersionTimeStamp()) {
+        setVersionTimeStamp(versionTag.getVersionTimeStamp());
+      } else {
+        versionTag.setVersionTimeStamp(getVersionTimeStamp());
+      }
+    } else {
+      setVersionTimeStamp(versionTag.getVersionTimeStamp());
+    }
+
+    this.versionSourceBits = ((eVersion & 0xff0000) << 8) | VersionSourceTable.getIndex(this, versionTag.getMemberID(), versionTag.getDistributedSystemId());
+  }
+
+  @Override
+  public void setMemberID(final VersionSource memberId) {
+    this.versionSourceBits = (this.versionSourceBits & ~VersionSourceTable.MAX_INDEX) | VersionSourceTable.getIndex(this, memberId, getDistributedSystemId());
+  }
+
+  @Override
+  public VersionStamp getVersionStamp() {
+    return this;
+  }
+
+  // DO NOT modify this class. It was generated from LeafRegionEntry.cpp
+  
+  @Override
+  public VersionTag asVersionTag() {
+    VersionTag tag = VersionTag.create(getMemberID());
+    tag.setEntryVersion(getEntryVersion());
+    tag.setRegionVersion(getRegionVersionHighBytes(), getRegionVersionLowBytes());
+    tag.setVersionTimeStamp(getVersionTimeStamp());
+    tag.setDistributedSystemId(getDistributedSystemId());
+    return tag;
+  }
+
+  @Override
+  public void processVersionTag(final InternalRegion region, final VersionTag versionTag,
+      final boolean isTombstoneFromGII, final boolean hasDelta, final VersionSource versionSource,
+      final InternalDistributedMember sender, final boolean checkForConflicts) {
+    basicProcessVersionTag(region, versionTag, isTombstoneFromGII, hasDelta, versionSource, sender, checkForConflicts);
+  }
+
+  @Override
+  public void processVersionTag(final EntryEvent cacheEvent) {
+    // this keeps IDE happy. without it the sender chain becomes confused while browsing this code
+    super.processVersionTag(cacheEvent);
+  }
+
+  /** get rvv internal high byte. Used by region entries for transferring to storage */
+  @Override
+  public short getRegionVersionHighBytes() {
+    return (short) (this.versionBits >>> 48);
+  }
+  
+  /** get rvv internal low bytes. Used by region entries for transferring to storage */
+  @Override
+  public int getRegionVersionLowBytes() {
+    return (int) (this.versionBits >>> 16);
+  }
+#else
   @Override
   public int getEntryVersion() {
     return ((entryVersionHighByte << 16) & 0xFF0000) | (entryVersionLowBytes & 0xFFFF);
@@ -730,6 +878,7 @@ public class LEAF_CLASS extends PARENT_CLASS {
   public int getRegionVersionLowBytes() {
     return this.regionVersionLowBytes;
   }
+#endif
 #endif
   
   // ----------------------------------------- key code -------------------------------------------
@@ -942,6 +1091,41 @@ public class LEAF_CLASS extends PARENT_CLASS {
     }
     return false;
   }
+#elif defined(KEY_STORED_STRING)
+  @Override
+  public Object getKey() {
+    return OffHeapKeyHelper.getKey(this);
+  }
+
+  @Override
+  public boolean isKeyEqual(final Object key) {
+    return OffHeapKeyHelper.isKeyEqual(this, key);
+  }
+
+  @Override
+  public long getKeyAddress() {
+    return KEY_ADDRESS_UPDATER.get(this);
+  }
+
+  @Override
+  public boolean setKeyAddress(final long expectedAddress, final long newAddress) {
+    return KEY_ADDRESS_UPDATER.compareAndSet(this, expectedAddress, newAddress);
+  }
+
+  @Override
+  public int getKeyInfo() {
+    return this.keyInfo;
+  }
+
+  @Override
+  public String getReleasedKey() {
+    return this.releasedKey;
+  }
+
+  @Override
+  public void setReleasedKey(final String key) {
+    this.releasedKey = key;
+  }
 #endif
 
   // DO NOT modify this class. It was generated from LeafRegionEntry.cpp
@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.entries;
+
+/**
+ * An {@link OffHeapRegionEntry} whose String key is also stored off heap. The entry keeps the
+ * length and encoding of the key inline so most mismatches can be detected without reading off-heap
+ * memory.
+ *
+ * @see org.apache.geode.internal.offheap.OffHeapKeyHelper
+ */
+public interface OffHeapKeyRegionEntry extends OffHeapRegionEntry {
+  /**
+   * OFF_HEAP_KEY_FIELD_READER
+   *
+   * @return the address of the key, or zero once the key memory has been released
+   */
+  long getKeyAddress();
+
+  /**
+   * OFF_HEAP_KEY_FIELD_WRITER
+   */
+  boolean setKeyAddress(long expectedAddr, long newAddr);
+
+  /**
+   * Returns the key length shifted left by one with the low bit set if the key is stored one byte
+   * per character.
+   */
+  int getKeyInfo();
+
+  /**
+   * Returns the heap copy of the key made before its off-heap memory was released, or null if it
+   * has not been released.
+   */
+  String getReleasedKey();
+
+  void setReleasedKey(String key);
+}
@@ -55,6 +55,8 @@ public abstract class VMStatsDiskLRURegionEntryOffHeap extends VMStatsDiskLRUReg
               return new VMStatsDiskLRURegionEntryOffHeapStringKey2(context, skey, value,
                   byteEncoded);
             }
+          } else if (InlineKeyHelper.OFF_HEAP_STRING_KEYS) {
+            return new VMStatsDiskLRURegionEntryOffHeapStoredStringKey(context, skey, value);
           }
         } else if (keyClass == UUID.class) {
           return new VMStatsDiskLRURegionEntryOffHeapUUIDKey(context, (UUID) key, value);
@@ -53,6 +53,8 @@ public abstract class VMStatsDiskRegionEntryOffHeap extends VMStatsDiskRegionEnt
             } else {
               return new VMStatsDiskRegionEntryOffHeapStringKey2(context, skey, value, byteEncoded);
             }
+          } else if (InlineKeyHelper.OFF_HEAP_STRING_KEYS) {
+            return new VMStatsDiskRegionEntryOffHeapStoredStringKey(context, skey, value);
           }
         } else if (keyClass == UUID.class) {
           return new VMStatsDiskRegionEntryOffHeapUUIDKey(context, (UUID) key, value);
@@ -53,6 +53,8 @@ public abstract class VMStatsLRURegionEntryOffHeap extends VMStatsLRURegionEntry
             } else {
               return new VMStatsLRURegionEntryOffHeapStringKey2(context, skey, value, byteEncoded);
             }
+          } else if (InlineKeyHelper.OFF_HEAP_STRING_KEYS) {
+            return new VMStatsLRURegionEntryOffHeapStoredStringKey(context, skey, value);
           }
         } else if (keyClass == UUID.class) {
           return new VMStatsLRURegionEntryOffHeapUUIDKey(context, (UUID) key, value);
@@ -53,6 +53,8 @@ public abstract class VMStatsRegionEntryOffHeap extends VMStatsRegionEntry
             } else {
               return new VMStatsRegionEntryOffHeapStringKey2(context, skey, value, byteEncoded);
             }
+          } else if (InlineKeyHelper.OFF_HEAP_STRING_KEYS) {
+            return new VMStatsRegionEntryOffHeapStoredStringKey(context, skey, value);
           }
         } else if (keyClass == UUID.class) {
           return new VMStatsRegionEntryOffHeapUUIDKey(context, (UUID) key, value);
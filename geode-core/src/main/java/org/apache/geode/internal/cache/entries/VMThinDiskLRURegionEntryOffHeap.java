@@ -55,6 +55,8 @@ public abstract class VMThinDiskLRURegionEntryOffHeap extends VMThinDiskLRURegio
               return new VMThinDiskLRURegionEntryOffHeapStringKey2(context, skey, value,
                   byteEncoded);
             }
+          } else if (InlineKeyHelper.OFF_HEAP_STRING_KEYS) {
+            return new VMThinDiskLRURegionEntryOffHeapStoredStringKey(context, skey, value);
           }
         } else if (keyClass == UUID.class) {
           return new VMThinDiskLRURegionEntryOffHeapUUIDKey(context, (UUID) key, value);
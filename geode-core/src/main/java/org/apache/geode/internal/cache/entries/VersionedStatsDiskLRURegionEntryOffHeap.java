@@ -56,6 +56,8 @@ public abstract class VersionedStatsDiskLRURegionEntryOffHeap
               return new VersionedStatsDiskLRURegionEntryOffHeapStringKey2(context, skey, value,
                   byteEncoded);
             }
+          } else if (InlineKeyHelper.OFF_HEAP_STRING_KEYS) {
+            return new VersionedStatsDiskLRURegionEntryOffHeapStoredStringKey(context, skey, value);
           }
         } else if (keyClass == UUID.class) {
           return new VersionedStatsDiskLRURegionEntryOffHeapUUIDKey(context, (UUID) key, value);
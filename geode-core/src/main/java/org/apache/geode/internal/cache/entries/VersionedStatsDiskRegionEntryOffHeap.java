@@ -55,6 +55,8 @@ public abstract class VersionedStatsDiskRegionEntryOffHeap extends VersionedStat
               return new VersionedStatsDiskRegionEntryOffHeapStringKey2(context, skey, value,
                   byteEncoded);
             }
+          } else if (InlineKeyHelper.OFF_HEAP_STRING_KEYS) {
+            return new VersionedStatsDiskRegionEntryOffHeapStoredStringKey(context, skey, value);
           }
         } else if (keyClass == UUID.class) {
           return new VersionedStatsDiskRegionEntryOffHeapUUIDKey(context, (UUID) key, value);
@@ -55,6 +55,8 @@ public abstract class VersionedStatsLRURegionEntryOffHeap extends VersionedStats
               return new VersionedStatsLRURegionEntryOffHeapStringKey2(context, skey, value,
                   byteEncoded);
             }
+          } else if (InlineKeyHelper.OFF_HEAP_STRING_KEYS) {
+            return new VersionedStatsLRURegionEntryOffHeapStoredStringKey(context, skey, value);
           }
         } else if (keyClass == UUID.class) {
           return new VersionedStatsLRURegionEntryOffHeapUUIDKey(context, (UUID) key, value);
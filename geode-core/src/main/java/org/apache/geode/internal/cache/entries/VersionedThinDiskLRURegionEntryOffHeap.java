@@ -55,6 +55,8 @@ public abstract class VersionedThinDiskLRURegionEntryOffHeap extends VersionedTh
               return new VersionedThinDiskLRURegionEntryOffHeapStringKey2(context, skey, value,
                   byteEncoded);
             }
+          } else if (InlineKeyHelper.OFF_HEAP_STRING_KEYS) {
+            return new VersionedThinDiskLRURegionEntryOffHeapStoredStringKey(context, skey, value);
           }
         } else if (keyClass == UUID.class) {
           return new VersionedThinDiskLRURegionEntryOffHeapUUIDKey(context, (UUID) key, value);
@@ -55,6 +55,8 @@ public abstract class VersionedThinRegionEntryOffHeap extends VersionedThinRegio
               return new VersionedThinRegionEntryOffHeapStringKey2(context, skey, value,
                   byteEncoded);
             }
+          } else if (InlineKeyHelper.OFF_HEAP_STRING_KEYS) {
+            return new VersionedThinRegionEntryOffHeapStoredStringKey(context, skey, value);
           }
         } else if (keyClass == UUID.class) {
           return new VersionedThinRegionEntryOffHeapUUIDKey(context, (UUID) key, value);
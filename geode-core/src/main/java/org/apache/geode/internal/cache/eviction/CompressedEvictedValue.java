@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import org.apache.geode.compression.Compressor;
+import org.apache.geode.internal.Version;
+import org.apache.geode.internal.cache.compression.CompressedCachedDeserializable;
+
+/**
+ * The value of an entry that was compressed in memory by the
+ * {@link org.apache.geode.cache.EvictionAction#COMPRESS_THEN_OVERFLOW_TO_DISK} eviction action.
+ * Every read decompresses the value again. The value is written to disk and sent to other members
+ * uncompressed, as a {@link org.apache.geode.internal.cache.PreferBytesCachedDeserializable} would
+ * be, so that compressing it stays local to this member.
+ */
+public class CompressedEvictedValue extends CompressedCachedDeserializable {
+
+  /**
+   * +PER_OBJECT_OVERHEAD for the CompressedEvictedValue object +4 for the value field +4 for the
+   * compressor field
+   */
+  private static final int MEM_OVERHEAD = PER_OBJECT_OVERHEAD + 8;
+
+  private final Compressor compressor;
+
+  /**
+   * Creates a new {@link CompressedEvictedValue} from an already compressed serialized value.
+   *
+   * @param compressor the compressor that compressed the value
+   * @param compressedValue the serialized value compressed by the compressor
+   */
+  public CompressedEvictedValue(Compressor compressor, byte[] compressedValue) {
+    this.compressor = compressor;
+    this.value = compressedValue;
+  }
+
+  @Override
+  protected Compressor getCompressor() {
+    return this.compressor;
+  }
+
+  @Override
+  protected int getMemoryOverhead() {
+    return MEM_OVERHEAD;
+  }
+
+  @Override
+  public int getDSFID() {
+    return PREFER_BYTES_CACHED_DESERIALIZABLE;
+  }
+
+  @Override
+  public Version[] getSerializationVersions() {
+    return null;
+  }
+
+  @Override
+  public boolean isSerialized() {
+    return true;
+  }
+
+  @Override
+  public boolean usesHeapForStorage() {
+    return true;
+  }
+}
@@ -53,6 +53,16 @@ class DisabledEvictionCounters implements EvictionCounters {
     // nothing
   }
 
+  @Override
+  public void incCompressions(long preCompressedBytes, long postCompressedBytes, long time) {
+    // nothing
+  }
+
+  @Override
+  public void incDecompressions(long time) {
+    // nothing
+  }
+
   @Override
   public void incEvictions() {
     // nothing
@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import org.apache.geode.compression.Compressor;
+import org.apache.geode.compression.SnappyCompressor;
+import org.apache.geode.internal.cache.CachePerfStats;
+
+/**
+ * Compresses entry values for the
+ * {@link org.apache.geode.cache.EvictionAction#COMPRESS_THEN_OVERFLOW_TO_DISK} eviction action with
+ * the built in Snappy codec and records how much was compressed and decompressed, and how long it
+ * took, in the {@link EvictionCounters} of the region's eviction controller.
+ */
+public class EvictionCompressor implements Compressor {
+
+  private static final Compressor snappy = SnappyCompressor.getDefaultInstance();
+
+  private final EvictionCounters counters;
+
+  public EvictionCompressor(EvictionCounters counters) {
+    this.counters = counters;
+  }
+
+  @Override
+  public byte[] compress(byte[] input) {
+    long start = CachePerfStats.getStatTime();
+    byte[] result = snappy.compress(input);
+    this.counters.incCompressions(input.length, result.length,
+        CachePerfStats.getStatTime() - start);
+    return result;
+  }
+
+  @Override
+  public byte[] decompress(byte[] input) {
+    long start = CachePerfStats.getStatTime();
+    byte[] result = snappy.decompress(input);
+    this.counters.incDecompressions(CachePerfStats.getStatTime() - start);
+    return result;
+  }
+}
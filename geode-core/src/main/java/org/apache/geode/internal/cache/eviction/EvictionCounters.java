@@ -42,6 +42,10 @@ public interface EvictionCounters {
 
   void incGreedyReturns(long greedyReturns);
 
+  void incCompressions(long preCompressedBytes, long postCompressedBytes, long time);
+
+  void incDecompressions(long time);
+
   Statistics getStatistics();
 
   void close();
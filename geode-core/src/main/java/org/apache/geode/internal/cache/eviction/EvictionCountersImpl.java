@@ -121,4 +121,14 @@ class EvictionCountersImpl implements EvictionCounters {
   public void incGreedyReturns(long greedyReturns) {
     this.stats.incGreedyReturns(greedyReturns);
   }
+
+  @Override
+  public void incCompressions(long preCompressedBytes, long postCompressedBytes, long time) {
+    this.stats.incCompressions(preCompressedBytes, postCompressedBytes, time);
+  }
+
+  @Override
+  public void incDecompressions(long time) {
+    this.stats.incDecompressions(time);
+  }
 }
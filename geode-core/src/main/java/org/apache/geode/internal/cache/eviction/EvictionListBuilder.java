@@ -14,7 +14,9 @@
  */
 package org.apache.geode.internal.cache.eviction;
 
+import java.util.Iterator;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import org.apache.geode.internal.lang.SystemPropertyHelper;
 
@@ -22,18 +24,44 @@ public class EvictionListBuilder {
 
   private final boolean evictionScanAsync;
 
+  private final int evictionSampleSize;
+
+  private final int evictionListShards;
+
   private final EvictionController controller;
 
+  private final Supplier<Iterator<?>> entries;
+
   public EvictionListBuilder(EvictionController evictionController) {
+    this(evictionController, null);
+  }
+
+  /**
+   * @param entries supplies iterators over the entries of the region map, which are sampled
+   *        instead of keeping a list when {@link SystemPropertyHelper#EVICTION_SAMPLE_SIZE} is set
+   */
+  public EvictionListBuilder(EvictionController evictionController,
+      Supplier<Iterator<?>> entries) {
     this.controller = evictionController;
+    this.entries = entries;
     Optional<Boolean> asyncScan =
         SystemPropertyHelper.getProductBooleanProperty(SystemPropertyHelper.EVICTION_SCAN_ASYNC);
     evictionScanAsync = asyncScan.orElse(true);
+    evictionSampleSize = SystemPropertyHelper
+        .getProductIntegerProperty(SystemPropertyHelper.EVICTION_SAMPLE_SIZE).orElse(0);
+    evictionListShards = SystemPropertyHelper
+        .getProductIntegerProperty(SystemPropertyHelper.EVICTION_LIST_SHARDS).orElse(1);
   }
 
   public EvictionList create() {
     if (this.controller.getEvictionAlgorithm().isLIFO()) {
       return new LIFOList(this.controller);
+    } else if (this.controller.getEvictionAlgorithm().isTinyLFU()) {
+      return new TinyLFUList(this.controller);
+    } else if (evictionSampleSize > 0 && this.entries != null) {
+      return new SampledEvictionList(this.controller, this.entries, evictionSampleSize);
+    } else if (evictionListShards > 1) {
+      return new ShardedEvictionList(this.controller, evictionListShards);
     } else {
       if (evictionScanAsync) {
         return new LRUListWithAsyncSorting(this.controller);
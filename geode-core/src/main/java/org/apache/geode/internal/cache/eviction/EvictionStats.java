@@ -36,4 +36,8 @@ public interface EvictionStats {
 
   void incGreedyReturns(long greedyReturns);
 
+  void incCompressions(long preCompressedBytes, long postCompressedBytes, long time);
+
+  void incDecompressions(long time);
+
 }
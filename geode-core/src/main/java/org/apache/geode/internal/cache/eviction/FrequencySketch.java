@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+/**
+ * A count-min sketch that estimates how often each key has been seen, using four 4-bit counters per
+ * key packed sixteen to a long. Once the number of increments reaches ten times the capacity, all
+ * counters are halved so that the estimates favor recent history.
+ *
+ * This class is not thread safe. {@link TinyLFUList} only uses it while holding its own lock.
+ */
+class FrequencySketch {
+
+  private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L,
+      0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+  private static final long RESET_MASK = 0x7777777777777777L;
+
+  private static final long ONE_MASK = 0x1111111111111111L;
+
+  private static final int MINIMUM_CAPACITY = 16;
+
+  private long[] table = new long[0];
+
+  private int tableMask;
+
+  private int sampleSize;
+
+  private int additions;
+
+  /**
+   * Makes the sketch large enough to tell apart about {@code capacity} keys. Growing the sketch
+   * forgets what it has seen so far.
+   */
+  void ensureCapacity(int capacity) {
+    int maximum = Math.min(Math.max(capacity, MINIMUM_CAPACITY), 1 << 30);
+    if (this.table.length >= maximum) {
+      return;
+    }
+    this.table = new long[Integer.highestOneBit(maximum - 1) << 1];
+    this.tableMask = this.table.length - 1;
+    this.sampleSize = 10 * maximum;
+    this.additions = 0;
+  }
+
+  /**
+   * Returns the estimated number of times the key with the given hash was seen, at most 15.
+   */
+  int frequency(int keyHash) {
+    if (this.table.length == 0) {
+      return 0;
+    }
+    int hash = spread(keyHash);
+    int start = (hash & 3) << 2;
+    int frequency = Integer.MAX_VALUE;
+    for (int i = 0; i < 4; i++) {
+      int index = indexOf(hash, i);
+      int count = (int) ((this.table[index] >>> ((start + i) << 2)) & 0xfL);
+      frequency = Math.min(frequency, count);
+    }
+    return frequency;
+  }
+
+  /**
+   * Records one more use of the key with the given hash.
+   */
+  void increment(int keyHash) {
+    if (this.table.length == 0) {
+      return;
+    }
+    int hash = spread(keyHash);
+    int start = (hash & 3) << 2;
+    boolean added = false;
+    for (int i = 0; i < 4; i++) {
+      added |= incrementAt(indexOf(hash, i), start + i);
+    }
+    if (added && ++this.additions == this.sampleSize) {
+      reset();
+    }
+  }
+
+  private boolean incrementAt(int index, int counter) {
+    int offset = counter << 2;
+    long mask = 0xfL << offset;
+    if ((this.table[index] & mask) != mask) {
+      this.table[index] += 1L << offset;
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Halves every counter. Counters that were odd lose their low bit, which is accounted for in
+   * additions.
+   */
+  private void reset() {
+    int odd = 0;
+    for (int i = 0; i < this.table.length; i++) {
+      odd += Long.bitCount(this.table[i] & ONE_MASK);
+      this.table[i] = (this.table[i] >>> 1) & RESET_MASK;
+    }
+    this.additions = (this.additions >>> 1) - (odd >>> 2);
+  }
+
+  private int indexOf(int hash, int depth) {
+    long h = (hash + SEEDS[depth]) * SEEDS[depth];
+    h += h >>> 32;
+    return ((int) h) & this.tableMask;
+  }
+
+  private static int spread(int x) {
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    return (x >>> 16) ^ x;
+  }
+}
@@ -332,7 +332,7 @@ public class HeapEvictor implements ResourceListener<MemoryEvent> {
     // Do we care about eviction events and did the eviction event originate
     // in this VM ...
     if (isRunning() && event.isLocal()) {
-      if (event.getState().isEviction()) {
+      if (event.getState().isEviction() || isEvictionPredicted(event)) {
         // Have we previously received an eviction event and already started eviction ...
         if (this.mustEvict.get()) {
           if (logger.isDebugEnabled()) {
@@ -344,9 +344,7 @@ public class HeapEvictor implements ResourceListener<MemoryEvent> {
           // to update the number of fast loops to perform.
           synchronized (evictionLock) {
             numEvictionLoopsCompleted = 0;
-            numFastLoops = (int) ((event.getBytesUsed()
-                - event.getThresholds().getEvictionThresholdClearBytes() + getTotalBytesToEvict())
-                / getTotalBytesToEvict());
+            numFastLoops = computeNumFastLoops(event);
             evictionLock.notifyAll();
           }
 
@@ -361,9 +359,7 @@ public class HeapEvictor implements ResourceListener<MemoryEvent> {
         }
 
         numEvictionLoopsCompleted = 0;
-        numFastLoops =
-            (int) ((event.getBytesUsed() - event.getThresholds().getEvictionThresholdClearBytes()
-                + getTotalBytesToEvict()) / getTotalBytesToEvict());
+        numFastLoops = computeNumFastLoops(event);
         if (logger.isDebugEnabled()) {
           logger.debug("Starting eviction in response to memory event: {}", event);
         }
@@ -431,6 +427,26 @@ public class HeapEvictor implements ResourceListener<MemoryEvent> {
     }
   }
 
+  /**
+   * Returns true if the event was sent while memory is below the eviction threshold because its
+   * usage is projected to exceed the threshold.
+   */
+  private boolean isEvictionPredicted(MemoryEvent event) {
+    return event.getState().isNormal() && event.getThresholds().isEvictionThresholdEnabled()
+        && event.getProjectedBytesUsed() >= event.getThresholds().getEvictionThresholdBytes();
+  }
+
+  /**
+   * Returns the number of eviction loops to run without slowing down, enough to evict the bytes
+   * used above the level at which eviction stops. When usage is projected to grow, the projected
+   * usage is used instead so that eviction keeps up with the projected overshoot.
+   */
+  private int computeNumFastLoops(MemoryEvent event) {
+    long bytesUsed = Math.max(event.getBytesUsed(), event.getProjectedBytesUsed());
+    return (int) ((bytesUsed - event.getThresholds().getEvictionThresholdClearBytes()
+        + getTotalBytesToEvict()) / getTotalBytesToEvict());
+  }
+
   protected int getEvictionLoopDelayTime() {
     int delayTime = 850; // The waiting period when running fast loops
     if (numEvictionLoopsCompleted - numFastLoops > 2) {
@@ -105,7 +105,7 @@ public class HeapLRUController extends SizeLRUController {
     InternalCache cache = (InternalCache) region.getRegionService();
     boolean offheap = region.getAttributes().getOffHeap();
     boolean shouldEvict =
-        cache.getInternalResourceManager().getMemoryMonitor(offheap).getState().isEviction();
+        cache.getInternalResourceManager().getMemoryMonitor(offheap).mustEvict();
 
     if (region instanceof BucketRegion) {
       return shouldEvict && ((BucketRegion) region).getSizeForEviction() > 0;
@@ -28,6 +28,12 @@ public class HeapLRUStatistics implements EvictionStats {
   private static final int destroysId;
   private static final int evaluationsId;
   private static final int greedyReturnsId;
+  private static final int compressionsId;
+  private static final int compressTimeId;
+  private static final int preCompressedBytesId;
+  private static final int postCompressedBytesId;
+  private static final int decompressionsId;
+  private static final int decompressTimeId;
 
   static {
     StatisticsTypeFactory f = StatisticsTypeFactoryImpl.singleton();
@@ -39,19 +45,42 @@ public class HeapLRUStatistics implements EvictionStats {
         "Number of entries destroyed in the region through both destroy cache operations and eviction.";
     final String lruEvaluationsDesc = "Number of entries evaluated during LRU operations.";
     final String lruGreedyReturnsDesc = "Number of non-LRU entries evicted during LRU operations";
+    final String compressionsDesc =
+        "Number of entry values compressed in memory by eviction instead of being overflowed to disk. These are also counted as evictions.";
+    final String compressTimeDesc = "The total time spent compressing entry values for eviction.";
+    final String preCompressedBytesDesc =
+        "The total number of bytes of entry values before they were compressed for eviction.";
+    final String postCompressedBytesDesc =
+        "The total number of bytes of entry values after they were compressed for eviction.";
+    final String decompressionsDesc =
+        "Number of times an entry value compressed by eviction was decompressed.";
+    final String decompressTimeDesc =
+        "The total time spent decompressing entry values compressed by eviction.";
 
     statType = f.createType("HeapLRUStatistics", "Statistics related to heap based eviction",
         new StatisticDescriptor[] {f.createLongGauge("entryBytes", entryBytesDesc, "bytes"),
             f.createLongCounter("lruEvictions", lruEvictionsDesc, "entries"),
             f.createLongCounter("lruDestroys", lruDestroysDesc, "entries"),
             f.createLongCounter("lruEvaluations", lruEvaluationsDesc, "entries"),
-            f.createLongCounter("lruGreedyReturns", lruGreedyReturnsDesc, "entries")});
+            f.createLongCounter("lruGreedyReturns", lruGreedyReturnsDesc, "entries"),
+            f.createLongCounter("compressions", compressionsDesc, "operations"),
+            f.createLongCounter("compressTime", compressTimeDesc, "nanoseconds"),
+            f.createLongCounter("preCompressedBytes", preCompressedBytesDesc, "bytes"),
+            f.createLongCounter("postCompressedBytes", postCompressedBytesDesc, "bytes"),
+            f.createLongCounter("decompressions", decompressionsDesc, "operations"),
+            f.createLongCounter("decompressTime", decompressTimeDesc, "nanoseconds")});
 
     counterId = statType.nameToId("entryBytes");
     evictionsId = statType.nameToId("lruEvictions");
     destroysId = statType.nameToId("lruDestroys");
     evaluationsId = statType.nameToId("lruEvaluations");
     greedyReturnsId = statType.nameToId("lruGreedyReturns");
+    compressionsId = statType.nameToId("compressions");
+    compressTimeId = statType.nameToId("compressTime");
+    preCompressedBytesId = statType.nameToId("preCompressedBytes");
+    postCompressedBytesId = statType.nameToId("postCompressedBytes");
+    decompressionsId = statType.nameToId("decompressions");
+    decompressTimeId = statType.nameToId("decompressTime");
   }
 
   private final Statistics stats;
@@ -105,4 +134,18 @@ public class HeapLRUStatistics implements EvictionStats {
     this.stats.incLong(greedyReturnsId, delta);
   }
 
+  @Override
+  public void incCompressions(long preCompressedBytes, long postCompressedBytes, long time) {
+    this.stats.incLong(compressionsId, 1);
+    this.stats.incLong(compressTimeId, time);
+    this.stats.incLong(preCompressedBytesId, preCompressedBytes);
+    this.stats.incLong(postCompressedBytesId, postCompressedBytes);
+  }
+
+  @Override
+  public void incDecompressions(long time) {
+    this.stats.incLong(decompressionsId, 1);
+    this.stats.incLong(decompressTimeId, time);
+  }
+
 }
@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import java.util.Iterator;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.internal.InternalStatisticsDisabledException;
+import org.apache.geode.internal.cache.BucketRegion;
+import org.apache.geode.internal.cache.versions.RegionVersionVector;
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.log4j.LogMarker;
+
+/**
+ * SampledEvictionList does not keep its entries in any order. Instead, when an entry has to be
+ * evicted, it looks at a few entries of the region map and evicts the one that was used the longest
+ * time ago, the way Redis approximates LRU. Adding and removing entries only marks the entry
+ * itself, so creates and destroys do not contend on the list, and there is no list to sort when
+ * entries are used.
+ *
+ * <p>
+ * Entries are sampled by walking the region map from where the previous eviction stopped, which
+ * visits them in hash order rather than in the order they were used. Like
+ * {@link LRUListWithSyncSorting}, entries that were used since the walk last passed them only have
+ * their recently used bit cleared, and the walk goes on until it has seen enough entries that were
+ * not, or has looked at as many entries as the list holds. Of those, the one with the oldest last
+ * access time is evicted if the region keeps statistics, or else the one with the oldest last
+ * modified time.
+ */
+public class SampledEvictionList extends AbstractEvictionList {
+
+  private static final Logger logger = LogService.getLogger();
+
+  private final Supplier<Iterator<?>> entries;
+
+  private final int sampleSize;
+
+  /** Where the next sample starts; only used while synchronized on this list */
+  private Iterator<?> cursor;
+
+  SampledEvictionList(EvictionController controller, Supplier<Iterator<?>> entries,
+      int sampleSize) {
+    super(controller);
+    this.entries = entries;
+    this.sampleSize = sampleSize;
+  }
+
+  @Override
+  public void clear(RegionVersionVector regionVersionVector, BucketRegion bucketRegion) {
+    super.clear(regionVersionVector, bucketRegion);
+    synchronized (this) {
+      this.cursor = null;
+    }
+  }
+
+  /**
+   * Marks the entry as being in this list. The entry is not linked to any other entry, its next
+   * node is only set so that it is counted once.
+   */
+  @Override
+  public void appendEntry(EvictionNode evictionNode) {
+    synchronized (evictionNode) {
+      if (evictionNode.next() != null) {
+        // already in the list
+        return;
+      }
+      evictionNode.setNext(this.tail);
+    }
+    incrementSize();
+  }
+
+  @Override
+  public void destroyEntry(EvictionNode evictionNode) {
+    if (removeEntry(evictionNode)) {
+      getStatistics().incDestroys();
+    }
+  }
+
+  @Override
+  protected boolean removeEntry(EvictionNode evictionNode) {
+    synchronized (evictionNode) {
+      if (evictionNode.next() == null) {
+        // not in the list anymore.
+        return false;
+      }
+      evictionNode.setNext(null);
+    }
+    decrementSize();
+    return true;
+  }
+
+  @Override
+  public synchronized EvictableEntry getEvictableEntry() {
+    long evaluations = 0;
+    int examined = 0;
+    int sampled = 0;
+    int size = size();
+    boolean restarted = false;
+    EvictableEntry oldest = null;
+    boolean oldestRecentlyUsed = false;
+    long oldestTime = 0;
+    while (sampled < this.sampleSize && examined < size) {
+      if (this.cursor == null || !this.cursor.hasNext()) {
+        if (restarted) {
+          // the whole map was walked
+          break;
+        }
+        restarted = true;
+        this.cursor = this.entries.get();
+        continue;
+      }
+      Object value = this.cursor.next();
+      if (!(value instanceof EvictableEntry)) {
+        continue;
+      }
+      EvictableEntry entry = (EvictableEntry) value;
+      evaluations++;
+      if (entry.next() == null || entry.isDestroyedOrRemoved() || !isEvictable(entry)) {
+        continue;
+      }
+      examined++;
+      boolean recentlyUsed = entry.isRecentlyUsed();
+      if (recentlyUsed) {
+        entry.unsetRecentlyUsed();
+      } else {
+        sampled++;
+      }
+      long time = lastUsedTime(entry);
+      if (oldest == null || (oldestRecentlyUsed && !recentlyUsed)
+          || (oldestRecentlyUsed == recentlyUsed && time < oldestTime)) {
+        oldest = entry;
+        oldestRecentlyUsed = recentlyUsed;
+        oldestTime = time;
+      }
+    }
+    getStatistics().incEvaluations(evaluations);
+
+    if (oldest == null || !removeEntry(oldest)) {
+      return null;
+    }
+    if (logger.isTraceEnabled(LogMarker.LRU_CLOCK)) {
+      logger.trace(LogMarker.LRU_CLOCK, "evicting {} after looking at {} entries", oldest,
+          evaluations);
+    }
+    return oldest;
+  }
+
+  @Override
+  public void incrementRecentlyUsed() {
+    // nothing to sort
+  }
+
+  private static long lastUsedTime(EvictableEntry entry) {
+    if (entry.hasStats()) {
+      try {
+        return entry.getLastAccessed();
+      } catch (InternalStatisticsDisabledException ignore) {
+        // fall through to the last modified time
+      }
+    }
+    return entry.getLastModified();
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.geode.internal.cache.BucketRegion;
+import org.apache.geode.internal.cache.versions.RegionVersionVector;
+
+/**
+ * ShardedEvictionList splits the entries of a region over several {@link LRUListWithSyncSorting}
+ * lists, each with its own lock, so that threads adding and removing entries seldom wait for each
+ * other. An entry always goes to the shard picked by its identity hash code. The shards sort
+ * synchronously whatever EvictionScanAsync is set to, so that no shard needs a scanning thread.
+ *
+ * <p>
+ * Since entries are spread evenly over the shards, the head of each shard is about as old as the
+ * head of the others, so taking victims from the shards in turn approximates evicting in global LRU
+ * order. To keep the shards the same size, of the shard whose turn it is and the one after it, the
+ * larger one is asked for a victim.
+ */
+public class ShardedEvictionList implements EvictionList {
+
+  private final EvictionController controller;
+
+  private final LRUListWithSyncSorting[] shards;
+
+  private final AtomicInteger nextShard = new AtomicInteger();
+
+  ShardedEvictionList(EvictionController controller, int shardCount) {
+    this.controller = controller;
+    this.shards = new LRUListWithSyncSorting[shardCount];
+    for (int i = 0; i < shardCount; i++) {
+      this.shards[i] = new LRUListWithSyncSorting(controller);
+    }
+  }
+
+  private LRUListWithSyncSorting getShard(EvictionNode evictionNode) {
+    int hash = System.identityHashCode(evictionNode);
+    hash ^= hash >>> 16;
+    return this.shards[(hash & 0x7fffffff) % this.shards.length];
+  }
+
+  @Override
+  public void closeStats() {
+    getStatistics().close();
+  }
+
+  @Override
+  public void appendEntry(EvictionNode evictionNode) {
+    getShard(evictionNode).appendEntry(evictionNode);
+  }
+
+  @Override
+  public EvictableEntry getEvictableEntry() {
+    int start = (this.nextShard.getAndIncrement() & 0x7fffffff) % this.shards.length;
+    for (int i = 0; i < this.shards.length; i++) {
+      LRUListWithSyncSorting shard = this.shards[(start + i) % this.shards.length];
+      LRUListWithSyncSorting next = this.shards[(start + i + 1) % this.shards.length];
+      if (next.size() > shard.size()) {
+        shard = next;
+      }
+      EvictableEntry evictableEntry = shard.getEvictableEntry();
+      if (evictableEntry != null) {
+        return evictableEntry;
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public void destroyEntry(EvictionNode evictionNode) {
+    getShard(evictionNode).destroyEntry(evictionNode);
+  }
+
+  @Override
+  public EvictionCounters getStatistics() {
+    return this.controller.getCounters();
+  }
+
+  @Override
+  public void clear(RegionVersionVector regionVersionVector, BucketRegion bucketRegion) {
+    if (regionVersionVector != null) {
+      return; // when concurrency checks are enabled the clear operation removes entries iteratively
+    }
+
+    synchronized (this) {
+      if (bucketRegion != null) {
+        getStatistics().decrementCounter(bucketRegion.getCounter());
+        bucketRegion.resetCounter();
+      } else {
+        getStatistics().resetCounter();
+      }
+      for (LRUListWithSyncSorting shard : this.shards) {
+        shard.initEmptyList();
+      }
+    }
+  }
+
+  @Override
+  public int size() {
+    int size = 0;
+    for (LRUListWithSyncSorting shard : this.shards) {
+      size += shard.size();
+    }
+    return size;
+  }
+
+  @Override
+  public void incrementRecentlyUsed() {
+    // nothing needed
+  }
+}
@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.internal.cache.BucketRegion;
+import org.apache.geode.internal.cache.RegionEntry;
+import org.apache.geode.internal.cache.entries.OffHeapKeyRegionEntry;
+import org.apache.geode.internal.cache.versions.RegionVersionVector;
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.log4j.LogMarker;
+import org.apache.geode.internal.offheap.OffHeapKeyHelper;
+
+/**
+ * TinyLFUList evicts by frequency of use instead of recency. New entries go into a small window
+ * list, about one percent of the entries, ordered by when they were added. The rest of the entries
+ * are in the main list, which is scanned like {@link LRUListWithSyncSorting}: entries that were
+ * recently used are moved to the tail instead of being evicted.
+ *
+ * <p>
+ * While the main list is empty, as it is when the list first fills up, the window is trimmed to its
+ * size by moving its oldest entries to the main list. After that, when the window is over its size,
+ * its oldest entry is only moved to the main list if its key has been used more often than the key
+ * of the entry the main list would evict; otherwise the window entry is evicted. How often keys
+ * are used is estimated with a {@link FrequencySketch}, which is incremented when an entry is added
+ * and whenever an entry is found to have been recently used. Since the sketch is keyed by the key's
+ * hash code it remembers keys that are no longer in the region, so a key that keeps coming back is
+ * admitted, while a scan of keys that are used once only ever evicts other entries from the window.
+ *
+ * <p>
+ * Entries are not told which list they are in, so the window size is only exact for entries this
+ * list unlinks itself. Entries destroyed from the window leave it looking larger than it is, which
+ * only makes its entries compete for the main list a little sooner, and the count is reset whenever
+ * the window is found empty.
+ */
+public class TinyLFUList extends AbstractEvictionList {
+
+  private static final Logger logger = LogService.getLogger();
+
+  private static final int WINDOW_PERCENT = 1;
+
+  /** The last node in the window after which all new nodes are added */
+  private final EvictionNode windowTail = new GuardNode();
+
+  /** The oldest node in the window is the one after this */
+  private final EvictionNode windowHead = new GuardNode();
+
+  private final FrequencySketch sketch = new FrequencySketch();
+
+  private int windowSize;
+
+  TinyLFUList(EvictionController controller) {
+    super(controller);
+    initEmptyWindow();
+  }
+
+  private void initEmptyWindow() {
+    this.windowHead.setNext(this.windowTail);
+    this.windowTail.setPrevious(this.windowHead);
+    this.windowSize = 0;
+  }
+
+  @Override
+  public void clear(RegionVersionVector regionVersionVector, BucketRegion bucketRegion) {
+    super.clear(regionVersionVector, bucketRegion);
+    if (regionVersionVector == null) {
+      synchronized (this) {
+        initEmptyWindow();
+      }
+    }
+  }
+
+  /**
+   * Adds a new entry to the tail of the window and counts it as one use of its key.
+   */
+  @Override
+  public synchronized void appendEntry(EvictionNode evictionNode) {
+    if (evictionNode.next() != null) {
+      // already in a list
+      return;
+    }
+    // entries are marked as recently used when their value is set, which is not a second use
+    evictionNode.unsetRecentlyUsed();
+    this.sketch.ensureCapacity(size() + 1);
+    this.sketch.increment(keyHash(evictionNode));
+    linkLast(evictionNode, this.windowTail);
+    this.windowSize++;
+  }
+
+  @Override
+  public synchronized EvictableEntry getEvictableEntry() {
+    long evaluations = 0;
+    if (isMainEmpty()) {
+      // until the list first fills up every entry is in the window
+      while (isWindowFull()) {
+        EvictionNode evictionNode = this.windowHead.next();
+        if (evictionNode == this.windowTail) {
+          this.windowSize = 0;
+          break;
+        }
+        unlinkEntry(evictionNode);
+        this.windowSize--;
+        linkLast(evictionNode, this.tail);
+      }
+    }
+
+    EvictionNode victim = null;
+    int scanned = 0;
+    while (victim == null) {
+      EvictionNode evictionNode = this.head.next();
+      if (evictionNode == this.tail) {
+        break;
+      }
+      evaluations++;
+      if (!isEvictable(evictionNode)) {
+        unlinkEntry(evictionNode);
+      } else if (evictionNode.isRecentlyUsed() && scanned++ < size()) {
+        recordIfRecentlyUsed(evictionNode);
+        unlinkEntry(evictionNode);
+        linkLast(evictionNode, this.tail);
+      } else {
+        victim = evictionNode;
+      }
+    }
+
+    EvictionNode candidate = null;
+    while (candidate == null && (isWindowFull() || victim == null)) {
+      EvictionNode evictionNode = this.windowHead.next();
+      if (evictionNode == this.windowTail) {
+        this.windowSize = 0;
+        break;
+      }
+      evaluations++;
+      unlinkEntry(evictionNode);
+      this.windowSize--;
+      if (isEvictable(evictionNode)) {
+        recordIfRecentlyUsed(evictionNode);
+        candidate = evictionNode;
+      }
+    }
+
+    getStatistics().incEvaluations(evaluations);
+
+    if (candidate == null) {
+      if (victim != null) {
+        unlinkEntry(victim);
+      }
+      return (EvictableEntry) victim;
+    }
+    if (victim == null) {
+      return (EvictableEntry) candidate;
+    }
+    if (this.sketch.frequency(keyHash(candidate)) > this.sketch.frequency(keyHash(victim))) {
+      if (logger.isTraceEnabled(LogMarker.LRU_CLOCK)) {
+        logger.trace(LogMarker.LRU_CLOCK, "admitting {} and evicting {}", candidate, victim);
+      }
+      unlinkEntry(victim);
+      linkLast(candidate, this.tail);
+      return (EvictableEntry) victim;
+    }
+    return (EvictableEntry) candidate;
+  }
+
+  @Override
+  public void incrementRecentlyUsed() {
+    // uses are counted when the list finds an entry marked as recently used
+  }
+
+  private boolean isWindowFull() {
+    return this.windowSize > Math.max(1, size() * WINDOW_PERCENT / 100);
+  }
+
+  private boolean isMainEmpty() {
+    return this.head.next() == this.tail;
+  }
+
+  private void recordIfRecentlyUsed(EvictionNode evictionNode) {
+    if (evictionNode.isRecentlyUsed()) {
+      evictionNode.unsetRecentlyUsed();
+      this.sketch.increment(keyHash(evictionNode));
+    }
+  }
+
+  private void linkLast(EvictionNode evictionNode, EvictionNode listTail) {
+    evictionNode.setNext(listTail);
+    listTail.previous().setNext(evictionNode);
+    evictionNode.setPrevious(listTail.previous());
+    listTail.setPrevious(evictionNode);
+    incrementSize();
+  }
+
+  private static int keyHash(EvictionNode evictionNode) {
+    if (evictionNode instanceof OffHeapKeyRegionEntry) {
+      // hash the stored key instead of building a String for it
+      return OffHeapKeyHelper.getKeyHash((OffHeapKeyRegionEntry) evictionNode);
+    }
+    Object key = ((RegionEntry) evictionNode).getKey();
+    return key == null ? 0 : key.hashCode();
+  }
+}
@@ -27,6 +27,7 @@ import org.apache.geode.internal.cache.InternalRegion;
 import org.apache.geode.internal.cache.RegionClearedException;
 import org.apache.geode.internal.cache.RegionEntry;
 import org.apache.geode.internal.cache.Token;
+import org.apache.geode.internal.cache.entries.OffHeapRegionEntry;
 import org.apache.geode.internal.cache.versions.ConcurrentCacheModificationException;
 import org.apache.geode.internal.cache.versions.VersionStamp;
 import org.apache.geode.internal.cache.versions.VersionTag;
@@ -358,6 +359,9 @@ public class RegionMapDestroy {
             newRegionEntry);
         if (regionEntry != null && regionEntry != tombstone) {
           // concurrent change - try again
+          if (!haveTombstone) {
+            releaseUnusedEntry(newRegionEntry);
+          }
           retry = true;
           doContinue = true;
           return;
@@ -624,12 +628,25 @@ public class RegionMapDestroy {
         } // !opCompleted
       } // synchronized newRegionEntry
     } finally {
+      if (oldRegionEntry != null) {
+        releaseUnusedEntry(newRegionEntry);
+      }
       if (oqlIndexManager != null) {
         oqlIndexManager.countDownIndexUpdaters();
       }
     }
   }
 
+  /**
+   * Releases the off-heap memory of a new entry that lost the race to an existing entry and so was
+   * never put in the map.
+   */
+  private static void releaseUnusedEntry(RegionEntry newRegionEntry) {
+    if (newRegionEntry instanceof OffHeapRegionEntry) {
+      ((OffHeapRegionEntry) newRegionEntry).release();
+    }
+  }
+
   private void removeRegionEntryUntilCompleted() {
     while (!opCompleted && oldRegionEntry != null) {
       synchronized (oldRegionEntry) {
@@ -39,6 +39,7 @@ import org.apache.geode.internal.cache.entries.VersionedStatsLRURegionEntryHeap;
 import org.apache.geode.internal.cache.entries.VersionedStatsLRURegionEntryOffHeap;
 import org.apache.geode.internal.cache.entries.VersionedStatsRegionEntryHeap;
 import org.apache.geode.internal.cache.entries.VersionedStatsRegionEntryOffHeap;
+import org.apache.geode.internal.cache.entries.VersionedThinCompactRegionEntryHeap;
 import org.apache.geode.internal.cache.entries.VersionedThinDiskLRURegionEntryHeap;
 import org.apache.geode.internal.cache.entries.VersionedThinDiskLRURegionEntryOffHeap;
 import org.apache.geode.internal.cache.entries.VersionedThinDiskRegionEntryHeap;
@@ -51,6 +52,15 @@ import org.apache.geode.internal.cache.entries.VersionedThinRegionEntryOffHeap;
 public class RegionEntryFactoryBuilder {
   public RegionEntryFactory create(boolean statsEnabled, boolean isLRU, boolean isDisk,
       boolean withVersioning, boolean offHeap) {
+    return create(statsEnabled, isLRU, isDisk, withVersioning, offHeap, false);
+  }
+
+  /**
+   * If compact is true the compact entry family is used where one exists for the given options.
+   * Only versioned, thin, heap entries have a compact form.
+   */
+  public RegionEntryFactory create(boolean statsEnabled, boolean isLRU, boolean isDisk,
+      boolean withVersioning, boolean offHeap, boolean compact) {
     int bitRepresentation = 0;
     bitRepresentation |= statsEnabled ? 1 : 0;
     bitRepresentation |= isLRU ? 2 : 0;
@@ -79,6 +89,9 @@ public class RegionEntryFactoryBuilder {
       case (7):
         return VMStatsDiskLRURegionEntryHeap.getEntryFactory(); // Bits: 00111
       case (8):
+        if (compact) {
+          return VersionedThinCompactRegionEntryHeap.getEntryFactory();
+        }
         return VersionedThinRegionEntryHeap.getEntryFactory(); // Bits: 01000
       case (9):
         return VersionedStatsRegionEntryHeap.getEntryFactory(); // Bits: 01001
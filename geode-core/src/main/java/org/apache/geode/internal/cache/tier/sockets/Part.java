@@ -27,6 +27,7 @@ import org.apache.geode.internal.HeapDataOutputStream;
 import org.apache.geode.internal.Version;
 import org.apache.geode.internal.offheap.AddressableMemoryManager;
 import org.apache.geode.internal.offheap.StoredObject;
+import org.apache.geode.internal.offheap.annotations.Unretained;
 
 /**
  * Represents one unit of information (essentially a <code>byte</code> array) in the wire protocol.
@@ -61,6 +62,7 @@ public class Part {
   private byte typeCode;
 
   public void init(byte[] v, byte tc) {
+    releaseStoredObject();
     if (tc == EMPTY_BYTEARRAY_CODE) {
       this.part = EMPTY_BYTE_ARRAY;
     } else {
@@ -73,12 +75,24 @@ public class Part {
     if (this.part != null) {
       if (this.part instanceof HeapDataOutputStream) {
         ((HeapDataOutputStream) this.part).close();
+      } else {
+        releaseStoredObject();
       }
       this.part = null;
     }
     this.typeCode = BYTE_CODE;
   }
 
+  /**
+   * Releases the off-heap object this part references, if any, since it is about to be replaced.
+   */
+  private void releaseStoredObject() {
+    if (this.part instanceof StoredObject) {
+      ((StoredObject) this.part).release();
+      this.part = null;
+    }
+  }
+
   public boolean isNull() {
     if (this.part == null) {
       return true;
@@ -101,6 +115,7 @@ public class Part {
   }
 
   public void setPartState(byte[] b, boolean isObject) {
+    releaseStoredObject();
     if (isObject) {
       this.typeCode = OBJECT_CODE;
     } else if (b != null && b.length == 0) {
@@ -113,6 +128,7 @@ public class Part {
   }
 
   public void setPartState(HeapDataOutputStream os, boolean isObject) {
+    releaseStoredObject();
     if (isObject) {
       this.typeCode = OBJECT_CODE;
       this.part = os;
@@ -125,7 +141,13 @@ public class Part {
     }
   }
 
-  public void setPartState(StoredObject so, boolean isObject) {
+  /**
+   * Sets this part to the given stored object. An off-heap object is not copied to the heap; this
+   * part retains its own reference to it, writes it from a direct ByteBuffer when the message is
+   * sent and releases the reference in {@link #clear()}.
+   */
+  public void setPartState(@Unretained StoredObject so, boolean isObject) {
+    releaseStoredObject();
     if (isObject) {
       this.typeCode = OBJECT_CODE;
     } else if (so.getDataSize() == 0) {
@@ -136,6 +158,9 @@ public class Part {
       this.typeCode = BYTE_CODE;
     }
     if (so.hasRefCount()) {
+      if (!so.retain()) {
+        throw new IllegalStateException("Could not retain " + so + " for sending");
+      }
       this.part = so;
     } else {
       this.part = so.getValueAsHeapByteArray();
@@ -421,19 +421,25 @@ public class Get70 extends BaseCommand {
 
     responseMsg.setNumberOfParts(numParts);
 
-    responseMsg.addPartInAnyForm(data, isObject);
+    try {
+      responseMsg.addPartInAnyForm(data, isObject);
 
-    responseMsg.addIntPart(flags);
+      responseMsg.addIntPart(flags);
 
 
-    if (callbackArg != null) {
-      responseMsg.addObjPart(callbackArg);
-    }
-    if (versionTag != null) {
-      responseMsg.addObjPart(versionTag);
+      if (callbackArg != null) {
+        responseMsg.addObjPart(callbackArg);
+      }
+      if (versionTag != null) {
+        responseMsg.addObjPart(versionTag);
+      }
+      servConn.getCache().getCancelCriterion().checkCancelInProgress(null);
+      responseMsg.send(servConn);
+    } finally {
+      // send clears the parts, but if it is never reached the data part must still release its
+      // reference to an off-heap value
+      responseMsg.clearParts();
     }
-    servConn.getCache().getCancelCriterion().checkCancelInProgress(null);
-    responseMsg.send(servConn);
     origMsg.clearParts();
   }
 
@@ -470,20 +476,25 @@ public class Get70 extends BaseCommand {
 
     responseMsg.setNumberOfParts(numParts);
 
-    responseMsg.addPartInAnyForm(data, isObject);
+    try {
+      responseMsg.addPartInAnyForm(data, isObject);
+
+      responseMsg.addIntPart(flags);
 
-    responseMsg.addIntPart(flags);
+      if (callbackArg != null) {
+        responseMsg.addObjPart(callbackArg);
+      }
+      if (versionTag != null) {
+        responseMsg.addObjPart(versionTag);
+      }
 
-    if (callbackArg != null) {
-      responseMsg.addObjPart(callbackArg);
-    }
-    if (versionTag != null) {
-      responseMsg.addObjPart(versionTag);
+      responseMsg.addBytesPart(new byte[] {pr.getMetadataVersion(), nwHop});
+      servConn.getCache().getCancelCriterion().checkCancelInProgress(null);
+      responseMsg.send(servConn);
+    } finally {
+      // see writeResponse
+      responseMsg.clearParts();
     }
-
-    responseMsg.addBytesPart(new byte[] {pr.getMetadataVersion(), nwHop});
-    servConn.getCache().getCancelCriterion().checkCancelInProgress(null);
-    responseMsg.send(servConn);
     origMsg.clearParts();
   }
 
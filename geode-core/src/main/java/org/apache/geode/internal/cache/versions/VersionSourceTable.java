@@ -0,0 +1,211 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.versions;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.internal.logging.LogService;
+
+/**
+ * Assigns a small int to each distinct pair of member id and distributed system id stored in the
+ * version stamp of a region entry. Compact region entries store this int instead of a reference to
+ * the {@link VersionSource} and a byte for the distributed system id.
+ *
+ * <p>
+ * Pairs are not removed while the cache is open, since any entry may still use them, but the table
+ * is cleared when the cache is closed. The number of members that modify entries during the life
+ * of a cache is expected to be tiny compared to the number of entries. If it ever fills up, entries
+ * tagged with a new pair get {@link #OVERFLOW_INDEX} and their pair is kept in a weak map keyed by
+ * the entry, so they cost as much as an entry that stores the reference itself.
+ */
+public class VersionSourceTable {
+  private static final Logger logger = LogService.getLogger();
+
+  /**
+   * The largest index this table will hand out. Compact entries have 24 bits to store it.
+   */
+  public static final int MAX_INDEX = 0xFFFFFF;
+
+  /**
+   * The index of every entry whose pair did not fit in the table.
+   */
+  public static final int OVERFLOW_INDEX = MAX_INDEX;
+
+  /**
+   * Stands in for a null member id since ConcurrentHashMap does not allow null keys.
+   */
+  private static final Object NULL_MEMBER = new Object();
+
+  /**
+   * One map from member id to index for each distributed system id, created on demand.
+   */
+  private static final AtomicReferenceArray<ConcurrentMap<Object, Integer>> indexes =
+      new AtomicReferenceArray<>(256);
+
+  private static final Object growLock = new Object();
+
+  /**
+   * Indexed by the int handed out for the pair. Written under growLock and published by writing
+   * the volatile field again.
+   */
+  private static volatile Entry[] entries;
+
+  private static int size;
+
+  /**
+   * The number of indexes handed out before entries overflow. Only lowered by tests.
+   */
+  static int limit = OVERFLOW_INDEX;
+
+  /**
+   * The pairs of entries that have {@link #OVERFLOW_INDEX}, keyed by the entry.
+   */
+  private static final Map<Object, Entry> overflow =
+      Collections.synchronizedMap(new WeakHashMap<>());
+
+  private static volatile boolean overflowed;
+
+  static {
+    clear();
+  }
+
+  private VersionSourceTable() {
+    // no instances
+  }
+
+  private static class Entry {
+    private final VersionSource memberId;
+    private final byte distributedSystemId;
+
+    Entry(VersionSource memberId, byte distributedSystemId) {
+      this.memberId = memberId;
+      this.distributedSystemId = distributedSystemId;
+    }
+  }
+
+  /**
+   * Removes all pairs. Called when the cache is closed, after which the entries that used them are
+   * no longer used.
+   */
+  public static void clear() {
+    synchronized (growLock) {
+      for (int i = 0; i < indexes.length(); i++) {
+        indexes.set(i, null);
+      }
+      overflow.clear();
+      overflowed = false;
+      size = 0;
+      entries = new Entry[16];
+      // index zero is what a new entry has before its versions are set
+      getIndex(null, null, 0);
+    }
+  }
+
+  /**
+   * Returns the index for the given pair, adding the pair to this table if it is new. If the table
+   * is full the pair is remembered for the given owner and {@link #OVERFLOW_INDEX} is returned.
+   *
+   * @param owner the entry that will store the index
+   */
+  public static int getIndex(Object owner, VersionSource memberId, int distributedSystemId) {
+    final int dsidIndex = distributedSystemId & 0xff;
+    final Object key = memberId == null ? NULL_MEMBER : memberId;
+    ConcurrentMap<Object, Integer> map = indexes.get(dsidIndex);
+    Integer index = map == null ? null : map.get(key);
+    if (index == null) {
+      index = addIndex(memberId, (byte) dsidIndex, key);
+      if (index == OVERFLOW_INDEX) {
+        overflow.put(owner, new Entry(memberId, (byte) dsidIndex));
+        return index;
+      }
+    }
+    if (overflowed && owner != null) {
+      // the owner may have overflowed before
+      overflow.remove(owner);
+    }
+    return index;
+  }
+
+  private static int addIndex(VersionSource memberId, byte distributedSystemId, Object key) {
+    synchronized (growLock) {
+      final int dsidIndex = distributedSystemId & 0xff;
+      ConcurrentMap<Object, Integer> map = indexes.get(dsidIndex);
+      if (map == null) {
+        map = new ConcurrentHashMap<>();
+        indexes.set(dsidIndex, map);
+      }
+      Integer index = map.get(key);
+      if (index != null) {
+        return index;
+      }
+      if (size >= limit) {
+        if (!overflowed) {
+          overflowed = true;
+          logger.warn("More than {} member ids have been used to version region entries. "
+              + "Entries versioned by new member ids will use more memory.", limit);
+        }
+        return OVERFLOW_INDEX;
+      }
+      Entry[] current = entries;
+      if (size == current.length) {
+        Entry[] grown = new Entry[Math.min(current.length * 2, MAX_INDEX + 1)];
+        System.arraycopy(current, 0, grown, 0, current.length);
+        current = grown;
+      }
+      final int newIndex = size++;
+      current[newIndex] = new Entry(memberId, distributedSystemId);
+      entries = current;
+      map.put(key, newIndex);
+      return newIndex;
+    }
+  }
+
+  private static Entry getEntry(Object owner, int index) {
+    if (index == OVERFLOW_INDEX) {
+      return overflow.get(owner);
+    }
+    final Entry[] current = entries;
+    return index < current.length ? current[index] : null;
+  }
+
+  /**
+   * Returns the member id of the pair at the given index, or null if there is none because the
+   * table was cleared.
+   *
+   * @param owner the entry that stores the index
+   */
+  public static VersionSource getMemberId(Object owner, int index) {
+    Entry entry = getEntry(owner, index);
+    return entry == null ? null : entry.memberId;
+  }
+
+  /**
+   * Returns the distributed system id of the pair at the given index, or zero if there is none
+   * because the table was cleared.
+   *
+   * @param owner the entry that stores the index
+   */
+  public static int getDistributedSystemId(Object owner, int index) {
+    Entry entry = getEntry(owner, index);
+    return entry == null ? 0 : entry.distributedSystemId;
+  }
+}
@@ -2235,6 +2235,12 @@ public class CacheXmlGenerator extends CacheXml implements XMLReader {
       return;
     }
 
+    if (eAction.isCompressThenOverflowToDisk()
+        && this.version.compareTo(CacheXmlVersion.GEODE_1_0) < 0) {
+      // older schemas do not have this action; values still overflow, just without compression
+      eAction = EvictionAction.OVERFLOW_TO_DISK;
+    }
+
     AttributesImpl atts = new AttributesImpl();
     atts.addAttribute("", "", ACTION, "", eAction.toString());
 
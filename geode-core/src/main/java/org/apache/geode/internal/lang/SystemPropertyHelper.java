@@ -58,6 +58,26 @@ public class SystemPropertyHelper {
 
   public static final String EVICTION_SEARCH_MAX_ENTRIES = "lru.maxSearchEntries";
 
+  /**
+   * When set to a number greater than zero, LRU eviction keeps no list of entries and instead
+   * evicts the least recently used of that many entries sampled from the region (defaults to 0).
+   * It has no effect on LIFO or TinyLFU eviction. For more details see
+   * {@link org.apache.geode.internal.cache.eviction.SampledEvictionList}.
+   *
+   * @since Geode 1.5
+   */
+  public static final String EVICTION_SAMPLE_SIZE = "EvictionSampleSize";
+
+  /**
+   * When set to a number greater than one, LRU eviction splits the list of entries into that many
+   * lists, each with its own lock (defaults to 1). It has no effect on LIFO or TinyLFU eviction, or
+   * when {@link #EVICTION_SAMPLE_SIZE} is set. For more details see
+   * {@link org.apache.geode.internal.cache.eviction.ShardedEvictionList}.
+   *
+   * @since Geode 1.5
+   */
+  public static final String EVICTION_LIST_SHARDS = "EvictionListShards";
+
   /**
    * This method will try to look up "geode." and "gemfire." versions of the system property. It
    * will check and prefer "geode." setting first, then try to check "gemfire." setting.
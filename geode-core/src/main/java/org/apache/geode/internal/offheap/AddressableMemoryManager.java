@@ -230,6 +230,38 @@ public class AddressableMemoryManager {
     }
   }
 
+  /**
+   * Frees the memory of a direct byte buffer, and unmaps it if it is mapped, now instead of when
+   * the buffer is garbage collected, which may be never for a buffer that has been used for a long
+   * time. The buffer must not be used afterwards.
+   *
+   * @return false if the memory could not be freed, in which case it is left to the garbage
+   *         collector
+   */
+  public static boolean unmap(ByteBuffer bb) {
+    if (!bb.isDirect()) {
+      return false;
+    }
+    if (unsafe != null && unsafe.invokeCleaner(bb)) {
+      return true;
+    }
+    // before Java 9 direct buffers have a public cleaner method but the class is not public
+    try {
+      Method cleanerMethod = bb.getClass().getMethod("cleaner");
+      cleanerMethod.setAccessible(true);
+      Object cleaner = cleanerMethod.invoke(bb);
+      if (cleaner == null) {
+        return false;
+      }
+      Method cleanMethod = cleaner.getClass().getMethod("clean");
+      cleanMethod.setAccessible(true);
+      cleanMethod.invoke(cleaner);
+      return true;
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      return false;
+    }
+  }
+
   /**
    * Create a direct byte buffer given its address and size. The returned ByteBuffer will be direct
    * and use the memory at the given address.
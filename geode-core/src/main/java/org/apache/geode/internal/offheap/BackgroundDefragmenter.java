@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.offheap;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.LoggingThreadGroup;
+
+/**
+ * Defragments off-heap memory in the background so that allocations rarely have to. While the
+ * percentage of free memory in the free lists of the {@link FreeListManager} is at least the
+ * threshold, it takes one {@link FreeListManager#defragmentStep(int) step} per interval, going
+ * round the slabs. A step only holds up allocations that have run out of memory and need a full
+ * defragmentation.
+ *
+ * <p>
+ * If a whole round of steps merges nothing then the free chunks are not next to each other and
+ * stepping again will not help until more memory is freed, so the interval is doubled, up to 64
+ * times, until a step merges something.
+ */
+class BackgroundDefragmenter implements Runnable {
+  private static final Logger logger = LogService.getLogger();
+
+  private static final int MAX_BACKOFF = 64;
+
+  private final FreeListManager freeListManager;
+  private final int threshold;
+  private final long intervalMillis;
+  private final Thread thread;
+  private volatile boolean stopped;
+
+  BackgroundDefragmenter(FreeListManager freeListManager, int threshold, long intervalMillis) {
+    this.freeListManager = freeListManager;
+    this.threshold = threshold;
+    this.intervalMillis = intervalMillis;
+    final ThreadGroup group =
+        LoggingThreadGroup.createThreadGroup("Off-Heap Background Defragmentation Threads", logger);
+    this.thread = new Thread(group, this, "Off-Heap Background Defragmentation Thread");
+    this.thread.setDaemon(true);
+  }
+
+  void start() {
+    this.thread.start();
+  }
+
+  /**
+   * Stops the thread and waits for a step in progress to finish, so that the slabs can be freed.
+   */
+  void stop() {
+    this.stopped = true;
+    this.thread.interrupt();
+    boolean interrupted = false;
+    while (this.thread.isAlive()) {
+      try {
+        this.thread.join();
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Override
+  public void run() {
+    int step = 0;
+    int merged = 0;
+    long pauseMillis = this.intervalMillis;
+    while (!this.stopped) {
+      try {
+        Thread.sleep(pauseMillis);
+      } catch (InterruptedException e) {
+        // stop was called
+        break;
+      }
+      if (this.freeListManager.getFreeListFragmentation() < this.threshold) {
+        pauseMillis = this.intervalMillis;
+        continue;
+      }
+      try {
+        merged += this.freeListManager.defragmentStep(step);
+      } catch (RuntimeException e) {
+        logger.warn("Off-heap background defragmentation step failed", e);
+      }
+      step++;
+      if (merged > 0) {
+        pauseMillis = this.intervalMillis;
+      }
+      if (step == this.freeListManager.getDefragmentationStepCount()) {
+        if (merged == 0) {
+          pauseMillis = Math.min(pauseMillis * 2, this.intervalMillis * MAX_BACKOFF);
+        }
+        step = 0;
+        merged = 0;
+      }
+    }
+  }
+}
@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.offheap;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.apache.geode.distributed.internal.DistributionConfig;
+
+/**
+ * A bounded heap cache of the deserialized form of serialized off-heap values, keyed by their
+ * off-heap address. Without it every read of an off-heap value deserializes it again, since unlike
+ * a heap value an off-heap value has no place to keep its deserialized form.
+ *
+ * <p>
+ * Off-heap values are never modified, so a cached object stays valid until the memory at its
+ * address is freed, which the {@link FreeListManager} reports by calling {@link #invalidate(long)}.
+ * A reader must only call {@link #put(long, Object, int)} while it has the value retained, which
+ * keeps the memory from being freed and reused before the entry is in the cache.
+ *
+ * <p>
+ * The cache is sized by the serialized size of its values. When it is over its size, entries are
+ * evicted in the order they were added, except that an entry read since it was last looked at is
+ * given another pass.
+ */
+public class DeserializedValueCache {
+
+  /**
+   * The maximum size, in bytes, of the values in the cache. It is read when the off-heap memory is
+   * created. Zero, the default, disables the cache.
+   */
+  public static final String MAX_SIZE_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "OFF_HEAP_DESERIALIZED_VALUE_CACHE_SIZE";
+
+  private final long maxSize;
+
+  private final Supplier<OffHeapMemoryStats> stats;
+
+  private final ConcurrentHashMap<Long, CachedValue> values = new ConcurrentHashMap<>();
+
+  /** Every cached value in the order it was added. Invalidated values are removed lazily. */
+  private final ConcurrentLinkedQueue<CachedValue> evictionQueue = new ConcurrentLinkedQueue<>();
+
+  private final AtomicInteger evictionQueueLength = new AtomicInteger();
+
+  private final AtomicLong size = new AtomicLong();
+
+  DeserializedValueCache(long maxSize, Supplier<OffHeapMemoryStats> stats) {
+    this.maxSize = maxSize;
+    this.stats = stats;
+  }
+
+  /**
+   * Returns the deserialized value of the off-heap object at the given address or null if it is not
+   * cached.
+   */
+  public Object get(long address) {
+    CachedValue cachedValue = this.values.get(address);
+    if (cachedValue == null) {
+      this.stats.get().incDeserializedValueCacheMisses();
+      return null;
+    }
+    cachedValue.recentlyUsed = true;
+    this.stats.get().incDeserializedValueCacheHits();
+    return cachedValue.value;
+  }
+
+  /**
+   * Caches the deserialized value of the off-heap object at the given address, whose serialized
+   * form is the given number of bytes. The caller must have the off-heap object retained.
+   */
+  public void put(long address, Object value, int serializedSize) {
+    if (serializedSize > this.maxSize) {
+      return;
+    }
+    CachedValue cachedValue = new CachedValue(address, value, serializedSize);
+    if (this.values.putIfAbsent(address, cachedValue) != null) {
+      return;
+    }
+    this.evictionQueue.offer(cachedValue);
+    int queueLength = this.evictionQueueLength.incrementAndGet();
+    this.stats.get().incDeserializedValueCacheSize(serializedSize);
+    if (this.size.addAndGet(serializedSize) > this.maxSize) {
+      evict();
+    } else if (queueLength > 2 * this.values.size() + 1024) {
+      removeInvalidated();
+    }
+  }
+
+  /**
+   * Removes the value of the off-heap object at the given address because its memory was freed.
+   */
+  public void invalidate(long address) {
+    CachedValue cachedValue = this.values.remove(address);
+    if (cachedValue != null) {
+      removed(cachedValue);
+    }
+  }
+
+  public void clear() {
+    for (Long address : this.values.keySet()) {
+      invalidate(address);
+    }
+    removeInvalidated();
+  }
+
+  public long getSize() {
+    return this.size.get();
+  }
+
+  public long getMaxSize() {
+    return this.maxSize;
+  }
+
+  private synchronized void evict() {
+    while (this.size.get() > this.maxSize) {
+      CachedValue cachedValue = this.evictionQueue.poll();
+      if (cachedValue == null) {
+        break;
+      }
+      this.evictionQueueLength.decrementAndGet();
+      if (this.values.get(cachedValue.address) != cachedValue) {
+        // already invalidated
+        continue;
+      }
+      if (cachedValue.recentlyUsed) {
+        cachedValue.recentlyUsed = false;
+        this.evictionQueue.offer(cachedValue);
+        this.evictionQueueLength.incrementAndGet();
+      } else if (this.values.remove(cachedValue.address, cachedValue)) {
+        removed(cachedValue);
+      }
+    }
+  }
+
+  /**
+   * Removes the values that were invalidated from the eviction queue so that it does not grow
+   * without bound when values are freed faster than the cache fills up.
+   */
+  private synchronized void removeInvalidated() {
+    Iterator<CachedValue> iterator = this.evictionQueue.iterator();
+    while (iterator.hasNext()) {
+      CachedValue cachedValue = iterator.next();
+      if (this.values.get(cachedValue.address) != cachedValue) {
+        iterator.remove();
+        this.evictionQueueLength.decrementAndGet();
+      }
+    }
+  }
+
+  private void removed(CachedValue cachedValue) {
+    this.size.addAndGet(-cachedValue.serializedSize);
+    this.stats.get().incDeserializedValueCacheSize(-cachedValue.serializedSize);
+  }
+
+  private static class CachedValue {
+    private final long address;
+    private final Object value;
+    private final int serializedSize;
+    private volatile boolean recentlyUsed;
+
+    private CachedValue(long address, Object value, int serializedSize) {
+      this.address = address;
+      this.value = value;
+      this.serializedSize = serializedSize;
+    }
+  }
+}
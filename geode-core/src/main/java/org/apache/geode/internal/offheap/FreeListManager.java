@@ -54,6 +54,20 @@ public class FreeListManager {
       new ConcurrentSkipListSet<OffHeapStoredObject>();
   private final AtomicLong allocatedSize = new AtomicLong(0L);
 
+  /**
+   * The number of tiny sizes, starting with the smallest, that threads keep in their
+   * {@link TinyMagazine}. Zero if magazines are disabled.
+   */
+  private final int magazineSizeCount;
+  private final int magazineCapacity;
+  private final ThreadLocal<TinyMagazine> magazine =
+      ThreadLocal.withInitial(this::createMagazine);
+  /**
+   * Every magazine created by a thread so that defragmentation can empty them.
+   */
+  private final CopyOnWriteArrayList<TinyMagazine> magazines =
+      new CopyOnWriteArrayList<TinyMagazine>();
+
   private int getNearestTinyMultiple(int size) {
     return (size - 1) / TINY_MULTIPLE;
   }
@@ -123,6 +137,9 @@ public class FreeListManager {
         tinyFree += cl.computeTotalSize();
       }
     }
+    for (TinyMagazine m : this.magazines) {
+      tinyFree += m.computeTotalSize();
+    }
     return tinyFree;
   }
 
@@ -141,9 +158,24 @@ public class FreeListManager {
   private final CopyOnWriteArrayList<Fragment> fragmentList;
   private final MemoryAllocatorImpl ma;
 
+  /**
+   * The address ranges that each background defragmentation step merges the free chunks of. Each
+   * is part of a single slab and at most DEFRAGMENTATION_STEP_SIZE bytes.
+   */
+  private final long[] stepStartAddresses;
+  private final long[] stepEndAddresses;
+
   public FreeListManager(MemoryAllocatorImpl ma, final Slab[] slabs) {
+    this(ma, slabs, MAGAZINE_CAPACITY);
+  }
+
+  FreeListManager(MemoryAllocatorImpl ma, final Slab[] slabs, int magazineCapacity) {
     this.ma = ma;
     this.slabs = slabs;
+    this.magazineCapacity = magazineCapacity;
+    this.magazineSizeCount =
+        magazineCapacity > 0 ? Math.min(TINY_FREE_LIST_COUNT, MAGAZINE_MAX_SIZE / TINY_MULTIPLE)
+            : 0;
     long total = 0;
     Fragment[] tmp = new Fragment[slabs.length];
     for (int i = 0; i < slabs.length; i++) {
@@ -153,6 +185,21 @@ public class FreeListManager {
     this.fragmentList = new CopyOnWriteArrayList<Fragment>(tmp);
     this.totalSlabSize = total;
 
+    ArrayList<long[]> steps = new ArrayList<long[]>();
+    for (Slab slab : slabs) {
+      long slabEnd = slab.getMemoryAddress() + slab.getSize();
+      for (long start = slab.getMemoryAddress(); start < slabEnd;
+          start += DEFRAGMENTATION_STEP_SIZE) {
+        steps.add(new long[] {start, Math.min(start + DEFRAGMENTATION_STEP_SIZE, slabEnd)});
+      }
+    }
+    this.stepStartAddresses = new long[steps.size()];
+    this.stepEndAddresses = new long[steps.size()];
+    for (int i = 0; i < steps.size(); i++) {
+      this.stepStartAddresses[i] = steps.get(i)[0];
+      this.stepEndAddresses[i] = steps.get(i)[1];
+    }
+
     fillFragments();
   }
 
@@ -253,7 +300,8 @@ public class FreeListManager {
     OffHeapMemoryStats stats = this.ma.getStats();
     lw.info("OutOfOffHeapMemory allocating size of " + chunkSize + ". allocated="
         + this.allocatedSize.get() + " defragmentations=" + this.defragmentationCount.get()
-        + " objects=" + stats.getObjects() + " free=" + stats.getFreeMemory() + " fragments="
+        + " defragmentationSteps=" + this.defragmentationStepCount.get() + " objects="
+        + stats.getObjects() + " free=" + stats.getFreeMemory() + " fragments="
         + stats.getFragments() + " largestFragment=" + stats.getLargestFragment()
         + " fragmentation=" + stats.getFragmentation());
     logFragmentState(lw);
@@ -274,6 +322,10 @@ public class FreeListManager {
         cl.logSizes(lw, "Free tiny of size ");
       }
     }
+    for (TinyMagazine m : this.magazines) {
+      lw.info("Free tiny in magazine of " + m.getOwner().getName() + " totaling "
+          + m.computeTotalSize());
+    }
   }
 
   private void logFragmentState(Logger lw) {
@@ -287,6 +339,11 @@ public class FreeListManager {
   }
 
   protected final AtomicInteger defragmentationCount = new AtomicInteger();
+  /*
+   * Counted apart from defragmentationCount since a step does not do what a thread waiting to
+   * defragment needs, so it must not make that thread think it was done for it.
+   */
+  protected final AtomicInteger defragmentationStepCount = new AtomicInteger();
   /*
    * Set this to "true" to perform data integrity checks on allocated and reused Chunks. This may
    * clobber performance so turn on only when necessary.
@@ -322,6 +379,31 @@ public class FreeListManager {
     verifyHugeMultiple(HUGE_MULTIPLE);
   }
   public static final int MAX_TINY = TINY_MULTIPLE * TINY_FREE_LIST_COUNT;
+  /**
+   * How many free chunks of each of the smallest tiny sizes a thread may keep for its own
+   * allocations in a {@link TinyMagazine}. Zero, the default, disables the magazines.
+   */
+  public static final int MAGAZINE_CAPACITY =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "OFF_HEAP_MAGAZINE_CAPACITY", 0);
+  /**
+   * Tiny chunks of at most this many bytes, header included, are kept in thread magazines.
+   */
+  static final int MAGAZINE_MAX_SIZE = 256;
+  /**
+   * The percentage of free memory that has to be in free lists, instead of in fragments, for
+   * background defragmentation to run. Zero disables background defragmentation.
+   */
+  public static final int BACKGROUND_DEFRAGMENTATION_THRESHOLD = Integer.getInteger(
+      DistributionConfig.GEMFIRE_PREFIX + "OFF_HEAP_BACKGROUND_DEFRAGMENTATION_THRESHOLD", 50);
+  /**
+   * How many milliseconds background defragmentation waits between steps.
+   */
+  public static final long BACKGROUND_DEFRAGMENTATION_INTERVAL = Long.getLong(
+      DistributionConfig.GEMFIRE_PREFIX + "OFF_HEAP_BACKGROUND_DEFRAGMENTATION_INTERVAL", 100);
+  /**
+   * The most memory whose free chunks a single background defragmentation step merges.
+   */
+  static final int DEFRAGMENTATION_STEP_SIZE = 64 * 1024 * 1024;
 
   /**
    * Return true if the two chunks have been combined into one. If low and high are adjacent to each
@@ -527,6 +609,175 @@ public class FreeListManager {
    */
   protected void afterDefragmentationCountFetched() {}
 
+  /**
+   * Returns the percentage of free memory that is in the free lists instead of in fragments. This
+   * is the memory that background defragmentation can merge.
+   */
+  int getFreeListFragmentation() {
+    long freeMemory = getFreeMemory();
+    if (freeMemory <= 0) {
+      return 0;
+    }
+    long freeListMemory = freeMemory - getFreeFragmentMemory();
+    if (freeListMemory <= 0) {
+      return 0;
+    }
+    return (int) (freeListMemory * 100 / freeMemory);
+  }
+
+  int getDefragmentationStepCount() {
+    return this.stepStartAddresses.length;
+  }
+
+  /**
+   * Merges the adjacent free chunks in the address range of the given step and returns how many
+   * chunks were merged into another. Unlike {@link #defragment(int)} only the free chunks of the
+   * range are taken from the free lists and fragments, so allocations can continue to use all the
+   * others while the step runs. Merged chunks, and unmerged ones too large for a tiny free list,
+   * become fragments; the rest go back to their free lists.
+   */
+  int defragmentStep(int step) {
+    final long start = this.ma.getStats().startDefragmentationStep();
+    int merged = 0;
+    try {
+      synchronized (this) {
+        merged = doDefragmentStep(this.stepStartAddresses[step], this.stepEndAddresses[step]);
+        this.defragmentationStepCount.incrementAndGet();
+      }
+    } finally {
+      this.ma.getStats().endDefragmentationStep(start, merged);
+    }
+    return merged;
+  }
+
+  private int doDefragmentStep(long startAddr, long endAddr) {
+    long[] freeChunks = collectFreeChunks(startAddr, endAddr);
+    int count = (int) freeChunks[0];
+    Arrays.sort(freeChunks, 1, count + 1);
+
+    int merged = 0;
+    ArrayList<Fragment> newFragments = new ArrayList<Fragment>();
+    int i = 1;
+    while (i <= count) {
+      final long addr = freeChunks[i++];
+      boolean combined = false;
+      while (i <= count && combineIfAdjacentAndSmallEnough(addr, freeChunks[i])) {
+        combined = true;
+        merged++;
+        i++;
+      }
+      int addrSize = OffHeapStoredObject.getSize(addr);
+      if (combined || addrSize > MAX_TINY) {
+        Fragment f = createFragment(addr, addrSize);
+        if (this.validateMemoryWithFill) {
+          f.fill();
+        }
+        newFragments.add(f);
+      } else {
+        basicFree(addr, getNearestTinyMultiple(addrSize), this.tinyFreeLists);
+      }
+    }
+    this.lastFragmentAllocation.set(0);
+    this.fragmentList.addAll(newFragments);
+
+    int largestFragment = 0;
+    for (Fragment f : this.fragmentList) {
+      largestFragment = Math.max(largestFragment, f.freeSpace());
+    }
+    this.ma.getStats().setLargestFragment(largestFragment);
+    this.ma.getStats().setFragments(this.fragmentList.size());
+    this.ma.getStats().setFragmentation(getFragmentation());
+    return merged;
+  }
+
+  /**
+   * Takes every free chunk that starts in the given address range out of the fragments and free
+   * lists. Returns an array whose first element is the number of chunks and whose following
+   * elements are their addresses.
+   */
+  private long[] collectFreeChunks(long startAddr, long endAddr) {
+    long[] result = new long[128];
+    int count = 0;
+
+    for (Fragment f : this.fragmentList) {
+      if (f.getAddress() < startAddr || f.getAddress() >= endAddr) {
+        continue;
+      }
+      int offset;
+      int diff;
+      do {
+        offset = f.getFreeIndex();
+        diff = f.getSize() - offset;
+      } while (diff >= OffHeapStoredObject.MIN_CHUNK_SIZE && !f.allocate(offset, offset + diff));
+      this.fragmentList.remove(f);
+      if (diff >= OffHeapStoredObject.MIN_CHUNK_SIZE) {
+        long chunkAddr = f.getAddress() + offset;
+        OffHeapStoredObject.setSize(chunkAddr, diff);
+        result = addChunk(result, ++count, chunkAddr);
+      }
+    }
+
+    for (OffHeapStoredObject c : this.hugeChunkSet) {
+      if (c.getAddress() >= startAddr && c.getAddress() < endAddr && this.hugeChunkSet.remove(c)) {
+        result = addChunk(result, ++count, c.getAddress());
+      }
+    }
+
+    for (int i = 0; i < this.tinyFreeLists.length(); i++) {
+      OffHeapStoredObjectAddressStack cl = this.tinyFreeLists.get(i);
+      if (cl == null || cl.isEmpty()) {
+        continue;
+      }
+      long others = 0L;
+      for (long addr = cl.clear(); addr != 0L;) {
+        long next = OffHeapStoredObject.getNext(addr);
+        if (addr >= startAddr && addr < endAddr) {
+          result = addChunk(result, ++count, addr);
+        } else {
+          OffHeapStoredObject.setNext(addr, others);
+          others = addr;
+        }
+        addr = next;
+      }
+      if (others != 0L) {
+        cl.offerAll(others);
+      }
+    }
+
+    for (TinyMagazine m : this.magazines) {
+      for (int i = 0; i < m.getSizeCount(); i++) {
+        if (m.getTopAddress(i) == 0L) {
+          continue;
+        }
+        long others = 0L;
+        for (long addr = m.clear(i); addr != 0L;) {
+          long next = OffHeapStoredObject.getNext(addr);
+          if (addr >= startAddr && addr < endAddr) {
+            result = addChunk(result, ++count, addr);
+          } else {
+            OffHeapStoredObject.setNext(addr, others);
+            others = addr;
+          }
+          addr = next;
+        }
+        if (others != 0L) {
+          m.offerAll(i, others);
+        }
+      }
+    }
+
+    result[0] = count;
+    return result;
+  }
+
+  private static long[] addChunk(long[] chunks, int idx, long addr) {
+    if (idx >= chunks.length) {
+      chunks = Arrays.copyOf(chunks, chunks.length * 2);
+    }
+    chunks[idx] = addr;
+    return chunks;
+  }
+
   static void verifyOffHeapAlignment(int tinyMultiple) {
     if (tinyMultiple <= 0 || (tinyMultiple & 3) != 0) {
       throw new IllegalStateException(
@@ -632,6 +883,14 @@ public class FreeListManager {
         }
       }
     }
+    for (TinyMagazine m : this.magazines) {
+      for (int i = 0; i < m.getSizeCount(); i++) {
+        long head = m.clear(i);
+        if (head != 0L) {
+          l.add(new OffHeapStoredObjectAddressStack(head));
+        }
+      }
+    }
   }
 
   private void collectFreeHugeChunks(List<LongStack> l) {
@@ -699,8 +958,58 @@ public class FreeListManager {
   }
 
   private OffHeapStoredObject allocateTiny(int size, boolean useFragments) {
-    return basicAllocate(getNearestTinyMultiple(size), TINY_MULTIPLE, 0, this.tinyFreeLists,
-        useFragments);
+    final int idx = getNearestTinyMultiple(size);
+    if (idx < this.magazineSizeCount) {
+      long memAddr = pollMagazine(idx);
+      if (memAddr != 0L) {
+        OffHeapStoredObject result = new OffHeapStoredObject(memAddr);
+        checkDataIntegrity(result);
+        result.readyForAllocation();
+        return result;
+      }
+    }
+    return basicAllocate(idx, TINY_MULTIPLE, 0, this.tinyFreeLists, useFragments);
+  }
+
+  /**
+   * Returns a free chunk from the current thread's magazine. If the magazine has none of this size
+   * then up to half its capacity more are taken from the tiny free list with a single poll.
+   */
+  private long pollMagazine(int idx) {
+    final TinyMagazine m = this.magazine.get();
+    long result = m.poll(idx);
+    if (result == 0L) {
+      OffHeapStoredObjectAddressStack clq = this.tinyFreeLists.get(idx);
+      if (clq != null) {
+        result = clq.poll(1 + this.magazineCapacity / 2);
+        if (result != 0L) {
+          long rest = OffHeapStoredObject.getNext(result);
+          if (rest != 0L) {
+            m.offerAll(idx, rest);
+          }
+        }
+      }
+    }
+    return result;
+  }
+
+  private TinyMagazine createMagazine() {
+    // return what the magazines of threads that have exited were holding
+    for (TinyMagazine m : this.magazines) {
+      if (!m.getOwner().isAlive()) {
+        this.magazines.remove(m);
+        for (int i = 0; i < m.getSizeCount(); i++) {
+          long head = m.clear(i);
+          if (head != 0L) {
+            freeTinyChunks(head, i);
+          }
+        }
+      }
+    }
+    TinyMagazine result =
+        new TinyMagazine(Thread.currentThread(), this.magazineSizeCount, this.magazineCapacity);
+    this.magazines.add(result);
+    return result;
   }
 
   private OffHeapStoredObject basicAllocate(int idx, int multiple, int offset,
@@ -772,6 +1081,10 @@ public class FreeListManager {
 
   @SuppressWarnings("synthetic-access")
   public void free(long addr) {
+    DeserializedValueCache deserializedValueCache = this.ma.getDeserializedValueCache();
+    if (deserializedValueCache != null) {
+      deserializedValueCache.invalidate(addr);
+    }
     if (this.validateMemoryWithFill) {
       OffHeapStoredObject.fill(addr);
     }
@@ -797,7 +1110,29 @@ public class FreeListManager {
   }
 
   private void freeTiny(long addr, int cSize) {
-    basicFree(addr, getNearestTinyMultiple(cSize), this.tinyFreeLists);
+    final int idx = getNearestTinyMultiple(cSize);
+    if (idx < this.magazineSizeCount) {
+      long overflow = this.magazine.get().offer(idx, addr);
+      if (overflow != 0L) {
+        freeTinyChunks(overflow, idx);
+      }
+    } else {
+      basicFree(addr, idx, this.tinyFreeLists);
+    }
+  }
+
+  /**
+   * Returns all the chunks linked from addr to the tiny free list with a single offer.
+   */
+  private void freeTinyChunks(long addr, int idx) {
+    OffHeapStoredObjectAddressStack clq = this.tinyFreeLists.get(idx);
+    if (clq == null) {
+      clq = createFreeListForEmptySlot(this.tinyFreeLists, idx);
+      if (!this.tinyFreeLists.compareAndSet(idx, null, clq)) {
+        clq = this.tinyFreeLists.get(idx);
+      }
+    }
+    clq.offerAll(addr);
   }
 
   private void basicFree(long addr, int idx,
@@ -872,6 +1207,15 @@ public class FreeListManager {
         addr = OffHeapStoredObject.getNext(addr);
       }
     }
+    for (TinyMagazine m : this.magazines) {
+      for (int i = 0; i < m.getSizeCount(); i++) {
+        long addr = m.getTopAddress(i);
+        while (addr != 0L) {
+          value.add(new MemoryBlockNode(sma, new TinyMemoryBlock(addr, i)));
+          addr = OffHeapStoredObject.getNext(addr);
+        }
+      }
+    }
     return value;
   }
 
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.offheap;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.internal.logging.LogService;
+
+/**
+ * A slab created by {@link MappedSlabFactory} whose memory is mapped from a file. The file is kept
+ * open, and locked, until the slab is freed, although its name is usually deleted as soon as it is
+ * mapped.
+ *
+ * @since Geode 1.5
+ */
+public class MappedSlab extends SlabImpl {
+  private static final Logger logger = LogService.getLogger();
+
+  private final File file;
+  private final RandomAccessFile lockedFile;
+  private MappedByteBuffer buffer;
+
+  MappedSlab(long address, int size, MappedByteBuffer buffer, File file,
+      RandomAccessFile lockedFile) {
+    super(address, size);
+    this.buffer = buffer;
+    this.file = file;
+    this.lockedFile = lockedFile;
+  }
+
+  /**
+   * Returns the name the file was created with, which no longer exists once the file is mapped on
+   * systems that allow a mapped file to be deleted.
+   */
+  public File getFile() {
+    return this.file;
+  }
+
+  // for unit testing
+  FileChannel getChannel() {
+    return this.lockedFile.getChannel();
+  }
+
+  /**
+   * Writes the dirty pages of this slab to its file.
+   */
+  public void force() {
+    this.buffer.force();
+  }
+
+  /**
+   * Unmaps the memory, releases the lock on the file and deletes it if it still has a name.
+   */
+  @Override
+  public synchronized void free() {
+    if (this.buffer == null) {
+      return;
+    }
+    unmap(this.buffer, this.file);
+    this.buffer = null;
+    try {
+      this.lockedFile.close();
+    } catch (IOException e) {
+      logger.warn("Could not close off-heap slab file {}", this.file, e);
+    }
+    if (this.file.exists() && !this.file.delete()) {
+      logger.warn("Could not delete off-heap slab file {}", this.file);
+    }
+  }
+
+  /**
+   * Unmaps the buffer now instead of when it is garbage collected, which may be never for a buffer
+   * that has been used for a long time. If the JVM does not allow it the buffer is left for the
+   * garbage collector, and the file keeps its disk space until then.
+   */
+  static void unmap(MappedByteBuffer buffer, File file) {
+    if (!AddressableMemoryManager.unmap(buffer)) {
+      logger.warn("Could not unmap off-heap slab file {}, leaving it to garbage collection", file);
+    }
+  }
+}
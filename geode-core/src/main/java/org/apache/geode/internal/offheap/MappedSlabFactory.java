@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.offheap;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.internal.logging.LogService;
+
+/**
+ * Creates slabs whose memory is a file mapped into the address space instead of anonymous memory.
+ * The operating system pages the slabs to and from their files, so the off-heap memory can be
+ * larger than physical memory, at the cost of page faults when the data being used does not fit.
+ *
+ * <p>
+ * Each slab gets its own file in the directory, which is created with the full size of the slab
+ * but is sparse until its pages are written. File names are unique, so members in other processes
+ * can share the directory, and each file is locked while its slab is in use. The file is deleted
+ * as soon as it is mapped, so its disk space is given back however the process ends; where a
+ * mapped file can not be deleted it is deleted when the slab is freed or the JVM exits, and a new
+ * factory deletes the unlocked slab files left in its directory by processes that crashed. Writes
+ * to a page whose file space can not be allocated, because the disk is full, crash the JVM, so the
+ * directory should be on a file system with room for all of the slabs.
+ *
+ * @since Geode 1.5
+ */
+public class MappedSlabFactory implements SlabFactory {
+  private static final Logger logger = LogService.getLogger();
+
+  static final String SLAB_FILE_PREFIX = "offheap-slab-";
+  static final String SLAB_FILE_SUFFIX = ".mem";
+
+  private final File directory;
+
+  public MappedSlabFactory(File directory) {
+    this.directory = directory;
+    deleteStaleSlabFiles();
+  }
+
+  /**
+   * Deletes the slab files in the directory that no process has locked. Those are left by a
+   * process that could not delete its files while they were mapped and then did not exit normally.
+   */
+  private void deleteStaleSlabFiles() {
+    File[] files = this.directory.listFiles(
+        (dir, name) -> name.startsWith(SLAB_FILE_PREFIX) && name.endsWith(SLAB_FILE_SUFFIX));
+    if (files == null) {
+      return;
+    }
+    for (File file : files) {
+      try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+        FileLock lock = raf.getChannel().tryLock();
+        if (lock == null) {
+          continue;
+        }
+      } catch (IOException | OverlappingFileLockException e) {
+        // the slab is still in use
+        continue;
+      }
+      if (file.delete()) {
+        logger.info("Deleted off-heap slab file {} left by an earlier process", file);
+      } else {
+        logger.warn("Could not delete off-heap slab file {} left by an earlier process", file);
+      }
+    }
+  }
+
+  /**
+   * @throws OutOfMemoryError if the file can not be created, locked or mapped
+   */
+  @Override
+  public Slab create(int size) {
+    if (!this.directory.isDirectory() && !this.directory.mkdirs()) {
+      throw outOfMemory("Could not create off-heap slab directory " + this.directory, null);
+    }
+    File file;
+    try {
+      file = File.createTempFile(SLAB_FILE_PREFIX, SLAB_FILE_SUFFIX, this.directory);
+    } catch (IOException e) {
+      throw outOfMemory("Could not create an off-heap slab file in " + this.directory, e);
+    }
+    RandomAccessFile raf = null;
+    MappedByteBuffer buffer;
+    try {
+      raf = new RandomAccessFile(file, "rw");
+      if (raf.getChannel().tryLock() == null) {
+        throw new IOException("The file is locked by another process");
+      }
+      raf.setLength(size);
+      buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+    } catch (IOException | OverlappingFileLockException e) {
+      close(raf);
+      file.delete();
+      throw outOfMemory("Could not map " + size + " bytes of off-heap memory to " + file, e);
+    }
+    long address = AddressableMemoryManager.getDirectByteBufferAddress(buffer);
+    if (address == 0L) {
+      MappedSlab.unmap(buffer, file);
+      close(raf);
+      file.delete();
+      throw outOfMemory("Could not get the address of the off-heap memory mapped to " + file,
+          null);
+    }
+    // the mapping stays valid without the file's name
+    if (!file.delete()) {
+      file.deleteOnExit();
+    }
+    return new MappedSlab(address, size, buffer, file, raf);
+  }
+
+  private static void close(RandomAccessFile raf) {
+    if (raf != null) {
+      try {
+        raf.close();
+      } catch (IOException ignore) {
+        // the create has already failed
+      }
+    }
+  }
+
+  private static OutOfMemoryError outOfMemory(String message, Throwable cause) {
+    OutOfMemoryError result = new OutOfMemoryError(message);
+    if (cause != null) {
+      result.initCause(cause);
+    }
+    return result;
+  }
+}
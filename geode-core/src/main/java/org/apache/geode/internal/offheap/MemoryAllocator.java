@@ -72,4 +72,9 @@ public interface MemoryAllocator {
   void addMemoryUsageListener(MemoryUsageListener listener);
 
   void removeMemoryUsageListener(MemoryUsageListener listener);
+
+  /**
+   * Returns the heap cache of deserialized off-heap values, or null if it is disabled.
+   */
+  DeserializedValueCache getDeserializedValueCache();
 }
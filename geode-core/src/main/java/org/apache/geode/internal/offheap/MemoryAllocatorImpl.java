@@ -35,6 +35,7 @@ import org.apache.geode.internal.cache.InternalRegion;
 import org.apache.geode.internal.cache.PartitionedRegion;
 import org.apache.geode.internal.cache.PartitionedRegionDataStore;
 import org.apache.geode.internal.cache.RegionEntry;
+import org.apache.geode.internal.cache.entries.OffHeapKeyRegionEntry;
 import org.apache.geode.internal.logging.LogService;
 import org.apache.geode.internal.offheap.annotations.OffHeapIdentifier;
 import org.apache.geode.internal.offheap.annotations.Unretained;
@@ -66,6 +67,10 @@ public class MemoryAllocatorImpl implements MemoryAllocator {
 
   public final FreeListManager freeList;
 
+  private final BackgroundDefragmenter backgroundDefragmenter;
+
+  private final DeserializedValueCache deserializedValueCache;
+
   private MemoryInspector memoryInspector;
 
   private volatile MemoryUsageListener[] memoryUsageListeners = new MemoryUsageListener[0];
@@ -94,6 +99,11 @@ public class MemoryAllocatorImpl implements MemoryAllocator {
         });
   }
 
+  public static MemoryAllocator create(OutOfOffHeapMemoryListener ooohml, OffHeapMemoryStats stats,
+      int slabCount, long offHeapMemorySize, long maxSlabSize, SlabFactory slabFactory) {
+    return create(ooohml, stats, slabCount, offHeapMemorySize, maxSlabSize, null, slabFactory);
+  }
+
   private static MemoryAllocatorImpl create(OutOfOffHeapMemoryListener ooohml,
       OffHeapMemoryStats stats, int slabCount, long offHeapMemorySize, long maxSlabSize,
       Slab[] slabs, SlabFactory slabFactory) {
@@ -219,6 +229,23 @@ public class MemoryAllocatorImpl implements MemoryAllocator {
     this.freeList = new FreeListManager(this, slabs);
     this.memoryInspector = new MemoryInspectorImpl(this.freeList);
 
+    if (FreeListManager.BACKGROUND_DEFRAGMENTATION_THRESHOLD > 0) {
+      this.backgroundDefragmenter = new BackgroundDefragmenter(this.freeList,
+          FreeListManager.BACKGROUND_DEFRAGMENTATION_THRESHOLD,
+          FreeListManager.BACKGROUND_DEFRAGMENTATION_INTERVAL);
+      this.backgroundDefragmenter.start();
+    } else {
+      this.backgroundDefragmenter = null;
+    }
+
+    long deserializedValueCacheSize = Long.getLong(DeserializedValueCache.MAX_SIZE_PROPERTY, 0);
+    if (deserializedValueCacheSize > 0) {
+      this.deserializedValueCache =
+          new DeserializedValueCache(deserializedValueCacheSize, this::getStats);
+    } else {
+      this.deserializedValueCache = null;
+    }
+
     this.stats.incMaxMemory(this.freeList.getTotalMemory());
     this.stats.incFreeMemory(this.freeList.getTotalMemory());
   }
@@ -287,6 +314,12 @@ public class MemoryAllocatorImpl implements MemoryAllocator {
         if (value instanceof OffHeapStoredObject) {
           result.add((OffHeapStoredObject) value);
         }
+        if (re instanceof OffHeapKeyRegionEntry) {
+          OffHeapStoredObject keyChunk = OffHeapKeyHelper.getKeyChunk((OffHeapKeyRegionEntry) re);
+          if (keyChunk != null) {
+            result.add(keyChunk);
+          }
+        }
       }
     }
   }
@@ -369,6 +402,10 @@ public class MemoryAllocatorImpl implements MemoryAllocator {
       LifecycleListener.invokeBeforeClose(this);
     } finally {
       this.ooohml.close();
+      if (this.deserializedValueCache != null) {
+        // do not keep objects of the closed cache's classes on the heap
+        this.deserializedValueCache.clear();
+      }
       if (Boolean.getBoolean(FREE_OFF_HEAP_MEMORY_PROPERTY)) {
         realClose();
       }
@@ -385,6 +422,9 @@ public class MemoryAllocatorImpl implements MemoryAllocator {
   private void realClose() {
     // Removing this memory immediately can lead to a SEGV. See 47885.
     if (setClosed()) {
+      if (this.backgroundDefragmenter != null) {
+        this.backgroundDefragmenter.stop();
+      }
       this.freeList.freeSlabs();
       this.stats.close();
       singleton = null;
@@ -406,6 +446,11 @@ public class MemoryAllocatorImpl implements MemoryAllocator {
   }
 
 
+  @Override
+  public DeserializedValueCache getDeserializedValueCache() {
+    return this.deserializedValueCache;
+  }
+
   FreeListManager getFreeListManager() {
     return this.freeList;
   }
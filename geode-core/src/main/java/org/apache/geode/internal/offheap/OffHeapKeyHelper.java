@@ -0,0 +1,237 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.offheap;
+
+import org.apache.geode.internal.cache.entries.OffHeapKeyRegionEntry;
+import org.apache.geode.internal.offheap.annotations.Released;
+import org.apache.geode.internal.offheap.annotations.Retained;
+
+/**
+ * The class just has static methods that operate on instances of {@link OffHeapKeyRegionEntry}.
+ * The characters of the key are stored in an off-heap chunk, one byte per character if every
+ * character fits in a byte, otherwise two bytes per character. The chunk is owned by the entry and
+ * is released when the entry's value is changed to REMOVED_PHASE2, after which the entry answers
+ * with a heap copy of the key.
+ *
+ * @since Geode 1.5
+ */
+public class OffHeapKeyHelper {
+
+  private OffHeapKeyHelper() {
+    // no instances
+  }
+
+  /**
+   * Returns the key info (see {@link OffHeapKeyRegionEntry#getKeyInfo()}) for the given key.
+   */
+  public static int getKeyInfo(String key) {
+    int keyInfo = key.length() << 1;
+    if (isByteEncodingOk(key)) {
+      keyInfo |= 1;
+    }
+    return keyInfo;
+  }
+
+  private static boolean isByteEncodingOk(String key) {
+    for (int i = 0; i < key.length(); i++) {
+      if (key.charAt(i) > 0xff) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int getKeyLength(int keyInfo) {
+    return keyInfo >>> 1;
+  }
+
+  private static boolean isByteEncoded(int keyInfo) {
+    return (keyInfo & 1) != 0;
+  }
+
+  /**
+   * Copies the given key to newly allocated off-heap memory.
+   *
+   * @return the address of the chunk that holds the key
+   */
+  @Retained
+  public static long allocateKey(String key, int keyInfo) {
+    final int keyLength = getKeyLength(keyInfo);
+    final boolean byteEncoded = isByteEncoded(keyInfo);
+    StoredObject chunk =
+        MemoryAllocatorImpl.getAllocator().allocate(byteEncoded ? keyLength : keyLength * 2);
+    long dataAddr = chunk.getAddress() + OffHeapStoredObject.HEADER_SIZE;
+    for (int i = 0; i < keyLength; i++) {
+      char c = key.charAt(i);
+      if (byteEncoded) {
+        AddressableMemoryManager.writeByte(dataAddr++, (byte) c);
+      } else {
+        AddressableMemoryManager.writeByte(dataAddr++, (byte) (c >> 8));
+        AddressableMemoryManager.writeByte(dataAddr++, (byte) c);
+      }
+    }
+    return chunk.getAddress();
+  }
+
+  private static char readChar(long dataAddr, int index, boolean byteEncoded) {
+    if (byteEncoded) {
+      return (char) (AddressableMemoryManager.readByte(dataAddr + index) & 0xff);
+    }
+    long charAddr = dataAddr + index * 2;
+    return (char) (((AddressableMemoryManager.readByte(charAddr) & 0xff) << 8)
+        | (AddressableMemoryManager.readByte(charAddr + 1) & 0xff));
+  }
+
+  private static String readKey(long addr, int keyInfo) {
+    final int keyLength = getKeyLength(keyInfo);
+    final boolean byteEncoded = isByteEncoded(keyInfo);
+    final long dataAddr = addr + OffHeapStoredObject.HEADER_SIZE;
+    char[] chars = new char[keyLength];
+    for (int i = 0; i < keyLength; i++) {
+      chars[i] = readChar(dataAddr, i, byteEncoded);
+    }
+    return new String(chars);
+  }
+
+  private static boolean keyEquals(long addr, int keyInfo, String key) {
+    final int keyLength = getKeyLength(keyInfo);
+    final boolean byteEncoded = isByteEncoded(keyInfo);
+    final long dataAddr = addr + OffHeapStoredObject.HEADER_SIZE;
+    for (int i = 0; i < keyLength; i++) {
+      if (key.charAt(i) != readChar(dataAddr, i, byteEncoded)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Retains the key chunk of the given entry. Like
+   * {@link OffHeapRegionEntryHelper#_getValueRetain} the address is read again after the retain to
+   * make sure the chunk was not released, and possibly reallocated, in between.
+   *
+   * @return the retained address or zero if the key memory has been released
+   */
+  @Retained
+  private static long retainKeyAddress(OffHeapKeyRegionEntry re) {
+    long addr = re.getKeyAddress();
+    while (addr != 0L) {
+      if (OffHeapStoredObject.retain(addr)) {
+        long addr2 = re.getKeyAddress();
+        if (addr2 == addr) {
+          return addr;
+        }
+        OffHeapStoredObject.release(addr);
+        addr = addr2;
+      } else {
+        // the address is cleared before the key is released so it has already changed
+        addr = re.getKeyAddress();
+      }
+    }
+    return 0L;
+  }
+
+  public static String getKey(OffHeapKeyRegionEntry re) {
+    @Retained
+    long addr = retainKeyAddress(re);
+    if (addr == 0L) {
+      return re.getReleasedKey();
+    }
+    try {
+      return readKey(addr, re.getKeyInfo());
+    } finally {
+      OffHeapStoredObject.release(addr);
+    }
+  }
+
+  /**
+   * Returns the same hash code as the entry's key string without copying the key to the heap.
+   */
+  public static int getKeyHash(OffHeapKeyRegionEntry re) {
+    @Retained
+    long addr = retainKeyAddress(re);
+    if (addr == 0L) {
+      return re.getReleasedKey().hashCode();
+    }
+    try {
+      final int keyInfo = re.getKeyInfo();
+      final int keyLength = getKeyLength(keyInfo);
+      final boolean byteEncoded = isByteEncoded(keyInfo);
+      final long dataAddr = addr + OffHeapStoredObject.HEADER_SIZE;
+      int hash = 0;
+      for (int i = 0; i < keyLength; i++) {
+        hash = 31 * hash + readChar(dataAddr, i, byteEncoded);
+      }
+      return hash;
+    } finally {
+      OffHeapStoredObject.release(addr);
+    }
+  }
+
+  /**
+   * Compares the given key with the key of the entry without copying the entry's key to the heap.
+   */
+  public static boolean isKeyEqual(OffHeapKeyRegionEntry re, Object key) {
+    if (!(key instanceof String)) {
+      return false;
+    }
+    String stringKey = (String) key;
+    final int keyInfo = re.getKeyInfo();
+    if (stringKey.length() != getKeyLength(keyInfo)) {
+      return false;
+    }
+    @Retained
+    long addr = retainKeyAddress(re);
+    if (addr == 0L) {
+      return stringKey.equals(re.getReleasedKey());
+    }
+    try {
+      return keyEquals(addr, keyInfo, stringKey);
+    } finally {
+      OffHeapStoredObject.release(addr);
+    }
+  }
+
+  /**
+   * Copies the key of the entry to the heap and releases its off-heap memory. Called once the entry
+   * has been removed. It is ok for more than one thread to call this on the same entry.
+   */
+  public static void releaseKey(@Released OffHeapKeyRegionEntry re) {
+    long addr = re.getKeyAddress();
+    if (addr == 0L) {
+      return;
+    }
+    // readers that see a zero address use the released key so it must be set first
+    re.setReleasedKey(getKey(re));
+    while (addr != 0L) {
+      if (re.setKeyAddress(addr, 0L)) {
+        OffHeapStoredObject.release(addr);
+        return;
+      }
+      addr = re.getKeyAddress();
+    }
+  }
+
+  /**
+   * Returns the chunk that holds the key of the entry, or null if it has been released.
+   */
+  static OffHeapStoredObject getKeyChunk(OffHeapKeyRegionEntry re) {
+    long addr = re.getKeyAddress();
+    if (addr == 0L) {
+      return null;
+    }
+    return new OffHeapStoredObject(addr);
+  }
+}
@@ -43,6 +43,20 @@ public interface OffHeapMemoryStats {
 
   void setFragmentation(int value);
 
+  /**
+   * Returns the start time of a background defragmentation step. Steps are always timed, even if
+   * clock statistics are disabled, since their pause times are what the statistic is for.
+   */
+  long startDefragmentationStep();
+
+  void endDefragmentationStep(long start, int mergedChunks);
+
+  void incDeserializedValueCacheHits();
+
+  void incDeserializedValueCacheMisses();
+
+  void incDeserializedValueCacheSize(long value);
+
   long getFreeMemory();
 
   long getMaxMemory();
@@ -65,6 +79,18 @@ public interface OffHeapMemoryStats {
 
   long getDefragmentationTime();
 
+  int getDefragmentationSteps();
+
+  long getDefragmentationStepTime();
+
+  long getDefragmentationMergedChunks();
+
+  long getDeserializedValueCacheHits();
+
+  long getDeserializedValueCacheMisses();
+
+  long getDeserializedValueCacheSize();
+
   Statistics getStats();
 
   void close();
@@ -21,6 +21,7 @@ import org.apache.geode.internal.cache.EntryEventImpl;
 import org.apache.geode.internal.cache.RegionEntryContext;
 import org.apache.geode.internal.cache.Token;
 import org.apache.geode.internal.cache.entries.DiskEntry;
+import org.apache.geode.internal.cache.entries.OffHeapKeyRegionEntry;
 import org.apache.geode.internal.cache.entries.OffHeapRegionEntry;
 import org.apache.geode.internal.offheap.annotations.Released;
 import org.apache.geode.internal.offheap.annotations.Retained;
@@ -196,6 +197,9 @@ public class OffHeapRegionEntryHelper {
     } /*
        * else { if (!calledSetValue || re.getAddress() != newAddress) { expectedValue.release(); } }
        */
+    if (re.getAddress() == newAddress) {
+      releaseKey(re);
+    }
   }
 
   /**
@@ -341,6 +345,18 @@ public class OffHeapRegionEntryHelper {
     ReferenceCountHelper.setReferenceCountOwner(re);
     releaseAddress(oldAddress);
     ReferenceCountHelper.setReferenceCountOwner(null);
+    if (v == Token.REMOVED_PHASE2) {
+      releaseKey(re);
+    }
+  }
+
+  /**
+   * Once an entry is REMOVED_PHASE2 it is never used again so an off-heap key can be released.
+   */
+  private static void releaseKey(@Unretained OffHeapRegionEntry re) {
+    if (re instanceof OffHeapKeyRegionEntry) {
+      OffHeapKeyHelper.releaseKey((OffHeapKeyRegionEntry) re);
+    }
   }
 
   public static Token getValueAsToken(@Unretained OffHeapRegionEntry re) {
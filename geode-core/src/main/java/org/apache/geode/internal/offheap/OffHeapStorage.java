@@ -14,6 +14,7 @@
  */
 package org.apache.geode.internal.offheap;
 
+import java.io.File;
 import java.lang.reflect.Method;
 
 import org.apache.geode.*;
@@ -35,6 +36,12 @@ import org.apache.geode.internal.statistics.StatisticsTypeFactoryImpl;
 public class OffHeapStorage implements OffHeapMemoryStats {
   public static final String STAY_CONNECTED_ON_OUTOFOFFHEAPMEMORY_PROPERTY =
       DistributionConfig.GEMFIRE_PREFIX + "offheap.stayConnectedOnOutOfOffHeapMemory";
+  /**
+   * If set, off-heap memory is mapped from files in this directory instead of being allocated. See
+   * {@link MappedSlabFactory}.
+   */
+  public static final String SLAB_DIRECTORY_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "OFF_HEAP_SLAB_DIRECTORY";
 
   // statistics type
   private static final StatisticsType statsType;
@@ -56,6 +63,12 @@ public class OffHeapStorage implements OffHeapMemoryStats {
   private static final int defragmentationTimeId;
   private static final int fragmentationId;
   private static final int defragmentationsInProgressId;
+  private static final int defragmentationStepsId;
+  private static final int defragmentationStepTimeId;
+  private static final int defragmentationMergedChunksId;
+  private static final int deserializedValueCacheHitsId;
+  private static final int deserializedValueCacheMissesId;
+  private static final int deserializedValueCacheSizeId;
   // NOTE!!!! When adding new stats make sure and update the initialize method on this class
 
   // creates and registers the statistics type
@@ -69,6 +82,18 @@ public class OffHeapStorage implements OffHeapMemoryStats {
     final String defragmentationsInProgressDesc =
         "Current number of defragment operations currently in progress.";
     final String defragmentationTimeDesc = "The total time spent defragmenting off-heap memory.";
+    final String defragmentationStepsDesc =
+        "The total number of steps taken by background defragmentation. Each step merges the adjacent free chunks in one part of a slab.";
+    final String defragmentationStepTimeDesc =
+        "The total time background defragmentation steps held the off-heap free lists. Allocations that have to defragment wait for the current step.";
+    final String defragmentationMergedChunksDesc =
+        "The total number of free chunks that background defragmentation has merged into an adjacent free chunk.";
+    final String deserializedValueCacheHitsDesc =
+        "The total number of reads of serialized off-heap values that were answered from the heap cache of deserialized values.";
+    final String deserializedValueCacheMissesDesc =
+        "The total number of reads of serialized off-heap values that had to deserialize the value because it was not in the heap cache of deserialized values.";
+    final String deserializedValueCacheSizeDesc =
+        "The serialized size, in bytes, of the values in the heap cache of deserialized off-heap values.";
     final String fragmentationDesc =
         "The percentage of off-heap free memory that is fragmented.  Updated every time a defragmentation is performed.";
     final String fragmentsDesc =
@@ -87,6 +112,12 @@ public class OffHeapStorage implements OffHeapMemoryStats {
     final String defragmentations = "defragmentations";
     final String defragmentationsInProgress = "defragmentationsInProgress";
     final String defragmentationTime = "defragmentationTime";
+    final String defragmentationSteps = "defragmentationSteps";
+    final String defragmentationStepTime = "defragmentationStepTime";
+    final String defragmentationMergedChunks = "defragmentationMergedChunks";
+    final String deserializedValueCacheHits = "deserializedValueCacheHits";
+    final String deserializedValueCacheMisses = "deserializedValueCacheMisses";
+    final String deserializedValueCacheSize = "deserializedValueCacheSize";
     final String fragmentation = "fragmentation";
     final String fragments = "fragments";
     final String freeMemory = "freeMemory";
@@ -101,6 +132,16 @@ public class OffHeapStorage implements OffHeapMemoryStats {
             f.createIntGauge(defragmentationsInProgress, defragmentationsInProgressDesc,
                 "operations"),
             f.createLongCounter(defragmentationTime, defragmentationTimeDesc, "nanoseconds", false),
+            f.createIntCounter(defragmentationSteps, defragmentationStepsDesc, "operations"),
+            f.createLongCounter(defragmentationStepTime, defragmentationStepTimeDesc,
+                "nanoseconds", false),
+            f.createLongCounter(defragmentationMergedChunks, defragmentationMergedChunksDesc,
+                "chunks"),
+            f.createLongCounter(deserializedValueCacheHits, deserializedValueCacheHitsDesc,
+                "operations"),
+            f.createLongCounter(deserializedValueCacheMisses, deserializedValueCacheMissesDesc,
+                "operations"),
+            f.createLongGauge(deserializedValueCacheSize, deserializedValueCacheSizeDesc, "bytes"),
             f.createIntGauge(fragmentation, fragmentationDesc, "percentage"),
             f.createLongGauge(fragments, fragmentsDesc, "fragments"),
             f.createLongGauge(freeMemory, freeMemoryDesc, "bytes"),
@@ -113,6 +154,12 @@ public class OffHeapStorage implements OffHeapMemoryStats {
     defragmentationId = statsType.nameToId(defragmentations);
     defragmentationsInProgressId = statsType.nameToId(defragmentationsInProgress);
     defragmentationTimeId = statsType.nameToId(defragmentationTime);
+    defragmentationStepsId = statsType.nameToId(defragmentationSteps);
+    defragmentationStepTimeId = statsType.nameToId(defragmentationStepTime);
+    defragmentationMergedChunksId = statsType.nameToId(defragmentationMergedChunks);
+    deserializedValueCacheHitsId = statsType.nameToId(deserializedValueCacheHits);
+    deserializedValueCacheMissesId = statsType.nameToId(deserializedValueCacheMisses);
+    deserializedValueCacheSizeId = statsType.nameToId(deserializedValueCacheSize);
     fragmentationId = statsType.nameToId(fragmentation);
     fragmentsId = statsType.nameToId(fragments);
     freeMemoryId = statsType.nameToId(freeMemory);
@@ -216,6 +263,11 @@ public class OffHeapStorage implements OffHeapMemoryStats {
 
     final int slabCount = calcSlabCount(maxSlabSize, offHeapMemorySize);
 
+    final String slabDirectory = System.getProperty(SLAB_DIRECTORY_PROPERTY);
+    if (slabDirectory != null && !slabDirectory.isEmpty()) {
+      return MemoryAllocatorImpl.create(ooohml, stats, slabCount, offHeapMemorySize, maxSlabSize,
+          new MappedSlabFactory(new File(slabDirectory)));
+    }
     return MemoryAllocatorImpl.create(ooohml, stats, slabCount, offHeapMemorySize, maxSlabSize);
   }
 
@@ -360,6 +412,63 @@ public class OffHeapStorage implements OffHeapMemoryStats {
     return stats.getLong(defragmentationTimeId);
   }
 
+  @Override
+  public long startDefragmentationStep() {
+    return System.nanoTime();
+  }
+
+  @Override
+  public void endDefragmentationStep(long start, int mergedChunks) {
+    this.stats.incInt(defragmentationStepsId, 1);
+    this.stats.incLong(defragmentationStepTimeId, System.nanoTime() - start);
+    this.stats.incLong(defragmentationMergedChunksId, mergedChunks);
+  }
+
+  @Override
+  public int getDefragmentationSteps() {
+    return this.stats.getInt(defragmentationStepsId);
+  }
+
+  @Override
+  public long getDefragmentationStepTime() {
+    return this.stats.getLong(defragmentationStepTimeId);
+  }
+
+  @Override
+  public long getDefragmentationMergedChunks() {
+    return this.stats.getLong(defragmentationMergedChunksId);
+  }
+
+  @Override
+  public void incDeserializedValueCacheHits() {
+    this.stats.incLong(deserializedValueCacheHitsId, 1);
+  }
+
+  @Override
+  public void incDeserializedValueCacheMisses() {
+    this.stats.incLong(deserializedValueCacheMissesId, 1);
+  }
+
+  @Override
+  public void incDeserializedValueCacheSize(long value) {
+    this.stats.incLong(deserializedValueCacheSizeId, value);
+  }
+
+  @Override
+  public long getDeserializedValueCacheHits() {
+    return this.stats.getLong(deserializedValueCacheHitsId);
+  }
+
+  @Override
+  public long getDeserializedValueCacheMisses() {
+    return this.stats.getLong(deserializedValueCacheMissesId);
+  }
+
+  @Override
+  public long getDeserializedValueCacheSize() {
+    return this.stats.getLong(deserializedValueCacheSizeId);
+  }
+
   @Override
   public void setFragmentation(int value) {
     this.stats.setInt(fragmentationId, value);
@@ -392,6 +501,12 @@ public class OffHeapStorage implements OffHeapMemoryStats {
     setLargestFragment(oldStats.getLargestFragment());
     setDefragmentationTime(oldStats.getDefragmentationTime());
     setFragmentation(oldStats.getFragmentation());
+    setDefragmentationSteps(oldStats.getDefragmentationSteps());
+    setDefragmentationStepTime(oldStats.getDefragmentationStepTime());
+    setDefragmentationMergedChunks(oldStats.getDefragmentationMergedChunks());
+    setDeserializedValueCacheHits(oldStats.getDeserializedValueCacheHits());
+    setDeserializedValueCacheMisses(oldStats.getDeserializedValueCacheMisses());
+    setDeserializedValueCacheSize(oldStats.getDeserializedValueCacheSize());
 
     oldStats.close();
   }
@@ -400,6 +515,30 @@ public class OffHeapStorage implements OffHeapMemoryStats {
     stats.setLong(defragmentationTimeId, value);
   }
 
+  private void setDefragmentationSteps(int value) {
+    this.stats.setInt(defragmentationStepsId, value);
+  }
+
+  private void setDefragmentationStepTime(long value) {
+    this.stats.setLong(defragmentationStepTimeId, value);
+  }
+
+  private void setDefragmentationMergedChunks(long value) {
+    this.stats.setLong(defragmentationMergedChunksId, value);
+  }
+
+  private void setDeserializedValueCacheHits(long value) {
+    this.stats.setLong(deserializedValueCacheHitsId, value);
+  }
+
+  private void setDeserializedValueCacheMisses(long value) {
+    this.stats.setLong(deserializedValueCacheMissesId, value);
+  }
+
+  private void setDeserializedValueCacheSize(long value) {
+    this.stats.setLong(deserializedValueCacheSizeId, value);
+  }
+
   private void setDefragmentations(int value) {
     this.stats.setInt(defragmentationId, value);
   }
@@ -19,8 +19,8 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 
 import org.apache.geode.cache.Region;
+import org.apache.geode.internal.ByteBufferWriter;
 import org.apache.geode.internal.DSCODE;
-import org.apache.geode.internal.HeapDataOutputStream;
 import org.apache.geode.internal.InternalDataSerializer;
 import org.apache.geode.internal.cache.BytesAndBitsForCompactor;
 import org.apache.geode.internal.cache.EntryBits;
@@ -281,18 +281,23 @@ public class OffHeapStoredObject extends AbstractStoredObject
     return AddressableMemoryManager.createDirectByteBuffer(getBaseDataAddress(), getDataSize());
   }
 
+  /**
+   * Writes this object's data to the given output without copying it to the heap if the output can
+   * take a direct ByteBuffer, which both a HeapDataOutputStream and the MsgStreamer used to send
+   * peer messages can.
+   */
   @Override
   public void sendTo(DataOutput out) throws IOException {
-    if (!this.isCompressed() && out instanceof HeapDataOutputStream) {
+    if (!this.isCompressed() && out instanceof ByteBufferWriter) {
       ByteBuffer bb = createDirectByteBuffer();
       if (bb != null) {
-        HeapDataOutputStream hdos = (HeapDataOutputStream) out;
+        ByteBufferWriter bbw = (ByteBufferWriter) out;
         if (this.isSerialized()) {
-          hdos.write(bb);
+          bbw.write(bb);
         } else {
-          hdos.writeByte(DSCODE.BYTE_ARRAY);
-          InternalDataSerializer.writeArrayLength(bb.remaining(), hdos);
-          hdos.write(bb);
+          out.writeByte(DSCODE.BYTE_ARRAY);
+          InternalDataSerializer.writeArrayLength(bb.remaining(), out);
+          bbw.write(bb);
         }
         return;
       }
@@ -302,18 +307,26 @@ public class OffHeapStoredObject extends AbstractStoredObject
 
   @Override
   public void sendAsByteArray(DataOutput out) throws IOException {
-    if (!isCompressed() && out instanceof HeapDataOutputStream) {
+    if (!isCompressed() && out instanceof ByteBufferWriter) {
       ByteBuffer bb = createDirectByteBuffer();
       if (bb != null) {
-        HeapDataOutputStream hdos = (HeapDataOutputStream) out;
-        InternalDataSerializer.writeArrayLength(bb.remaining(), hdos);
-        hdos.write(bb);
+        InternalDataSerializer.writeArrayLength(bb.remaining(), out);
+        ((ByteBufferWriter) out).write(bb);
         return;
       }
     }
     super.sendAsByteArray(out);
   }
 
+  @Override
+  public void writeValueAsByteArray(DataOutput out) throws IOException {
+    if (isSerialized()) {
+      sendAsByteArray(out);
+    } else {
+      super.writeValueAsByteArray(out);
+    }
+  }
+
   /**
    * Returns an address that can be used with AddressableMemoryManager to access this object's data.
    *
@@ -62,6 +62,49 @@ public class OffHeapStoredObjectAddressStack implements LongStack {
     return result;
   }
 
+  /**
+   * Removes up to maxCount addresses from the top of this stack and returns the first of them, or
+   * {@code 0L} if this stack is empty. The others stay linked from the first one, and the last one
+   * links to {@code 0L}. The caller owns all the removed addresses.
+   */
+  public long poll(int maxCount) {
+    assert maxCount > 0;
+    long result;
+    synchronized (this) {
+      result = this.topAddr;
+      if (result != 0L) {
+        long last = result;
+        for (int i = 1; i < maxCount; i++) {
+          long next = OffHeapStoredObject.getNext(last);
+          if (next == 0L) {
+            break;
+          }
+          last = next;
+        }
+        this.topAddr = OffHeapStoredObject.getNext(last);
+        OffHeapStoredObject.setNext(last, 0L);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Pushes all the addresses linked from the given one, which the caller owned, onto this stack.
+   */
+  public void offerAll(long e) {
+    assert e != 0;
+    MemoryAllocatorImpl.validateAddress(e);
+    long last = e;
+    long next;
+    while ((next = OffHeapStoredObject.getNext(last)) != 0L) {
+      last = next;
+    }
+    synchronized (this) {
+      OffHeapStoredObject.setNext(last, this.topAddr);
+      this.topAddr = e;
+    }
+  }
+
   /**
    * Returns the address of the "top" item in this stack.
    */
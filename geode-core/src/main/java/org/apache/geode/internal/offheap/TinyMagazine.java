@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.offheap;
+
+/**
+ * A cache of free chunks for the smallest tiny sizes that belongs to one thread. A thread that
+ * frees a small chunk keeps it in its magazine, and its next allocation of that size takes it back
+ * without going to the shared tiny free list, whose every poll and offer is synchronized. The
+ * chunks of each size are linked through their next address like in
+ * {@link OffHeapStoredObjectAddressStack}.
+ *
+ * <p>
+ * Each size holds at most {@code capacity} chunks. When a size overflows, the chunks past half of
+ * the capacity are handed back so that the {@link FreeListManager} can return them to the shared
+ * free list in a single offer. Only the owning thread adds to or takes from a magazine, but
+ * defragmentation empties every magazine, so the methods are synchronized. That lock is only
+ * contended while defragmenting.
+ */
+class TinyMagazine {
+  private final Thread owner;
+  private final int capacity;
+  private final long[] topAddrs;
+  private final int[] counts;
+
+  TinyMagazine(Thread owner, int sizeCount, int capacity) {
+    this.owner = owner;
+    this.capacity = capacity;
+    this.topAddrs = new long[sizeCount];
+    this.counts = new int[sizeCount];
+  }
+
+  Thread getOwner() {
+    return this.owner;
+  }
+
+  int getSizeCount() {
+    return this.topAddrs.length;
+  }
+
+  /**
+   * Removes and returns the address of a free chunk of the given size or {@code 0L} if this
+   * magazine has none.
+   */
+  synchronized long poll(int idx) {
+    long result = this.topAddrs[idx];
+    if (result != 0L) {
+      this.topAddrs[idx] = OffHeapStoredObject.getNext(result);
+      this.counts[idx]--;
+    }
+    return result;
+  }
+
+  /**
+   * Adds a free chunk of the given size. Returns {@code 0L} unless that puts the size over
+   * capacity, in which case the chunks past half of the capacity are removed and the address of the
+   * first of them is returned. The caller owns the returned chunks.
+   */
+  synchronized long offer(int idx, long addr) {
+    OffHeapStoredObject.setNext(addr, this.topAddrs[idx]);
+    this.topAddrs[idx] = addr;
+    if (++this.counts[idx] <= this.capacity) {
+      return 0L;
+    }
+    final int keep = this.capacity / 2;
+    if (keep == 0) {
+      return clear(idx);
+    }
+    long last = addr;
+    for (int i = 1; i < keep; i++) {
+      last = OffHeapStoredObject.getNext(last);
+    }
+    long result = OffHeapStoredObject.getNext(last);
+    OffHeapStoredObject.setNext(last, 0L);
+    this.counts[idx] = keep;
+    return result;
+  }
+
+  /**
+   * Adds the chunks linked from the given address, which the caller owned, to the given size.
+   */
+  synchronized void offerAll(int idx, long e) {
+    long last = e;
+    int count = 1;
+    long next;
+    while ((next = OffHeapStoredObject.getNext(last)) != 0L) {
+      last = next;
+      count++;
+    }
+    OffHeapStoredObject.setNext(last, this.topAddrs[idx]);
+    this.topAddrs[idx] = e;
+    this.counts[idx] += count;
+  }
+
+  /**
+   * Removes all the chunks of the given size and returns the address of the first of them, or
+   * {@code 0L} if there were none. The caller owns the returned chunks.
+   */
+  synchronized long clear(int idx) {
+    long result = this.topAddrs[idx];
+    this.topAddrs[idx] = 0L;
+    this.counts[idx] = 0;
+    return result;
+  }
+
+  /**
+   * Returns the address of the first free chunk of the given size. The others are linked from it.
+   */
+  synchronized long getTopAddress(int idx) {
+    return this.topAddrs[idx];
+  }
+
+  synchronized long computeTotalSize() {
+    long result = 0;
+    for (long top : this.topAddrs) {
+      for (long addr = top; addr != 0L; addr = OffHeapStoredObject.getNext(addr)) {
+        result += OffHeapStoredObject.getSize(addr);
+      }
+    }
+    return result;
+  }
+}
@@ -22,6 +22,7 @@ import org.apache.geode.distributed.internal.InternalDistributedSystem;
 import org.apache.geode.internal.ByteArrayDataInput;
 import org.apache.geode.internal.DSCODE;
 import org.apache.geode.internal.HeapDataOutputStream;
+import org.apache.geode.internal.HeapDataOutputStreamPool;
 import org.apache.geode.internal.Version;
 import org.apache.geode.internal.offheap.StoredObject;
 import org.apache.geode.internal.offheap.annotations.Unretained;
@@ -49,11 +50,15 @@ public class BlobHelper {
    */
   public static byte[] serializeToBlob(Object obj, Version version) throws IOException {
     final long start = startSerialization();
-    HeapDataOutputStream hdos = new HeapDataOutputStream(version);
-    DataSerializer.writeObject(obj, hdos);
-    byte[] result = hdos.toByteArray();
-    endSerialization(start, result.length);
-    return result;
+    HeapDataOutputStream hdos = HeapDataOutputStreamPool.acquire(version);
+    try {
+      DataSerializer.writeObject(obj, hdos);
+      byte[] result = hdos.copyToByteArray();
+      endSerialization(start, result.length);
+      return result;
+    } finally {
+      HeapDataOutputStreamPool.release(hdos);
+    }
   }
 
   /**
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.util.concurrent;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.apache.geode.CancelException;
+import org.apache.geode.internal.cache.RegionEntry;
+import org.apache.geode.internal.cache.entries.OffHeapRegionEntry;
+import org.apache.geode.internal.cache.wan.GatewaySenderEventImpl;
+import org.apache.geode.internal.offheap.OffHeapRegionEntryHelper;
+
+/**
+ * A {@link ConcurrentMapWithReusableEntries} backed by {@link ConcurrentHashMap}. Unlike
+ * {@link CustomEntryConcurrentHashMap}, which locks a whole segment for every update and rehashes
+ * a segment at a time, reads never lock, inserts into an empty bin are a single CAS, other updates
+ * lock only the bin they touch, and a resize is spread over the threads that update the map while
+ * it is in progress.
+ *
+ * <p>
+ * The price is a separate node object per mapping, since region entries cannot be used as the
+ * nodes of this map, so this map is only used when asked for.
+ */
+public class ConcurrentHashMapWithReusableEntries<K, V> extends ConcurrentHashMap<K, V>
+    implements ConcurrentMapWithReusableEntries<K, V> {
+
+  private static final long serialVersionUID = 4506581356367431004L;
+
+  public ConcurrentHashMapWithReusableEntries(int initialCapacity, float loadFactor,
+      int concurrencyLevel) {
+    super(initialCapacity, loadFactor, concurrencyLevel);
+  }
+
+  /**
+   * The entries of this map are not reused so this is the same as {@link #entrySet()}.
+   */
+  @Override
+  public Set<Map.Entry<K, V>> entrySetWithReusableEntries() {
+    return entrySet();
+  }
+
+  /**
+   * Removes the mappings one at a time so that off-heap region entries, which must be released
+   * under their own lock, can be handed to the executor like
+   * {@link CustomEntryConcurrentHashMap#clearWithExecutor(Executor)} does.
+   */
+  @Override
+  public void clearWithExecutor(Executor executor) {
+    final boolean checkForGatewaySenderEvent =
+        OffHeapRegionEntryHelper.doesClearNeedToCheckForOffHeap();
+    ArrayList<OffHeapRegionEntry> offHeapEntries = null;
+    for (Map.Entry<K, V> entry : entrySet()) {
+      final V value = entry.getValue();
+      if (!remove(entry.getKey(), value)) {
+        continue;
+      }
+      if (value instanceof OffHeapRegionEntry) {
+        if (offHeapEntries == null) {
+          offHeapEntries = new ArrayList<>();
+        }
+        offHeapEntries.add((OffHeapRegionEntry) value);
+      } else if (checkForGatewaySenderEvent && value instanceof RegionEntry) {
+        // It is ok to call GatewaySenderEventImpl release without being synced
+        // on the region entry. It will not create an orphan.
+        GatewaySenderEventImpl.release(((RegionEntry) value).getValue()); // OFFHEAP _getValue ok
+      }
+    }
+    if (offHeapEntries != null) {
+      releaseEntries(offHeapEntries, executor);
+    }
+  }
+
+  private void releaseEntries(final ArrayList<OffHeapRegionEntry> entries, Executor executor) {
+    final Runnable runnable = () -> {
+      for (OffHeapRegionEntry entry : entries) {
+        synchronized (entry) {
+          entry.release();
+        }
+      }
+    };
+    boolean submitted = false;
+    if (executor != null) {
+      try {
+        executor.execute(runnable);
+        submitted = true;
+      } catch (RejectedExecutionException | CancelException | NullPointerException e) {
+        // fall through with submitted false
+      }
+    }
+    if (!submitted) {
+      String name = this.getClass().getSimpleName() + "@" + this.hashCode() + " Clear Thread";
+      Thread thread = new Thread(runnable, name);
+      thread.setDaemon(true);
+      thread.start();
+    }
+  }
+
+  @Override
+  public void clear() {
+    clearWithExecutor(null);
+  }
+}
@@ -0,0 +1,713 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.util.concurrent;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A concurrent, open-addressing hash map whose keys are {@code long} or {@code int} primitives.
+ * Keys are stored unboxed in a {@code long[]} next to the values so that {@link #get(long)} can
+ * find a mapping without allocating a wrapper or calling {@link Object#hashCode()}.
+ *
+ * <p>
+ * The map is split into segments, each guarded by its own lock for updates. Reads never lock: a
+ * slot's key is written before its value is published with a volatile write, and a slot is never
+ * reassigned to a different key within a table. Removal leaves a marker in the slot which is purged
+ * when the segment is rehashed into a fresh table.
+ *
+ * <p>
+ * The {@link Object} based {@link Map} methods accept {@link Long} keys, or {@link Integer} keys
+ * if the map was created for int keys, and box keys only when they are handed out through the
+ * views. Iterators are weakly consistent. Like {@link CustomEntryConcurrentHashMap}, null values
+ * are not allowed.
+ *
+ * @param <V> the type of mapped values
+ */
+public class PrimitiveKeyConcurrentHashMap<V> extends AbstractMap<Object, V>
+    implements ConcurrentMapWithReusableEntries<Object, V> {
+
+  /** The largest load factor used; open addressing degrades quickly beyond this. */
+  static final float MAX_LOAD_FACTOR = 0.75f;
+
+  static final int MAXIMUM_CAPACITY = 1 << 30;
+
+  static final int MAX_SEGMENTS = 1 << 16;
+
+  /** Value stored in a slot whose mapping has been removed. */
+  private static final Object REMOVED = new Object();
+
+  private final boolean intKeys;
+
+  private final float loadFactor;
+
+  private final int segmentShift;
+
+  private final int segmentMask;
+
+  private final Segment[] segments;
+
+  private Set<Map.Entry<Object, V>> entrySet;
+
+  private Set<Object> keySet;
+
+  private Collection<V> values;
+
+  /**
+   * Creates a new map.
+   *
+   * @param initialCapacity the expected number of mappings
+   * @param loadFactor the fill ratio, including removed slots, at which a segment is rehashed.
+   *        Values above {@link #MAX_LOAD_FACTOR} are reduced to it.
+   * @param concurrencyLevel the estimated number of concurrently updating threads
+   * @param intKeys true if the keys are {@link Integer}s; false if they are {@link Long}s
+   */
+  public PrimitiveKeyConcurrentHashMap(int initialCapacity, float loadFactor,
+      int concurrencyLevel, boolean intKeys) {
+    if (!(loadFactor > 0) || initialCapacity < 0 || concurrencyLevel <= 0) {
+      throw new IllegalArgumentException();
+    }
+    this.intKeys = intKeys;
+    this.loadFactor = Math.min(loadFactor, MAX_LOAD_FACTOR);
+    if (concurrencyLevel > MAX_SEGMENTS) {
+      concurrencyLevel = MAX_SEGMENTS;
+    }
+    int sshift = 0;
+    int ssize = 1;
+    while (ssize < concurrencyLevel) {
+      ++sshift;
+      ssize <<= 1;
+    }
+    this.segmentShift = 32 - sshift;
+    this.segmentMask = ssize - 1;
+    this.segments = new Segment[ssize];
+
+    if (initialCapacity > MAXIMUM_CAPACITY) {
+      initialCapacity = MAXIMUM_CAPACITY;
+    }
+    int perSegment = (int) Math.ceil(initialCapacity / (double) ssize / this.loadFactor);
+    int cap = 2;
+    while (cap < perSegment) {
+      cap <<= 1;
+    }
+    for (int i = 0; i < ssize; i++) {
+      this.segments[i] = new Segment(cap, this.loadFactor);
+    }
+  }
+
+  /**
+   * Returns true if a map of this type can hold the keys of a region with the given key
+   * constraint.
+   */
+  public static boolean supportsKeyConstraint(Class<?> keyConstraint) {
+    return keyConstraint == Long.class || keyConstraint == Integer.class;
+  }
+
+  /**
+   * Returns true if the keys of this map are {@link Integer}s; false if they are {@link Long}s.
+   */
+  public boolean hasIntKeys() {
+    return this.intKeys;
+  }
+
+  private static int hash(long key) {
+    long h = key * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+
+  private Segment segmentFor(int hash) {
+    return this.segments[(hash >>> this.segmentShift) & this.segmentMask];
+  }
+
+  private boolean isKey(Object key) {
+    return this.intKeys ? key instanceof Integer : key instanceof Long;
+  }
+
+  private long toPrimitive(Object key) {
+    if (!isKey(key)) {
+      if (key == null) {
+        throw new NullPointerException();
+      }
+      throw new ClassCastException(key.getClass().getName() + " is not a valid key type for a "
+          + (this.intKeys ? "int" : "long") + " keyed map");
+    }
+    return ((Number) key).longValue();
+  }
+
+  Object box(long key) {
+    return this.intKeys ? (Object) Integer.valueOf((int) key) : (Object) Long.valueOf(key);
+  }
+
+  /**
+   * Returns the value mapped to the given key, or null if there is none. Never allocates.
+   */
+  @SuppressWarnings("unchecked")
+  public V get(long key) {
+    final int hash = hash(key);
+    final Table tab = segmentFor(hash).table;
+    final int mask = tab.mask;
+    for (int i = hash & mask;; i = (i + 1) & mask) {
+      Object v = tab.values.get(i);
+      if (v == null) {
+        return null;
+      }
+      if (tab.keys[i] == key) {
+        return v == REMOVED ? null : (V) v;
+      }
+    }
+  }
+
+  public boolean containsKey(long key) {
+    return get(key) != null;
+  }
+
+  @SuppressWarnings("unchecked")
+  public V put(long key, V value) {
+    if (value == null) {
+      throw new NullPointerException();
+    }
+    final int hash = hash(key);
+    return (V) segmentFor(hash).put(key, hash, value, false);
+  }
+
+  @SuppressWarnings("unchecked")
+  public V putIfAbsent(long key, V value) {
+    if (value == null) {
+      throw new NullPointerException();
+    }
+    final int hash = hash(key);
+    return (V) segmentFor(hash).put(key, hash, value, true);
+  }
+
+  @SuppressWarnings("unchecked")
+  public V remove(long key) {
+    final int hash = hash(key);
+    return (V) segmentFor(hash).remove(key, hash, null);
+  }
+
+  @Override
+  public V get(Object key) {
+    if (!isKey(key)) {
+      return null;
+    }
+    return get(((Number) key).longValue());
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return get(key) != null;
+  }
+
+  @Override
+  public boolean containsValue(Object value) {
+    if (value == null) {
+      throw new NullPointerException();
+    }
+    for (Segment segment : this.segments) {
+      final Table tab = segment.table;
+      for (int i = 0; i < tab.values.length(); i++) {
+        Object v = tab.values.get(i);
+        if (v != null && v != REMOVED && (v == value || value.equals(v))) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public V put(Object key, V value) {
+    return put(toPrimitive(key), value);
+  }
+
+  @Override
+  public V putIfAbsent(Object key, V value) {
+    return putIfAbsent(toPrimitive(key), value);
+  }
+
+  @Override
+  public V remove(Object key) {
+    if (!isKey(key)) {
+      return null;
+    }
+    return remove(((Number) key).longValue());
+  }
+
+  @Override
+  public boolean remove(Object key, Object value) {
+    if (!isKey(key) || value == null) {
+      return false;
+    }
+    final long k = ((Number) key).longValue();
+    final int hash = hash(k);
+    return segmentFor(hash).remove(k, hash, value) != null;
+  }
+
+  @Override
+  public boolean replace(Object key, V oldValue, V newValue) {
+    if (oldValue == null || newValue == null) {
+      throw new NullPointerException();
+    }
+    if (!isKey(key)) {
+      return false;
+    }
+    final long k = ((Number) key).longValue();
+    final int hash = hash(k);
+    return segmentFor(hash).replace(k, hash, oldValue, newValue) != null;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V replace(Object key, V value) {
+    if (value == null) {
+      throw new NullPointerException();
+    }
+    if (!isKey(key)) {
+      return null;
+    }
+    final long k = ((Number) key).longValue();
+    final int hash = hash(k);
+    return (V) segmentFor(hash).replace(k, hash, null, value);
+  }
+
+  @Override
+  public int size() {
+    long sum = 0;
+    for (Segment segment : this.segments) {
+      sum += segment.count;
+    }
+    return sum > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) sum;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    for (Segment segment : this.segments) {
+      if (segment.count != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void clear() {
+    for (Segment segment : this.segments) {
+      segment.clear();
+    }
+  }
+
+  /**
+   * Values are only ever kept on heap in this map so there is nothing to release asynchronously;
+   * the executor is ignored.
+   */
+  @Override
+  public void clearWithExecutor(Executor executor) {
+    clear();
+  }
+
+  @Override
+  public Set<Map.Entry<Object, V>> entrySet() {
+    Set<Map.Entry<Object, V>> es = this.entrySet;
+    return es != null ? es : (this.entrySet = new EntrySet());
+  }
+
+  @Override
+  public Set<Map.Entry<Object, V>> entrySetWithReusableEntries() {
+    return entrySet();
+  }
+
+  @Override
+  public Set<Object> keySet() {
+    Set<Object> ks = this.keySet;
+    return ks != null ? ks : (this.keySet = new KeySet());
+  }
+
+  @Override
+  public Collection<V> values() {
+    Collection<V> vs = this.values;
+    return vs != null ? vs : (this.values = new Values());
+  }
+
+  /**
+   * One generation of a segment's slots. The arrays are never resized; a segment that fills up
+   * publishes a new table instead.
+   */
+  private static final class Table {
+    final long[] keys;
+    final AtomicReferenceArray<Object> values;
+    final int mask;
+    final int threshold;
+
+    Table(int capacity, float loadFactor) {
+      this.keys = new long[capacity];
+      this.values = new AtomicReferenceArray<>(capacity);
+      this.mask = capacity - 1;
+      // always leave at least one empty slot so that probing terminates
+      this.threshold = Math.min((int) (capacity * loadFactor), capacity - 1);
+    }
+  }
+
+  private static final class Segment extends ReentrantLock {
+    private static final long serialVersionUID = 1L;
+
+    private final int initialCapacity;
+
+    private final float loadFactor;
+
+    volatile Table table;
+
+    /** Number of live mappings. */
+    volatile int count;
+
+    /** Number of slots holding a live or removed mapping. Guarded by this lock. */
+    private int used;
+
+    Segment(int initialCapacity, float loadFactor) {
+      this.initialCapacity = initialCapacity;
+      this.loadFactor = loadFactor;
+      this.table = new Table(initialCapacity, loadFactor);
+    }
+
+    /**
+     * Returns the slot holding key, or the empty slot that ends its probe sequence.
+     */
+    private int indexFor(Table tab, long key, int hash) {
+      final int mask = tab.mask;
+      int i = hash & mask;
+      while (true) {
+        if (tab.values.get(i) == null || tab.keys[i] == key) {
+          return i;
+        }
+        i = (i + 1) & mask;
+      }
+    }
+
+    Object put(long key, int hash, Object value, boolean onlyIfAbsent) {
+      lock();
+      try {
+        Table tab = this.table;
+        int i = indexFor(tab, key, hash);
+        Object old = tab.values.get(i);
+        if (old != null) {
+          if (old == REMOVED) {
+            tab.values.set(i, value);
+            this.count = this.count + 1;
+            return null;
+          }
+          if (!onlyIfAbsent) {
+            tab.values.set(i, value);
+          }
+          return old;
+        }
+        if (this.used >= tab.threshold) {
+          tab = rehash(tab);
+          i = indexFor(tab, key, hash);
+        }
+        tab.keys[i] = key;
+        tab.values.set(i, value);
+        this.used++;
+        this.count = this.count + 1;
+        return null;
+      } finally {
+        unlock();
+      }
+    }
+
+    /**
+     * Removes the mapping for key if its value is expected, or unconditionally if expected is null.
+     */
+    Object remove(long key, int hash, Object expected) {
+      lock();
+      try {
+        final Table tab = this.table;
+        final int i = indexFor(tab, key, hash);
+        final Object old = tab.values.get(i);
+        if (old == null || old == REMOVED) {
+          return null;
+        }
+        if (expected != null && expected != old && !expected.equals(old)) {
+          return null;
+        }
+        tab.values.set(i, REMOVED);
+        this.count = this.count - 1;
+        return old;
+      } finally {
+        unlock();
+      }
+    }
+
+    /**
+     * Replaces the value for key if it is expected, or whenever it is mapped if expected is null.
+     */
+    Object replace(long key, int hash, Object expected, Object value) {
+      lock();
+      try {
+        final Table tab = this.table;
+        final int i = indexFor(tab, key, hash);
+        final Object old = tab.values.get(i);
+        if (old == null || old == REMOVED) {
+          return null;
+        }
+        if (expected != null && expected != old && !expected.equals(old)) {
+          return null;
+        }
+        tab.values.set(i, value);
+        return old;
+      } finally {
+        unlock();
+      }
+    }
+
+    void clear() {
+      lock();
+      try {
+        this.table = new Table(this.initialCapacity, this.loadFactor);
+        this.used = 0;
+        this.count = 0;
+      } finally {
+        unlock();
+      }
+    }
+
+    /**
+     * Copies the live mappings into a new table, doubling its size only if removed slots are not
+     * enough to make room. Readers still holding the old table see a consistent, if stale, view.
+     */
+    private Table rehash(Table oldTable) {
+      final int live = this.count;
+      int capacity = oldTable.keys.length;
+      if (live >= oldTable.threshold / 2 && capacity < MAXIMUM_CAPACITY) {
+        capacity <<= 1;
+      }
+      final Table newTable = new Table(capacity, this.loadFactor);
+      for (int j = 0; j < oldTable.keys.length; j++) {
+        Object v = oldTable.values.get(j);
+        if (v != null && v != REMOVED) {
+          long key = oldTable.keys[j];
+          int i = indexFor(newTable, key, hash(key));
+          newTable.keys[i] = key;
+          newTable.values.lazySet(i, v);
+        }
+      }
+      this.used = live;
+      this.table = newTable;
+      return newTable;
+    }
+  }
+
+  /**
+   * Walks the slots of each segment's current table, skipping empty and removed slots.
+   */
+  private abstract class HashIterator {
+    private int segmentIndex;
+    private Table table;
+    private int slot;
+    private long nextKey;
+    private Object nextValue;
+    private long lastKey;
+    private Object lastValue;
+
+    HashIterator() {
+      this.table = segments[0].table;
+      advance();
+    }
+
+    private void advance() {
+      this.nextValue = null;
+      while (true) {
+        while (this.slot < this.table.keys.length) {
+          int i = this.slot++;
+          Object v = this.table.values.get(i);
+          if (v != null && v != REMOVED) {
+            this.nextKey = this.table.keys[i];
+            this.nextValue = v;
+            return;
+          }
+        }
+        if (++this.segmentIndex >= segments.length) {
+          return;
+        }
+        this.table = segments[this.segmentIndex].table;
+        this.slot = 0;
+      }
+    }
+
+    public boolean hasNext() {
+      return this.nextValue != null;
+    }
+
+    void nextSlot() {
+      if (this.nextValue == null) {
+        throw new NoSuchElementException();
+      }
+      this.lastKey = this.nextKey;
+      this.lastValue = this.nextValue;
+      advance();
+    }
+
+    long lastKey() {
+      return this.lastKey;
+    }
+
+    @SuppressWarnings("unchecked")
+    V lastValue() {
+      return (V) this.lastValue;
+    }
+
+    public void remove() {
+      if (this.lastValue == null) {
+        throw new IllegalStateException();
+      }
+      PrimitiveKeyConcurrentHashMap.this.remove(this.lastKey);
+      this.lastValue = null;
+    }
+  }
+
+  private final class KeyIterator extends HashIterator implements Iterator<Object> {
+    @Override
+    public Object next() {
+      nextSlot();
+      return box(lastKey());
+    }
+  }
+
+  private final class ValueIterator extends HashIterator implements Iterator<V> {
+    @Override
+    public V next() {
+      nextSlot();
+      return lastValue();
+    }
+  }
+
+  private final class EntryIterator extends HashIterator implements Iterator<Map.Entry<Object, V>> {
+    @Override
+    public Map.Entry<Object, V> next() {
+      nextSlot();
+      return new WriteThroughEntry(box(lastKey()), lastValue());
+    }
+  }
+
+  private final class WriteThroughEntry extends AbstractMap.SimpleEntry<Object, V> {
+    private static final long serialVersionUID = 1L;
+
+    WriteThroughEntry(Object key, V value) {
+      super(key, value);
+    }
+
+    @Override
+    public V setValue(V value) {
+      if (value == null) {
+        throw new NullPointerException();
+      }
+      V v = super.setValue(value);
+      PrimitiveKeyConcurrentHashMap.this.put(getKey(), value);
+      return v;
+    }
+  }
+
+  private final class KeySet extends AbstractSet<Object> {
+    @Override
+    public Iterator<Object> iterator() {
+      return new KeyIterator();
+    }
+
+    @Override
+    public int size() {
+      return PrimitiveKeyConcurrentHashMap.this.size();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return containsKey(o);
+    }
+
+    @Override
+    public boolean remove(Object o) {
+      return PrimitiveKeyConcurrentHashMap.this.remove(o) != null;
+    }
+
+    @Override
+    public void clear() {
+      PrimitiveKeyConcurrentHashMap.this.clear();
+    }
+  }
+
+  private final class Values extends AbstractCollection<V> {
+    @Override
+    public Iterator<V> iterator() {
+      return new ValueIterator();
+    }
+
+    @Override
+    public int size() {
+      return PrimitiveKeyConcurrentHashMap.this.size();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return containsValue(o);
+    }
+
+    @Override
+    public void clear() {
+      PrimitiveKeyConcurrentHashMap.this.clear();
+    }
+  }
+
+  private final class EntrySet extends AbstractSet<Map.Entry<Object, V>> {
+    @Override
+    public Iterator<Map.Entry<Object, V>> iterator() {
+      return new EntryIterator();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      if (!(o instanceof Map.Entry)) {
+        return false;
+      }
+      Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+      V v = PrimitiveKeyConcurrentHashMap.this.get(e.getKey());
+      return v != null && v.equals(e.getValue());
+    }
+
+    @Override
+    public boolean remove(Object o) {
+      if (!(o instanceof Map.Entry)) {
+        return false;
+      }
+      Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+      return PrimitiveKeyConcurrentHashMap.this.remove(e.getKey(), e.getValue());
+    }
+
+    @Override
+    public int size() {
+      return PrimitiveKeyConcurrentHashMap.this.size();
+    }
+
+    @Override
+    public void clear() {
+      PrimitiveKeyConcurrentHashMap.this.clear();
+    }
+  }
+}
@@ -26,7 +26,6 @@ import org.apache.logging.log4j.Logger;
 import org.apache.geode.cache.Cache;
 import org.apache.geode.cache.DataPolicy;
 import org.apache.geode.cache.DiskStore;
-import org.apache.geode.cache.EvictionAction;
 import org.apache.geode.cache.Region;
 import org.apache.geode.cache.asyncqueue.AsyncEventQueue;
 import org.apache.geode.cache.execute.FunctionContext;
@@ -152,8 +151,7 @@ public class DescribeDiskStoreFunction implements InternalFunction {
 
   protected boolean isOverflowToDisk(final Region region) {
     return (region.getAttributes().getEvictionAttributes() != null
-        && EvictionAction.OVERFLOW_TO_DISK
-            .equals(region.getAttributes().getEvictionAttributes().getAction()));
+        && region.getAttributes().getEvictionAttributes().getAction().isOverflowToDisk());
   }
 
   protected boolean isPersistent(final Region region) {
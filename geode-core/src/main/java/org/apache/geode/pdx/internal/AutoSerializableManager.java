@@ -17,6 +17,9 @@ package org.apache.geode.pdx.internal;
 import java.io.Externalizable;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.ref.WeakReference;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
@@ -83,6 +86,12 @@ public class AutoSerializableManager {
 
   private boolean noHardcodedExcludes = Boolean.getBoolean(NO_HARDCODED_EXCLUDES_PARAM);
 
+  /*
+   * When true, fields are accessed with method handles instead of Unsafe or reflection. Defaults to
+   * the gemfire.AutoSerializer.METHOD_HANDLES system property.
+   */
+  private volatile boolean useMethodHandles = USE_METHOD_HANDLES;
+
 
   /*
    * Holds a set of regex patterns which match the list of classes we're interested in.
@@ -152,6 +161,19 @@ public class AutoSerializableManager {
     return this.checkPortability;
   }
 
+  /**
+   * Sets whether fields are read and written with method handles instead of Unsafe or reflection.
+   * Classes that were already seen get their fields bound again the next time they are used.
+   */
+  public void setUseMethodHandles(boolean b) {
+    this.useMethodHandles = b;
+    resetCachedTypes();
+  }
+
+  public boolean getUseMethodHandles() {
+    return this.useMethodHandles;
+  }
+
   public void resetCachedTypes() {
     classMap.clear();
   }
@@ -418,7 +440,7 @@ public class AutoSerializableManager {
         }
 
         fieldList.addAll(variableLenFields);
-        classInfo = new AutoClassInfo(clazz, fieldList);
+        classInfo = new AutoClassInfo(clazz, fieldList, this.useMethodHandles);
         logger.info("Auto serializer generating type for {} for fields: {}", clazz,
             classInfo.toFormattedString());
         classMap.put(clazz, classInfo);
@@ -638,6 +660,223 @@ public class AutoSerializableManager {
     }
   }
 
+  /**
+   * Reads and writes a field with method handles that are bound to it when the class info is
+   * generated. Primitive fields are read and written without boxing, and unlike reflection the
+   * handles do no access checks on each call.
+   */
+  private static class MethodHandleFieldWrapper extends FieldWrapper {
+    /**
+     * Reads the field as its own type if it is primitive, otherwise as an Object.
+     */
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+    /**
+     * Reads the field as an Object, boxing it if it is primitive.
+     */
+    private final MethodHandle objectGetter;
+    private final MethodHandle objectSetter;
+
+    public MethodHandleFieldWrapper(Field f) {
+      super(f);
+      Class<?> type = f.getType().isPrimitive() ? f.getType() : Object.class;
+      try {
+        MethodHandle get = MethodHandles.lookup().unreflectGetter(f);
+        MethodHandle set = MethodHandles.lookup().unreflectSetter(f);
+        this.getter = get.asType(MethodType.methodType(type, Object.class));
+        this.setter = set.asType(MethodType.methodType(void.class, Object.class, type));
+        this.objectGetter = get.asType(MethodType.methodType(Object.class, Object.class));
+        this.objectSetter =
+            set.asType(MethodType.methodType(void.class, Object.class, Object.class));
+      } catch (IllegalAccessException ex) {
+        throw new IllegalStateException("Could not create method handles for " + f, ex);
+      }
+    }
+
+    @Override
+    public int getInt(Object o) throws IllegalArgumentException, IllegalAccessException {
+      try {
+        return (int) this.getter.invokeExact(o);
+      } catch (Throwable t) {
+        throw handleThrowable(t);
+      }
+    }
+
+    @Override
+    public void setInt(Object o, int v) throws IllegalArgumentException, IllegalAccessException {
+      try {
+        this.setter.invokeExact(o, v);
+      } catch (Throwable t) {
+        throw handleThrowable(t);
+      }
+    }
+
+    @Override
+    public boolean getBoolean(Object o) throws IllegalArgumentException, IllegalAccessException {
+      try {
+        return (boolean) this.getter.invokeExact(o);
+      } catch (Throwable t) {
+        throw handleThrowable(t);
+      }
+    }
+
+    @Override
+    public void setBoolean(Object o, boolean v)
+        throws IllegalArgumentException, IllegalAccessException {
+      try {
+        this.setter.invokeExact(o, v);
+      } catch (Throwable t) {
+        throw handleThrowable(t);
+      }
+    }
+
+    @Override
+    public byte getByte(Object o) throws IllegalArgumentException, IllegalAccessException {
+      try {
+        return (byte) this.getter.invokeExact(o);
+      } catch (Throwable t) {
+        throw handleThrowable(t);
+      }
+    }
+
+    @Override
+    public void setByte(Object o, byte v) throws IllegalArgumentException, IllegalAccessException {
+      try {
+        this.setter.invokeExact(o, v);
+      } catch (Throwable t) {
+        throw handleThrowable(t);
+      }
+    }
+
+    @Override
+    public short getShort(Object o) throws IllegalArgumentException, IllegalAccessException {
+      try {
+        return (short) this.getter.invokeExact(o);
+      } catch (Throwable t) {
+        throw handleThrowable(t);
+      }
+    }
+
+    @Override
+    public void setShort(Object o, short v)
+        throws IllegalArgumentException, IllegalAccessException {
+      try {
+        this.setter.invokeExact(o, v);
+      } catch (Throwable t) {
+        throw handleThrowable(t);
+      }
+    }
+
+    @Override
+    public char getChar(Object o) throws IllegalArgumentException, IllegalAccessException {
+      try {
+        return (char) this.getter.invokeExact(o);
+      } catch (Throwable t) {
+        throw handleThrowable(t);
+      }
+    }
+
+    @Override
+    public void setChar(Object o, char v) throws IllegalArgumentException, IllegalAccessException {
+      try {
+        this.setter.invokeExact(o, v);
+      } catch (Throwable t) {
+        throw handleThrowable(t);
+      }
+    }
+
+    @Override
+    public long getLong(Object o) throws IllegalArgumentException, IllegalAccessException {
+      try {
+        return (long) this.getter.invokeExact(o);
+      } catch (Throwable t) {
+        throw handleThrowable(t);
+      }
+    }
+
+    @Override
+    public void setLong(Object o, long v) throws IllegalArgumentException, IllegalAccessException {
+      try {
+        this.setter.invokeExact(o, v);
+      } catch (Throwable t) {
+        throw handleThrowable(t);
+      }
+    }
+
+    @Override
+    public float getFloat(Object o) throws IllegalArgumentException, IllegalAccessException {
+      try {
+        return (float) this.getter.invokeExact(o);
+      } catch (Throwable t) {
+        throw handleThrowable(t);
+      }
+    }
+
+    @Override
+    public void setFloat(Object o, float v)
+        throws IllegalArgumentException, IllegalAccessException {
+      try {
+        this.setter.invokeExact(o, v);
+      } catch (Throwable t) {
+        throw handleThrowable(t);
+      }
+    }
+
+    @Override
+    public double getDouble(Object o) throws IllegalArgumentException, IllegalAccessException {
+      try {
+        return (double) this.getter.invokeExact(o);
+      } catch (Throwable t) {
+        throw handleThrowable(t);
+      }
+    }
+
+    @Override
+    public void setDouble(Object o, double v)
+        throws IllegalArgumentException, IllegalAccessException {
+      try {
+        this.setter.invokeExact(o, v);
+      } catch (Throwable t) {
+        throw handleThrowable(t);
+      }
+    }
+
+    @Override
+    public Object getObject(Object o) throws IllegalArgumentException, IllegalAccessException {
+      try {
+        return this.objectGetter.invokeExact(o);
+      } catch (Throwable t) {
+        throw handleThrowable(t);
+      }
+    }
+
+    @Override
+    public void setObject(Object o, Object v)
+        throws IllegalArgumentException, IllegalAccessException {
+      try {
+        this.objectSetter.invokeExact(o, v);
+      } catch (Throwable t) {
+        throw handleThrowable(t);
+      }
+    }
+
+    private static RuntimeException handleThrowable(Throwable t) {
+      if (t instanceof Error) {
+        throw (Error) t;
+      }
+      if (t instanceof RuntimeException) {
+        return (RuntimeException) t;
+      }
+      return new IllegalArgumentException(t);
+    }
+  }
+
+  /**
+   * The default for {@link #setUseMethodHandles}.
+   */
+  private static final boolean USE_METHOD_HANDLES =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "AutoSerializer.METHOD_HANDLES");
+
   // unsafe will be null if the Unsafe class is not available or SAFE was requested.
   // We attempt to use Unsafe by default for best performance.
   private static final UnsafeWrapper unsafe;
@@ -671,7 +910,9 @@ public class AutoSerializableManager {
     protected PdxFieldWrapper(AutoSerializableManager owner, Field f, String name,
         boolean transformValue, boolean isIdentityField) {
       FieldWrapper tmp;
-      if (unsafe != null) {
+      if (owner.useMethodHandles) {
+        tmp = new MethodHandleFieldWrapper(f);
+      } else if (unsafe != null) {
         tmp = new UnsafeFieldWrapper(f);
       } else {
         tmp = new FieldWrapper(f);
@@ -2162,9 +2403,26 @@ public class AutoSerializableManager {
      */
     private PdxType serializedType = null;
 
-    public AutoClassInfo(Class<?> clazz, List<PdxFieldWrapper> fields) {
+    /**
+     * Calls the public no-arg constructor when fields are accessed with method handles and
+     * instances are created with their constructor, which they are unless
+     * gemfire.autopdx.ignoreConstructor is set. Otherwise null.
+     */
+    private final MethodHandle constructor;
+
+    public AutoClassInfo(Class<?> clazz, List<PdxFieldWrapper> fields, boolean useMethodHandles) {
       this.clazzRef = new WeakReference<Class<?>>(clazz);
       this.fields = fields;
+      MethodHandle tmp = null;
+      if (useMethodHandles && USE_CONSTRUCTOR) {
+        try {
+          tmp = MethodHandles.lookup().unreflectConstructor(clazz.getConstructor())
+              .asType(MethodType.methodType(Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException ignore) {
+          // newInstance will report that the class cannot be instantiated
+        }
+      }
+      this.constructor = tmp;
     }
 
     public String toFormattedString() {
@@ -2183,12 +2441,16 @@ public class AutoSerializableManager {
     public Object newInstance(Class<?> clazz) {
       Object result;
       try {
-        if (unsafe != null && !USE_CONSTRUCTOR) {
+        if (this.constructor != null) {
+          result = this.constructor.invokeExact();
+        } else if (unsafe != null && !USE_CONSTRUCTOR) {
           result = unsafe.allocateInstance(clazz);
         } else {
           result = clazz.newInstance();
         }
-      } catch (Exception ex) {
+      } catch (Error ex) {
+        throw ex;
+      } catch (Throwable ex) {
         throw new PdxSerializationException(
             LocalizedStrings.DataSerializer_COULD_NOT_CREATE_AN_INSTANCE_OF_A_CLASS_0
                 .toLocalizedString(clazz.getName()),
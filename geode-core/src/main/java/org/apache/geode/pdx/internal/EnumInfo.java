@@ -67,6 +67,10 @@ public class EnumInfo implements DataSerializableFixedID {
     return this.clazz;
   }
 
+  public String getName() {
+    return this.name;
+  }
+
   // This method is used by the "pdx rename" command.
   public void setClassName(String v) {
     this.clazz = v;
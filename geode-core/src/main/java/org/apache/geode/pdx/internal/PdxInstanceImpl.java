@@ -465,7 +465,7 @@ public class PdxInstanceImpl extends PdxReaderImpl
       result.append("=");
       try {
         // TODO check to see if getField returned an array and if it did use Arrays.deepToString
-        result.append(ur.readField(fieldType.getFieldName()));
+        result.append(ur.readField(fieldType));
       } catch (RuntimeException e) {
         result.append(e);
       }
@@ -590,6 +590,16 @@ public class PdxInstanceImpl extends PdxReaderImpl
     return super.readField(fieldName);
   }
 
+  @Override
+  public synchronized Object readField(PdxField ft) {
+    return super.readField(ft);
+  }
+
+  @Override
+  public synchronized Integer compareField(PdxField ft, Object value) {
+    return super.compareField(ft, value);
+  }
+
   @Override
   protected synchronized Object basicGetObject() {
     DMStats stats = InternalDataSerializer.getDMStats(null);
@@ -629,6 +639,25 @@ public class PdxInstanceImpl extends PdxReaderImpl
     return getUnmodifiableReader(fieldName).readRawField(fieldName);
   }
 
+  /**
+   * Like {@link #getRawField(String)} but for a field that was already looked up, with
+   * {@link PdxType#getPdxField(String)}, in this instance's type. Callers that read the same field
+   * from many instances of a type can look it up once.
+   */
+  public Object getRawField(PdxField ft) {
+    return getUnmodifiableReader(ft.getFieldName()).readRawField(ft);
+  }
+
+  /**
+   * Compares a field that was already looked up in this instance's type to the given value as
+   * described by {@link PdxReaderImpl#compareField(PdxField, Object)}. This is for internal use of
+   * the query engine, which only needs the value of the field if the comparison cannot be done on
+   * the serialized form.
+   */
+  public Integer compareRawField(PdxField ft, Object value) {
+    return getUnmodifiableReader(ft.getFieldName()).compareField(ft, value);
+  }
+
   public Object getDefaultValueIfFieldExistsInAnyPdxVersions(String fieldName, String className)
       throws FieldNotFoundInPdxVersion {
     PdxType pdxType =
@@ -626,6 +626,14 @@ public class PdxReaderImpl implements InternalPdxReader, java.io.Serializable {
     if (ft == null) {
       return null;
     }
+    return readField(ft);
+  }
+
+  /**
+   * Reads the given field, which must be a field of this reader's type, without looking it up by
+   * name.
+   */
+  public Object readField(PdxField ft) {
     switch (ft.getFieldType()) {
       case CHAR:
         return readChar(ft);
@@ -871,6 +879,14 @@ public class PdxReaderImpl implements InternalPdxReader, java.io.Serializable {
     if (ft == null) {
       return null;
     }
+    return readRawField(ft);
+  }
+
+  /**
+   * @return PdxString if the given field, which must be a field of this reader's type, is a String
+   *         otherwise invokes {@link #readField(PdxField)}
+   */
+  public Object readRawField(PdxField ft) {
     if (ft.getFieldType() == FieldType.STRING) {
       return readPdxString(ft);
     } else {
@@ -878,7 +894,118 @@ public class PdxReaderImpl implements InternalPdxReader, java.io.Serializable {
       if (pdxString != null)
         return pdxString;
     }
-    return readField(field);
+    return readField(ft);
+  }
+
+  /**
+   * Compares the given field, which must be a field of this reader's type, to the given value like
+   * the query engine compares them but without creating an object for the field. Numeric fields can
+   * be compared to Bytes, Shorts, Integers, Longs, Floats and Doubles, date fields to Dates that
+   * are not Timestamps, and enum fields to Enums of the same class.
+   *
+   * @return a negative number, zero or a positive number if the field is less than, equal to or
+   *         greater than the value, or null if they cannot be compared this way, for example
+   *         because the field is null
+   */
+  public Integer compareField(PdxField ft, Object value) {
+    switch (ft.getFieldType()) {
+      case BYTE:
+        return compareNumber(readByte(ft), value);
+      case SHORT:
+        return compareNumber(readShort(ft), value);
+      case INT:
+        return compareNumber(readInt(ft), value);
+      case LONG:
+        return compareNumber(readLong(ft), value);
+      case FLOAT:
+        return compareFloat(readFloat(ft), value);
+      case DOUBLE:
+        return compareDouble(readDouble(ft), value);
+      case DATE:
+        return compareDate(ft, value);
+      case OBJECT:
+        return compareEnum(ft, value);
+      default:
+        return null;
+    }
+  }
+
+  private static boolean isComparableNumber(Object value) {
+    return value instanceof Integer || value instanceof Long || value instanceof Double
+        || value instanceof Float || value instanceof Short || value instanceof Byte;
+  }
+
+  private static Integer compareNumber(long v, Object value) {
+    if (!isComparableNumber(value)) {
+      return null;
+    }
+    if (value instanceof Double) {
+      return Double.compare(v, (Double) value);
+    }
+    if (value instanceof Float) {
+      return Float.compare((float) (double) v, (Float) value);
+    }
+    return Long.compare(v, ((Number) value).longValue());
+  }
+
+  private static Integer compareFloat(float v, Object value) {
+    if (!isComparableNumber(value)) {
+      return null;
+    }
+    if (value instanceof Double) {
+      return Double.compare(v, (Double) value);
+    }
+    return Float.compare(v, (float) ((Number) value).doubleValue());
+  }
+
+  private static Integer compareDouble(double v, Object value) {
+    if (!isComparableNumber(value)) {
+      return null;
+    }
+    return Double.compare(v, ((Number) value).doubleValue());
+  }
+
+  private Integer compareDate(PdxField ft, Object value) {
+    if (!(value instanceof Date) || value instanceof java.sql.Timestamp) {
+      return null;
+    }
+    long time = this.dis.readLong(getPositionForField(ft));
+    if (time == -1L) {
+      // a null date
+      return null;
+    }
+    return Long.compare(time, ((Date) value).getTime());
+  }
+
+  private Integer compareEnum(PdxField ft, Object value) {
+    if (!(value instanceof Enum)) {
+      return null;
+    }
+    int pos = getPositionForField(ft);
+    if (this.dis.readByte(pos) != DSCODE.PDX_ENUM) {
+      return null;
+    }
+    int enumId;
+    this.dis.position(pos + 1);
+    try {
+      int dsId = this.dis.readByte();
+      int tmp = InternalDataSerializer.readArrayLength(this.dis);
+      enumId = dsId << 24 | tmp & 0xFFFFFF;
+    } catch (IOException ex) {
+      throw new PdxSerializationException("Could not read a PDX enum field", ex);
+    }
+    EnumInfo ei = GemFireCacheImpl
+        .getForPdx("PDX registry is unavailable because the Cache has been closed.")
+        .getPdxRegistry().getEnumInfoById(enumId);
+    Enum<?> e = (Enum<?>) value;
+    if (ei == null || !ei.getClassName().equals(e.getDeclaringClass().getName())) {
+      return null;
+    }
+    if (ei.getName().equals(e.name())) {
+      return 0;
+    }
+    int result = ei.getOrdinal() - e.ordinal();
+    return result == 0 ? null : result;
   }
 
   /**
@@ -15,6 +15,8 @@
 package org.apache.geode.pdx.internal.unsafe;
 
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
 
 import sun.misc.Unsafe;
 
@@ -195,4 +197,33 @@ public class UnsafeWrapper {
   public void setMemory(long addr, long size, byte v) {
     this.unsafe.setMemory(addr, size, v);
   }
+
+  private static final Method invokeCleanerMethod = findInvokeCleaner();
+
+  private static Method findInvokeCleaner() {
+    try {
+      return Unsafe.class.getMethod("invokeCleaner", ByteBuffer.class);
+    } catch (NoSuchMethodException | SecurityException e) {
+      // only Java 9 and later have it
+      return null;
+    }
+  }
+
+  /**
+   * Frees the memory of a direct buffer, and unmaps it if it is mapped, with the invokeCleaner
+   * method Java 9 added to Unsafe.
+   *
+   * @return false if this JVM does not have the method or the buffer is a slice or duplicate
+   */
+  public boolean invokeCleaner(ByteBuffer buffer) {
+    if (invokeCleanerMethod == null) {
+      return false;
+    }
+    try {
+      invokeCleanerMethod.invoke(this.unsafe, buffer);
+      return true;
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      return false;
+    }
+  }
 }
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query;
+
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Date;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.pdx.PdxInstanceFactory;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+/**
+ * Queries that compare fields of PdxInstances to literals and bind parameters. These comparisons
+ * are made on the serialized field without reading it into an object.
+ */
+@Category(IntegrationTest.class)
+public class PdxFieldComparisonQueryIntegrationTest {
+
+  public enum Status {
+    ACTIVE, INACTIVE
+  }
+
+  private Cache cache;
+  private QueryService qs;
+
+  @Before
+  public void setUp() {
+    this.cache = new CacheFactory().set(MCAST_PORT, "0").create();
+    Region<Integer, Object> region = this.cache.<Integer, Object>createRegionFactory()
+        .create("portfolios");
+    for (int i = 0; i < 10; i++) {
+      PdxInstanceFactory factory = this.cache.createPdxInstanceFactory("Portfolio");
+      factory.writeInt("id", i);
+      factory.writeLong("amount", i * 100L);
+      factory.writeDouble("price", i + 0.5);
+      factory.writeDate("created", i % 2 == 0 ? new Date(i * 1000L) : null);
+      factory.writeObject("status", i < 3 ? Status.ACTIVE : Status.INACTIVE);
+      region.put(i, factory.create());
+    }
+    this.qs = this.cache.getQueryService();
+  }
+
+  @After
+  public void tearDown() {
+    this.cache.close();
+  }
+
+  @Test
+  public void numericFieldsAreComparedToLiterals() throws Exception {
+    assertEquals(4, count("amount > 500"));
+    assertEquals(6, count("500 >= amount"));
+    assertEquals(1, count("id = 3L"));
+    assertEquals(9, count("id <> 3"));
+    assertEquals(3, count("price < 2.6"));
+    assertEquals(2, count("price <= 1.5f"));
+  }
+
+  @Test
+  public void numericFieldsAreComparedToBindParameters() throws Exception {
+    assertEquals(6, count("id >= $1", 4));
+    assertEquals(4, count("$1 < amount", 500));
+  }
+
+  @Test
+  public void dateFieldsAreComparedToBindParameters() throws Exception {
+    assertEquals(3, count("created > $1", new Date(3000L)));
+    assertEquals(1, count("created = $1", new Date(4000L)));
+    assertEquals(9, count("created <> $1", new Date(4000L)));
+  }
+
+  @Test
+  public void enumFieldsAreComparedToBindParameters() throws Exception {
+    assertEquals(3, count("status = $1", Status.ACTIVE));
+    assertEquals(7, count("status <> $1", Status.ACTIVE));
+    assertEquals(7, count("status > $1", Status.ACTIVE));
+  }
+
+  private int count(String predicate, Object... params) throws Exception {
+    Query query = this.qs.newQuery("select * from /portfolios where " + predicate);
+    return ((SelectResults<?>) query.execute(params)).size();
+  }
+}
@@ -23,9 +23,9 @@ import java.io.DataInputStream;
 import java.io.DataOutput;
 import java.io.DataOutputStream;
 import java.io.IOException;
-import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.function.Supplier;
 
 import org.junit.After;
 import org.junit.Before;
@@ -171,20 +171,28 @@ public class BackwardCompatibilitySerializationDUnitTest extends JUnit4CacheTest
     constdsfids.add(new Short(DataSerializableFixedID.TOKEN_REMOVED2).intValue());
     constdsfids.add(new Short(DataSerializableFixedID.TOKEN_TOMBSTONE).intValue());
 
-    for (int i = 0; i < 256; i++) {
-      Constructor<?> cons = DSFIDFactory.getDsfidmap()[i];
-      if (!constdsfids.contains(i - Byte.MAX_VALUE - 1) && cons != null) {
-        Object ds = cons.newInstance((Object[]) null);
+    Supplier<?>[] dsfidMap = DSFIDFactory.getDsfidmap();
+    for (int i = 0; i < -Byte.MIN_VALUE + Byte.MAX_VALUE + 1; i++) {
+      Supplier<?> factory = dsfidMap[i];
+      if (!constdsfids.contains(i + Byte.MIN_VALUE) && factory != null) {
+        Object ds = factory.get();
         checkSupportForRollingUpgrade(ds);
       }
     }
 
     // some msgs require distributed system
     Cache c = getCache();
+    for (int i = -Byte.MIN_VALUE + Byte.MAX_VALUE + 1; i < dsfidMap.length; i++) {
+      Supplier<?> factory = dsfidMap[i];
+      if (!constdsfids.contains(i + Byte.MIN_VALUE) && factory != null) {
+        Object ds = factory.get();
+        checkSupportForRollingUpgrade(ds);
+      }
+    }
     for (Object o : DSFIDFactory.getDsfidmap2().values()) {
-      Constructor<?> cons = (Constructor<?>) o;
-      if (cons != null) {
-        DataSerializableFixedID ds = (DataSerializableFixedID) cons.newInstance((Object[]) null);
+      Supplier<?> factory = (Supplier<?>) o;
+      if (factory != null) {
+        DataSerializableFixedID ds = (DataSerializableFixedID) factory.get();
         checkSupportForRollingUpgrade(ds);
       }
     }
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.distributed.internal.ReplyMessage;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class DSFIDFactoryJUnitTest {
+
+  private static final int HIDDEN_MESSAGE_DSFID = Short.MAX_VALUE;
+
+  @BeforeClass
+  public static void registerHiddenMessage() {
+    DSFIDFactory.registerDSFID(HIDDEN_MESSAGE_DSFID, HiddenMessage.class);
+  }
+
+  @AfterClass
+  public static void unregisterHiddenMessage() {
+    DSFIDFactory.getDsfidmap2().remove(HIDDEN_MESSAGE_DSFID);
+  }
+
+  @Test
+  public void createsRegisteredPublicClass() throws Exception {
+    ReplyMessage message = new ReplyMessage();
+    message.setReturnValue("hello");
+
+    Object result = roundTrip(message);
+
+    assertThat(result).isInstanceOf(ReplyMessage.class);
+    assertThat(((ReplyMessage) result).getReturnValue()).isEqualTo("hello");
+  }
+
+  @Test
+  public void createsRegisteredNonPublicClass() throws Exception {
+    HiddenMessage message = new HiddenMessage();
+    message.value = 37;
+
+    Object result = roundTrip(message);
+
+    assertThat(result).isInstanceOf(HiddenMessage.class);
+    assertThat(((HiddenMessage) result).value).isEqualTo(37);
+  }
+
+  private static Object roundTrip(Object o) throws IOException, ClassNotFoundException {
+    HeapDataOutputStream out = new HeapDataOutputStream(Version.CURRENT);
+    DataSerializer.writeObject(o, out);
+    ByteArrayDataInput in = new ByteArrayDataInput();
+    in.initialize(out.toByteArray(), null);
+    return DataSerializer.readObject(in);
+  }
+
+  static class HiddenMessage implements DataSerializableFixedID {
+    int value;
+
+    public HiddenMessage() {}
+
+    @Override
+    public int getDSFID() {
+      return HIDDEN_MESSAGE_DSFID;
+    }
+
+    @Override
+    public void toData(DataOutput out) throws IOException {
+      out.writeInt(value);
+    }
+
+    @Override
+    public void fromData(DataInput in) throws IOException {
+      value = in.readInt();
+    }
+
+    @Override
+    public Version[] getSerializationVersions() {
+      return null;
+    }
+  }
+}
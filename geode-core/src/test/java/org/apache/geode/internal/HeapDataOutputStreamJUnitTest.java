@@ -55,6 +55,21 @@ public class HeapDataOutputStreamJUnitTest {
     assertEquals(new String(bytes), new String(actual));
   }
 
+  @Test
+  public void testCopyToByteArray() {
+    ByteBuffer buf = ByteBuffer.allocate(32);
+    HeapDataOutputStream out = new HeapDataOutputStream(buf, Version.CURRENT, false);
+    byte[] bytes = "1234567890qwertyuiopasdfghjklzxcvbnm,./;'".getBytes();
+    out.write(bytes, 0, bytes.length);
+
+    byte[] actual = out.copyToByteArray();
+
+    assertEquals(new String(bytes), new String(actual));
+    assertNotSame(buf.array(), actual);
+    assertEquals(bytes.length, out.size());
+    assertTrue(Arrays.equals(actual, out.toByteArray()));
+  }
+
   @Test
   public void testWriteByteBufferCopyUseBuffer() {
     ByteBuffer buf = ByteBuffer.allocate(32);
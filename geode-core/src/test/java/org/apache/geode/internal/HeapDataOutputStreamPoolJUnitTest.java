@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class HeapDataOutputStreamPoolJUnitTest {
+
+  @Test
+  public void releasedStreamIsReusedByTheSameThread() {
+    HeapDataOutputStream first = HeapDataOutputStreamPool.acquire(Version.CURRENT);
+    first.writeInt(1);
+    HeapDataOutputStreamPool.release(first);
+
+    HeapDataOutputStream second = HeapDataOutputStreamPool.acquire(Version.GFE_90);
+    try {
+      assertThat(second).isSameAs(first);
+      assertThat(second.size()).isEqualTo(0);
+      assertThat(second.getVersion()).isEqualTo(Version.GFE_90);
+    } finally {
+      HeapDataOutputStreamPool.release(second);
+    }
+  }
+
+  @Test
+  public void nestedAcquireGetsAnotherStream() {
+    HeapDataOutputStream outer = HeapDataOutputStreamPool.acquire(Version.CURRENT);
+    try {
+      HeapDataOutputStream inner = HeapDataOutputStreamPool.acquire(Version.CURRENT);
+      assertThat(inner).isNotSameAs(outer);
+      HeapDataOutputStreamPool.release(inner);
+    } finally {
+      HeapDataOutputStreamPool.release(outer);
+    }
+    HeapDataOutputStream next = HeapDataOutputStreamPool.acquire(Version.CURRENT);
+    HeapDataOutputStreamPool.release(next);
+    assertThat(next).isSameAs(outer);
+  }
+
+  @Test
+  public void copiedBytesAreNotChangedByReuse() throws IOException {
+    byte[] value = new byte[5000];
+    for (int i = 0; i < value.length; i++) {
+      value[i] = (byte) i;
+    }
+    HeapDataOutputStream stream = HeapDataOutputStreamPool.acquire(Version.CURRENT);
+    byte[] first;
+    try {
+      DataSerializer.writeByteArray(value, stream);
+      first = stream.copyToByteArray();
+    } finally {
+      HeapDataOutputStreamPool.release(stream);
+    }
+
+    stream = HeapDataOutputStreamPool.acquire(Version.CURRENT);
+    try {
+      DataSerializer.writeByteArray(new byte[5000], stream);
+      // the buffer grew to hold the first value so the second fits without chunks
+      assertThat(stream.getByteBufferCount()).isEqualTo(1);
+    } finally {
+      HeapDataOutputStreamPool.release(stream);
+    }
+
+    HeapDataOutputStream expected = new HeapDataOutputStream(Version.CURRENT);
+    DataSerializer.writeByteArray(value, expected);
+    assertThat(first).isEqualTo(expected.toByteArray());
+  }
+}
@@ -14,9 +14,14 @@
  */
 package org.apache.geode.internal;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
 import java.util.Properties;
 
 import org.apache.logging.log4j.Level;
@@ -25,6 +30,7 @@ import org.apache.logging.log4j.util.PropertiesUtil;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import org.apache.geode.DataSerializer;
 import org.apache.geode.InternalGemFireException;
 import org.apache.geode.cache.execute.Function;
 import org.apache.geode.cache.execute.FunctionContext;
@@ -51,6 +57,57 @@ public class InternalDataSerializerJUnitTest {
         InternalDataSerializer.isGemfireObject(new ExampleSecurityManager()));
   }
 
+  @Test
+  public void serializerRegisteredAfterClassWasWrittenIsUsed() throws Exception {
+    assertEquals(DSCODE.SERIALIZABLE, firstByteOf(new Point()));
+
+    DataSerializer serializer = InternalDataSerializer.register(PointSerializer.class, false);
+    try {
+      assertEquals(DSCODE.USER_CLASS, firstByteOf(new Point()));
+    } finally {
+      InternalDataSerializer.unregister(serializer.getId());
+    }
+
+    assertEquals(DSCODE.SERIALIZABLE, firstByteOf(new Point()));
+  }
+
+  private static byte firstByteOf(Object o) throws IOException {
+    HeapDataOutputStream out = new HeapDataOutputStream(Version.CURRENT);
+    DataSerializer.writeObject(o, out);
+    return out.toByteArray()[0];
+  }
+
+  public static class Point implements Serializable {
+    int x;
+  }
+
+  public static class PointSerializer extends DataSerializer {
+    public PointSerializer() {}
+
+    @Override
+    public Class<?>[] getSupportedClasses() {
+      return new Class<?>[] {Point.class};
+    }
+
+    @Override
+    public boolean toData(Object o, DataOutput out) throws IOException {
+      out.writeInt(((Point) o).x);
+      return true;
+    }
+
+    @Override
+    public Object fromData(DataInput in) throws IOException {
+      Point point = new Point();
+      point.x = in.readInt();
+      return point;
+    }
+
+    @Override
+    public int getId() {
+      return 57;
+    }
+  }
+
   class TestFunction implements Function {
     @Override
     public void execute(FunctionContext context) {
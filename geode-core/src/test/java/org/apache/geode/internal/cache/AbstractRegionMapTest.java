@@ -39,6 +39,7 @@ import org.apache.geode.cache.EntryNotFoundException;
 import org.apache.geode.cache.EvictionAttributes;
 import org.apache.geode.cache.Operation;
 import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.internal.cache.entries.OffHeapRegionEntry;
 import org.apache.geode.internal.cache.eviction.EvictableEntry;
 import org.apache.geode.internal.cache.eviction.EvictionController;
 import org.apache.geode.internal.cache.eviction.EvictionCounters;
@@ -700,6 +701,21 @@ public class AbstractRegionMapTest {
     }
   }
 
+  @Test
+  public void invalidateForceNewEntryOfExistingEntryReleasesUnusedOffHeapEntry() {
+    TestableAbstractRegionMap arm = new TestableAbstractRegionMap();
+    addEntry(arm, Token.INVALID);
+    OffHeapRegionEntry unusedEntry = mock(OffHeapRegionEntry.class);
+    RegionEntryFactory factory = mock(RegionEntryFactory.class);
+    when(factory.createEntry(any(), any(), any())).thenReturn(unusedEntry);
+    arm.setEntryFactory(factory);
+    EntryEventImpl event = createEventForInvalidate(arm._getOwner());
+    when(arm._getOwner().isInitialized()).thenReturn(true);
+
+    assertFalse(arm.invalidate(event, true, true, false));
+    verify(unusedEntry, times(1)).release();
+  }
+
   private EntryEventImpl createEventForInvalidate(LocalRegion lr) {
     when(lr.getKeyInfo(KEY)).thenReturn(new KeyInfo(KEY, null, null));
     return EntryEventImpl.create(lr, Operation.INVALIDATE, KEY, false, null, true, false);
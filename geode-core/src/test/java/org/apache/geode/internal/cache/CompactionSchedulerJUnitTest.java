@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.cache.DiskStoreImpl.OplogCompactor;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class CompactionSchedulerJUnitTest {
+
+  private DiskStoreStats stats;
+  private OplogCompactor compactor;
+
+  @Before
+  public void setUp() {
+    stats = mock(DiskStoreStats.class);
+    compactor = mock(OplogCompactor.class);
+    when(compactor.canPause()).thenReturn(true);
+  }
+
+  @Test
+  public void prioritizesOplogsWithMostGarbage() {
+    Oplog oldest = createOplog(0.6);
+    Oplog mostGarbage = createOplog(0.9);
+    Oplog sameAsOldest = createOplog(0.6);
+    List<Oplog> oplogs = new ArrayList<>(Arrays.asList(oldest, mostGarbage, sameAsOldest));
+
+    CompactionScheduler.prioritize(oplogs);
+
+    assertThat(oplogs).containsExactly(mostGarbage, oldest, sameAsOldest);
+  }
+
+  @Test
+  public void doesNotWaitWithoutBudgetOrLatencyTarget() {
+    CompactionScheduler scheduler = new CompactionScheduler(0, 0, stats);
+    scheduler.endWrite(scheduler.startWrite());
+
+    scheduler.compacted(Integer.MAX_VALUE, compactor);
+
+    verifyZeroInteractions(stats);
+  }
+
+  @Test
+  public void waitsToStayWithinBytesPerSecondBudget() {
+    CompactionScheduler scheduler = new CompactionScheduler(1000, 0, stats);
+    long start = System.nanoTime();
+
+    scheduler.compacted(500, compactor);
+
+    assertThat(System.nanoTime() - start)
+        .isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(400));
+    verify(stats).incCompactionThrottleTime(anyLong());
+  }
+
+  @Test
+  public void pausesWhileForegroundWritesAreSlow() {
+    CompactionScheduler scheduler = new CompactionScheduler(0, 1, stats);
+    scheduler.endWrite(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(10));
+    assertThat(scheduler.areWritesSlow()).isTrue();
+
+    scheduler.compacted(1, compactor);
+
+    verify(stats).endCompactionPause(anyLong());
+  }
+
+  @Test
+  public void doesNotPauseForFastForegroundWrites() {
+    CompactionScheduler scheduler = new CompactionScheduler(0, 1000, stats);
+    scheduler.endWrite(scheduler.startWrite());
+    assertThat(scheduler.areWritesSlow()).isFalse();
+
+    scheduler.compacted(1, compactor);
+
+    verifyZeroInteractions(stats);
+  }
+
+  @Test
+  public void doesNotWaitWhenCompactorCannotPause() {
+    CompactionScheduler scheduler = new CompactionScheduler(1, 1, stats);
+    scheduler.endWrite(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(10));
+    when(compactor.canPause()).thenReturn(false);
+    long start = System.nanoTime();
+
+    scheduler.compacted(1000, compactor);
+
+    assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(1));
+    verifyZeroInteractions(stats);
+  }
+
+  private Oplog createOplog(double garbageRatio) {
+    Oplog oplog = mock(Oplog.class);
+    when(oplog.getGarbageRatio()).thenReturn(garbageRatio);
+    return oplog;
+  }
+}
@@ -23,6 +23,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
+import org.apache.commons.io.FileUtils;
 import org.awaitility.Awaitility;
 import org.junit.After;
 import org.junit.Before;
@@ -35,11 +36,14 @@ import org.apache.geode.cache.Cache;
 import org.apache.geode.cache.CacheFactory;
 import org.apache.geode.cache.DiskStore;
 import org.apache.geode.cache.DiskStoreFactory;
+import org.apache.geode.cache.EvictionAction;
+import org.apache.geode.cache.EvictionAttributes;
 import org.apache.geode.cache.Region;
 import org.apache.geode.cache.RegionFactory;
 import org.apache.geode.cache.RegionShortcut;
 import org.apache.geode.distributed.ConfigurationProperties;
 import org.apache.geode.internal.cache.backup.BackupService;
+import org.apache.geode.internal.cache.entries.DiskEntry;
 import org.apache.geode.test.junit.categories.IntegrationTest;
 
 
@@ -104,6 +108,256 @@ public class DiskStoreImplIntegrationTest {
     Awaitility.await().atMost(1, TimeUnit.MINUTES).until(() -> diskStoreStats.getQueueSize() == 0);
   }
 
+  @Test
+  public void synchronousWritesFromConcurrentThreadsAreGroupCommitted() throws Exception {
+    File baseDir = temporaryDirectory.newFolder();
+    createReplicateRegionWithDiskStore(baseDir);
+    final int THREADS = 4;
+    final int PUTS_PER_THREAD = 500;
+
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < THREADS; t++) {
+      final int first = t * PUTS_PER_THREAD;
+      threads.add(new Thread(() -> {
+        for (int i = first; i < first + PUTS_PER_THREAD; i++) {
+          aRegion.put(i, i);
+        }
+      }));
+    }
+    threads.forEach(Thread::start);
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    aRegion.destroy(0);
+
+    assertThat(diskStoreStats.getGroupCommitWrites()).isEqualTo(THREADS * PUTS_PER_THREAD + 1);
+    assertThat(diskStoreStats.getGroupCommits()).isGreaterThan(0)
+        .isLessThanOrEqualTo(diskStoreStats.getGroupCommitWrites());
+
+    cache.close();
+    cache = createCache();
+    createReplicateRegionWithDiskStore(baseDir);
+    assertThat(aRegion.size()).isEqualTo(THREADS * PUTS_PER_THREAD - 1);
+    assertThat(aRegion.get(1)).isEqualTo(1);
+    assertThat(aRegion.containsKey(0)).isFalse();
+  }
+
+  @Test
+  public void recoversEntriesFromManyOplogsAndRecordsRecoveryPhaseTimes() throws Exception {
+    File baseDir = temporaryDirectory.newFolder();
+    createReplicateRegionWithSmallOplogs(baseDir);
+    final int ENTRIES = 400;
+    final byte[] value = new byte[10 * 1024];
+    for (int i = 0; i < ENTRIES; i++) {
+      aRegion.put(i, value);
+    }
+    for (int i = 0; i < ENTRIES; i += 2) {
+      aRegion.destroy(i);
+    }
+    aRegion.put(1, "updated");
+    DiskStoreImpl diskStore = (DiskStoreImpl) cache.findDiskStore(DISK_STORE_NAME);
+    assertThat(diskStore.getAllOplogsForBackup().length).isGreaterThan(1);
+
+    cache.close();
+    cache = createCache();
+    createReplicateRegionWithSmallOplogs(baseDir);
+    assertThat(aRegion.size()).isEqualTo(ENTRIES / 2);
+    assertThat(aRegion.containsKey(0)).isFalse();
+    assertThat(aRegion.get(1)).isEqualTo("updated");
+    assertThat((byte[]) aRegion.get(ENTRIES - 1)).hasSize(value.length);
+    assertThat(diskStoreStats.getRecoveryDeletesTime()).isGreaterThan(0);
+    assertThat(diskStoreStats.getRecoveryEntriesTime()).isGreaterThan(0);
+    assertThat(diskStoreStats.getRecoveryRegionInitTime()).isGreaterThan(0);
+  }
+
+  @Test
+  public void recoversEntriesFromRegionMapCheckpoint() throws Exception {
+    File baseDir = temporaryDirectory.newFolder();
+    createReplicateRegionWithSmallOplogs(baseDir);
+    final int ENTRIES = 400;
+    final byte[] value = new byte[10 * 1024];
+    for (int i = 0; i < ENTRIES; i++) {
+      aRegion.put(i, value);
+    }
+    for (int i = 0; i < ENTRIES; i += 4) {
+      aRegion.put(i, "updated");
+    }
+    for (int i = 1; i < ENTRIES; i += 4) {
+      aRegion.destroy(i);
+    }
+    DiskStoreImpl diskStore = (DiskStoreImpl) cache.findDiskStore(DISK_STORE_NAME);
+    diskStore.forceRoll();
+    PersistentOplogSet oplogSet = diskStore.getPersistentOplogSet();
+    Awaitility.await().atMost(1, TimeUnit.MINUTES).until(() -> {
+      for (Oplog oplog : oplogSet.getAllOplogs()) {
+        if (oplog != oplogSet.getChild()
+            && !diskStore.getDiskInitFile().hasKrf(oplog.getOplogId())) {
+          return false;
+        }
+      }
+      return true;
+    });
+    oplogSet.writeCheckpoint();
+    assertThat(diskStoreStats.getCheckpoints()).isEqualTo(1);
+    aRegion.put(0, "after checkpoint");
+    aRegion.destroy(2);
+    aRegion.put(ENTRIES, "created after checkpoint");
+
+    cache.close();
+    cache = createCache();
+    createReplicateRegionWithSmallOplogs(baseDir);
+    assertThat(diskStoreStats.getCheckpointedOplogsRecovered()).isGreaterThan(0);
+    assertThat(aRegion.size()).isEqualTo(ENTRIES - ENTRIES / 4 - 1 + 1);
+    assertThat(aRegion.get(0)).isEqualTo("after checkpoint");
+    assertThat(aRegion.containsKey(1)).isFalse();
+    assertThat(aRegion.containsKey(2)).isFalse();
+    assertThat((byte[]) aRegion.get(3)).hasSize(value.length);
+    assertThat(aRegion.get(4)).isEqualTo("updated");
+    assertThat(aRegion.get(ENTRIES)).isEqualTo("created after checkpoint");
+  }
+
+  @Test
+  public void regionMapCheckpointDoesNotLoseBufferedWritesAfterCrash() throws Exception {
+    File baseDir = temporaryDirectory.newFolder();
+    DiskStoreImpl diskStore = (DiskStoreImpl) cache.createDiskStoreFactory()
+        .setDiskDirs(new File[] {baseDir}).setAutoCompact(false).setQueueSize(1000)
+        .setTimeInterval(TIME_INTERVAL).create(DISK_STORE_NAME);
+    aRegion = cache.createRegionFactory(RegionShortcut.REPLICATE_PERSISTENT)
+        .setDiskSynchronous(false).setDiskStoreName(DISK_STORE_NAME).create(REGION_NAME);
+    for (int i = 0; i < 10; i++) {
+      aRegion.put(i, "value" + i);
+    }
+    diskStore.forceFlush();
+    diskStore.forceRoll();
+    PersistentOplogSet oplogSet = diskStore.getPersistentOplogSet();
+    Awaitility.await().atMost(1, TimeUnit.MINUTES).until(() -> {
+      for (Oplog oplog : oplogSet.getAllOplogs()) {
+        if (oplog != oplogSet.getChild()
+            && !diskStore.getDiskInitFile().hasKrf(oplog.getOplogId())) {
+          return false;
+        }
+      }
+      return true;
+    });
+    // write the update to the write buffer of the active oplog like the async flusher does,
+    // without flushing the buffer
+    aRegion.put(0, "updated");
+    DiskEntry entry = (DiskEntry) ((LocalRegion) aRegion).getRegionEntry(0);
+    DiskEntry.Helper.doAsyncFlush(entry, (LocalRegion) aRegion, null);
+
+    oplogSet.writeCheckpoint();
+    // what a crash would leave on disk
+    File crashedDir = temporaryDirectory.newFolder();
+    FileUtils.copyDirectory(baseDir, crashedDir);
+    cache.close();
+
+    cache = createCache();
+    createReplicateRegionWithDiskStore(crashedDir);
+    assertThat(diskStoreStats.getCheckpointedOplogsRecovered()).isGreaterThan(0);
+    assertThat(aRegion.get(0)).isEqualTo("updated");
+    assertThat(aRegion.get(1)).isEqualTo("value1");
+  }
+
+  @Test
+  public void faultsInValuesFromRolledOplogThroughMappedCrf() throws Exception {
+    File baseDir = temporaryDirectory.newFolder();
+    DiskStoreImpl diskStore = (DiskStoreImpl) cache.createDiskStoreFactory()
+        .setDiskDirs(new File[] {baseDir}).setAutoCompact(false).create(DISK_STORE_NAME);
+    diskStoreStats = diskStore.getStats();
+    aRegion = cache.createRegionFactory(RegionShortcut.REPLICATE_PERSISTENT)
+        .setEvictionAttributes(
+            EvictionAttributes.createLRUEntryAttributes(1, EvictionAction.OVERFLOW_TO_DISK))
+        .setDiskStoreName(DISK_STORE_NAME).create(REGION_NAME);
+    final int ENTRIES = 100;
+    for (int i = 0; i < ENTRIES; i++) {
+      aRegion.put(i, "value" + i);
+    }
+    diskStore.forceRoll();
+    for (int i = 0; i < ENTRIES; i++) {
+      assertThat(aRegion.get(i)).isEqualTo("value" + i);
+    }
+    assertThat(diskStoreStats.getOplogMappedReads()).isGreaterThanOrEqualTo(ENTRIES - 1)
+        .isEqualTo(diskStoreStats.getOplogReads());
+    PersistentOplogSet oplogSet = diskStore.getPersistentOplogSet();
+    for (Oplog oplog : oplogSet.getAllOplogs()) {
+      assertThat(oplog.isCrfMapped()).isEqualTo(oplog != oplogSet.getChild());
+    }
+  }
+
+  @Test
+  public void unmapsCrfWhenOplogIsDeletedOrClosed() throws Exception {
+    File baseDir = temporaryDirectory.newFolder();
+    DiskStoreImpl diskStore = (DiskStoreImpl) cache.createDiskStoreFactory()
+        .setDiskDirs(new File[] {baseDir}).setAutoCompact(false).setAllowForceCompaction(true)
+        .create(DISK_STORE_NAME);
+    aRegion = cache.createRegionFactory(RegionShortcut.REPLICATE_PERSISTENT)
+        .setEvictionAttributes(
+            EvictionAttributes.createLRUEntryAttributes(1, EvictionAction.OVERFLOW_TO_DISK))
+        .setDiskStoreName(DISK_STORE_NAME).create(REGION_NAME);
+    PersistentOplogSet oplogSet = diskStore.getPersistentOplogSet();
+    final int ENTRIES = 10;
+    for (int i = 0; i < ENTRIES; i++) {
+      aRegion.put(i, "value" + i);
+    }
+    Oplog garbage = oplogSet.getChild();
+    diskStore.forceRoll();
+    for (int i = 0; i < ENTRIES; i++) {
+      aRegion.get(i);
+    }
+    assertThat(garbage.isCrfMapped()).isTrue();
+    for (int i = 0; i < ENTRIES; i++) {
+      aRegion.put(i, "newValue" + i);
+    }
+    Oplog live = oplogSet.getChild();
+    diskStore.forceRoll();
+    for (int i = 0; i < ENTRIES; i++) {
+      assertThat(aRegion.get(i)).isEqualTo("newValue" + i);
+    }
+    assertThat(live.isCrfMapped()).isTrue();
+
+    // an oplog without live entries is deleted without having to be compacted
+    diskStore.forceCompaction();
+    assertThat(garbage.isDeleted()).isTrue();
+    assertThat(garbage.isCrfMapped()).isFalse();
+    assertThat(live.isCrfMapped()).isTrue();
+
+    cache.close();
+    assertThat(live.isCrfMapped()).isFalse();
+  }
+
+  @Test
+  public void compactsOplogWithMostGarbageFirstAndReportsCompactionDebt() throws Exception {
+    File baseDir = temporaryDirectory.newFolder();
+    DiskStoreImpl diskStore = (DiskStoreImpl) cache.createDiskStoreFactory()
+        .setDiskDirs(new File[] {baseDir}).setAutoCompact(false).setAllowForceCompaction(true)
+        .create(DISK_STORE_NAME);
+    diskStoreStats = diskStore.getStats();
+    aRegion = cache.createRegionFactory(RegionShortcut.REPLICATE_PERSISTENT)
+        .setDiskStoreName(DISK_STORE_NAME).create(REGION_NAME);
+    PersistentOplogSet oplogSet = diskStore.getPersistentOplogSet();
+    final byte[] value = new byte[1024];
+    for (int i = 0; i < 200; i++) {
+      aRegion.put(i, value);
+      if (i == 99) {
+        diskStore.forceRoll();
+      }
+    }
+    Oplog second = oplogSet.getChild();
+    diskStore.forceRoll();
+    for (int i = 0; i < 60; i++) {
+      aRegion.destroy(i);
+    }
+    for (int i = 100; i < 190; i++) {
+      aRegion.destroy(i);
+    }
+
+    assertThat(oplogSet.getCompactionDebt()).isGreaterThan(150 * value.length);
+    assertThat(diskStore.getOplogToBeCompacted()).containsExactly(second);
+    assertThat(diskStore.forceCompaction()).isTrue();
+    assertThat(oplogSet.getCompactionDebt()).isEqualTo(0);
+    assertThat(aRegion.size()).isEqualTo(50);
+  }
+
   private void putEntries(int numToPut) {
     for (int i = 1; i <= numToPut; i++) {
       aRegion.put(i, i);
@@ -116,6 +370,26 @@ public class DiskStoreImplIntegrationTest {
         .setDiskStoreName(DISK_STORE_NAME).create(REGION_NAME);
   }
 
+  private void createReplicateRegionWithDiskStore(File baseDir) {
+    DiskStore diskStore =
+        cache.createDiskStoreFactory().setDiskDirs(new File[] {baseDir}).create(DISK_STORE_NAME);
+    diskStoreStats = ((DiskStoreImpl) diskStore).getStats();
+    aRegion = cache.createRegionFactory(RegionShortcut.REPLICATE_PERSISTENT)
+        .setDiskStoreName(DISK_STORE_NAME).create(REGION_NAME);
+  }
+
+  /**
+   * Like createReplicateRegionWithDiskStore, with 1 MB oplogs that are not compacted, so that a
+   * few hundred 10 KB values are spread over many oplogs.
+   */
+  private void createReplicateRegionWithSmallOplogs(File baseDir) {
+    DiskStore diskStore = cache.createDiskStoreFactory().setDiskDirs(new File[] {baseDir})
+        .setMaxOplogSize(1).setAutoCompact(false).create(DISK_STORE_NAME);
+    diskStoreStats = ((DiskStoreImpl) diskStore).getStats();
+    aRegion = cache.createRegionFactory(RegionShortcut.REPLICATE_PERSISTENT)
+        .setDiskStoreName(DISK_STORE_NAME).create(REGION_NAME);
+  }
+
   private void createRegionWithDiskStoreAndAsyncQueue(File baseDir, int queueSize) {
     createDiskStoreWithQueue(baseDir, queueSize, TIME_INTERVAL);
 
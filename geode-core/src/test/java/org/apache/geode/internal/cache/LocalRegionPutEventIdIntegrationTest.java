@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.EntryEvent;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.util.CacheListenerAdapter;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+@Category(IntegrationTest.class)
+public class LocalRegionPutEventIdIntegrationTest {
+
+  private GemFireCacheImpl cache;
+
+  @Before
+  public void setUp() {
+    cache =
+        (GemFireCacheImpl) new CacheFactory().set("locators", "").set("mcast-port", "0").create();
+  }
+
+  @After
+  public void tearDown() {
+    cache.close();
+  }
+
+  @Test
+  public void localRegionWithoutCallbacksDoesNotNeedEventId() {
+    Region<String, String> region =
+        cache.<String, String>createRegionFactory(RegionShortcut.LOCAL).create("region");
+
+    assertThat(((LocalRegion) region).isEventIdNeededForPut()).isFalse();
+    region.put("key", "value");
+    assertThat(region.get("key")).isEqualTo("value");
+  }
+
+  @Test
+  public void listenerGetsEventWithEventId() {
+    AtomicReference<EntryEvent<String, String>> lastEvent = new AtomicReference<>();
+    Region<String, String> region = cache.<String, String>createRegionFactory(RegionShortcut.LOCAL)
+        .addCacheListener(new CacheListenerAdapter<String, String>() {
+          @Override
+          public void afterCreate(EntryEvent<String, String> event) {
+            lastEvent.set(event);
+          }
+        }).create("region");
+
+    assertThat(((LocalRegion) region).isEventIdNeededForPut()).isTrue();
+    region.put("key", "value");
+    assertThat(((EntryEventImpl) lastEvent.get()).getEventId()).isNotNull();
+  }
+
+  @Test
+  public void distributedRegionNeedsEventId() {
+    Region<String, String> region =
+        cache.<String, String>createRegionFactory(RegionShortcut.REPLICATE).create("region");
+
+    assertThat(((LocalRegion) region).isEventIdNeededForPut()).isTrue();
+  }
+
+  @Test
+  public void cacheServerMakesEventIdNeeded() {
+    Region<String, String> region =
+        cache.<String, String>createRegionFactory(RegionShortcut.LOCAL).create("region");
+
+    cache.addCacheServer();
+
+    assertThat(((LocalRegion) region).isEventIdNeededForPut()).isTrue();
+  }
+
+  @Test
+  public void eventIdsOfLonerShareMembershipId() {
+    EventID first = new EventID(cache.getDistributedSystem());
+    EventID second = new EventID(cache.getDistributedSystem());
+
+    assertThat(second.getMembershipID()).isSameAs(first.getMembershipID());
+  }
+}
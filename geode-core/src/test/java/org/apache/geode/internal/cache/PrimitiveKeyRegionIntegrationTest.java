@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.CacheTransactionManager;
+import org.apache.geode.cache.PartitionAttributesFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+/**
+ * Tests the get and put overloads for primitive keys of regions whose entries are kept in a
+ * {@link org.apache.geode.internal.util.concurrent.PrimitiveKeyConcurrentHashMap}.
+ */
+@Category(IntegrationTest.class)
+public class PrimitiveKeyRegionIntegrationTest {
+
+  private static final int TOTAL_NUMBER_OF_BUCKETS = 13;
+
+  private Cache cache;
+
+  @Before
+  public void setUp() {
+    cache = new CacheFactory().set("locators", "").set("mcast-port", "0").create();
+  }
+
+  @After
+  public void tearDown() {
+    cache.close();
+  }
+
+  @Test
+  public void longKeyedRegionGetsAndPutsPrimitiveKeys() {
+    LocalRegion region = createRegion(RegionShortcut.REPLICATE, Long.class);
+    assertThat(region.hasPrimitiveKeyMap(false)).isTrue();
+
+    region.put(1L, "one");
+    region.put(Long.valueOf(-2L), "minus two");
+    region.put(Long.MIN_VALUE, "min");
+
+    int gets = region.getCachePerfStats().getGets();
+    assertThat(region.get(1L)).isEqualTo("one");
+    assertThat(region.get(-2L)).isEqualTo("minus two");
+    assertThat(region.get(Long.MIN_VALUE)).isEqualTo("min");
+    assertThat(region.get(Long.valueOf(1L))).isEqualTo("one");
+    assertThat(region.getCachePerfStats().getGets()).isEqualTo(gets + 4);
+  }
+
+  @Test
+  public void integerKeyedRegionGetsAndPutsPrimitiveKeys() {
+    LocalRegion region = createRegion(RegionShortcut.REPLICATE, Integer.class);
+    assertThat(region.hasPrimitiveKeyMap(true)).isTrue();
+
+    region.put(1, "one");
+    region.put(Integer.valueOf(-2), "minus two");
+
+    assertThat(region.get(1)).isEqualTo("one");
+    assertThat(region.get(-2)).isEqualTo("minus two");
+    assertThat(region.get(Integer.valueOf(1))).isEqualTo("one");
+  }
+
+  @Test
+  public void missIsLoadedAndCountedAsMiss() {
+    LocalRegion region = createRegion(RegionShortcut.REPLICATE, Long.class);
+    region.getAttributesMutator().setCacheLoader(helper -> "loaded " + helper.getKey());
+    int misses = region.getCachePerfStats().getMisses();
+
+    assertThat(region.get(7L)).isEqualTo("loaded 7");
+
+    assertThat(region.getCachePerfStats().getMisses()).isEqualTo(misses + 1);
+    assertThat(region.get(7L)).isEqualTo("loaded 7");
+    assertThat(region.getCachePerfStats().getMisses()).isEqualTo(misses + 1);
+  }
+
+  @Test
+  public void missWithoutLoaderReturnsNull() {
+    LocalRegion region = createRegion(RegionShortcut.REPLICATE, Integer.class);
+
+    assertThat(region.get(7)).isNull();
+    assertThat(region.containsKey(7)).isFalse();
+  }
+
+  @Test
+  public void invalidEntryIsNullOrLoaded() {
+    LocalRegion region = createRegion(RegionShortcut.REPLICATE, Long.class);
+    region.put(1L, "one");
+    region.invalidate(1L);
+
+    assertThat(region.get(1L)).isNull();
+    assertThat(region.containsKey(1L)).isTrue();
+
+    region.getAttributesMutator().setCacheLoader(helper -> "loaded " + helper.getKey());
+    assertThat(region.get(1L)).isEqualTo("loaded 1");
+  }
+
+  @Test
+  public void destroyedEntryLeavesTombstoneThatIsNotReturned() {
+    LocalRegion region = createRegion(RegionShortcut.REPLICATE, Long.class);
+    region.put(1L, "one");
+    region.destroy(1L);
+
+    assertThat(region.getRegionEntry(1L).isTombstone()).isTrue();
+    assertThat(region.get(1L)).isNull();
+    assertThat(region.containsKey(1L)).isFalse();
+
+    region.put(1L, "one again");
+    assertThat(region.get(1L)).isEqualTo("one again");
+  }
+
+  @Test
+  public void getInTransactionSeesTransactionalState() {
+    LocalRegion region = createRegion(RegionShortcut.REPLICATE, Long.class);
+    region.put(1L, "one");
+    CacheTransactionManager transactionManager = cache.getCacheTransactionManager();
+
+    transactionManager.begin();
+    region.put(1L, "changed");
+    region.destroy(Long.valueOf(1L));
+    region.put(2L, "two");
+    assertThat(region.get(1L)).isNull();
+    assertThat(region.get(2L)).isEqualTo("two");
+    transactionManager.rollback();
+
+    assertThat(region.get(1L)).isEqualTo("one");
+    assertThat(region.get(2L)).isNull();
+
+    transactionManager.begin();
+    region.put(2L, "two");
+    transactionManager.commit();
+
+    assertThat(region.get(2L)).isEqualTo("two");
+  }
+
+  @Test
+  public void partitionedRegionRoutesLongKeysLikeBoxedKeys() {
+    PartitionedRegion region = createPartitionedRegion(Long.class);
+    long[] keys = {0, 1, -1, 12, -13, 1L << 32, -(1L << 32) - 5, Long.MAX_VALUE, Long.MIN_VALUE};
+
+    for (long key : keys) {
+      region.put(Long.valueOf(key), "value " + key);
+    }
+
+    for (long key : keys) {
+      int bucketId = PartitionedRegionHelper.getHashKey(region, Long.valueOf(key));
+      BucketRegion bucket = region.getDataStore().getLocalBucketById(bucketId);
+      assertThat(bucket.hasPrimitiveKeyMap(false)).isTrue();
+      assertThat(bucket.getLocalValueWithPrimitiveKey(key)).isEqualTo("value " + key);
+      assertThat(region.get(key)).isEqualTo("value " + key);
+    }
+  }
+
+  @Test
+  public void partitionedRegionRoutesIntegerKeysLikeBoxedKeys() {
+    PartitionedRegion region = createPartitionedRegion(Integer.class);
+    int[] keys = {0, 1, -1, 12, -13, Integer.MAX_VALUE, Integer.MIN_VALUE};
+
+    for (int key : keys) {
+      region.put(Integer.valueOf(key), "value " + key);
+    }
+
+    for (int key : keys) {
+      int bucketId = PartitionedRegionHelper.getHashKey(region, Integer.valueOf(key));
+      BucketRegion bucket = region.getDataStore().getLocalBucketById(bucketId);
+      assertThat(bucket.hasPrimitiveKeyMap(true)).isTrue();
+      assertThat(bucket.getLocalValueWithPrimitiveKey(key)).isEqualTo("value " + key);
+      assertThat(region.get(key)).isEqualTo("value " + key);
+    }
+  }
+
+  @Test
+  public void partitionedRegionMissIsLoaded() {
+    PartitionedRegion region = createPartitionedRegion(Long.class);
+    region.getAttributesMutator().setCacheLoader(helper -> "loaded " + helper.getKey());
+
+    assertThat(region.get(-5L)).isEqualTo("loaded -5");
+    assertThat(region.get(-5L)).isEqualTo("loaded -5");
+  }
+
+  private <K> LocalRegion createRegion(RegionShortcut shortcut, Class<K> keyConstraint) {
+    Region<K, Object> region = cache.<K, Object>createRegionFactory(shortcut)
+        .setKeyConstraint(keyConstraint).create("region");
+    return (LocalRegion) region;
+  }
+
+  private <K> PartitionedRegion createPartitionedRegion(Class<K> keyConstraint) {
+    Region<K, Object> region = cache.<K, Object>createRegionFactory(RegionShortcut.PARTITION)
+        .setKeyConstraint(keyConstraint)
+        .setPartitionAttributes(new PartitionAttributesFactory<K, Object>()
+            .setTotalNumBuckets(TOTAL_NUMBER_OF_BUCKETS).create())
+        .create("region");
+    return (PartitionedRegion) region;
+  }
+}
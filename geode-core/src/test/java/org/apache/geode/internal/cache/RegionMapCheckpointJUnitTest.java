@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.File;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+
+import org.apache.geode.internal.cache.persistence.DiskStoreID;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class RegionMapCheckpointJUnitTest {
+  private static final long ACTIVE_OPLOG_ID = 10;
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private File file;
+  private DiskStoreID diskStoreId;
+  private Flushable newerOplogs;
+
+  @Before
+  public void setUp() throws Exception {
+    file = RegionMapCheckpoint.getFile(temporaryFolder.getRoot(), "testDiskStore");
+    diskStoreId = DiskStoreID.random();
+    newerOplogs = mock(Flushable.class);
+    Oplog checkpointed = createOplog(3, new byte[] {1, 2, 3}, 100);
+    Oplog notCheckpointed = createOplog(5, null, -1);
+    assertThat(RegionMapCheckpoint.write(file, diskStoreId, ACTIVE_OPLOG_ID,
+        Arrays.asList(checkpointed, notCheckpointed), newerOplogs)).isEqualTo(1);
+  }
+
+  @Test
+  public void flushesNewerOplogsBeforeInstallingCheckpoint() throws Exception {
+    verify(newerOplogs).flush();
+  }
+
+  @Test
+  public void doesNotReplaceCheckpointIfNewerOplogsCannotBeFlushed() throws Exception {
+    doThrow(new IOException("flush failed")).when(newerOplogs).flush();
+    assertThatThrownBy(() -> RegionMapCheckpoint.write(file, diskStoreId, ACTIVE_OPLOG_ID + 1,
+        Arrays.asList(createOplog(3, new byte[] {4}, 100)), newerOplogs))
+            .isInstanceOf(IOException.class);
+
+    RegionMapCheckpoint checkpoint = RegionMapCheckpoint.read(file, diskStoreId, ACTIVE_OPLOG_ID);
+    try {
+      assertThat(readAll(checkpoint.getKrf(3, 100))).containsExactly(1, 2, 3);
+    } finally {
+      checkpoint.close();
+    }
+  }
+
+  @Test
+  public void readsTheKrfsThatWereWritten() throws Exception {
+    RegionMapCheckpoint checkpoint = RegionMapCheckpoint.read(file, diskStoreId, ACTIVE_OPLOG_ID);
+    try {
+      assertThat(readAll(checkpoint.getKrf(3, 100))).containsExactly(1, 2, 3);
+      assertThat(checkpoint.getKrf(5, 100)).isNull();
+    } finally {
+      checkpoint.close();
+    }
+  }
+
+  @Test
+  public void doesNotReturnKrfCopiedFromKrfWithAnotherLength() throws Exception {
+    RegionMapCheckpoint checkpoint =
+        RegionMapCheckpoint.read(file, diskStoreId, ACTIVE_OPLOG_ID + 1);
+    try {
+      assertThat(checkpoint.getKrf(3, 101)).isNull();
+    } finally {
+      checkpoint.close();
+    }
+  }
+
+  @Test
+  public void isNotUsedByAnotherDiskStore() throws Exception {
+    assertThat(RegionMapCheckpoint.read(file, DiskStoreID.random(), ACTIVE_OPLOG_ID)).isNull();
+  }
+
+  @Test
+  public void isNotUsedWithoutTheOplogThatWasBeingWrittenTo() throws Exception {
+    assertThat(RegionMapCheckpoint.read(file, diskStoreId, ACTIVE_OPLOG_ID - 1)).isNull();
+  }
+
+  @Test
+  public void isNotUsedIfTruncated() throws Exception {
+    try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+      raf.setLength(raf.length() - 1);
+    }
+    assertThat(RegionMapCheckpoint.read(file, diskStoreId, ACTIVE_OPLOG_ID)).isNull();
+  }
+
+  @Test
+  public void isNotReadIfMissing() throws Exception {
+    assertThat(file.delete()).isTrue();
+    assertThat(RegionMapCheckpoint.read(file, diskStoreId, ACTIVE_OPLOG_ID)).isNull();
+  }
+
+  private Oplog createOplog(long oplogId, byte[] krf, long krfLength) throws IOException {
+    Oplog oplog = mock(Oplog.class);
+    when(oplog.getOplogId()).thenReturn(oplogId);
+    when(oplog.writeCheckpointedKrf(any(DataOutput.class))).thenAnswer(invocation -> {
+      if (krf != null) {
+        ((DataOutput) invocation.getArguments()[0]).write(krf);
+      }
+      return krfLength;
+    });
+    return oplog;
+  }
+
+  private byte[] readAll(ByteBuffer krf) throws IOException {
+    byte[] result = new byte[krf.remaining()];
+    new DataInputStream(RegionMapCheckpoint.newInputStream(krf)).readFully(result);
+    return result;
+  }
+}
@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.control;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.contrib.java.lang.system.RestoreSystemProperties;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.internal.cache.control.InternalResourceManager.ResourceType;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+@Category(IntegrationTest.class)
+public class PredictiveHeapEvictionIntegrationTest {
+
+  @Rule
+  public RestoreSystemProperties restoreSystemProperties = new RestoreSystemProperties();
+
+  private InternalCache cache;
+  private InternalResourceManager resourceManager;
+  private HeapMemoryMonitor heapMonitor;
+  private final List<MemoryEvent> events = new CopyOnWriteArrayList<>();
+
+  @Before
+  public void setUp() {
+    System.setProperty(HeapMemoryMonitor.PREDICTION_HORIZON_PROP, "60000");
+    cache = (InternalCache) new CacheFactory().set("locators", "").set("mcast-port", "0").create();
+    resourceManager = cache.getInternalResourceManager();
+    heapMonitor = resourceManager.getHeapMonitor();
+    HeapMemoryMonitor.setTestDisableMemoryUpdates(true);
+    heapMonitor.setTestMaxMemoryBytes(1000);
+    HeapMemoryMonitor.setTestBytesUsedForThresholdSet(100);
+    resourceManager.setEvictionHeapPercentage(80f);
+    resourceManager.addResourceListener(ResourceType.HEAP_MEMORY,
+        event -> events.add((MemoryEvent) event));
+  }
+
+  @After
+  public void tearDown() {
+    HeapMemoryMonitor.setTestDisableMemoryUpdates(false);
+    HeapMemoryMonitor.setTestBytesUsedForThresholdSet(-1);
+    cache.close();
+  }
+
+  @Test
+  public void noEventsWhileUsageIsSteady() throws Exception {
+    sampleEvery10Millis(100, 100, 100);
+
+    assertThat(events).isEmpty();
+    assertThat(heapMonitor.mustEvict()).isFalse();
+    assertThat(resourceManager.getStats().getTenuringRate()).isZero();
+  }
+
+  @Test
+  public void growingUsageStartsEvictionBelowTheThreshold() throws Exception {
+    sampleEvery10Millis(100, 200);
+
+    assertThat(heapMonitor.getState().isEviction()).isFalse();
+    assertThat(heapMonitor.mustEvict()).isTrue();
+    assertThat(events).hasSize(1);
+    MemoryEvent event = events.get(0);
+    assertThat(event.getState().isNormal()).isTrue();
+    assertThat(event.getBytesUsed()).isEqualTo(200);
+    assertThat(event.getProjectedBytesUsed())
+        .isGreaterThanOrEqualTo(event.getThresholds().getEvictionThresholdBytes());
+    assertThat(resourceManager.getStats().getPredictedEvictionStartEvents()).isOne();
+    assertThat(resourceManager.getStats().getTenuringRate()).isPositive();
+    assertThat(resourceManager.getStats().getProjectedTenuredHeapUsed())
+        .isEqualTo(event.getProjectedBytesUsed());
+    assertThat(resourceManager.getStats().getEvictionStartEvents()).isZero();
+  }
+
+  @Test
+  public void predictionEndsOnceUsageStopsGrowing() throws Exception {
+    sampleEvery10Millis(100, 200);
+
+    long[] steady = new long[40];
+    Arrays.fill(steady, 200);
+    sampleEvery10Millis(steady);
+
+    assertThat(heapMonitor.mustEvict()).isFalse();
+    MemoryEvent last = events.get(events.size() - 1);
+    assertThat(last.getState().isNormal()).isTrue();
+    assertThat(last.getProjectedBytesUsed())
+        .isLessThan(last.getThresholds().getEvictionThresholdBytes());
+    assertThat(resourceManager.getStats().getPredictedEvictionStartEvents()).isOne();
+  }
+
+  @Test
+  public void crossingTheThresholdSendsTheUsualEvictionEvent() throws Exception {
+    sampleEvery10Millis(100, 200, 850);
+
+    assertThat(heapMonitor.getState().isEviction()).isTrue();
+    assertThat(heapMonitor.mustEvict()).isTrue();
+    assertThat(events.get(events.size() - 1).getState().isEviction()).isTrue();
+    assertThat(resourceManager.getStats().getEvictionStartEvents()).isOne();
+  }
+
+  @Test
+  public void predictionContinuesAfterDroppingBelowTheThresholdUntilUsageStopsGrowing()
+      throws Exception {
+    sampleEvery10Millis(100, 200, 850, 700);
+
+    assertThat(heapMonitor.getState().isNormal()).isTrue();
+    MemoryEvent normal = events.get(events.size() - 1);
+    assertThat(normal.getPreviousState().isEviction()).isTrue();
+    assertThat(normal.getProjectedBytesUsed())
+        .isGreaterThanOrEqualTo(normal.getThresholds().getEvictionThresholdBytes());
+    assertThat(heapMonitor.mustEvict()).isTrue();
+
+    long[] steady = new long[40];
+    Arrays.fill(steady, 700);
+    sampleEvery10Millis(steady);
+
+    assertThat(heapMonitor.mustEvict()).isFalse();
+    MemoryEvent last = events.get(events.size() - 1);
+    assertThat(last.getState().isNormal()).isTrue();
+    assertThat(last.getProjectedBytesUsed())
+        .isLessThan(last.getThresholds().getEvictionThresholdBytes());
+  }
+
+  private void sampleEvery10Millis(long... bytesUsed) throws InterruptedException {
+    for (long sample : bytesUsed) {
+      Thread.sleep(10);
+      heapMonitor.updateStateAndSendEvent(sample);
+    }
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.control;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class TenuringRateTest {
+
+  private final TenuringRate tenuringRate = new TenuringRate();
+
+  @Test
+  public void rateIsZeroBeforeUsageGrows() {
+    tenuringRate.sample(1000, 0);
+    tenuringRate.sample(1000, 1000);
+
+    assertThat(tenuringRate.getBytesPerSecond()).isZero();
+    assertThat(tenuringRate.project(1000, 60000)).isEqualTo(1000);
+  }
+
+  @Test
+  public void rateFollowsGrowth() {
+    long bytesUsed = 0;
+    for (int second = 0; second < 50; second++) {
+      tenuringRate.sample(bytesUsed, second * 1000);
+      bytesUsed += 1000;
+    }
+
+    assertThat(tenuringRate.getBytesPerSecond()).isBetween(990L, 1000L);
+    assertThat(tenuringRate.project(5000, 2000)).isBetween(6980L, 7000L);
+  }
+
+  @Test
+  public void singleBurstIsSmoothed() {
+    tenuringRate.sample(0, 0);
+    tenuringRate.sample(10000, 1000);
+
+    assertThat(tenuringRate.getBytesPerSecond()).isEqualTo(3000);
+  }
+
+  @Test
+  public void collectionOnlyMovesTheBaseline() {
+    tenuringRate.sample(0, 0);
+    tenuringRate.sample(10000, 1000);
+    long rate = tenuringRate.getBytesPerSecond();
+
+    tenuringRate.sample(2000, 2000);
+    assertThat(tenuringRate.getBytesPerSecond()).isEqualTo(rate);
+
+    tenuringRate.sample(2000 + rate, 3000);
+    assertThat(tenuringRate.getBytesPerSecond()).isEqualTo(rate);
+  }
+
+  @Test
+  public void rateDecaysWhenUsageStopsGrowing() {
+    tenuringRate.sample(0, 0);
+    tenuringRate.sample(10000, 1000);
+
+    for (int second = 2; second < 30; second++) {
+      tenuringRate.sample(10000, second * 1000);
+    }
+
+    assertThat(tenuringRate.getBytesPerSecond()).isZero();
+  }
+
+  @Test
+  public void growthAtTheSameTimeIsCountedWithTheNextSample() {
+    tenuringRate.sample(0, 0);
+    tenuringRate.sample(10000, 0);
+    assertThat(tenuringRate.getBytesPerSecond()).isZero();
+
+    tenuringRate.sample(10000, 1000);
+    assertThat(tenuringRate.getBytesPerSecond()).isEqualTo(3000);
+  }
+}
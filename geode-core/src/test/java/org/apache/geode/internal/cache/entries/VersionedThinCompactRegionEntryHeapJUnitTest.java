@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.entries;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.cache.RegionEntryContext;
+import org.apache.geode.internal.cache.persistence.DiskStoreID;
+import org.apache.geode.internal.cache.versions.DiskVersionTag;
+import org.apache.geode.internal.cache.versions.VersionTag;
+import org.apache.geode.internal.size.ReflectionSingleObjectSizer;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class VersionedThinCompactRegionEntryHeapJUnitTest {
+
+  private final RegionEntryContext context = mock(RegionEntryContext.class);
+
+  @Test
+  public void versionTagRoundTripsThroughPackedFields() {
+    VersionedThinCompactRegionEntryHeapIntKey entry =
+        new VersionedThinCompactRegionEntryHeapIntKey(context, 1, "value");
+    DiskStoreID member = new DiskStoreID(7, 11);
+    DiskVersionTag tag = new DiskVersionTag();
+    tag.setMemberID(member);
+    tag.setEntryVersion(0xABCDEF);
+    tag.setRegionVersion((short) 0x1234, 0x89ABCDEF);
+    tag.setDistributedSystemId(-3);
+    tag.setVersionTimeStamp(123456789L);
+
+    entry.setVersions(tag);
+
+    assertThat(entry.getEntryVersion()).isEqualTo(0xABCDEF);
+    assertThat(entry.getRegionVersion()).isEqualTo(0x123489ABCDEFL);
+    assertThat(entry.getRegionVersionHighBytes()).isEqualTo((short) 0x1234);
+    assertThat(entry.getRegionVersionLowBytes()).isEqualTo(0x89ABCDEF);
+    assertThat(entry.getMemberID()).isEqualTo(member);
+    assertThat(entry.getDistributedSystemId()).isEqualTo(-3);
+    assertThat(entry.getVersionTimeStamp()).isEqualTo(123456789L);
+
+    VersionTag copy = entry.asVersionTag();
+    assertThat(copy.getEntryVersion()).isEqualTo(0xABCDEF);
+    assertThat(copy.getRegionVersion()).isEqualTo(0x123489ABCDEFL);
+    assertThat(copy.getMemberID()).isEqualTo(member);
+    assertThat(copy.getDistributedSystemId()).isEqualTo(-3);
+  }
+
+  @Test
+  public void setMemberIDKeepsDistributedSystemIdAndVersions() {
+    VersionedThinCompactRegionEntryHeapObjectKey entry =
+        new VersionedThinCompactRegionEntryHeapObjectKey(context, "key", "value");
+    DiskVersionTag tag = new DiskVersionTag();
+    tag.setMemberID(new DiskStoreID(1, 2));
+    tag.setEntryVersion(0x10001);
+    tag.setRegionVersion(42);
+    tag.setDistributedSystemId(5);
+    entry.setVersions(tag);
+    DiskStoreID other = new DiskStoreID(3, 4);
+
+    entry.setMemberID(other);
+
+    assertThat(entry.getMemberID()).isEqualTo(other);
+    assertThat(entry.getDistributedSystemId()).isEqualTo(5);
+    assertThat(entry.getEntryVersion()).isEqualTo(0x10001);
+    assertThat(entry.getRegionVersion()).isEqualTo(42);
+  }
+
+  @Test
+  public void newEntryHasNoVersion() {
+    VersionedThinCompactRegionEntryHeapObjectKey entry =
+        new VersionedThinCompactRegionEntryHeapObjectKey(context, "key", "value");
+
+    assertThat(entry.getEntryVersion()).isZero();
+    assertThat(entry.getRegionVersion()).isZero();
+    assertThat(entry.getMemberID()).isNull();
+    assertThat(entry.getDistributedSystemId()).isZero();
+  }
+
+  @Test
+  public void compactEntryIsSmallerThanVersionedThinEntry() {
+    long compactSize =
+        ReflectionSingleObjectSizer.sizeof(VersionedThinCompactRegionEntryHeapObjectKey.class);
+    long size = ReflectionSingleObjectSizer.sizeof(VersionedThinRegionEntryHeapObjectKey.class);
+
+    assertThat(compactSize).isLessThan(size);
+  }
+}
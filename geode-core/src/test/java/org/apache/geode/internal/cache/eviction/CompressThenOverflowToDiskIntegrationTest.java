@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import org.junit.rules.TestName;
+
+import org.apache.geode.Statistics;
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.EvictionAction;
+import org.apache.geode.cache.EvictionAlgorithm;
+import org.apache.geode.cache.EvictionAttributes;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.internal.cache.EvictionAttributesImpl;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.VMLRURegionMap;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+@Category(IntegrationTest.class)
+public class CompressThenOverflowToDiskIntegrationTest {
+
+  private static final int MAXIMUM_MEGABYTES = 1;
+  private static final int VALUE_SIZE = 10 * 1024;
+  private static final int ENTRIES = 300;
+
+  @Rule
+  public TestName testName = new TestName();
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private Cache cache;
+  private Region<Integer, Object> region;
+  private Statistics statistics;
+
+  @Before
+  public void setUp() throws Exception {
+    cache = new CacheFactory().set("locators", "").set("mcast-port", "0").create();
+    File diskDir = temporaryFolder.newFolder();
+    cache.createDiskStoreFactory().setDiskDirs(new File[] {diskDir})
+        .create(testName.getMethodName());
+    region = cache.<Integer, Object>createRegionFactory(RegionShortcut.LOCAL)
+        .setDiskStoreName(testName.getMethodName())
+        .setEvictionAttributes(EvictionAttributes.createLRUMemoryAttributes(MAXIMUM_MEGABYTES,
+            null, EvictionAction.COMPRESS_THEN_OVERFLOW_TO_DISK))
+        .create(testName.getMethodName());
+    statistics = ((VMLRURegionMap) ((LocalRegion) region).getRegionMap()).getEvictionList()
+        .getStatistics().getStatistics();
+  }
+
+  @After
+  public void tearDown() {
+    cache.close();
+  }
+
+  @Test
+  public void compressibleValuesAreCompressedBeforeTheyOverflow() {
+    for (int i = 0; i < ENTRIES; i++) {
+      region.put(i, compressibleValue(i));
+    }
+
+    assertThat(statistics.getLong("compressions")).isGreaterThan(0);
+    assertThat(statistics.getLong("postCompressedBytes"))
+        .isLessThan(statistics.getLong("preCompressedBytes"));
+    assertThat(statistics.getLong("lruEvictions")).isGreaterThan(0);
+    assertThat(countValuesInMemory(CompressedEvictedValue.class)).isGreaterThan(0);
+    assertThat(statistics.getLong("byteCount"))
+        .isLessThanOrEqualTo(MAXIMUM_MEGABYTES * 1024 * 1024);
+  }
+
+  @Test
+  public void compressedValuesAreKeptInMemoryInsteadOfOverflowing() {
+    for (int i = 0; i < ENTRIES; i++) {
+      region.put(i, compressibleValue(i));
+    }
+
+    int inMemory = ENTRIES - countValuesInMemory(null);
+    assertThat(inMemory).isGreaterThan(MAXIMUM_MEGABYTES * 1024 * 1024 / VALUE_SIZE);
+  }
+
+  @Test
+  public void compressedAndOverflowedValuesAreReadBack() {
+    for (int i = 0; i < ENTRIES; i++) {
+      region.put(i, compressibleValue(i));
+    }
+    long decompressions = statistics.getLong("decompressions");
+
+    for (int i = 0; i < ENTRIES; i++) {
+      assertThat(region.get(i)).isEqualTo(compressibleValue(i));
+    }
+
+    assertThat(statistics.getLong("decompressions")).isGreaterThan(decompressions);
+  }
+
+  @Test
+  public void valuesThatDoNotGetSmallerOverflowWithoutBeingCompressed() {
+    Random random = new Random(1);
+    byte[][] values = new byte[ENTRIES][];
+    for (int i = 0; i < ENTRIES; i++) {
+      values[i] = new byte[VALUE_SIZE];
+      random.nextBytes(values[i]);
+      region.put(i, values[i]);
+    }
+
+    assertThat(countValuesInMemory(CompressedEvictedValue.class)).isZero();
+    assertThat(countValuesInMemory(null)).isGreaterThan(0);
+    for (int i = 0; i < ENTRIES; i++) {
+      assertThat((byte[]) region.get(i)).isEqualTo(values[i]);
+    }
+  }
+
+  @Test
+  public void lifoEvictionOverflowsWithoutCompressing() {
+    region = cache.<Integer, Object>createRegionFactory(RegionShortcut.LOCAL)
+        .setDiskStoreName(testName.getMethodName())
+        .setEvictionAttributes(new EvictionAttributesImpl()
+            .setAlgorithm(EvictionAlgorithm.LIFO_MEMORY).setMaximum(MAXIMUM_MEGABYTES)
+            .setAction(EvictionAction.COMPRESS_THEN_OVERFLOW_TO_DISK))
+        .create(testName.getMethodName() + "Lifo");
+    statistics = ((VMLRURegionMap) ((LocalRegion) region).getRegionMap()).getEvictionList()
+        .getStatistics().getStatistics();
+
+    for (int i = 0; i < ENTRIES; i++) {
+      region.put(i, compressibleValue(i));
+    }
+
+    assertThat(statistics.getLong("compressions")).isZero();
+    assertThat(countValuesInMemory(CompressedEvictedValue.class)).isZero();
+    assertThat(countValuesInMemory(null)).isGreaterThan(0);
+  }
+
+  private static String compressibleValue(int i) {
+    char[] chars = new char[VALUE_SIZE / 2];
+    Arrays.fill(chars, (char) ('a' + i % 26));
+    return i + new String(chars);
+  }
+
+  /**
+   * Counts the entries whose value in memory is an instance of the given class, or null
+   */
+  private int countValuesInMemory(Class<?> valueClass) {
+    int count = 0;
+    for (int i = 0; i < ENTRIES; i++) {
+      Object value = ((LocalRegion) region).getRegionEntry(i).getValue();
+      if (valueClass == null ? value == null : valueClass.isInstance(value)) {
+        count++;
+      }
+    }
+    return count;
+  }
+}
@@ -14,11 +14,15 @@
  */
 package org.apache.geode.internal.cache.eviction;
 
+import static org.apache.geode.internal.lang.SystemPropertyHelper.EVICTION_LIST_SHARDS;
+import static org.apache.geode.internal.lang.SystemPropertyHelper.EVICTION_SAMPLE_SIZE;
 import static org.apache.geode.internal.lang.SystemPropertyHelper.EVICTION_SCAN_ASYNC;
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.util.Collections;
+
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -31,9 +35,12 @@ import org.apache.geode.test.junit.categories.UnitTest;
 @Category(UnitTest.class)
 public class EvictionListBuilderTest {
   private static final String EVICTION_PROPERTY_NAME = "geode." + EVICTION_SCAN_ASYNC;
+  private static final String SAMPLE_SIZE_PROPERTY_NAME = "geode." + EVICTION_SAMPLE_SIZE;
+  private static final String SHARDS_PROPERTY_NAME = "geode." + EVICTION_LIST_SHARDS;
 
   @Rule
-  public ClearSystemProperties clearProperties = new ClearSystemProperties(EVICTION_PROPERTY_NAME);
+  public ClearSystemProperties clearProperties = new ClearSystemProperties(EVICTION_PROPERTY_NAME,
+      SAMPLE_SIZE_PROPERTY_NAME, SHARDS_PROPERTY_NAME);
 
   private EvictionListBuilder builder;
   private EvictionController controller;
@@ -55,6 +62,13 @@ public class EvictionListBuilderTest {
     assertThat(builder.create()).isInstanceOf(LIFOList.class);
   }
 
+  @Test
+  public void createsTinyLFUListWhenAlgorithmIsTinyLFU() {
+    when(controller.getEvictionAlgorithm()).thenReturn(EvictionAlgorithm.TINY_LFU_ENTRY);
+
+    assertThat(builder.create()).isInstanceOf(TinyLFUList.class);
+  }
+
   @Test
   public void createsAsyncLruByDefault() {
 
@@ -77,4 +91,36 @@ public class EvictionListBuilderTest {
     assertThat(builder.create()).isInstanceOf(LRUListWithSyncSorting.class);
 
   }
+
+  @Test
+  public void createsSampledListWhenSampleSizeIsConfigured() {
+    System.setProperty(SAMPLE_SIZE_PROPERTY_NAME, "5");
+    builder = new EvictionListBuilder(controller, () -> Collections.emptyIterator());
+
+    assertThat(builder.create()).isInstanceOf(SampledEvictionList.class);
+  }
+
+  @Test
+  public void sampleSizeIsIgnoredWithoutEntriesToSample() {
+    System.setProperty(SAMPLE_SIZE_PROPERTY_NAME, "5");
+    builder = new EvictionListBuilder(controller);
+
+    assertThat(builder.create()).isInstanceOf(LRUListWithAsyncSorting.class);
+  }
+
+  @Test
+  public void createsShardedListWhenShardsAreConfigured() {
+    System.setProperty(SHARDS_PROPERTY_NAME, "4");
+    builder = new EvictionListBuilder(controller);
+
+    assertThat(builder.create()).isInstanceOf(ShardedEvictionList.class);
+  }
+
+  @Test
+  public void createsAsyncLruWhenOneShardIsConfigured() {
+    System.setProperty(SHARDS_PROPERTY_NAME, "1");
+    builder = new EvictionListBuilder(controller);
+
+    assertThat(builder.create()).isInstanceOf(LRUListWithAsyncSorting.class);
+  }
 }
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class FrequencySketchTest {
+
+  @Test
+  public void emptySketchCountsNothing() {
+    FrequencySketch sketch = new FrequencySketch();
+
+    sketch.increment(1);
+
+    assertThat(sketch.frequency(1)).isZero();
+  }
+
+  @Test
+  public void countsIncrements() {
+    FrequencySketch sketch = new FrequencySketch();
+    sketch.ensureCapacity(100);
+
+    for (int i = 0; i < 5; i++) {
+      sketch.increment("hot".hashCode());
+    }
+    sketch.increment("cold".hashCode());
+
+    assertThat(sketch.frequency("hot".hashCode())).isEqualTo(5);
+    assertThat(sketch.frequency("cold".hashCode())).isEqualTo(1);
+    assertThat(sketch.frequency("unseen".hashCode())).isZero();
+  }
+
+  @Test
+  public void countersSaturateAtFifteen() {
+    FrequencySketch sketch = new FrequencySketch();
+    sketch.ensureCapacity(100);
+
+    for (int i = 0; i < 20; i++) {
+      sketch.increment(42);
+    }
+
+    assertThat(sketch.frequency(42)).isEqualTo(15);
+  }
+
+  @Test
+  public void countersAreHalvedAfterSampleSizeIncrements() {
+    FrequencySketch sketch = new FrequencySketch();
+    sketch.ensureCapacity(16);
+    for (int i = 0; i < 8; i++) {
+      sketch.increment(-1);
+    }
+    assertThat(sketch.frequency(-1)).isEqualTo(8);
+
+    // ten times the capacity increments trigger a reset
+    for (int i = 0; i < 160; i++) {
+      sketch.increment(i);
+    }
+
+    assertThat(sketch.frequency(-1)).isLessThan(8);
+  }
+}
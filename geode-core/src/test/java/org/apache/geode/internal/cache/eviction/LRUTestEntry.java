@@ -42,6 +42,7 @@ class LRUTestEntry implements EvictableEntry {
   private int size;
   private boolean recentlyUsed;
   private boolean evicted;
+  private long lastModified;
 
   public LRUTestEntry(int id) {
     this.id = id;
@@ -75,7 +76,7 @@ class LRUTestEntry implements EvictableEntry {
 
   @Override
   public Object getKey() {
-    return null;
+    return id;
   }
 
   @Override
@@ -312,7 +313,11 @@ class LRUTestEntry implements EvictableEntry {
 
   @Override
   public long getLastModified() {
-    return 0;
+    return lastModified;
+  }
+
+  public void setLastModified(long lastModified) {
+    this.lastModified = lastModified;
   }
 
   @Override
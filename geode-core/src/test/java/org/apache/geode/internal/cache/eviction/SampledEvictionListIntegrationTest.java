@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.contrib.java.lang.system.RestoreSystemProperties;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TestName;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.EvictionAction;
+import org.apache.geode.cache.EvictionAttributes;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.VMLRURegionMap;
+import org.apache.geode.internal.lang.SystemPropertyHelper;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+@Category(IntegrationTest.class)
+public class SampledEvictionListIntegrationTest {
+
+  private static final int MAXIMUM = 100;
+
+  @Rule
+  public TestName testName = new TestName();
+
+  @Rule
+  public RestoreSystemProperties restoreSystemProperties = new RestoreSystemProperties();
+
+  private Cache cache;
+  private Region<Integer, String> region;
+  private EvictionList evictionList;
+
+  @Before
+  public void setUp() {
+    System.setProperty("geode." + SystemPropertyHelper.EVICTION_SAMPLE_SIZE, "5");
+    cache = new CacheFactory().set("locators", "").set("mcast-port", "0").create();
+    region = cache.<Integer, String>createRegionFactory(RegionShortcut.LOCAL)
+        .setEvictionAttributes(
+            EvictionAttributes.createLRUEntryAttributes(MAXIMUM, EvictionAction.LOCAL_DESTROY))
+        .create(testName.getMethodName());
+    evictionList = ((VMLRURegionMap) ((LocalRegion) region).getRegionMap()).getEvictionList();
+  }
+
+  @After
+  public void tearDown() {
+    cache.close();
+  }
+
+  @Test
+  public void regionUsesSampledEvictionList() {
+    assertThat(evictionList).isInstanceOf(SampledEvictionList.class);
+  }
+
+  @Test
+  public void regionIsKeptAtItsLimit() {
+    for (int i = 0; i < 10 * MAXIMUM; i++) {
+      region.put(i, "value");
+    }
+
+    assertThat(region.size()).isEqualTo(MAXIMUM);
+    assertThat(evictionList.size()).isEqualTo(MAXIMUM);
+    assertThat(region.containsKey(10 * MAXIMUM - 1)).isTrue();
+  }
+
+  @Test
+  public void destroyedEntriesLeaveTheList() {
+    region.put(1, "one");
+    region.put(2, "two");
+
+    region.destroy(1);
+
+    assertThat(evictionList.size()).isOne();
+  }
+
+  @Test
+  public void usedEntriesAreKeptOverUnusedEntries() {
+    for (int i = 0; i < MAXIMUM; i++) {
+      region.put(i, "value");
+    }
+    for (int i = MAXIMUM; i < 3 * MAXIMUM; i++) {
+      for (int hotKey = 0; hotKey < 10; hotKey++) {
+        region.get(hotKey);
+      }
+      region.put(i, "value");
+    }
+
+    long kept = region.keySet().stream().filter(key -> key < 10).count();
+    assertThat(kept).isGreaterThan(5);
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.cache.RegionEntryContext;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class SampledEvictionListTest {
+
+  private EvictionController controller;
+  private EvictionCounters counters;
+  private List<LRUTestEntry> entries;
+
+  @Before
+  public void setup() {
+    controller = mock(EvictionController.class);
+    counters = mock(EvictionCounters.class);
+    when(controller.getCounters()).thenReturn(counters);
+    entries = new ArrayList<>();
+  }
+
+  private SampledEvictionList createList(int sampleSize) {
+    return new SampledEvictionList(controller, () -> entries.iterator(), sampleSize);
+  }
+
+  private LRUTestEntry addEntry(SampledEvictionList list, int id, long lastModified) {
+    LRUTestEntry entry = new LRUTestEntry(id);
+    entry.setLastModified(lastModified);
+    entries.add(entry);
+    list.appendEntry(entry);
+    return entry;
+  }
+
+  @Test
+  public void evictingFromEmptyListReturnsNull() {
+    SampledEvictionList list = createList(5);
+
+    assertThat(list.getEvictableEntry()).isNull();
+  }
+
+  @Test
+  public void appendingAnEntryTwiceCountsItOnce() {
+    SampledEvictionList list = createList(5);
+    LRUTestEntry entry = addEntry(list, 1, 0);
+
+    list.appendEntry(entry);
+
+    assertThat(list.size()).isOne();
+  }
+
+  @Test
+  public void evictsOldestOfTheSampledEntries() {
+    SampledEvictionList list = createList(3);
+    addEntry(list, 1, 300);
+    LRUTestEntry oldest = addEntry(list, 2, 100);
+    addEntry(list, 3, 200);
+
+    assertThat(list.getEvictableEntry()).isSameAs(oldest);
+    assertThat(list.size()).isEqualTo(2);
+  }
+
+  @Test
+  public void prefersEntriesThatWereNotRecentlyUsed() {
+    SampledEvictionList list = createList(3);
+    LRUTestEntry used = addEntry(list, 1, 100);
+    LRUTestEntry notUsed = addEntry(list, 2, 200);
+    used.setRecentlyUsed(mock(RegionEntryContext.class));
+
+    assertThat(list.getEvictableEntry()).isSameAs(notUsed);
+    assertThat(used.isRecentlyUsed()).isFalse();
+  }
+
+  @Test
+  public void onlySamplesTheGivenNumberOfEntriesFromWhereItLastStopped() {
+    SampledEvictionList list = createList(2);
+    LRUTestEntry first = addEntry(list, 1, 400);
+    LRUTestEntry second = addEntry(list, 2, 300);
+    LRUTestEntry third = addEntry(list, 3, 200);
+    LRUTestEntry fourth = addEntry(list, 4, 100);
+
+    assertThat(list.getEvictableEntry()).isSameAs(second);
+    assertThat(list.getEvictableEntry()).isSameAs(fourth);
+    assertThat(list.getEvictableEntry()).isSameAs(third);
+    assertThat(list.getEvictableEntry()).isSameAs(first);
+    assertThat(list.getEvictableEntry()).isNull();
+  }
+
+  @Test
+  public void doesNotEvictDestroyedOrEvictedEntries() {
+    SampledEvictionList list = createList(5);
+    LRUTestEntry destroyed = addEntry(list, 1, 100);
+    LRUTestEntry evicted = addEntry(list, 2, 200);
+    LRUTestEntry entry = addEntry(list, 3, 300);
+
+    list.destroyEntry(destroyed);
+    evicted.setEvicted();
+
+    assertThat(list.getEvictableEntry()).isSameAs(entry);
+    assertThat(list.getEvictableEntry()).isNull();
+  }
+
+  @Test
+  public void clearEmptiesTheList() {
+    SampledEvictionList list = createList(5);
+    addEntry(list, 1, 100);
+
+    list.clear(null, null);
+
+    assertThat(list.size()).isZero();
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.cache.RegionEntryContext;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class ShardedEvictionListTest {
+
+  private static final int SHARDS = 4;
+
+  private EvictionController controller;
+  private ShardedEvictionList list;
+
+  @Before
+  public void setup() {
+    controller = mock(EvictionController.class);
+    when(controller.getCounters()).thenReturn(mock(EvictionCounters.class));
+    list = new ShardedEvictionList(controller, SHARDS);
+  }
+
+  @Test
+  public void evictingFromEmptyListReturnsNull() {
+    assertThat(list.getEvictableEntry()).isNull();
+  }
+
+  @Test
+  public void sizeIsTheSumOfTheShards() {
+    LRUTestEntry entry = new LRUTestEntry(0);
+    list.appendEntry(entry);
+    list.appendEntry(entry);
+    for (int i = 1; i < 100; i++) {
+      list.appendEntry(new LRUTestEntry(i));
+    }
+
+    assertThat(list.size()).isEqualTo(100);
+  }
+
+  @Test
+  public void evictsEveryEntryOnce() {
+    for (int i = 0; i < 100; i++) {
+      list.appendEntry(new LRUTestEntry(i));
+    }
+
+    Set<Integer> evicted = new HashSet<>();
+    for (int i = 0; i < 100; i++) {
+      LRUTestEntry entry = (LRUTestEntry) list.getEvictableEntry();
+      assertThat(evicted.add(entry.id())).isTrue();
+    }
+
+    assertThat(list.getEvictableEntry()).isNull();
+    assertThat(list.size()).isZero();
+  }
+
+  @Test
+  public void evictsUnusedEntriesBeforeRecentlyUsedEntries() {
+    RegionEntryContext context = mock(RegionEntryContext.class);
+    for (int i = 0; i < 100; i++) {
+      LRUTestEntry entry = new LRUTestEntry(i);
+      if (i % 2 == 0) {
+        entry.setRecentlyUsed(context);
+      }
+      list.appendEntry(entry);
+    }
+
+    int unused = 0;
+    for (int i = 0; i < 20; i++) {
+      if (((LRUTestEntry) list.getEvictableEntry()).id() % 2 == 1) {
+        unused++;
+      }
+    }
+
+    assertThat(unused).isEqualTo(20);
+  }
+
+  @Test
+  public void destroyedEntriesAreNotEvicted() {
+    LRUTestEntry destroyed = new LRUTestEntry(0);
+    LRUTestEntry entry = new LRUTestEntry(1);
+    list.appendEntry(destroyed);
+    list.appendEntry(entry);
+
+    list.destroyEntry(destroyed);
+
+    assertThat(list.size()).isOne();
+    assertThat(list.getEvictableEntry()).isSameAs(entry);
+    assertThat(list.getEvictableEntry()).isNull();
+  }
+
+  @Test
+  public void clearEmptiesEveryShard() {
+    for (int i = 0; i < 100; i++) {
+      list.appendEntry(new LRUTestEntry(i));
+    }
+
+    list.clear(null, null);
+
+    assertThat(list.size()).isZero();
+    assertThat(list.getEvictableEntry()).isNull();
+  }
+}
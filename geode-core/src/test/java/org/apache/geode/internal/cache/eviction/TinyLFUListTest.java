@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.cache.RegionEntryContext;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class TinyLFUListTest {
+
+  private static final int MAXIMUM = 100;
+
+  private EvictionController controller;
+  private RegionEntryContext context;
+
+  @Before
+  public void setup() {
+    controller = mock(EvictionController.class);
+    when(controller.getCounters()).thenReturn(mock(EvictionCounters.class));
+    context = mock(RegionEntryContext.class);
+  }
+
+  @Test
+  public void evictingFromEmptyListReturnsNull() {
+    TinyLFUList list = new TinyLFUList(controller);
+
+    assertThat(list.getEvictableEntry()).isNull();
+    assertThat(list.size()).isZero();
+  }
+
+  @Test
+  public void evictsOnlyEntry() {
+    TinyLFUList list = new TinyLFUList(controller);
+    LRUTestEntry entry = new LRUTestEntry(1);
+    list.appendEntry(entry);
+
+    assertThat(list.size()).isOne();
+    assertThat(list.getEvictableEntry()).isSameAs(entry);
+    assertThat(list.size()).isZero();
+    assertThat(list.getEvictableEntry()).isNull();
+  }
+
+  @Test
+  public void doesNotEvictEntryThatIsAlreadyEvicted() {
+    TinyLFUList list = new TinyLFUList(controller);
+    LRUTestEntry evicted = new LRUTestEntry(1);
+    LRUTestEntry entry = new LRUTestEntry(2);
+    list.appendEntry(evicted);
+    list.appendEntry(entry);
+    evicted.setEvicted();
+
+    assertThat(list.getEvictableEntry()).isSameAs(entry);
+    assertThat(list.size()).isZero();
+  }
+
+  @Test
+  public void destroyedEntriesLeaveTheList() {
+    TinyLFUList list = new TinyLFUList(controller);
+    LRUTestEntry first = new LRUTestEntry(1);
+    LRUTestEntry second = new LRUTestEntry(2);
+    list.appendEntry(first);
+    list.appendEntry(second);
+
+    list.destroyEntry(first);
+
+    assertThat(list.size()).isOne();
+    assertThat(list.getEvictableEntry()).isSameAs(second);
+    assertThat(list.getEvictableEntry()).isNull();
+  }
+
+  @Test
+  public void clearEmptiesWindowAndMainList() {
+    TinyLFUList list = new TinyLFUList(controller);
+    for (int i = 0; i < 10; i++) {
+      list.appendEntry(new LRUTestEntry(i));
+    }
+    list.getEvictableEntry();
+
+    list.clear(null, null);
+
+    assertThat(list.size()).isZero();
+    assertThat(list.getEvictableEntry()).isNull();
+  }
+
+  @Test
+  public void frequentlyUsedEntriesSurviveAScan() {
+    Map<Integer, LRUTestEntry> tinyLFU = new HashMap<>();
+    Map<Integer, LRUTestEntry> lru = new HashMap<>();
+    TinyLFUList tinyLFUList = new TinyLFUList(controller);
+    LRUListWithSyncSorting lruList = new LRUListWithSyncSorting(controller);
+    int scanKey = 1000;
+    for (int round = 0; round < 20; round++) {
+      for (int hotKey = 0; hotKey < MAXIMUM / 2; hotKey++) {
+        access(tinyLFUList, tinyLFU, hotKey);
+        access(lruList, lru, hotKey);
+      }
+      for (int i = 0; i < MAXIMUM; i++, scanKey++) {
+        access(tinyLFUList, tinyLFU, scanKey);
+        access(lruList, lru, scanKey);
+      }
+    }
+
+    assertThat(tinyLFU.keySet().stream().filter(key -> key < MAXIMUM / 2).count())
+        .isGreaterThan(MAXIMUM * 9 / 20);
+    assertThat(lru.keySet().stream().filter(key -> key < MAXIMUM / 2).count())
+        .isLessThan(MAXIMUM / 4);
+  }
+
+  private void access(EvictionList list, Map<Integer, LRUTestEntry> entries, int key) {
+    LRUTestEntry entry = entries.get(key);
+    if (entry != null) {
+      entry.setRecentlyUsed(context);
+      return;
+    }
+    entry = new LRUTestEntry(key);
+    entry.setRecentlyUsed(context);
+    entries.put(key, entry);
+    list.appendEntry(entry);
+    if (list.size() > MAXIMUM) {
+      LRUTestEntry evicted = (LRUTestEntry) list.getEvictableEntry();
+      entries.remove(evicted.id());
+    }
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.map;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.apache.geode.distributed.ConfigurationProperties.OFF_HEAP_MEMORY_SIZE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Properties;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.internal.cache.InlineKeyHelper;
+import org.apache.geode.internal.offheap.MemoryAllocatorImpl;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+/**
+ * Emulates a create that races a destroy of a missing key on an off-heap region. The destroy's new
+ * entry loses the race to be put in the map and the off-heap key it allocated must be freed.
+ */
+@Category(IntegrationTest.class)
+public class DestroyRacingCreateOffHeapIntegrationTest {
+
+  private static final String KEY = "a key that is too long to be inlined so it is stored off-heap";
+  private static final String VALUE = "value";
+
+  private Cache cache;
+
+  @Before
+  public void setUp() throws Exception {
+    InlineKeyHelper.OFF_HEAP_STRING_KEYS = true;
+    Properties props = new Properties();
+    props.setProperty(LOCATORS, "");
+    props.setProperty(MCAST_PORT, "0");
+    props.setProperty(OFF_HEAP_MEMORY_SIZE, "2m");
+    cache = new CacheFactory(props).create();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    RegionMapDestroy.testHookRunnableForConcurrentOperation = null;
+    cache.close();
+    InlineKeyHelper.OFF_HEAP_STRING_KEYS = false;
+  }
+
+  @Test
+  public void destroyThatLosesRaceToCreateReturnsOffHeapMemoryToBaseline() throws Exception {
+    MemoryAllocatorImpl allocator = MemoryAllocatorImpl.getAllocator();
+    long baseline = allocator.getUsedMemory();
+    Region<String, String> region = cache.<String, String>createRegionFactory(
+        RegionShortcut.REPLICATE).setOffHeap(true).setConcurrencyChecksEnabled(true)
+        .create("region1");
+    RegionMapDestroy.testHookRunnableForConcurrentOperation = () -> {
+      RegionMapDestroy.testHookRunnableForConcurrentOperation = null;
+      region.create(KEY, VALUE);
+    };
+
+    region.destroy(KEY);
+
+    assertThat(region.containsKey(KEY)).isFalse();
+    region.destroyRegion();
+    assertThat(allocator.getUsedMemory()).isEqualTo(baseline);
+  }
+}
@@ -80,4 +80,23 @@ public class RegionEntryFactoryBuilderJUnitTest {
             .create(enableStats, enableLRU, enableDisk, enableVersioning, enableOffHeap).getClass()
             .getSimpleName());
   }
+
+  /**
+   * Compact entries are only available for versioned thin heap entries; everything else falls back
+   * to the regular factory.
+   */
+  @Test
+  @Parameters({"VersionedThinCompactRegionEntryHeapFactory,false,false,false,true,false",
+      "VersionedThinRegionEntryOffHeapFactory,false,false,false,true,true",
+      "VMThinRegionEntryHeapFactory,false,false,false,false,false",
+      "VersionedThinLRURegionEntryHeapFactory,false,true,false,true,false",
+      "VersionedThinDiskRegionEntryHeapFactory,false,false,true,true,false",
+      "VersionedStatsRegionEntryHeapFactory,true,false,false,true,false"})
+  public void testCompactRegionEntryFactory(String factoryName, boolean enableStats,
+      boolean enableLRU, boolean enableDisk, boolean enableVersioning, boolean enableOffHeap) {
+    assertEquals(factoryName,
+        regionEntryFactoryBuilder
+            .create(enableStats, enableLRU, enableDisk, enableVersioning, enableOffHeap, true)
+            .getClass().getSimpleName());
+  }
 }
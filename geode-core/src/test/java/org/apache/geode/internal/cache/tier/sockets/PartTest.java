@@ -14,9 +14,12 @@
  */
 package org.apache.geode.internal.cache.tier.sockets;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
@@ -24,6 +27,7 @@ import java.nio.ByteBuffer;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import org.apache.geode.internal.offheap.StoredObject;
 import org.apache.geode.test.junit.categories.UnitTest;
 
 @Category(UnitTest.class)
@@ -39,4 +43,56 @@ public class PartTest {
 
     verify(mockPart, times(1)).writeTo(mockOutputStream, mockByteBuffer);
   }
+
+  @Test
+  public void offHeapPartIsRetainedUntilCleared() {
+    StoredObject storedObject = offHeapStoredObject();
+    Part part = new Part();
+
+    part.setPartState(storedObject, true);
+
+    verify(storedObject).retain();
+    verify(storedObject, never()).getValueAsHeapByteArray();
+    verify(storedObject, never()).release();
+    assertThat(part.getLength()).isEqualTo(10);
+
+    part.clear();
+
+    verify(storedObject).release();
+    assertThat(part.getLength()).isEqualTo(0);
+  }
+
+  @Test
+  public void offHeapPartIsReleasedWhenReplaced() {
+    StoredObject storedObject = offHeapStoredObject();
+    Part part = new Part();
+    part.setPartState(storedObject, true);
+
+    part.setPartState(new byte[] {1}, false);
+
+    verify(storedObject).release();
+    assertThat(part.getLength()).isEqualTo(1);
+  }
+
+  @Test
+  public void storedObjectWithoutRefCountIsCopied() {
+    StoredObject storedObject = mock(StoredObject.class);
+    when(storedObject.getDataSize()).thenReturn(1);
+    when(storedObject.getValueAsHeapByteArray()).thenReturn(new byte[] {1});
+    Part part = new Part();
+
+    part.setPartState(storedObject, true);
+    part.clear();
+
+    verify(storedObject, never()).retain();
+    verify(storedObject, never()).release();
+  }
+
+  private StoredObject offHeapStoredObject() {
+    StoredObject storedObject = mock(StoredObject.class);
+    when(storedObject.hasRefCount()).thenReturn(true);
+    when(storedObject.retain()).thenReturn(true);
+    when(storedObject.getDataSize()).thenReturn(10);
+    return storedObject;
+  }
 }
@@ -14,11 +14,13 @@
  */
 package org.apache.geode.internal.cache.tier.sockets.command;
 
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.isA;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -30,6 +32,7 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import org.apache.geode.CancelCriterion;
+import org.apache.geode.cache.CacheClosedException;
 import org.apache.geode.cache.operations.GetOperationContext;
 import org.apache.geode.internal.Version;
 import org.apache.geode.internal.cache.InternalCache;
@@ -123,6 +126,20 @@ public class Get70Test {
     verify(this.responseMessage).send(this.serverConnection);
   }
 
+  @Test
+  public void responsePartsAreClearedIfCacheIsClosedBeforeSend() throws Exception {
+    when(this.securityService.isClientSecurityRequired()).thenReturn(false);
+    CancelCriterion cancelCriterion = mock(CancelCriterion.class);
+    doThrow(new CacheClosedException()).when(cancelCriterion).checkCancelInProgress(null);
+    when(this.cache.getCancelCriterion()).thenReturn(cancelCriterion);
+
+    assertThatThrownBy(() -> this.get70.cmdExecute(this.message, this.serverConnection,
+        this.securityService, 0)).isInstanceOf(CacheClosedException.class);
+
+    verify(this.responseMessage).clearParts();
+    verify(this.responseMessage, never()).send(this.serverConnection);
+  }
+
   @Test
   public void integratedSecurityShouldSucceedIfAuthorized() throws Exception {
     when(this.securityService.isClientSecurityRequired()).thenReturn(true);
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.versions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.cache.persistence.DiskStoreID;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class VersionSourceTableJUnitTest {
+
+  private final Object owner = new Object();
+
+  @After
+  public void tearDown() {
+    VersionSourceTable.limit = VersionSourceTable.OVERFLOW_INDEX;
+    VersionSourceTable.clear();
+  }
+
+  @Test
+  public void nullMemberInDistributedSystemZeroIsIndexZero() {
+    assertThat(VersionSourceTable.getIndex(owner, null, 0)).isZero();
+    assertThat(VersionSourceTable.getMemberId(owner, 0)).isNull();
+    assertThat(VersionSourceTable.getDistributedSystemId(owner, 0)).isZero();
+  }
+
+  @Test
+  public void samePairGetsSameIndex() {
+    DiskStoreID member = new DiskStoreID(100, 200);
+
+    int index = VersionSourceTable.getIndex(owner, member, 1);
+
+    assertThat(VersionSourceTable.getIndex(new Object(), new DiskStoreID(100, 200), 1))
+        .isEqualTo(index);
+    assertThat(VersionSourceTable.getMemberId(owner, index)).isEqualTo(member);
+    assertThat(VersionSourceTable.getDistributedSystemId(owner, index)).isEqualTo(1);
+  }
+
+  @Test
+  public void distributedSystemIdIsPartOfThePair() {
+    DiskStoreID member = new DiskStoreID(300, 400);
+
+    int index1 = VersionSourceTable.getIndex(owner, member, 1);
+    int index2 = VersionSourceTable.getIndex(owner, member, 2);
+    int negative = VersionSourceTable.getIndex(owner, member, -1);
+
+    assertThat(index1).isNotEqualTo(index2).isNotEqualTo(negative);
+    assertThat(VersionSourceTable.getDistributedSystemId(owner, index2)).isEqualTo(2);
+    assertThat(VersionSourceTable.getDistributedSystemId(owner, negative)).isEqualTo(-1);
+  }
+
+  @Test
+  public void tableGrowsBeyondItsInitialCapacity() {
+    int[] indexes = new int[100];
+    for (int i = 0; i < indexes.length; i++) {
+      indexes[i] = VersionSourceTable.getIndex(owner, new DiskStoreID(500, i), 3);
+    }
+
+    for (int i = 0; i < indexes.length; i++) {
+      assertThat(VersionSourceTable.getMemberId(owner, indexes[i]))
+          .isEqualTo(new DiskStoreID(500, i));
+      assertThat(indexes[i]).isLessThan(VersionSourceTable.OVERFLOW_INDEX);
+    }
+  }
+
+  @Test
+  public void fullTableKeepsNewPairsForTheirOwners() {
+    VersionSourceTable.limit = 2;
+    Object owner1 = new Object();
+    Object owner2 = new Object();
+
+    assertThat(VersionSourceTable.getIndex(owner, new DiskStoreID(1, 1), 1)).isEqualTo(1);
+    int index1 = VersionSourceTable.getIndex(owner1, new DiskStoreID(2, 2), 2);
+    int index2 = VersionSourceTable.getIndex(owner2, new DiskStoreID(3, 3), 3);
+
+    assertThat(index1).isEqualTo(index2).isEqualTo(VersionSourceTable.OVERFLOW_INDEX);
+    assertThat(VersionSourceTable.getMemberId(owner1, index1)).isEqualTo(new DiskStoreID(2, 2));
+    assertThat(VersionSourceTable.getDistributedSystemId(owner1, index1)).isEqualTo(2);
+    assertThat(VersionSourceTable.getMemberId(owner2, index2)).isEqualTo(new DiskStoreID(3, 3));
+    assertThat(VersionSourceTable.getDistributedSystemId(owner2, index2)).isEqualTo(3);
+  }
+
+  @Test
+  public void ownerThatOverflowedCanBeTaggedWithAKnownPair() {
+    VersionSourceTable.limit = 2;
+    DiskStoreID known = new DiskStoreID(1, 1);
+    int knownIndex = VersionSourceTable.getIndex(new Object(), known, 1);
+
+    assertThat(VersionSourceTable.getIndex(owner, new DiskStoreID(2, 2), 2))
+        .isEqualTo(VersionSourceTable.OVERFLOW_INDEX);
+    assertThat(VersionSourceTable.getIndex(owner, known, 1)).isEqualTo(knownIndex);
+
+    assertThat(VersionSourceTable.getMemberId(owner, VersionSourceTable.OVERFLOW_INDEX)).isNull();
+  }
+
+  @Test
+  public void clearRemovesAllPairsButTheFirst() {
+    int index = VersionSourceTable.getIndex(owner, new DiskStoreID(600, 700), 4);
+
+    VersionSourceTable.clear();
+
+    assertThat(VersionSourceTable.getMemberId(owner, index)).isNull();
+    assertThat(VersionSourceTable.getIndex(owner, null, 0)).isZero();
+    assertThat(VersionSourceTable.getIndex(owner, new DiskStoreID(800, 900), 4)).isEqualTo(1);
+  }
+}
@@ -21,10 +21,14 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.HashMap;
+import java.nio.charset.StandardCharsets;
 import java.util.Locale;
 import java.util.Properties;
 
@@ -36,6 +40,10 @@ import org.junit.experimental.categories.Category;
 import org.xml.sax.Attributes;
 import org.xml.sax.SAXException;
 
+import org.apache.geode.cache.EvictionAction;
+import org.apache.geode.cache.EvictionAlgorithm;
+import org.apache.geode.cache.EvictionAttributes;
+import org.apache.geode.cache.RegionAttributes;
 import org.apache.geode.cache.client.ClientCache;
 import org.apache.geode.cache.client.ClientCacheFactory;
 import org.apache.geode.distributed.internal.InternalDistributedSystem;
@@ -130,6 +138,48 @@ public class CacheXmlParserJUnitTest {
     testCacheXmlParserWithSimplePool();
   }
 
+  /**
+   * Test that a region evicting with {@link EvictionAction#COMPRESS_THEN_OVERFLOW_TO_DISK} is
+   * generated as valid XML that parses back to the same action.
+   */
+  @Test
+  public void testCompressThenOverflowToDiskRoundTrips() {
+    RegionAttributes<?, ?> attributes = roundTripEvictionAction(
+        EvictionAction.COMPRESS_THEN_OVERFLOW_TO_DISK, CacheXml.VERSION_1_0);
+
+    assertEquals(EvictionAction.COMPRESS_THEN_OVERFLOW_TO_DISK,
+        attributes.getEvictionAttributes().getAction());
+    assertEquals(EvictionAlgorithm.LRU_MEMORY, attributes.getEvictionAttributes().getAlgorithm());
+  }
+
+  /**
+   * Test that {@link EvictionAction#COMPRESS_THEN_OVERFLOW_TO_DISK} is generated as overflow to
+   * disk for schemas that do not have it.
+   */
+  @Test
+  public void testCompressThenOverflowToDiskIsOverflowToDiskInOlderSchemas() {
+    RegionAttributes<?, ?> attributes = roundTripEvictionAction(
+        EvictionAction.COMPRESS_THEN_OVERFLOW_TO_DISK, CacheXml.VERSION_8_1);
+
+    assertEquals(EvictionAction.OVERFLOW_TO_DISK, attributes.getEvictionAttributes().getAction());
+  }
+
+  private RegionAttributes<?, ?> roundTripEvictionAction(EvictionAction action, String version) {
+    CacheCreation cache = new CacheCreation();
+    RegionAttributesCreation attributes = new RegionAttributesCreation(cache);
+    attributes.setEvictionAttributes(
+        EvictionAttributes.createLRUMemoryAttributes(10, null, action));
+    cache.createRegion("region", attributes);
+
+    StringWriter xml = new StringWriter();
+    CacheXmlGenerator.generate(cache, new PrintWriter(xml), true, version);
+    CacheCreation parsed = CacheXmlParser
+        .parse(new ByteArrayInputStream(xml.toString().getBytes(StandardCharsets.UTF_8)))
+        .getCacheCreation();
+
+    return parsed.getRegion("region").getAttributes();
+  }
+
   /**
    * Test that {@link CacheXmlParser} falls back to DTD parsing when locale language is not English.
    *
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.offheap;
+
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class BackgroundDefragmenterJUnitTest {
+
+  private final FreeListManager freeListManager = mock(FreeListManager.class);
+  private BackgroundDefragmenter defragmenter;
+
+  @After
+  public void tearDown() {
+    if (this.defragmenter != null) {
+      this.defragmenter.stop();
+    }
+  }
+
+  @Test
+  public void stepsRoundTheSlabsWhileOverThreshold() {
+    when(this.freeListManager.getDefragmentationStepCount()).thenReturn(2);
+    when(this.freeListManager.getFreeListFragmentation()).thenReturn(60);
+    when(this.freeListManager.defragmentStep(0)).thenReturn(1);
+
+    this.defragmenter = new BackgroundDefragmenter(this.freeListManager, 50, 1);
+    this.defragmenter.start();
+
+    verify(this.freeListManager, timeout(30000).atLeast(2)).defragmentStep(0);
+    verify(this.freeListManager, timeout(30000).atLeast(2)).defragmentStep(1);
+  }
+
+  @Test
+  public void doesNotStepUnderThreshold() {
+    when(this.freeListManager.getDefragmentationStepCount()).thenReturn(1);
+    when(this.freeListManager.getFreeListFragmentation()).thenReturn(40);
+
+    this.defragmenter = new BackgroundDefragmenter(this.freeListManager, 50, 1);
+    this.defragmenter.start();
+
+    verify(this.freeListManager, after(200).never()).defragmentStep(0);
+    verify(this.freeListManager, atLeast(1)).getFreeListFragmentation();
+  }
+
+  @Test
+  public void stopWaitsForTheThreadToExit() {
+    this.defragmenter = new BackgroundDefragmenter(this.freeListManager, 50, 60000);
+    this.defragmenter.start();
+
+    this.defragmenter.stop();
+    this.defragmenter = null;
+
+    verify(this.freeListManager, never()).getFreeListFragmentation();
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.offheap;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.apache.geode.distributed.ConfigurationProperties.OFF_HEAP_MEMORY_SIZE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Properties;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.contrib.java.lang.system.RestoreSystemProperties;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+@Category(IntegrationTest.class)
+public class DeserializedValueCacheIntegrationTest {
+
+  @Rule
+  public final RestoreSystemProperties restoreSystemProperties = new RestoreSystemProperties();
+
+  private InternalCache cache;
+  private Region<String, ArrayList<String>> region;
+  private OffHeapMemoryStats stats;
+
+  @Before
+  public void setUp() {
+    System.setProperty(DeserializedValueCache.MAX_SIZE_PROPERTY, "1024");
+    Properties props = new Properties();
+    props.setProperty(LOCATORS, "");
+    props.setProperty(MCAST_PORT, "0");
+    props.setProperty(OFF_HEAP_MEMORY_SIZE, "2m");
+    this.cache = (InternalCache) new CacheFactory(props).create();
+    this.region = this.cache.<String, ArrayList<String>>createRegionFactory(RegionShortcut.LOCAL)
+        .setOffHeap(true).create("region");
+    this.stats = this.cache.getOffHeapStore().getStats();
+  }
+
+  @After
+  public void tearDown() {
+    this.cache.close();
+    MemoryAllocatorImpl.freeOffHeapMemory();
+  }
+
+  @Test
+  public void getReturnsCachedDeserializedValue() {
+    this.region.put("key", value("a"));
+
+    ArrayList<String> first = this.region.get("key");
+    ArrayList<String> second = this.region.get("key");
+
+    assertThat(first).isEqualTo(value("a"));
+    assertThat(second).isSameAs(first);
+    assertThat(this.stats.getDeserializedValueCacheMisses()).isEqualTo(1);
+    assertThat(this.stats.getDeserializedValueCacheHits()).isEqualTo(1);
+    assertThat(this.stats.getDeserializedValueCacheSize()).isGreaterThan(0);
+  }
+
+  @Test
+  public void updateInvalidatesCachedValue() {
+    this.region.put("key", value("a"));
+    this.region.get("key");
+
+    this.region.put("key", value("b"));
+
+    assertThat(this.region.get("key")).isEqualTo(value("b"));
+  }
+
+  @Test
+  public void destroyInvalidatesCachedValue() {
+    this.region.put("key", value("a"));
+    this.region.get("key");
+
+    this.region.destroy("key");
+
+    assertThat(this.stats.getDeserializedValueCacheSize()).isZero();
+    assertThat(this.region.get("key")).isNull();
+  }
+
+  @Test
+  public void copyOnReadReturnsCopyOfCachedValue() {
+    this.cache.setCopyOnRead(true);
+    this.region.put("key", value("a"));
+
+    ArrayList<String> first = this.region.get("key");
+    ArrayList<String> second = this.region.get("key");
+
+    assertThat(second).isEqualTo(first).isNotSameAs(first);
+    assertThat(this.stats.getDeserializedValueCacheHits()).isEqualTo(1);
+  }
+
+  private static ArrayList<String> value(String element) {
+    ArrayList<String> value = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      value.add(element + i);
+    }
+    return value;
+  }
+}
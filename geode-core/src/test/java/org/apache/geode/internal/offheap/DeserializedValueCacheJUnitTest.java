@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.offheap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class DeserializedValueCacheJUnitTest {
+
+  private OffHeapMemoryStats stats;
+  private DeserializedValueCache cache;
+
+  @Before
+  public void setUp() {
+    this.stats = mock(OffHeapMemoryStats.class);
+    this.cache = new DeserializedValueCache(100, () -> this.stats);
+  }
+
+  @Test
+  public void getReturnsCachedValue() {
+    Object value = new Object();
+    this.cache.put(1L, value, 10);
+
+    assertThat(this.cache.get(1L)).isSameAs(value);
+    assertThat(this.cache.get(2L)).isNull();
+    assertThat(this.cache.getSize()).isEqualTo(10);
+    verify(this.stats).incDeserializedValueCacheHits();
+    verify(this.stats).incDeserializedValueCacheMisses();
+    verify(this.stats).incDeserializedValueCacheSize(10);
+  }
+
+  @Test
+  public void putDoesNotReplaceCachedValue() {
+    Object value = new Object();
+    this.cache.put(1L, value, 10);
+
+    this.cache.put(1L, new Object(), 10);
+
+    assertThat(this.cache.get(1L)).isSameAs(value);
+    assertThat(this.cache.getSize()).isEqualTo(10);
+  }
+
+  @Test
+  public void invalidateRemovesValue() {
+    this.cache.put(1L, new Object(), 10);
+
+    this.cache.invalidate(1L);
+    this.cache.invalidate(2L);
+
+    assertThat(this.cache.get(1L)).isNull();
+    assertThat(this.cache.getSize()).isZero();
+    verify(this.stats).incDeserializedValueCacheSize(-10);
+  }
+
+  @Test
+  public void valueLargerThanCacheIsNotCached() {
+    this.cache.put(1L, new Object(), 101);
+
+    assertThat(this.cache.get(1L)).isNull();
+    assertThat(this.cache.getSize()).isZero();
+  }
+
+  @Test
+  public void oldestValueIsEvictedWhenFull() {
+    for (long address = 1; address <= 10; address++) {
+      this.cache.put(address, new Object(), 10);
+    }
+
+    this.cache.put(11L, new Object(), 10);
+
+    assertThat(this.cache.getSize()).isEqualTo(100);
+    assertThat(this.cache.get(1L)).isNull();
+    assertThat(this.cache.get(2L)).isNotNull();
+    assertThat(this.cache.get(11L)).isNotNull();
+  }
+
+  @Test
+  public void recentlyReadValueIsNotEvicted() {
+    for (long address = 1; address <= 10; address++) {
+      this.cache.put(address, new Object(), 10);
+    }
+    this.cache.get(1L);
+
+    this.cache.put(11L, new Object(), 10);
+
+    assertThat(this.cache.get(1L)).isNotNull();
+    assertThat(this.cache.get(2L)).isNull();
+  }
+
+  @Test
+  public void invalidatedValueIsNotEvicted() {
+    for (long address = 1; address <= 10; address++) {
+      this.cache.put(address, new Object(), 10);
+    }
+    this.cache.invalidate(1L);
+    this.cache.put(1L, new Object(), 10);
+
+    this.cache.put(11L, new Object(), 10);
+
+    assertThat(this.cache.getSize()).isEqualTo(100);
+    assertThat(this.cache.get(1L)).isNotNull();
+    assertThat(this.cache.get(2L)).isNull();
+  }
+
+  @Test
+  public void clearRemovesAllValues() {
+    this.cache.put(1L, new Object(), 10);
+    this.cache.put(2L, new Object(), 20);
+
+    this.cache.clear();
+
+    assertThat(this.cache.get(1L)).isNull();
+    assertThat(this.cache.get(2L)).isNull();
+    assertThat(this.cache.getSize()).isZero();
+    verify(this.stats, times(1)).incDeserializedValueCacheSize(-10);
+    verify(this.stats, times(1)).incDeserializedValueCacheSize(-20);
+  }
+}
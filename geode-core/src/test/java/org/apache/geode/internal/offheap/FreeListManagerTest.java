@@ -22,6 +22,7 @@ import static org.mockito.Mockito.*;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.apache.logging.log4j.Logger;
@@ -711,6 +712,200 @@ public class FreeListManagerTest {
     assertThat(ob).hasSize(3);
   }
 
+  @Test
+  public void freeInvalidatesDeserializedValueCache() {
+    DeserializedValueCache deserializedValueCache = mock(DeserializedValueCache.class);
+    when(ma.getDeserializedValueCache()).thenReturn(deserializedValueCache);
+    this.freeListManager =
+        createFreeListManager(ma, new Slab[] {new SlabImpl(DEFAULT_SLAB_SIZE)});
+    OffHeapStoredObject c = this.freeListManager.allocate(10);
+
+    OffHeapStoredObject.release(c.getAddress(), this.freeListManager);
+
+    verify(deserializedValueCache).invalidate(c.getAddress());
+  }
+
+  @Test
+  public void freedTinyChunkIsReusedFromMagazine() {
+    this.freeListManager = new TestableFreeListManager(ma,
+        new Slab[] {new SlabImpl(DEFAULT_SLAB_SIZE)}, 0, 4);
+    OffHeapStoredObject c = this.freeListManager.allocate(10);
+    OffHeapStoredObject.release(c.getAddress(), this.freeListManager);
+
+    assertThat(this.freeListManager.getFreeTinyMemory()).isEqualTo(computeExpectedSize(10));
+    assertThat(this.freeListManager.getOrderedBlocks()).hasSize(2);
+    assertThat(this.freeListManager.allocate(10).getAddress()).isEqualTo(c.getAddress());
+    assertThat(this.freeListManager.getFreeTinyMemory()).isZero();
+  }
+
+  @Test
+  public void magazineOverflowReturnsChunksToFreeList() throws Exception {
+    this.freeListManager = new TestableFreeListManager(ma,
+        new Slab[] {new SlabImpl(DEFAULT_SLAB_SIZE)}, 0, 4);
+    List<Long> freed = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      freed.add(this.freeListManager.allocate(10).getAddress());
+    }
+    for (long addr : freed) {
+      OffHeapStoredObject.release(addr, this.freeListManager);
+    }
+
+    List<Long> reused = new ArrayList<>();
+    Thread thread = new Thread(() -> {
+      for (int i = 0; i < 3; i++) {
+        reused.add(this.freeListManager.allocate(10).getAddress());
+      }
+    });
+    thread.start();
+    thread.join();
+
+    assertThat(freed).containsAll(reused);
+    assertThat(this.freeListManager.getFreeTinyMemory()).isEqualTo(2 * computeExpectedSize(10));
+  }
+
+  @Test
+  public void magazineOfExitedThreadIsReturnedToFreeList() throws Exception {
+    this.freeListManager = new TestableFreeListManager(ma,
+        new Slab[] {new SlabImpl(DEFAULT_SLAB_SIZE)}, 0, 4);
+    long[] freed = new long[1];
+    Thread thread = new Thread(() -> {
+      freed[0] = this.freeListManager.allocate(10).getAddress();
+      OffHeapStoredObject.release(freed[0], this.freeListManager);
+    });
+    thread.start();
+    thread.join();
+
+    assertThat(this.freeListManager.allocate(10).getAddress()).isEqualTo(freed[0]);
+  }
+
+  @Test
+  public void defragmentIncludesChunksInOtherThreadsMagazines() throws Exception {
+    this.freeListManager = new TestableFreeListManager(ma,
+        new Slab[] {new SlabImpl(DEFAULT_SLAB_SIZE)}, 0, 4);
+    Fragment originalFragment = this.freeListManager.getFragmentList().get(0);
+    CountDownLatch freed = new CountDownLatch(1);
+    CountDownLatch defragmented = new CountDownLatch(1);
+    Thread thread = new Thread(() -> {
+      OffHeapStoredObject c = this.freeListManager.allocate(16);
+      OffHeapStoredObject.release(c.getAddress(), this.freeListManager);
+      freed.countDown();
+      try {
+        defragmented.await();
+      } catch (InterruptedException ignore) {
+      }
+    });
+    thread.start();
+    try {
+      freed.await();
+      this.freeListManager.firstDefragmentation = false;
+
+      assertThat(this.freeListManager.defragment(1)).isTrue();
+    } finally {
+      defragmented.countDown();
+      thread.join();
+    }
+    assertThat(this.freeListManager.getFreeTinyMemory()).isZero();
+    assertThat(this.freeListManager.getFragmentList()).hasSize(1);
+    assertThat(this.freeListManager.getFragmentList().get(0).getSize())
+        .isEqualTo(originalFragment.getSize());
+  }
+
+  @Test
+  public void zeroMagazineCapacityFreesToFreeList() {
+    this.freeListManager = new TestableFreeListManager(ma,
+        new Slab[] {new SlabImpl(DEFAULT_SLAB_SIZE)}, 0, 0);
+    OffHeapStoredObject c = this.freeListManager.allocate(10);
+    OffHeapStoredObject.release(c.getAddress(), this.freeListManager);
+
+    assertThat(this.freeListManager.getFreeTinyMemory()).isEqualTo(computeExpectedSize(10));
+    assertThat(this.freeListManager.allocate(10).getAddress()).isEqualTo(c.getAddress());
+  }
+
+  @Test
+  public void defragmentStepMergesAdjacentFreeChunks() {
+    setUpSingleSlabManager();
+    OffHeapStoredObject c1 = this.freeListManager.allocate(24);
+    OffHeapStoredObject c2 = this.freeListManager.allocate(24);
+    this.freeListManager.allocate(24);
+    int chunkSize = c1.getSize();
+    OffHeapStoredObject.release(c1.getAddress(), this.freeListManager);
+    OffHeapStoredObject.release(c2.getAddress(), this.freeListManager);
+
+    assertThat(this.freeListManager.defragmentStep(0)).isEqualTo(1);
+
+    assertThat(this.freeListManager.getFreeTinyMemory()).isZero();
+    assertThat(this.freeListManager.getFragmentList().stream()
+        .anyMatch(f -> f.getAddress() == c1.getAddress() && f.getSize() == 2 * chunkSize))
+            .isTrue();
+    verify(this.stats).endDefragmentationStep(anyLong(), eq(1));
+  }
+
+  @Test
+  public void defragmentStepKeepsUnmergedTinyChunksInFreeLists() {
+    setUpSingleSlabManager();
+    OffHeapStoredObject c1 = this.freeListManager.allocate(24);
+    this.freeListManager.allocate(24);
+    OffHeapStoredObject c3 = this.freeListManager.allocate(24);
+    this.freeListManager.allocate(24);
+    int chunkSize = c1.getSize();
+    OffHeapStoredObject.release(c1.getAddress(), this.freeListManager);
+    OffHeapStoredObject.release(c3.getAddress(), this.freeListManager);
+
+    assertThat(this.freeListManager.defragmentStep(0)).isZero();
+
+    assertThat(this.freeListManager.getFreeTinyMemory()).isEqualTo(2 * chunkSize);
+    assertThat(this.freeListManager.getFragmentList()).hasSize(1);
+  }
+
+  @Test
+  public void defragmentStepIsNotCountedAsDefragmentation() {
+    setUpSingleSlabManager();
+    int defragmentations = this.freeListManager.defragmentationCount.get();
+
+    this.freeListManager.defragmentStep(0);
+
+    assertThat(this.freeListManager.defragmentationCount.get()).isEqualTo(defragmentations);
+    assertThat(this.freeListManager.defragmentationStepCount.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void defragmentStepOnlyTakesFreeChunksInItsSlab() {
+    this.freeListManager = createFreeListManager(ma,
+        new Slab[] {new SlabImpl(DEFAULT_SLAB_SIZE), new SlabImpl(DEFAULT_SLAB_SIZE)});
+    assertThat(this.freeListManager.getDefragmentationStepCount()).isEqualTo(2);
+    OffHeapStoredObject c1 = this.freeListManager.allocate(DEFAULT_SLAB_SIZE - 8 - 24);
+    OffHeapStoredObject c2 = this.freeListManager.allocate(16);
+    OffHeapStoredObject c3 = this.freeListManager.allocate(16);
+    OffHeapStoredObject c4 = this.freeListManager.allocate(16);
+    assertThat(this.freeListManager.findSlab(c2.getAddress())).isEqualTo(0);
+    assertThat(this.freeListManager.findSlab(c3.getAddress())).isEqualTo(1);
+    OffHeapStoredObject.release(c1.getAddress(), this.freeListManager);
+    OffHeapStoredObject.release(c2.getAddress(), this.freeListManager);
+    OffHeapStoredObject.release(c3.getAddress(), this.freeListManager);
+    OffHeapStoredObject.release(c4.getAddress(), this.freeListManager);
+
+    int chunkSize = c3.getSize();
+    assertThat(this.freeListManager.defragmentStep(0)).isEqualTo(1);
+
+    assertThat(this.freeListManager.getFreeTinyMemory()).isEqualTo(2 * chunkSize);
+    assertThat(this.freeListManager.getFragmentList().stream()
+        .anyMatch(f -> f.getAddress() == c1.getAddress() && f.getSize() == DEFAULT_SLAB_SIZE))
+            .isTrue();
+  }
+
+  @Test
+  public void freeListFragmentationIsPercentageOfFreeMemoryInFreeLists() {
+    setUpSingleSlabManager(1024);
+    OffHeapStoredObject c1 = this.freeListManager.allocate(248);
+    this.freeListManager.allocate(248);
+    this.freeListManager.allocate(248);
+    assertThat(this.freeListManager.getFreeListFragmentation()).isZero();
+
+    OffHeapStoredObject.release(c1.getAddress(), this.freeListManager);
+
+    assertThat(this.freeListManager.getFreeListFragmentation()).isEqualTo(50);
+  }
+
   @Test
   public void allocatedBlocksEmptyIfNoAllocations() {
     Slab chunk = new SlabImpl(10);
@@ -919,6 +1114,12 @@ public class FreeListManagerTest {
       this.maxCombine = maxCombine;
     }
 
+    public TestableFreeListManager(MemoryAllocatorImpl ma, Slab[] slabs, int maxCombine,
+        int magazineCapacity) {
+      super(ma, slabs, magazineCapacity);
+      this.maxCombine = maxCombine;
+    }
+
     @Override
     protected Fragment createFragment(long addr, int size) {
       return new TestableFragment(addr, size);
@@ -34,6 +34,7 @@ import org.apache.geode.internal.cache.*;
 import org.apache.geode.internal.cache.entries.VMThinRegionEntryOffHeapIntKey;
 import org.apache.geode.internal.cache.entries.VMThinRegionEntryOffHeapLongKey;
 import org.apache.geode.internal.cache.entries.VMThinRegionEntryOffHeapObjectKey;
+import org.apache.geode.internal.cache.entries.VMThinRegionEntryOffHeapStoredStringKey;
 import org.apache.geode.internal.cache.entries.VMThinRegionEntryOffHeapStringKey1;
 import org.apache.geode.internal.cache.entries.VMThinRegionEntryOffHeapStringKey2;
 import org.apache.geode.internal.cache.entries.VMThinRegionEntryOffHeapUUIDKey;
@@ -168,6 +169,37 @@ public class InlineKeyJUnitTest {
     }
   }
 
+  @Test
+  public void testOffHeapStringKeys() {
+    InlineKeyHelper.OFF_HEAP_STRING_KEYS = true;
+    GemFireCacheImpl gfc = createCache();
+    try {
+      Region r = gfc.createRegionFactory(RegionShortcut.LOCAL).setConcurrencyChecksEnabled(false)
+          .setOffHeap(true).create("offHeapKeyRegion");
+      LocalRegion lr = (LocalRegion) r;
+      Object key = "123456789012345";
+      r.create(key, null);
+      assertTrue("expected string entry but was " + lr.getRegionEntry(key).getClass(),
+          lr.getRegionEntry(key) instanceof VMThinRegionEntryOffHeapStringKey2);
+
+      key = "1234567890123456";
+      r.put(key, "value");
+      assertEquals("value", r.get(key));
+      assertTrue("expected stored string entry but was " + lr.getRegionEntry(key).getClass(),
+          lr.getRegionEntry(key) instanceof VMThinRegionEntryOffHeapStoredStringKey);
+      assertEquals(true, r.keySet().contains(key));
+
+      MemoryAllocatorImpl ma = MemoryAllocatorImpl.getAllocator();
+      assertEquals(0, ma.getOrphans(gfc).size());
+      r.destroy(key);
+      assertEquals(false, r.containsKey(key));
+      assertEquals(0, ma.getOrphans(gfc).size());
+    } finally {
+      closeCache(gfc);
+      InlineKeyHelper.OFF_HEAP_STRING_KEYS = false;
+    }
+  }
+
   private static int getMemSize(Object o) {
     return ObjectSizer.REFLECTION_SIZE.sizeof(o);
   }
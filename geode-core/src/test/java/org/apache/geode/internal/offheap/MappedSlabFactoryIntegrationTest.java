@@ -0,0 +1,234 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.offheap;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.apache.geode.distributed.ConfigurationProperties.OFF_HEAP_MEMORY_SIZE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Properties;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.contrib.java.lang.system.RestoreSystemProperties;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+@Category(IntegrationTest.class)
+public class MappedSlabFactoryIntegrationTest {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Rule
+  public final RestoreSystemProperties restoreSystemProperties = new RestoreSystemProperties();
+
+  private File directory;
+
+  @Before
+  public void setUp() throws Exception {
+    this.directory = new File(this.temporaryFolder.getRoot(), "slabs");
+  }
+
+  @After
+  public void tearDown() {
+    MemoryAllocatorImpl.freeOffHeapMemory();
+  }
+
+  @Test
+  public void createMapsAFileOfTheSlabSize() throws Exception {
+    MappedSlab slab = (MappedSlab) new MappedSlabFactory(this.directory).create(64 * 1024);
+    try {
+      assertThat(slab.getSize()).isEqualTo(64 * 1024);
+      assertThat(slab.getMemoryAddress()).isNotZero();
+      assertThat(slab.getFile()).hasParent(this.directory);
+      assertThat(slab.getChannel().size()).isEqualTo(64 * 1024);
+
+      AddressableMemoryManager.writeLong(slab.getMemoryAddress() + 1024, 0x1234567890L);
+      assertThat(AddressableMemoryManager.readLong(slab.getMemoryAddress() + 1024))
+          .isEqualTo(0x1234567890L);
+    } finally {
+      slab.free();
+    }
+  }
+
+  @Test
+  public void forceWritesTheSlabToItsFile() throws Exception {
+    MappedSlab slab = (MappedSlab) new MappedSlabFactory(this.directory).create(4096);
+    try {
+      AddressableMemoryManager.writeBytes(slab.getMemoryAddress(), new byte[] {1, 2, 3}, 0, 3);
+      slab.force();
+
+      ByteBuffer contents = ByteBuffer.allocate(4096);
+      assertThat(slab.getChannel().read(contents, 0)).isEqualTo(4096);
+      assertThat(contents.array()).startsWith(1, 2, 3);
+    } finally {
+      slab.free();
+    }
+  }
+
+  @Test
+  public void createDeletesTheFileOnceItIsMapped() {
+    MappedSlab slab = (MappedSlab) new MappedSlabFactory(this.directory).create(4096);
+    try {
+      assertThat(slab.getFile()).doesNotExist();
+      assertThat(this.directory.list()).isEmpty();
+
+      AddressableMemoryManager.writeLong(slab.getMemoryAddress(), 0x1234567890L);
+      assertThat(AddressableMemoryManager.readLong(slab.getMemoryAddress()))
+          .isEqualTo(0x1234567890L);
+    } finally {
+      slab.free();
+    }
+  }
+
+  @Test
+  public void freeClosesTheFile() {
+    MappedSlab slab = (MappedSlab) new MappedSlabFactory(this.directory).create(4096);
+
+    slab.free();
+    slab.free();
+
+    assertThat(slab.getChannel().isOpen()).isFalse();
+    assertThat(slab.getFile()).doesNotExist();
+  }
+
+  @Test
+  public void eachSlabHasItsOwnFile() {
+    MappedSlabFactory factory = new MappedSlabFactory(this.directory);
+    Slab slab1 = factory.create(4096);
+    Slab slab2 = factory.create(4096);
+    try {
+      assertThat(((MappedSlab) slab1).getFile()).isNotEqualTo(((MappedSlab) slab2).getFile());
+      assertThat(slab1.getMemoryAddress()).isNotEqualTo(slab2.getMemoryAddress());
+    } finally {
+      slab1.free();
+      slab2.free();
+    }
+  }
+
+  @Test
+  public void factoriesSharingADirectoryUseDifferentFiles() {
+    // like the factories of members in different processes that use the same directory
+    Slab slab1 = new MappedSlabFactory(this.directory).create(4096);
+    Slab slab2 = new MappedSlabFactory(this.directory).create(4096);
+    try {
+      assertThat(((MappedSlab) slab1).getFile()).isNotEqualTo(((MappedSlab) slab2).getFile());
+    } finally {
+      slab1.free();
+      slab2.free();
+    }
+  }
+
+  @Test
+  public void newFactoryDeletesStaleSlabFiles() throws Exception {
+    assertThat(this.directory.mkdirs()).isTrue();
+    File stale = new File(this.directory, MappedSlabFactory.SLAB_FILE_PREFIX + "1"
+        + MappedSlabFactory.SLAB_FILE_SUFFIX);
+    File other = new File(this.directory, "other" + MappedSlabFactory.SLAB_FILE_SUFFIX);
+    assertThat(stale.createNewFile()).isTrue();
+    assertThat(other.createNewFile()).isTrue();
+
+    new MappedSlabFactory(this.directory);
+
+    assertThat(stale).doesNotExist();
+    assertThat(other).exists();
+  }
+
+  @Test
+  public void newFactoryKeepsLockedSlabFiles() throws Exception {
+    assertThat(this.directory.mkdirs()).isTrue();
+    File locked = new File(this.directory, MappedSlabFactory.SLAB_FILE_PREFIX + "1"
+        + MappedSlabFactory.SLAB_FILE_SUFFIX);
+    try (RandomAccessFile raf = new RandomAccessFile(locked, "rw")) {
+      assertThat(raf.getChannel().tryLock()).isNotNull();
+
+      new MappedSlabFactory(this.directory);
+
+      assertThat(locked).exists();
+    }
+  }
+
+  @Test
+  public void unmapFreesMappedAndDirectBuffers() throws Exception {
+    File file = this.temporaryFolder.newFile("mapped");
+    try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+      raf.setLength(4096);
+      assertThat(AddressableMemoryManager
+          .unmap(raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, 4096))).isTrue();
+    }
+    assertThat(AddressableMemoryManager.unmap(ByteBuffer.allocateDirect(4096))).isTrue();
+    assertThat(AddressableMemoryManager.unmap(ByteBuffer.allocate(4096))).isFalse();
+  }
+
+  @Test
+  public void createThrowsOutOfMemoryErrorIfTheDirectoryCanNotBeCreated() throws Exception {
+    File notADirectory = this.temporaryFolder.newFile("file");
+
+    try {
+      new MappedSlabFactory(new File(notADirectory, "slabs")).create(4096);
+      fail("expected OutOfMemoryError");
+    } catch (OutOfMemoryError expected) {
+      assertThat(expected).hasMessageContaining("slabs");
+    }
+  }
+
+  @Test
+  public void allocatorCanStoreObjectsInMappedSlabs() {
+    MemoryAllocatorImpl ma = (MemoryAllocatorImpl) MemoryAllocatorImpl.create(
+        new NullOutOfOffHeapMemoryListener(), new NullOffHeapMemoryStats(), 2, 2 * 1024 * 1024,
+        1024 * 1024, new MappedSlabFactory(this.directory));
+    assertThat(this.directory.list()).isEmpty();
+
+    StoredObject stored = ma.allocateAndInitialize(new byte[] {5, 6, 7}, false, false);
+    assertThat(stored.getDeserializedForReading()).isEqualTo(new byte[] {5, 6, 7});
+    stored.release();
+
+    MemoryAllocatorImpl.freeOffHeapMemory();
+    assertThat(this.directory.list()).isEmpty();
+  }
+
+  @Test
+  public void closingTheCacheLeavesNoSlabFiles() {
+    System.setProperty(OffHeapStorage.SLAB_DIRECTORY_PROPERTY, this.directory.getAbsolutePath());
+    Properties props = new Properties();
+    props.setProperty(LOCATORS, "");
+    props.setProperty(MCAST_PORT, "0");
+    props.setProperty(OFF_HEAP_MEMORY_SIZE, "2m");
+    Cache cache = new CacheFactory(props).create();
+    try {
+      cache.createRegionFactory(RegionShortcut.LOCAL).setOffHeap(true).create("region")
+          .put("key", "value");
+    } finally {
+      cache.close();
+    }
+
+    assertThat(this.directory).isDirectory();
+    assertThat(this.directory.list()).isEmpty();
+  }
+}
@@ -95,6 +95,53 @@ public class NullOffHeapMemoryStats implements OffHeapMemoryStats {
   @Override
   public void endDefragmentation(long start) {}
 
+  @Override
+  public long startDefragmentationStep() {
+    return 0;
+  }
+
+  @Override
+  public void endDefragmentationStep(long start, int mergedChunks) {}
+
+  @Override
+  public int getDefragmentationSteps() {
+    return 0;
+  }
+
+  @Override
+  public long getDefragmentationStepTime() {
+    return 0;
+  }
+
+  @Override
+  public long getDefragmentationMergedChunks() {
+    return 0;
+  }
+
+  @Override
+  public void incDeserializedValueCacheHits() {}
+
+  @Override
+  public void incDeserializedValueCacheMisses() {}
+
+  @Override
+  public void incDeserializedValueCacheSize(long value) {}
+
+  @Override
+  public long getDeserializedValueCacheHits() {
+    return 0;
+  }
+
+  @Override
+  public long getDeserializedValueCacheMisses() {
+    return 0;
+  }
+
+  @Override
+  public long getDeserializedValueCacheSize() {
+    return 0;
+  }
+
   @Override
   public void setFragmentation(int value) {}
 
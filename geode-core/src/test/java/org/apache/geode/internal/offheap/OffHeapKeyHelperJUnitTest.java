@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.offheap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.cache.Token;
+import org.apache.geode.internal.cache.entries.VMThinRegionEntryOffHeapStoredStringKey;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class OffHeapKeyHelperJUnitTest {
+
+  private MemoryAllocator ma;
+
+  @Before
+  public void setUp() {
+    OutOfOffHeapMemoryListener ooohml = mock(OutOfOffHeapMemoryListener.class);
+    OffHeapMemoryStats stats = mock(OffHeapMemoryStats.class);
+
+    ma = MemoryAllocatorImpl.create(ooohml, stats, 1, OffHeapStorage.MIN_SLAB_SIZE * 1,
+        OffHeapStorage.MIN_SLAB_SIZE);
+  }
+
+  @After
+  public void tearDown() {
+    MemoryAllocatorImpl.freeOffHeapMemory();
+  }
+
+  @Test
+  public void byteEncodedKeyIsStoredOffHeap() {
+    String key = "a key that is too long to be inlined é";
+    VMThinRegionEntryOffHeapStoredStringKey re =
+        new VMThinRegionEntryOffHeapStoredStringKey(null, key, null);
+
+    assertThat(re.getKeyAddress()).isNotZero();
+    assertThat(re.getKeyInfo()).isEqualTo(key.length() << 1 | 1);
+    assertThat(ma.getUsedMemory()).isGreaterThanOrEqualTo(key.length());
+    assertThat(re.getKey()).isEqualTo(key);
+    assertThat(re.isKeyEqual(new String(key))).isTrue();
+  }
+
+  @Test
+  public void charEncodedKeyIsStoredOffHeap() {
+    String key = "a key with a character that needs two bytes 中";
+    VMThinRegionEntryOffHeapStoredStringKey re =
+        new VMThinRegionEntryOffHeapStoredStringKey(null, key, null);
+
+    assertThat(re.getKeyInfo()).isEqualTo(key.length() << 1);
+    assertThat(ma.getUsedMemory()).isGreaterThanOrEqualTo(key.length() * 2);
+    assertThat(re.getKey()).isEqualTo(key);
+    assertThat(re.isKeyEqual(new String(key))).isTrue();
+  }
+
+  @Test
+  public void isKeyEqualComparesOffHeapCharacters() {
+    String key = "a key that is too long to be inlined";
+    VMThinRegionEntryOffHeapStoredStringKey re =
+        new VMThinRegionEntryOffHeapStoredStringKey(null, key, null);
+
+    assertThat(re.isKeyEqual("a key that is too long to be inlinex")).isFalse();
+    assertThat(re.isKeyEqual("b key that is too long to be inlined")).isFalse();
+    assertThat(re.isKeyEqual(key + "!")).isFalse();
+    assertThat(re.isKeyEqual(Integer.valueOf(1))).isFalse();
+    assertThat(re.isKeyEqual(null)).isFalse();
+  }
+
+  @Test
+  public void keyHashIsTheHashCodeOfTheKey() {
+    String byteKey = "a key that is too long to be inlined é";
+    String charKey = "a key with a character that needs two bytes 中";
+    VMThinRegionEntryOffHeapStoredStringKey byteEntry =
+        new VMThinRegionEntryOffHeapStoredStringKey(null, byteKey, null);
+    VMThinRegionEntryOffHeapStoredStringKey charEntry =
+        new VMThinRegionEntryOffHeapStoredStringKey(null, charKey, null);
+
+    assertThat(OffHeapKeyHelper.getKeyHash(byteEntry)).isEqualTo(byteKey.hashCode());
+    assertThat(OffHeapKeyHelper.getKeyHash(charEntry)).isEqualTo(charKey.hashCode());
+
+    byteEntry.release();
+    assertThat(OffHeapKeyHelper.getKeyHash(byteEntry)).isEqualTo(byteKey.hashCode());
+  }
+
+  @Test
+  public void removedEntryReleasesKeyButKeepsAnsweringWithIt() {
+    String key = "a key that is too long to be inlined";
+    VMThinRegionEntryOffHeapStoredStringKey re =
+        new VMThinRegionEntryOffHeapStoredStringKey(null, key, null);
+
+    OffHeapRegionEntryHelper.setValue(re, Token.REMOVED_PHASE2);
+
+    assertThat(re.getKeyAddress()).isZero();
+    assertThat(ma.getUsedMemory()).isZero();
+    assertThat(re.getKey()).isEqualTo(key);
+    assertThat(re.isKeyEqual(key)).isTrue();
+    assertThat(re.isKeyEqual("b key that is too long to be inlined")).isFalse();
+
+    // a second release must not free the chunk again
+    re.release();
+    assertThat(ma.getUsedMemory()).isZero();
+  }
+
+  @Test
+  public void otherValuesDoNotReleaseKey() {
+    String key = "a key that is too long to be inlined";
+    VMThinRegionEntryOffHeapStoredStringKey re =
+        new VMThinRegionEntryOffHeapStoredStringKey(null, key, null);
+
+    OffHeapRegionEntryHelper.setValue(re, Token.DESTROYED);
+    OffHeapRegionEntryHelper.setValue(re, Token.REMOVED_PHASE1);
+
+    assertThat(re.getKeyAddress()).isNotZero();
+    assertThat(re.getKey()).isEqualTo(key);
+  }
+}
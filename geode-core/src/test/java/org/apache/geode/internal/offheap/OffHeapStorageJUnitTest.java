@@ -178,6 +178,12 @@ public class OffHeapStorageJUnitTest {
       assertEquals(0, stats.getDefragmentations());
       assertEquals(0, stats.getDefragmentationsInProgress());
       assertEquals(0, stats.getDefragmentationTime());
+      assertEquals(0, stats.getDefragmentationSteps());
+      assertEquals(0, stats.getDefragmentationStepTime());
+      assertEquals(0, stats.getDefragmentationMergedChunks());
+      assertEquals(0, stats.getDeserializedValueCacheHits());
+      assertEquals(0, stats.getDeserializedValueCacheMisses());
+      assertEquals(0, stats.getDeserializedValueCacheSize());
       assertEquals(0, stats.getFragmentation());
       assertEquals(1, stats.getFragments());
       assertEquals(1024 * 1024, stats.getLargestFragment());
@@ -238,6 +244,22 @@ public class OffHeapStorageJUnitTest {
         DistributionStats.enableClockStats = originalEnableClockStats;
       }
 
+      long stepStart = stats.startDefragmentationStep();
+      while (System.nanoTime() == stepStart) {
+        Thread.yield();
+      }
+      stats.endDefragmentationStep(stepStart, 3);
+      assertEquals(1, stats.getDefragmentationSteps());
+      assertTrue(stats.getDefragmentationStepTime() > 0);
+      assertEquals(3, stats.getDefragmentationMergedChunks());
+
+      stats.incDeserializedValueCacheHits();
+      assertEquals(1, stats.getDeserializedValueCacheHits());
+      stats.incDeserializedValueCacheMisses();
+      assertEquals(1, stats.getDeserializedValueCacheMisses());
+      stats.incDeserializedValueCacheSize(100);
+      assertEquals(100, stats.getDeserializedValueCacheSize());
+
       stats.incObjects(100);
       stats.incUsedMemory(100);
       stats.setFragmentation(100);
@@ -249,6 +271,12 @@ public class OffHeapStorageJUnitTest {
       assertEquals(0, stats.getDefragmentations());
       assertEquals(0, stats.getDefragmentationsInProgress());
       assertEquals(0, stats.getDefragmentationTime());
+      assertEquals(0, stats.getDefragmentationSteps());
+      assertEquals(0, stats.getDefragmentationStepTime());
+      assertEquals(0, stats.getDefragmentationMergedChunks());
+      assertEquals(0, stats.getDeserializedValueCacheHits());
+      assertEquals(0, stats.getDeserializedValueCacheMisses());
+      assertEquals(0, stats.getDeserializedValueCacheSize());
       assertEquals(0, stats.getFragmentation());
       assertEquals(0, stats.getFragments());
       assertEquals(0, stats.getLargestFragment());
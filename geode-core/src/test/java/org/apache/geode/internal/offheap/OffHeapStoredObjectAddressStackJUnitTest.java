@@ -94,6 +94,61 @@ public class OffHeapStoredObjectAddressStackJUnitTest {
     }
   }
 
+  @Test
+  public void pollWithCountRemovesAtMostCountAddresses() {
+    SlabImpl slab = new SlabImpl(1024);
+    try {
+      MemoryAllocatorImpl ma =
+          MemoryAllocatorImpl.createForUnitTest(new NullOutOfOffHeapMemoryListener(),
+              new NullOffHeapMemoryStats(), new SlabImpl[] {slab});
+      long addr1 = ((OffHeapStoredObject) ma.allocate(100)).getAddress();
+      long addr2 = ((OffHeapStoredObject) ma.allocate(100)).getAddress();
+      long addr3 = ((OffHeapStoredObject) ma.allocate(100)).getAddress();
+
+      OffHeapStoredObjectAddressStack stack = new OffHeapStoredObjectAddressStack();
+      stack.offer(addr1);
+      stack.offer(addr2);
+      stack.offer(addr3);
+
+      assertEquals(addr3, stack.poll(2));
+      assertEquals(addr2, OffHeapStoredObject.getNext(addr3));
+      assertEquals(0L, OffHeapStoredObject.getNext(addr2));
+      assertEquals(addr1, stack.getTopAddress());
+      assertEquals(addr1, stack.poll(2));
+      assertEquals(0L, OffHeapStoredObject.getNext(addr1));
+      assertEquals(true, stack.isEmpty());
+      assertEquals(0L, stack.poll(2));
+    } finally {
+      MemoryAllocatorImpl.freeOffHeapMemory();
+    }
+  }
+
+  @Test
+  public void offerAllPushesLinkedAddresses() {
+    SlabImpl slab = new SlabImpl(1024);
+    try {
+      MemoryAllocatorImpl ma =
+          MemoryAllocatorImpl.createForUnitTest(new NullOutOfOffHeapMemoryListener(),
+              new NullOffHeapMemoryStats(), new SlabImpl[] {slab});
+      long addr1 = ((OffHeapStoredObject) ma.allocate(100)).getAddress();
+      long addr2 = ((OffHeapStoredObject) ma.allocate(100)).getAddress();
+      long addr3 = ((OffHeapStoredObject) ma.allocate(100)).getAddress();
+
+      OffHeapStoredObjectAddressStack stack = new OffHeapStoredObjectAddressStack();
+      stack.offer(addr1);
+      OffHeapStoredObject.setNext(addr3, addr2);
+      OffHeapStoredObject.setNext(addr2, 0L);
+      stack.offerAll(addr3);
+
+      assertEquals(addr3, stack.poll());
+      assertEquals(addr2, stack.poll());
+      assertEquals(addr1, stack.poll());
+      assertEquals(true, stack.isEmpty());
+    } finally {
+      MemoryAllocatorImpl.freeOffHeapMemory();
+    }
+  }
+
   @Test
   public void stackWithChunkIsNotEmpty() {
     SlabImpl slab = new SlabImpl(1024);
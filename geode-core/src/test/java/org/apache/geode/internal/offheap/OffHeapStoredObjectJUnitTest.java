@@ -37,6 +37,7 @@ import org.apache.geode.internal.cache.CachePerfStats;
 import org.apache.geode.internal.cache.EntryEventImpl;
 import org.apache.geode.internal.cache.RegionEntryContext;
 import org.apache.geode.internal.offheap.MemoryBlock.State;
+import org.apache.geode.internal.tcp.MsgStreamer;
 import org.apache.geode.test.junit.categories.UnitTest;
 
 @Category(UnitTest.class)
@@ -604,6 +605,25 @@ public class OffHeapStoredObjectJUnitTest extends AbstractStoredObjectTestBase {
     chunk.release();
   }
 
+  @Test
+  public void writeValueAsByteArrayShouldWriteSerializedValueToMsgStreamerWithoutCopying()
+      throws IOException {
+    OffHeapStoredObject chunk = createValueAsSerializedStoredObject(getValue());
+    OffHeapStoredObject spyChunk = spy(chunk);
+
+    MsgStreamer msgStreamer = mock(MsgStreamer.class);
+    ByteBuffer directByteBuffer = ByteBuffer.allocate(1024);
+
+    doReturn(directByteBuffer).when(spyChunk).createDirectByteBuffer();
+
+    spyChunk.writeValueAsByteArray(msgStreamer);
+
+    verify(msgStreamer, times(1)).write(directByteBuffer);
+    verify(spyChunk, never()).getSerializedValue();
+
+    chunk.release();
+  }
+
   @Test
   public void createDirectByteBufferShouldCreateAByteBuffer() {
     byte[] regionEntryValue = getValueAsByteArray();
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.util.concurrent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.concurrent.Executor;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.cache.RegionEntry;
+import org.apache.geode.internal.cache.entries.OffHeapRegionEntry;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class ConcurrentHashMapWithReusableEntriesJUnitTest {
+
+  @Test
+  public void clearWithExecutorReleasesOffHeapEntriesOnTheExecutor() {
+    ConcurrentHashMapWithReusableEntries<Object, Object> map =
+        new ConcurrentHashMapWithReusableEntries<>(16, 0.75f, 16);
+    OffHeapRegionEntry offHeapEntry = mock(OffHeapRegionEntry.class);
+    RegionEntry heapEntry = mock(RegionEntry.class);
+    map.put("offHeap", offHeapEntry);
+    map.put("heap", heapEntry);
+    Executor executor = Runnable::run;
+
+    map.clearWithExecutor(executor);
+
+    assertThat(map).isEmpty();
+    verify(offHeapEntry).release();
+    verify(heapEntry, never()).getValue();
+  }
+
+  @Test
+  public void entrySetWithReusableEntriesIsBackedByTheMap() {
+    ConcurrentHashMapWithReusableEntries<Object, Object> map =
+        new ConcurrentHashMapWithReusableEntries<>(16, 0.75f, 16);
+    map.put("a", "1");
+    map.put("b", "2");
+
+    map.entrySetWithReusableEntries().removeIf(e -> e.getKey().equals("a"));
+
+    assertThat(map).containsOnlyKeys("b");
+  }
+}
@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.util.concurrent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class PrimitiveKeyConcurrentHashMapJUnitTest {
+
+  @Test
+  public void putAndGetWithPrimitiveAndBoxedKeys() {
+    PrimitiveKeyConcurrentHashMap<String> map = new PrimitiveKeyConcurrentHashMap<>(16, 0.75f, 4,
+        false);
+
+    assertThat(map.put(1L, "one")).isNull();
+    assertThat(map.put(Long.valueOf(0L), "zero")).isNull();
+    assertThat(map.put(-1L, "minus one")).isNull();
+
+    assertThat(map.get(1L)).isEqualTo("one");
+    assertThat(map.get(Long.valueOf(0L))).isEqualTo("zero");
+    assertThat(map.get(-1L)).isEqualTo("minus one");
+    assertThat(map.get(2L)).isNull();
+    assertThat(map.get(Integer.valueOf(1))).isNull();
+    assertThat(map.get("1")).isNull();
+    assertThat(map.size()).isEqualTo(3);
+  }
+
+  @Test
+  public void intKeyedMapOnlyAcceptsIntegers() {
+    PrimitiveKeyConcurrentHashMap<String> map = new PrimitiveKeyConcurrentHashMap<>(16, 0.75f, 4,
+        true);
+
+    map.put(Integer.valueOf(7), "seven");
+
+    assertThat(map.get(7)).isEqualTo("seven");
+    assertThat(map.get(Integer.valueOf(7))).isEqualTo("seven");
+    assertThat(map.get(Long.valueOf(7))).isNull();
+    assertThat(map.keySet()).containsExactly(7);
+    assertThatThrownBy(() -> map.put(Long.valueOf(7), "seven"))
+        .isInstanceOf(ClassCastException.class);
+  }
+
+  @Test
+  public void putIfAbsentDoesNotReplace() {
+    PrimitiveKeyConcurrentHashMap<String> map = new PrimitiveKeyConcurrentHashMap<>(16, 0.75f, 1,
+        false);
+
+    assertThat(map.putIfAbsent(Long.valueOf(5), "a")).isNull();
+    assertThat(map.putIfAbsent(Long.valueOf(5), "b")).isEqualTo("a");
+    assertThat(map.get(5L)).isEqualTo("a");
+  }
+
+  @Test
+  public void removedKeyCanBeAddedAgain() {
+    PrimitiveKeyConcurrentHashMap<String> map = new PrimitiveKeyConcurrentHashMap<>(16, 0.75f, 1,
+        false);
+    map.put(5L, "a");
+
+    assertThat(map.remove(Long.valueOf(5), "b")).isFalse();
+    assertThat(map.remove(Long.valueOf(5), "a")).isTrue();
+    assertThat(map.get(5L)).isNull();
+    assertThat(map.size()).isZero();
+    assertThat(map.isEmpty()).isTrue();
+
+    assertThat(map.putIfAbsent(Long.valueOf(5), "c")).isNull();
+    assertThat(map.get(5L)).isEqualTo("c");
+    assertThat(map.size()).isEqualTo(1);
+  }
+
+  @Test
+  public void replaceOnlyReplacesMappedKeys() {
+    PrimitiveKeyConcurrentHashMap<String> map = new PrimitiveKeyConcurrentHashMap<>(16, 0.75f, 1,
+        false);
+
+    assertThat(map.replace(Long.valueOf(1), "a")).isNull();
+    assertThat(map.containsKey(1L)).isFalse();
+
+    map.put(1L, "a");
+    assertThat(map.replace(Long.valueOf(1), "x", "b")).isFalse();
+    assertThat(map.replace(Long.valueOf(1), "a", "b")).isTrue();
+    assertThat(map.replace(Long.valueOf(1), "c")).isEqualTo("b");
+    assertThat(map.get(1L)).isEqualTo("c");
+  }
+
+  @Test
+  public void growsAndPurgesRemovedSlotsLikeAHashMap() {
+    PrimitiveKeyConcurrentHashMap<Long> map = new PrimitiveKeyConcurrentHashMap<>(0, 0.75f, 2,
+        false);
+    Map<Long, Long> expected = new HashMap<>();
+    Random random = new Random(42);
+
+    for (int i = 0; i < 200000; i++) {
+      long key = random.nextInt(5000) * 0x100000001L;
+      if (random.nextInt(3) == 0) {
+        assertThat(map.remove(key)).isEqualTo(expected.remove(key));
+      } else {
+        assertThat(map.put(key, Long.valueOf(i))).isEqualTo(expected.put(key, (long) i));
+      }
+    }
+
+    assertThat(map.size()).isEqualTo(expected.size());
+    assertThat(map).isEqualTo(expected);
+    for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+      assertThat(map.get(entry.getKey().longValue())).isEqualTo(entry.getValue());
+    }
+  }
+
+  @Test
+  public void iteratorRemoveRemovesFromMap() {
+    PrimitiveKeyConcurrentHashMap<String> map = new PrimitiveKeyConcurrentHashMap<>(16, 0.75f, 4,
+        false);
+    for (long i = 0; i < 100; i++) {
+      map.put(i, "v" + i);
+    }
+
+    for (Iterator<Object> it = map.keySet().iterator(); it.hasNext();) {
+      if ((Long) it.next() % 2 == 0) {
+        it.remove();
+      }
+    }
+
+    assertThat(map.size()).isEqualTo(50);
+    assertThat(map.values()).hasSize(50).allMatch(v -> Long.parseLong(v.substring(1)) % 2 == 1);
+  }
+
+  @Test
+  public void clearRemovesAllMappings() {
+    PrimitiveKeyConcurrentHashMap<String> map = new PrimitiveKeyConcurrentHashMap<>(16, 0.75f, 4,
+        false);
+    for (long i = 0; i < 100; i++) {
+      map.put(i, "v" + i);
+    }
+
+    map.clearWithExecutor(null);
+
+    assertThat(map.isEmpty()).isTrue();
+    assertThat(map.entrySet()).isEmpty();
+    assertThat(map.get(1L)).isNull();
+  }
+
+  @Test
+  public void concurrentWritersDoNotLoseMappings() throws Exception {
+    final int threads = 8;
+    final int keysPerThread = 20000;
+    PrimitiveKeyConcurrentHashMap<Integer> map = new PrimitiveKeyConcurrentHashMap<>(0, 0.75f, 4,
+        true);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    Future<?>[] futures = new Future<?>[threads];
+    try {
+      for (int t = 0; t < threads; t++) {
+        final int base = t * keysPerThread;
+        futures[t] = executor.submit(() -> {
+          start.await();
+          for (int i = base; i < base + keysPerThread; i++) {
+            map.put(Integer.valueOf(i), Integer.valueOf(i));
+            assertThat(map.get(i)).isEqualTo(i);
+          }
+          return null;
+        });
+      }
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get(60, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(map.size()).isEqualTo(threads * keysPerThread);
+    for (int i = 0; i < threads * keysPerThread; i++) {
+      assertThat(map.get(i)).isEqualTo(i);
+    }
+  }
+}
@@ -157,6 +157,113 @@ public class AutoSerializableJUnitTest {
     }
   }
 
+  /*
+   * Test that every field type round trips when fields are accessed with method handles.
+   */
+  @Test
+  public void testAllFieldTypesWithMethodHandles() throws Exception {
+    setupSerializer(false, false, "org.apache.geode.pdx.DomainObjectPdxAuto");
+    manager.setUseMethodHandles(true);
+    assertTrue(manager.getUseMethodHandles());
+
+    assertRoundTrips(createDomainObjectWithAllFieldTypes());
+    assertRoundTrips(new DomainObjectPdxAuto());
+  }
+
+  /*
+   * Test that changing how fields are accessed applies to classes that were already serialized.
+   */
+  @Test
+  public void testSwitchingToMethodHandles() throws Exception {
+    setupSerializer(false, false, "org.apache.geode.pdx.DomainObjectPdxAuto");
+    DomainObjectPdxAuto objOut = createDomainObjectWithAllFieldTypes();
+    assertRoundTrips(objOut);
+
+    manager.setUseMethodHandles(true);
+    assertRoundTrips(objOut);
+
+    manager.setUseMethodHandles(false);
+    assertRoundTrips(objOut);
+  }
+
+  /*
+   * Test that final fields can be written with method handles.
+   */
+  @Test
+  public void testFinalFieldsWithMethodHandles() throws Exception {
+    setupSerializer(false, false, "org.apache.geode.pdx.AutoSerializableJUnitTest.FinalHolder");
+    manager.setUseMethodHandles(true);
+
+    FinalHolder holder = roundTrip(new FinalHolder(7, "seven"));
+
+    assertEquals(7, holder.i);
+    assertEquals("seven", holder.s);
+  }
+
+  public static class FinalHolder implements PdxSerializerObject {
+    private final int i;
+    private final String s;
+
+    public FinalHolder() {
+      this(0, null);
+    }
+
+    public FinalHolder(int i, String s) {
+      this.i = i;
+      this.s = s;
+    }
+  }
+
+  private static DomainObjectPdxAuto createDomainObjectWithAllFieldTypes() throws Exception {
+    DomainObjectPdxAuto obj = new DomainObjectPdxAuto(2);
+    obj.set("string_0", "string zero");
+    obj.set("long_0", 99L);
+    obj.string_immediate = "right now";
+    obj.anInteger = -5;
+    obj.aChar = 'z';
+    obj.aBoolean = true;
+    obj.aByte = (byte) -3;
+    obj.aShort = Short.MIN_VALUE;
+    obj.anInt = Integer.MAX_VALUE;
+    obj.aLong = Long.MIN_VALUE;
+    obj.aFloat = 1.5f;
+    obj.aDouble = -2.25;
+    obj.aDate = new Date(1234567890L);
+    obj.anEnum = DomainObjectPdxAuto.Day.TUESDAY;
+    obj.aString = "a string";
+    obj.anObject = new BigInteger("12345678901234567890");
+    obj.aMap = new HashMap<String, Integer>(Collections.singletonMap("one", 1));
+    obj.aCollection = new ArrayList<String>(Arrays.asList("a", "b"));
+    obj.aBooleanArray = new boolean[] {true, false};
+    obj.aCharArray = new char[] {'x', 'y'};
+    obj.aByteArray = new byte[] {1, 2, 3};
+    obj.aShortArray = new short[] {4, 5};
+    obj.anIntArray = new int[] {6, 7};
+    obj.aLongArray = new long[] {8L, 9L};
+    obj.aFloatArray = new float[] {1.0f, 2.0f};
+    obj.aDoubleArray = new double[] {3.0, 4.0};
+    obj.aStringArray = new String[] {"c", null, "d"};
+    obj.anObjectArray = new Object[] {"e", 10};
+    obj.anArrayOfByteArray = new byte[][] {{11}, {12, 13}};
+    return obj;
+  }
+
+  private static void assertRoundTrips(DomainObjectPdxAuto obj) throws Exception {
+    DomainObjectPdxAuto result = roundTrip(obj);
+    // DomainObjectPdxAuto.equals compares the byte arrays of this field by identity
+    assertTrue(Arrays.deepEquals(obj.anArrayOfByteArray, result.anArrayOfByteArray));
+    result.anArrayOfByteArray = obj.anArrayOfByteArray;
+    assertEquals(obj, result);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T roundTrip(T obj) throws IOException, ClassNotFoundException {
+    HeapDataOutputStream out = new HeapDataOutputStream(Version.CURRENT);
+    DataSerializer.writeObject(obj, out);
+    return (T) DataSerializer
+        .readObject(new DataInputStream(new ByteArrayInputStream(out.toByteArray())));
+  }
+
   @Test
   public void testConcurrentHashMap() throws Exception {
     setupSerializer("java.util.concurrent..*");
@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.math.BigInteger;
+import java.sql.Timestamp;
 import java.util.*;
 
 import org.junit.After;
@@ -36,7 +37,11 @@ import org.apache.geode.internal.HeapDataOutputStream;
 import org.apache.geode.internal.Version;
 import org.apache.geode.internal.cache.GemFireCacheImpl;
 import org.apache.geode.pdx.internal.EnumInfo.PdxInstanceEnumInfo;
+import org.apache.geode.pdx.internal.PdxField;
 import org.apache.geode.pdx.internal.PdxInstanceFactoryImpl;
+import org.apache.geode.pdx.internal.PdxInstanceImpl;
+import org.apache.geode.pdx.internal.PdxString;
+import org.apache.geode.pdx.internal.PdxType;
 import org.apache.geode.test.junit.categories.IntegrationTest;
 import org.apache.geode.test.junit.categories.SerializationTest;
 
@@ -103,6 +108,73 @@ public class PdxInstanceJUnitTest {
     }
   }
 
+  @Test
+  public void testGetRawFieldByPdxField() {
+    PdxInstanceFactory c =
+        PdxInstanceFactoryImpl.newCreator("testGetRawFieldByPdxField", false, this.c);
+    c.writeInt("intField", 37);
+    c.writeString("stringField", "hello");
+    c.writeObject("objField", "world");
+    PdxInstanceImpl pi = (PdxInstanceImpl) c.create();
+    PdxType type = pi.getPdxType();
+
+    assertEquals(new PdxString("world"), pi.getRawField(type.getPdxField("objField")));
+    assertEquals(37, pi.getRawField(type.getPdxField("intField")));
+    assertEquals(new PdxString("hello"), pi.getRawField(type.getPdxField("stringField")));
+  }
+
+  @Test
+  public void testGetRawFieldByPdxFieldAfterSetField() {
+    PdxInstanceFactory c =
+        PdxInstanceFactoryImpl.newCreator("testGetRawFieldByPdxFieldAfterSetField", false, this.c);
+    c.writeInt("intField", 37);
+    c.writeString("stringField", "hello");
+    PdxInstanceImpl pi = (PdxInstanceImpl) c.create();
+    PdxType type = pi.getPdxType();
+    WritablePdxInstance writer = pi.createWriter();
+    writer.setField("intField", 38);
+
+    assertEquals(38, ((PdxInstanceImpl) writer).getRawField(type.getPdxField("intField")));
+    assertEquals(new PdxString("hello"),
+        ((PdxInstanceImpl) writer).getRawField(type.getPdxField("stringField")));
+  }
+
+  @Test
+  public void testCompareRawField() {
+    PdxInstanceFactory c = PdxInstanceFactoryImpl.newCreator("testCompareRawField", false, this.c);
+    c.writeInt("intField", 37);
+    c.writeDouble("doubleField", 2.5);
+    c.writeDate("dateField", new Date(1000L));
+    c.writeDate("nullDateField", null);
+    c.writeObject("enumField", MyEnum.TWO);
+    c.writeString("stringField", "hello");
+    PdxInstanceImpl pi = (PdxInstanceImpl) c.create();
+    PdxType type = pi.getPdxType();
+
+    PdxField intField = type.getPdxField("intField");
+    assertEquals(Integer.valueOf(0), pi.compareRawField(intField, 37));
+    assertTrue(pi.compareRawField(intField, 38L) < 0);
+    assertTrue(pi.compareRawField(intField, 36.5) > 0);
+    assertNull(pi.compareRawField(intField, "37"));
+
+    PdxField doubleField = type.getPdxField("doubleField");
+    assertEquals(Integer.valueOf(0), pi.compareRawField(doubleField, 2.5f));
+    assertTrue(pi.compareRawField(doubleField, 3) < 0);
+
+    PdxField dateField = type.getPdxField("dateField");
+    assertEquals(Integer.valueOf(0), pi.compareRawField(dateField, new Date(1000L)));
+    assertTrue(pi.compareRawField(dateField, new Date(2000L)) < 0);
+    assertNull(pi.compareRawField(dateField, new Timestamp(1000L)));
+    assertNull(pi.compareRawField(type.getPdxField("nullDateField"), new Date(1000L)));
+
+    PdxField enumField = type.getPdxField("enumField");
+    assertEquals(Integer.valueOf(0), pi.compareRawField(enumField, MyEnum.TWO));
+    assertTrue(pi.compareRawField(enumField, MyEnum.ONE) > 0);
+    assertNull(pi.compareRawField(enumField, MyComplexEnum.TWO));
+
+    assertNull(pi.compareRawField(type.getPdxField("stringField"), "hello"));
+  }
+
   @Test
   public void testEquals() throws IOException, ClassNotFoundException {
     PdxInstanceFactory c = PdxInstanceFactoryImpl.newCreator("testEquals", false, this.c);